@@ -1066,6 +1066,11 @@ void* ReportOlapTableTaskWorkerPool::_worker_thread_callback(void* arg_this) {
     TReportRequest request;
     request.__isset.tablets = true;
     AgentStatus status = STARROCKS_SUCCESS;
+    // the report version of the last report accepted by FE, the base of the next incremental report
+    int64_t last_report_version = -1;
+    // the first report after start is always a full one
+    bool need_full_report = true;
+    auto* tablet_manager = StorageEngine::instance()->tablet_manager();
 
     while ((!worker_pool_this->_stopped)) {
         auto master_address = get_master_address();
@@ -1076,15 +1081,34 @@ void* ReportOlapTableTaskWorkerPool::_worker_thread_callback(void* arg_this) {
             continue;
         }
         request.tablets.clear();
+        request.__isset.incremental_tablet_report = false;
+        request.__isset.base_report_version = false;
+        request.__isset.removed_tablet_ids = false;
+        request.removed_tablet_ids.clear();
 
         request.__set_report_version(_s_report_version.load(std::memory_order_relaxed));
-        Status st_report = StorageEngine::instance()->tablet_manager()->report_all_tablets_info(&request.tablets);
+        // an incremental report only contains the tablets marked dirty by the tablet manager since the last report
+        bool incremental = !need_full_report && config::enable_incremental_tablet_report;
+        std::vector<TTabletId> reported_tablet_ids;
+        Status st_report;
+        if (incremental) {
+            st_report = tablet_manager->report_dirty_tablets_info(&request.tablets, &request.removed_tablet_ids,
+                                                                  &reported_tablet_ids);
+        } else {
+            st_report = tablet_manager->report_all_tablets_info(&request.tablets);
+        }
         if (!st_report.ok()) {
-            LOG(WARNING) << "Fail to report all tablets info, err=" << st_report.to_string();
+            LOG(WARNING) << "Fail to report tablets info, err=" << st_report.to_string();
+            tablet_manager->mark_tablets_dirty(reported_tablet_ids);
             // wait for notifying until timeout
             StorageEngine::instance()->wait_for_report_notify(config::report_tablet_interval_seconds, true);
             continue;
         }
+        if (incremental) {
+            request.__set_incremental_tablet_report(true);
+            request.__set_base_report_version(last_report_version);
+            request.__isset.removed_tablet_ids = true;
+        }
         int64_t max_compaction_score =
                 std::max(StarRocksMetrics::instance()->tablet_cumulative_max_compaction_score.value(),
                          StarRocksMetrics::instance()->tablet_base_max_compaction_score.value());
@@ -1098,6 +1122,21 @@ void* ReportOlapTableTaskWorkerPool::_worker_thread_callback(void* arg_this) {
             StarRocksMetrics::instance()->report_all_tablets_requests_failed.increment(1);
             LOG(WARNING) << "Fail to report olap table state to " << master_address.hostname << ":"
                          << master_address.port << ", err=" << status;
+            // report the tablets again by the next incremental report
+            tablet_manager->mark_tablets_dirty(reported_tablet_ids);
+        } else if (result.status.status_code == TStatusCode::OK) {
+            // an old FE doesn't know incremental reports and would take one as a full report
+            bool fe_support_incremental =
+                    result.__isset.support_incremental_tablet_report && result.support_incremental_tablet_report;
+            need_full_report = !fe_support_incremental ||
+                               (result.__isset.need_full_tablet_report && result.need_full_tablet_report);
+            last_report_version = request.report_version;
+            if (incremental && need_full_report) {
+                // the incremental report may be rejected, report all the tablets now instead of waiting
+                continue;
+            }
+        } else {
+            tablet_manager->mark_tablets_dirty(reported_tablet_ids);
         }
 
         // wait for notifying until timeout
@@ -121,6 +121,10 @@ CONF_mInt32(report_task_interval_seconds, "10");
 CONF_mInt32(report_disk_state_interval_seconds, "60");
 // The interval time(seconds) for agent report olap table to FE.
 CONF_mInt32(report_tablet_interval_seconds, "60");
+// Whether to report only the tablets changed since the last tablet report accepted by FE.
+// It only takes effect with a FE supporting it, which asks for a full tablet report periodically,
+// when the incremental one can't be applied or when the repairs of the last report are not verified yet.
+CONF_mBool(enable_incremental_tablet_report, "false");
 // The interval time(seconds) for agent report workgroup to FE.
 CONF_mInt32(report_workgroup_interval_seconds, "5");
 // The max download speed(KB/s).
@@ -346,6 +350,12 @@ CONF_mInt64(streaming_load_max_mb, "10240");
 // Therefore, it is necessary to limit the maximum number of
 // such data when using stream load to prevent excessive memory consumption.
 CONF_mInt64(streaming_load_max_batch_size_mb, "100");
+// Stream loads sent with the "group_commit: true" header are merged per table into one shared load,
+// which is committed once it is older than this interval or larger than stream_load_group_commit_max_bytes.
+CONF_mInt32(stream_load_group_commit_interval_ms, "1000");
+CONF_mInt64(stream_load_group_commit_max_bytes, "67108864");
+// Requests with a larger body are loaded in their own transaction even if group commit is asked for.
+CONF_mInt64(stream_load_group_commit_max_request_bytes, "1048576");
 // The alive time of a TabletsChannel.
 // If the channel does not receive any data till this time,
 // the channel will be removed.
@@ -38,6 +38,7 @@
 #include "gen_cpp/FrontendService.h"
 #include "gen_cpp/FrontendService_types.h"
 #include "gen_cpp/HeartbeatService_types.h"
+#include "http/ev_http_server.h"
 #include "http/http_channel.h"
 #include "http/http_common.h"
 #include "http/http_headers.h"
@@ -50,6 +51,7 @@
 #include "runtime/fragment_mgr.h"
 #include "runtime/load_path_mgr.h"
 #include "runtime/plan_fragment_executor.h"
+#include "runtime/stream_load/group_commit_mgr.h"
 #include "runtime/stream_load/load_stream_mgr.h"
 #include "runtime/stream_load/stream_load_context.h"
 #include "runtime/stream_load/stream_load_executor.h"
@@ -118,6 +120,8 @@ StreamLoadAction::StreamLoadAction(ExecEnv* exec_env) : _exec_env(exec_env) {
     StarRocksMetrics::instance()->metrics()->register_metric("streaming_load_duration_ms", &streaming_load_duration_ms);
     StarRocksMetrics::instance()->metrics()->register_metric("streaming_load_current_processing",
                                                              &streaming_load_current_processing);
+    _group_commit_mgr = std::make_unique<GroupCommitMgr>(
+            exec_env, [this](HttpRequest* http_req, StreamLoadContext* ctx) { return _process_put(http_req, ctx); });
 }
 
 StreamLoadAction::~StreamLoadAction() = default;
@@ -130,12 +134,24 @@ void StreamLoadAction::handle(HttpRequest* req) {
 
     // status already set to fail
     if (ctx->status.ok()) {
-        ctx->status = _handle(ctx);
+        if (ctx->group_commit) {
+            ctx->status = _handle_group_commit(req, ctx);
+            if (ctx->status.ok()) {
+                // replied once the group of the request is committed
+                return;
+            }
+        } else {
+            ctx->status = _handle(ctx);
+        }
         if (!ctx->status.ok() && ctx->status.code() != TStatusCode::PUBLISH_TIMEOUT) {
             LOG(WARNING) << "Fail to handle streaming load, id=" << ctx->id
                          << " errmsg=" << ctx->status.get_error_msg();
         }
     }
+    _reply(req, ctx);
+}
+
+void StreamLoadAction::_reply(HttpRequest* req, StreamLoadContext* ctx) {
     ctx->load_cost_nanos = MonotonicNanos() - ctx->start_nanos;
 
     if (!ctx->status.ok() && ctx->status.code() != TStatusCode::PUBLISH_TIMEOUT) {
@@ -148,8 +164,11 @@ void StreamLoadAction::handle(HttpRequest* req) {
         }
     }
 
-    auto str = ctx->to_json();
-    HttpChannel::send_reply(req, str);
+    // the client of a group commit request may have gone before its group is committed
+    if (!ctx->http_request_freed) {
+        auto str = ctx->to_json();
+        HttpChannel::send_reply(req, str);
+    }
 
     // update statstics
     streaming_load_requests_total.increment(1);
@@ -190,6 +209,34 @@ Status StreamLoadAction::_handle(StreamLoadContext* ctx) {
     return Status::OK();
 }
 
+Status StreamLoadAction::_handle_group_commit(HttpRequest* http_req, StreamLoadContext* ctx) {
+    if (ctx->receive_bytes != ctx->body_bytes) {
+        LOG(WARNING) << "receive body don't equal with body bytes, body_bytes=" << ctx->body_bytes
+                     << ", receive_bytes=" << ctx->receive_bytes << ", id=" << ctx->id;
+        return Status::InternalError("receive body don't equal with body bytes");
+    }
+    // the group is committed in another thread, the reply must be sent in the http worker thread
+    // of the request, without blocking it until then. The http request is freed if the client goes
+    // in the meantime, so the reply checks it in the worker thread, holding its own reference of ctx.
+    auto run_in_worker = EvHttpServer::current_worker_executor();
+    return _group_commit_mgr->append(http_req, ctx, [this, http_req, ctx, run_in_worker](const Status& st) {
+        ctx->ref();
+        run_in_worker([this, http_req, ctx, st] {
+            ctx->status = st;
+            if (!st.ok() && st.code() != TStatusCode::PUBLISH_TIMEOUT) {
+                LOG(WARNING) << "Fail to handle streaming load, id=" << ctx->id << " errmsg=" << st.get_error_msg();
+            }
+            if (ctx->http_request_freed) {
+                LOG(WARNING) << "Client has gone before the group commit load finished, id=" << ctx->id;
+            }
+            _reply(http_req, ctx);
+            if (ctx->unref()) {
+                delete ctx;
+            }
+        });
+    });
+}
+
 int StreamLoadAction::on_header(HttpRequest* req) {
     streaming_load_current_processing.increment(1);
 
@@ -294,6 +341,14 @@ Status StreamLoadAction::_on_header(HttpRequest* http_req, StreamLoadContext* ct
         ctx->timeout_second = timeout_second;
     }
 
+    if (boost::iequals(http_req->header(HTTP_GROUP_COMMIT), "true") &&
+        GroupCommitMgr::can_group_commit(http_req, ctx)) {
+        // the transaction is begun by the group this request joins after its body is received
+        ctx->group_commit = true;
+        ctx->buffer = ByteBuffer::allocate(ctx->body_bytes + 1);
+        return Status::OK();
+    }
+
     // begin transaction
     int64_t begin_txn_start_time = MonotonicNanos();
     RETURN_IF_ERROR(_exec_env->stream_load_executor()->begin_txn(ctx));
@@ -324,8 +379,9 @@ void StreamLoadAction::on_chunk_data(HttpRequest* req) {
                     ctx->format == TFileFormatType::FORMAT_JSON ? std::max(len, ctx->kDefaultBufferSize) : len);
 
         } else if (ctx->buffer->remaining() < len) {
-            if (ctx->format == TFileFormatType::FORMAT_JSON) {
+            if (ctx->format == TFileFormatType::FORMAT_JSON || ctx->group_commit) {
                 // For json format, we need build a complete json before we push the buffer to the pipe.
+                // For group commit, the whole body is appended to the group at once.
                 // buffer capacity is not enough, so we try to expand the buffer.
                 ByteBufferPtr buf = ByteBuffer::allocate(BitUtil::RoundUpToPowerOfTwo(ctx->buffer->pos + len));
                 buf->put_bytes(ctx->buffer->ptr, ctx->buffer->pos);
@@ -364,6 +420,7 @@ void StreamLoadAction::free_handler_ctx(void* param) {
     if (ctx == nullptr) {
         return;
     }
+    ctx->http_request_freed = true;
     // sender is going, make receiver know it
     if (ctx->body_sink != nullptr) {
         ctx->body_sink->cancel(Status::Cancelled("Cancelled"));
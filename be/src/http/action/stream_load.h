@@ -22,6 +22,7 @@
 #pragma once
 
 #include <functional>
+#include <memory>
 
 #include "gen_cpp/PlanNodes_types.h"
 #include "http/http_handler.h"
@@ -32,6 +33,7 @@
 namespace starrocks {
 
 class ExecEnv;
+class GroupCommitMgr;
 class Status;
 class StreamLoadContext;
 
@@ -52,12 +54,15 @@ public:
 private:
     Status _on_header(HttpRequest* http_req, StreamLoadContext* ctx);
     Status _handle(StreamLoadContext* ctx);
+    Status _handle_group_commit(HttpRequest* http_req, StreamLoadContext* ctx);
+    void _reply(HttpRequest* req, StreamLoadContext* ctx);
     Status _data_saved_path(HttpRequest* req, std::string* file_path);
     Status _execute_plan_fragment(StreamLoadContext* ctx);
     Status _process_put(HttpRequest* http_req, StreamLoadContext* ctx);
 
 private:
     ExecEnv* _exec_env;
+    std::unique_ptr<GroupCommitMgr> _group_commit_mgr;
 };
 
 } // namespace starrocks
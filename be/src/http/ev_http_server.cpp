@@ -27,8 +27,11 @@
 #include <event2/http.h>
 #include <event2/http_struct.h>
 #include <event2/keyvalq_struct.h>
+#include <fcntl.h>
+#include <unistd.h>
 
 #include <memory>
+#include <mutex>
 #include <sstream>
 #include <utility>
 
@@ -44,6 +47,83 @@
 
 namespace starrocks {
 
+// Runs the tasks posted from other threads in the thread of an event base, a pipe wakes the event base up.
+class EvHttpServer::WorkerTaskQueue {
+public:
+    ~WorkerTaskQueue() { stop(); }
+
+    bool init(struct event_base* base) {
+        if (pipe2(_fds, O_NONBLOCK | O_CLOEXEC) != 0) {
+            return false;
+        }
+        _event = event_new(base, _fds[0], EV_READ | EV_PERSIST, _on_notify, this);
+        return _event != nullptr && event_add(_event, nullptr) == 0;
+    }
+
+    void post(std::function<void()> task) {
+        std::lock_guard<std::mutex> l(_lock);
+        if (_stopped) {
+            return;
+        }
+        _tasks.push_back(std::move(task));
+        char c = 0;
+        // a full pipe means the event base is going to be woken up anyway
+        (void)!::write(_fds[1], &c, 1);
+    }
+
+    // must be called before the event base is freed, the tasks posted after it are dropped
+    void stop() {
+        std::lock_guard<std::mutex> l(_lock);
+        if (_stopped) {
+            return;
+        }
+        _stopped = true;
+        if (_event != nullptr) {
+            event_free(_event);
+            _event = nullptr;
+        }
+        for (int& fd : _fds) {
+            if (fd >= 0) {
+                ::close(fd);
+                fd = -1;
+            }
+        }
+        _tasks.clear();
+    }
+
+private:
+    static void _on_notify(evutil_socket_t fd, short events, void* arg) {
+        auto* queue = (WorkerTaskQueue*)arg;
+        std::vector<std::function<void()>> tasks;
+        {
+            std::lock_guard<std::mutex> l(queue->_lock);
+            char buf[64];
+            while (::read(fd, buf, sizeof(buf)) > 0) {
+            }
+            tasks.swap(queue->_tasks);
+        }
+        for (auto& task : tasks) {
+            task();
+        }
+    }
+
+    std::mutex _lock;
+    bool _stopped = false;
+    int _fds[2] = {-1, -1};
+    struct event* _event = nullptr;
+    std::vector<std::function<void()>> _tasks;
+};
+
+thread_local std::shared_ptr<EvHttpServer::WorkerTaskQueue> EvHttpServer::_tls_task_queue;
+
+EvHttpServer::WorkerExecutor EvHttpServer::current_worker_executor() {
+    std::shared_ptr<WorkerTaskQueue> queue = _tls_task_queue;
+    if (queue == nullptr) {
+        return [](std::function<void()> task) { task(); };
+    }
+    return [queue](std::function<void()> task) { queue->post(std::move(task)); };
+}
+
 static void on_chunked(struct evhttp_request* ev_req, void* param) {
     HttpRequest* request = (HttpRequest*)ev_req->on_free_cb_arg;
     request->handler()->on_chunk_data(request);
@@ -108,6 +188,17 @@ Status EvHttpServer::start() {
             _event_bases.push_back(base);
             pthread_rwlock_unlock(&_rw_lock);
 
+            auto task_queue = std::make_shared<WorkerTaskQueue>();
+            if (!task_queue->init(base)) {
+                LOG(WARNING) << "Couldn't create the task queue of an event_base"
+                             << ", error:" << errno_to_string(errno);
+                return;
+            }
+            pthread_rwlock_wrlock(&_rw_lock);
+            _task_queues.push_back(task_queue);
+            pthread_rwlock_unlock(&_rw_lock);
+            _tls_task_queue = task_queue;
+
             /* Create a new evhttp object to handle requests. */
             struct evhttp* http = evhttp_new(base);
             if (http == nullptr) {
@@ -153,6 +244,9 @@ void EvHttpServer::stop() {
     close(_server_fd);
 
     // free the evhttp and event_base
+    for (auto& task_queue : _task_queues) {
+        task_queue->stop();
+    }
     for (auto http : _https) {
         evhttp_free(http);
     }
@@ -19,6 +19,8 @@
 
 #include <event2/event.h>
 
+#include <functional>
+#include <memory>
 #include <string>
 #include <thread>
 #include <vector>
@@ -53,7 +55,16 @@ public:
     // get real port
     int get_real_port() { return _real_port; }
 
+    using WorkerExecutor = std::function<void(std::function<void()>)>;
+    // Returns an executor which runs tasks in the http worker thread calling this, the executor can be called
+    // from any thread. evhttp is not thread safe, so a handler replying a request from another thread returns
+    // from handle() without a reply, and sends the reply in a task of this executor.
+    // Out of a http worker thread, the executor runs tasks in place.
+    static WorkerExecutor current_worker_executor();
+
 private:
+    class WorkerTaskQueue;
+
     Status _bind();
     HttpHandler* _find_handler(HttpRequest* req);
 
@@ -79,6 +90,9 @@ private:
     PathTrie<HttpHandler*> _options_handlers;
     std::vector<struct event_base*> _event_bases;
     std::vector<struct evhttp*> _https;
+    std::vector<std::shared_ptr<WorkerTaskQueue>> _task_queues;
+    // the task queue of the event base served by the current http worker thread
+    static thread_local std::shared_ptr<WorkerTaskQueue> _tls_task_queue;
 };
 
 } // namespace starrocks
@@ -134,4 +134,15 @@ const char* HttpRequest::remote_host() const {
     return _ev_req->remote_host;
 }
 
+std::unique_ptr<HttpRequest> HttpRequest::copy_without_evhttp() const {
+    auto req = std::make_unique<HttpRequest>(nullptr);
+    req->_method = _method;
+    req->_uri = _uri;
+    req->_raw_path = _raw_path;
+    req->_headers = _headers;
+    req->_params = _params;
+    req->_query_params = _query_params;
+    return req;
+}
+
 } // namespace starrocks
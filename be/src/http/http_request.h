@@ -21,6 +21,7 @@
 
 #include <boost/algorithm/string.hpp>
 #include <map>
+#include <memory>
 #include <string>
 
 #include "http/http_common.h"
@@ -84,6 +85,10 @@ public:
 
     const char* remote_host() const;
 
+    // Returns a copy of the method, uri, headers and params which is not bound to the evhttp request, so it can
+    // be used after this request is freed. It can't be replied.
+    std::unique_ptr<HttpRequest> copy_without_evhttp() const;
+
 private:
     HttpMethod _method = UNKNOWN;
     std::string _uri;
@@ -40,7 +40,7 @@ public:
 
     ~KafkaConsumerPipe() override = default;
 
-    Status append_with_row_delimiter(const char* data, size_t size, char row_delimiter) {
+    virtual Status append_with_row_delimiter(const char* data, size_t size, char row_delimiter) {
         Status st = append(data, size);
         if (!st.ok()) {
             return st;
@@ -51,7 +51,7 @@ public:
         return st;
     }
 
-    Status append_json(const char* data, size_t size, char row_delimiter) {
+    virtual Status append_json(const char* data, size_t size, char row_delimiter) {
         // For efficiency reasons, simdjson requires a string with a few bytes (simdjson::SIMDJSON_PADDING) at the end.
         auto buf = ByteBuffer::allocate(size + simdjson::SIMDJSON_PADDING);
         buf->put_bytes(data, size);
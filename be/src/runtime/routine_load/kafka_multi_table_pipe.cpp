@@ -0,0 +1,110 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#include "runtime/routine_load/kafka_multi_table_pipe.h"
+
+#include "common/logging.h"
+
+namespace starrocks {
+
+Status KafkaMultiTablePipe::append_with_row_delimiter(const char* data, size_t size, char row_delimiter) {
+    std::string_view table;
+    bool found = _find_csv_route_column(data, size, &table);
+    KafkaConsumerPipe* pipe = _route(found, table);
+    if (pipe == this) {
+        return KafkaConsumerPipe::append_with_row_delimiter(data, size, row_delimiter);
+    } else if (pipe != nullptr) {
+        return pipe->append_with_row_delimiter(data, size, row_delimiter);
+    }
+    return Status::OK();
+}
+
+Status KafkaMultiTablePipe::append_json(const char* data, size_t size, char row_delimiter) {
+    // For efficiency reasons, simdjson requires a string with a few bytes (simdjson::SIMDJSON_PADDING) at the end.
+    // The padded buffer is parsed to find the route column, and then appended to the pipe as is.
+    auto buf = ByteBuffer::allocate(size + simdjson::SIMDJSON_PADDING);
+    buf->put_bytes(data, size);
+    buf->flip();
+
+    std::string_view table;
+    bool found = _find_json_route_column(buf, size, &table);
+    KafkaConsumerPipe* pipe = _route(found, table);
+    if (pipe == this) {
+        return StreamLoadPipe::append(std::move(buf));
+    } else if (pipe != nullptr) {
+        return pipe->append(std::move(buf));
+    }
+    return Status::OK();
+}
+
+Status KafkaMultiTablePipe::finish() {
+    Status st = StreamLoadPipe::finish();
+    for (auto& [table, pipe] : _table_pipes) {
+        Status table_st = pipe->finish();
+        if (st.ok()) {
+            st = table_st;
+        }
+    }
+    return st;
+}
+
+void KafkaMultiTablePipe::cancel(const Status& status) {
+    StreamLoadPipe::cancel(status);
+    // close() of the consumer of this pipe cancels it with OK, which must not stop the loads of other tables
+    if (status.ok()) {
+        return;
+    }
+    for (auto& [table, pipe] : _table_pipes) {
+        pipe->cancel(status);
+    }
+}
+
+KafkaConsumerPipe* KafkaMultiTablePipe::_route(bool found, std::string_view table) {
+    if (!found || table == _table) {
+        return this;
+    }
+    auto iter = _table_pipes.find(std::string(table));
+    if (iter != _table_pipes.end()) {
+        return iter->second.get();
+    }
+    _num_unrouted_rows++;
+    return nullptr;
+}
+
+bool KafkaMultiTablePipe::_find_csv_route_column(const char* data, size_t size, std::string_view* value) const {
+    if (_route_column_index < 0 || _route_column_separator.empty()) {
+        return false;
+    }
+    std::string_view row(data, size);
+    size_t begin = 0;
+    for (int32_t i = 0; i < _route_column_index; i++) {
+        size_t pos = row.find(_route_column_separator, begin);
+        if (pos == std::string_view::npos) {
+            return false;
+        }
+        begin = pos + _route_column_separator.size();
+    }
+    size_t end = row.find(_route_column_separator, begin);
+    *value = row.substr(begin, end == std::string_view::npos ? std::string_view::npos : end - begin);
+    // the last field of a row may end with a carriage return
+    if (end == std::string_view::npos && !value->empty() && value->back() == '\r') {
+        value->remove_suffix(1);
+    }
+    return true;
+}
+
+bool KafkaMultiTablePipe::_find_json_route_column(const ByteBufferPtr& buf, size_t size, std::string_view* value) {
+    if (_route_json_key.empty()) {
+        return false;
+    }
+    try {
+        simdjson::ondemand::document doc = _parser.iterate(buf->ptr, size, buf->capacity);
+        simdjson::ondemand::object row = doc.get_object();
+        *value = row.find_field_unordered(_route_json_key).get_string();
+        return true;
+    } catch (simdjson::simdjson_error& e) {
+        VLOG(3) << "failed to find the route column " << _route_json_key << " of a json row: " << e.what();
+        return false;
+    }
+}
+
+} // namespace starrocks
@@ -0,0 +1,69 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#pragma once
+
+#include <memory>
+#include <string>
+#include <string_view>
+#include <unordered_map>
+
+#include "runtime/routine_load/kafka_consumer_pipe.h"
+
+namespace starrocks {
+
+// The pipe of a routine load task which loads one topic into several tables.
+//
+// Every message is routed by its route column to the pipe of the table named by the column:
+// the field at `route_column_index` of a csv row, or the top level key `route_json_key` of a json row.
+// Rows of the table of the task stay in this pipe, rows of the other tables go to the pipes added by
+// add_table_pipe(). A row whose route column can't be found stays in this pipe so that it is reported
+// as an error row of the task, a row of an unknown table is dropped and counted by num_unrouted_rows().
+//
+// Not thread safe, messages are appended by one thread of the consumer group.
+class KafkaMultiTablePipe : public KafkaConsumerPipe {
+public:
+    KafkaMultiTablePipe(std::string table, int32_t route_column_index, std::string route_column_separator,
+                        std::string route_json_key)
+            : _table(std::move(table)),
+              _route_column_index(route_column_index),
+              _route_column_separator(std::move(route_column_separator)),
+              _route_json_key(std::move(route_json_key)) {}
+
+    ~KafkaMultiTablePipe() override = default;
+
+    void add_table_pipe(const std::string& table, std::shared_ptr<KafkaConsumerPipe> pipe) {
+        _table_pipes[table] = std::move(pipe);
+    }
+
+    Status append_with_row_delimiter(const char* data, size_t size, char row_delimiter) override;
+
+    Status append_json(const char* data, size_t size, char row_delimiter) override;
+
+    // finish the pipes of all tables
+    Status finish() override;
+
+    // cancel the pipes of all tables
+    void cancel(const Status& status) override;
+
+    int64_t num_unrouted_rows() const { return _num_unrouted_rows; }
+
+private:
+    // return the pipe of the row, nullptr if the row should be dropped
+    KafkaConsumerPipe* _route(bool found, std::string_view table);
+
+    bool _find_csv_route_column(const char* data, size_t size, std::string_view* value) const;
+
+    bool _find_json_route_column(const ByteBufferPtr& buf, size_t size, std::string_view* value);
+
+    const std::string _table;
+    const int32_t _route_column_index;
+    const std::string _route_column_separator;
+    const std::string _route_json_key;
+
+    std::unordered_map<std::string, std::shared_ptr<KafkaConsumerPipe>> _table_pipes;
+    int64_t _num_unrouted_rows = 0;
+
+    simdjson::ondemand::parser _parser;
+};
+
+} // namespace starrocks
@@ -28,6 +28,7 @@
 #include "common/status.h"
 #include "runtime/routine_load/data_consumer_group.h"
 #include "runtime/routine_load/kafka_consumer_pipe.h"
+#include "runtime/routine_load/kafka_multi_table_pipe.h"
 #include "runtime/stream_load/stream_load_context.h"
 #include "util/defer_op.h"
 #include "util/uid_util.h"
@@ -173,6 +174,9 @@ Status RoutineLoadTaskExecutor::submit_task(const TRoutineLoadTask& task) {
         delete ctx;
         return Status::InternalError("unknown load source type");
     }
+    if (task.__isset.table_plans && !task.table_plans.empty()) {
+        ctx->multi_table_info = std::make_unique<MultiTableLoadInfo>(task);
+    }
 
     VLOG(1) << "receive a new routine load task: " << ctx->brief();
     // register the task
@@ -224,7 +228,11 @@ void RoutineLoadTaskExecutor::exec_task(StreamLoadContext* ctx, DataConsumerPool
     std::shared_ptr<StreamLoadPipe> pipe;
     switch (ctx->load_src_type) {
     case TLoadSourceType::KAFKA: {
-        pipe = std::make_shared<KafkaConsumerPipe>();
+        if (ctx->multi_table_info != nullptr) {
+            HANDLE_ERROR(_prepare_multi_table_load(ctx, &pipe), "failed to prepare multi-table load");
+        } else {
+            pipe = std::make_shared<KafkaConsumerPipe>();
+        }
         Status st = std::static_pointer_cast<KafkaDataConsumerGroup>(consumer_grp)->assign_topic_partitions(ctx);
         if (!st.ok()) {
             err_handler(ctx, st, st.get_error_msg());
@@ -253,12 +261,21 @@ void RoutineLoadTaskExecutor::exec_task(StreamLoadContext* ctx, DataConsumerPool
     // only for test
     HANDLE_ERROR(_execute_plan_for_test(ctx), "test failed");
 #endif
+    if (ctx->multi_table_info != nullptr) {
+        for (auto* table_ctx : ctx->multi_table_info->table_ctxs) {
+            HANDLE_ERROR(_exec_env->stream_load_executor()->execute_plan_fragment(table_ctx),
+                         "failed to execute plan fragment of table " + table_ctx->table);
+        }
+    }
 
     // start to consume, this may block a while
     HANDLE_ERROR(consumer_grp->start_all(ctx), "consuming failed");
 
     // wait for all consumers finished
     HANDLE_ERROR(ctx->future.get(), "consume failed");
+    if (ctx->multi_table_info != nullptr) {
+        HANDLE_ERROR(_finish_multi_table_load(ctx), "consume failed");
+    }
 
     ctx->load_cost_nanos = MonotonicNanos() - ctx->start_nanos;
 
@@ -320,6 +337,75 @@ void RoutineLoadTaskExecutor::err_handler(StreamLoadContext* ctx, const Status&
     }
 }
 
+Status RoutineLoadTaskExecutor::_prepare_multi_table_load(StreamLoadContext* ctx,
+                                                          std::shared_ptr<StreamLoadPipe>* pipe) {
+    MultiTableLoadInfo* info = ctx->multi_table_info.get();
+    auto multi_table_pipe = std::make_shared<KafkaMultiTablePipe>(
+            ctx->table, info->route_column_index, info->route_column_separator, info->route_json_key);
+    // set the pipe first, so that the pipes of all tables are cancelled if any of them fails
+    *pipe = multi_table_pipe;
+    for (auto& table_plan : info->table_plans) {
+        auto* table_ctx = new StreamLoadContext(_exec_env);
+        table_ctx->ref();
+        info->table_ctxs.push_back(table_ctx);
+
+        table_ctx->load_type = TLoadType::ROUTINE_LOAD;
+        // the txn and the kafka offsets belong to the task, not to the load of each table
+        table_ctx->load_src_type = TLoadSourceType::RAW;
+        table_ctx->id = UniqueId(table_plan.params.params.query_id);
+        table_ctx->job_id = ctx->job_id;
+        table_ctx->txn_id = ctx->txn_id;
+        table_ctx->db = ctx->db;
+        table_ctx->table = table_plan.tbl;
+        table_ctx->label = ctx->label;
+        table_ctx->auth = ctx->auth;
+        table_ctx->format = ctx->format;
+        table_ctx->max_filter_ratio = ctx->max_filter_ratio;
+        table_ctx->put_result.status.status_code = TStatusCode::OK;
+        table_ctx->put_result.params = table_plan.params;
+        table_ctx->put_result.__isset.params = true;
+
+        auto table_pipe = std::make_shared<KafkaConsumerPipe>();
+        table_ctx->body_sink = table_pipe;
+        RETURN_IF_ERROR(_exec_env->load_stream_mgr()->put(table_ctx->id, table_pipe));
+        multi_table_pipe->add_table_pipe(table_plan.tbl, table_pipe);
+    }
+    return Status::OK();
+}
+
+Status RoutineLoadTaskExecutor::_finish_multi_table_load(StreamLoadContext* ctx) {
+    Status st;
+    for (auto* table_ctx : ctx->multi_table_info->table_ctxs) {
+        Status table_st = table_ctx->future.get();
+        if (!table_st.ok() && st.ok()) {
+            st = table_st;
+        }
+    }
+    if (!st.ok()) {
+        // the data consumed by the task will be consumed again by the next task
+        ctx->kafka_info->reset_offset();
+        return st;
+    }
+
+    // the rows of all tables are committed in the txn of the task
+    for (auto* table_ctx : ctx->multi_table_info->table_ctxs) {
+        ctx->number_total_rows += table_ctx->number_total_rows;
+        ctx->number_loaded_rows += table_ctx->number_loaded_rows;
+        ctx->number_filtered_rows += table_ctx->number_filtered_rows;
+        ctx->number_unselected_rows += table_ctx->number_unselected_rows;
+        ctx->loaded_bytes += table_ctx->loaded_bytes;
+        ctx->commit_infos.insert(ctx->commit_infos.end(), table_ctx->commit_infos.begin(),
+                                 table_ctx->commit_infos.end());
+        if (ctx->error_url.empty()) {
+            ctx->error_url = table_ctx->error_url;
+        }
+    }
+    int64_t num_unrouted_rows = static_cast<KafkaMultiTablePipe*>(ctx->body_sink.get())->num_unrouted_rows();
+    ctx->number_total_rows += num_unrouted_rows;
+    ctx->number_unselected_rows += num_unrouted_rows;
+    return Status::OK();
+}
+
 // for test only
 Status RoutineLoadTaskExecutor::_execute_plan_for_test(StreamLoadContext* ctx) {
     ctx->ref();
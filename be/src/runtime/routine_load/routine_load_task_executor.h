@@ -36,6 +36,7 @@ namespace starrocks {
 class ExecEnv;
 class Status;
 class StreamLoadContext;
+class StreamLoadPipe;
 class TRoutineLoadTask;
 
 // A routine load task executor will receive routine load
@@ -87,6 +88,13 @@ private:
 
     void err_handler(StreamLoadContext* ctx, const Status& st, const std::string& err_msg);
 
+    // create the pipe of a task which loads multiple tables, and the contexts which load the tables
+    // besides the table of the task
+    Status _prepare_multi_table_load(StreamLoadContext* ctx, std::shared_ptr<StreamLoadPipe>* pipe);
+
+    // wait for the loads of all tables, and merge their results into the context of the task
+    Status _finish_multi_table_load(StreamLoadContext* ctx);
+
     // for test only
     Status _execute_plan_for_test(StreamLoadContext* ctx);
 
@@ -0,0 +1,327 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#include "runtime/stream_load/group_commit_mgr.h"
+
+#include <chrono>
+
+#include "common/config.h"
+#include "common/logging.h"
+#include "http/http_common.h"
+#include "http/http_request.h"
+#include "runtime/exec_env.h"
+#include "runtime/stream_load/load_stream_mgr.h"
+#include "runtime/stream_load/stream_load_context.h"
+#include "runtime/stream_load/stream_load_executor.h"
+#include "util/byte_buffer.h"
+#include "util/thread.h"
+#include "util/time.h"
+#include "util/uid_util.h"
+
+namespace starrocks {
+
+// headers which change the plan of a load, requests are grouped only if all of them are the same
+static const std::string* const kGroupKeyHeaders[] = {
+        &HTTP_COLUMNS,         &HTTP_WHERE,         &HTTP_COLUMN_SEPARATOR, &HTTP_PARTITIONS,
+        &HTTP_TEMP_PARTITIONS, &HTTP_NEGATIVE,      &HTTP_STRICT_MODE,      &HTTP_TIMEZONE,
+        &HTTP_LOAD_MEM_LIMIT,  &HTTP_EXEC_MEM_LIMIT, &HTTP_PARTIAL_UPDATE,  &HTTP_MAX_FILTER_RATIO,
+        &HTTP_TIMEOUT,         &HTTP_LOAD_DOP,      &HTTP_TRANSMISSION_COMPRESSION_TYPE};
+
+// check expired groups at least this often
+static const int64_t kMaxFlushCheckIntervalMs = 100;
+
+struct GroupCommitMgr::Group {
+    explicit Group(std::string key_) : key(std::move(key_)) {}
+
+    ~Group() {
+        if (ctx != nullptr && ctx->unref()) {
+            delete ctx;
+        }
+    }
+
+    const std::string key;
+    const int64_t create_ms = MonotonicMillis();
+
+    // the shared load and the headers to plan it with, both set by the first request of the group,
+    // the request itself may be freed before the group is opened. Used by the append task and then
+    // the commit task of the group only.
+    StreamLoadContext* ctx = nullptr;
+    std::unique_ptr<HttpRequest> plan_req;
+    bool opened = false;
+    // the first error of opening the group or appending to its load
+    Status status;
+
+    // protect all members below
+    std::mutex lock;
+    // no request can join the group after it is sealed
+    bool sealed = false;
+    // an append task of the group is queued or running, a sealed group is committed once it's done
+    bool appending = false;
+    int64_t bytes = 0;
+    int32_t num_requests = 0;
+    // the bodies which are not appended to the load yet, in the order of the requests
+    std::vector<ByteBufferPtr> pending;
+
+    // the requests of the group, each holds a reference of its context until it's called back
+    std::vector<std::pair<StreamLoadContext*, DoneCallback>> waiters;
+};
+
+GroupCommitMgr::GroupCommitMgr(ExecEnv* exec_env, PlanFunc plan_func)
+        : _exec_env(exec_env), _plan_func(std::move(plan_func)) {
+    auto st = ThreadPoolBuilder("group_commit") // group commit
+                      .set_min_threads(1)
+                      .set_max_threads(8)
+                      .set_idle_timeout(MonoDelta::FromMilliseconds(2000))
+                      .build(&_commit_pool);
+    if (!st.ok()) {
+        LOG(FATAL) << "Cannot create thread pool for group commit: error=" << st.to_string();
+    }
+    _flush_thread = std::thread([this] {
+        while (!_stopped.load()) {
+            {
+                std::unique_lock<std::mutex> l(_lock);
+                int64_t wait_ms = std::min<int64_t>(config::stream_load_group_commit_interval_ms / 2 + 1,
+                                                    kMaxFlushCheckIntervalMs);
+                _cv.wait_for(l, std::chrono::milliseconds(wait_ms), [this] { return _stopped.load(); });
+            }
+            _flush_expired_groups(_stopped.load());
+        }
+    });
+    Thread::set_thread_name(_flush_thread, "group_commit_flush");
+}
+
+GroupCommitMgr::~GroupCommitMgr() {
+    {
+        std::lock_guard<std::mutex> l(_lock);
+        _stopped.store(true);
+    }
+    _cv.notify_all();
+    _flush_thread.join();
+    _commit_pool->wait();
+    _commit_pool->shutdown();
+}
+
+bool GroupCommitMgr::can_group_commit(HttpRequest* req, StreamLoadContext* ctx) {
+    // the body of a request is appended as a whole, so it must be known and small,
+    // and it must be a sequence of complete rows which can be concatenated with others
+    return ctx->format == TFileFormatType::FORMAT_CSV_PLAIN && req->header(HTTP_ROW_DELIMITER).empty() &&
+           ctx->body_bytes > 0 && ctx->body_bytes <= config::stream_load_group_commit_max_request_bytes;
+}
+
+std::string GroupCommitMgr::_group_key(HttpRequest* req, StreamLoadContext* ctx) {
+    // the group loads with the auth of its first request, so only requests with the same auth can join it
+    std::string key;
+    for (const auto& part : {ctx->db, ctx->table, ctx->auth.user, ctx->auth.passwd, ctx->auth.cluster}) {
+        key.append(part).push_back('\x01');
+    }
+    for (const auto* header : kGroupKeyHeaders) {
+        key.append(req->header(*header)).push_back('\x01');
+    }
+    return key;
+}
+
+Status GroupCommitMgr::append(HttpRequest* req, StreamLoadContext* ctx, DoneCallback done) {
+    // make sure the last row of this request doesn't run into the first row of the next one,
+    // the buffer is allocated with one more byte for this
+    if (ctx->buffer->pos > 0 && ctx->buffer->ptr[ctx->buffer->pos - 1] != '\n') {
+        ctx->buffer->put_bytes("\n", 1);
+    }
+    ctx->buffer->flip();
+    int64_t bytes = ctx->buffer->remaining();
+
+    std::string key = _group_key(req, ctx);
+    while (true) {
+        std::shared_ptr<Group> group = _get_or_create_group(key);
+        std::lock_guard<std::mutex> l(group->lock);
+        if (group->sealed) {
+            // the group was sealed after we got it, join the next one
+            continue;
+        }
+        if (!group->appending) {
+            // the task waits for group->lock, so it sees this request
+            RETURN_IF_ERROR(_commit_pool->submit_func([this, group] { _append_group(group); }));
+            group->appending = true;
+        }
+        if (group->ctx == nullptr) {
+            group->ctx = _new_group_ctx(ctx);
+            group->plan_req = req->copy_without_evhttp();
+        }
+        ctx->ref();
+        group->waiters.emplace_back(ctx, std::move(done));
+        group->pending.emplace_back(std::move(ctx->buffer));
+        group->bytes += bytes;
+        group->num_requests++;
+        if (group->bytes >= config::stream_load_group_commit_max_bytes) {
+            // committed by the append task once the queued bodies are appended
+            _seal_group(group);
+        }
+        return Status::OK();
+    }
+}
+
+std::shared_ptr<GroupCommitMgr::Group> GroupCommitMgr::_get_or_create_group(const std::string& key) {
+    std::lock_guard<std::mutex> l(_lock);
+    auto& group = _groups[key];
+    if (group == nullptr) {
+        group = std::make_shared<Group>(key);
+    }
+    return group;
+}
+
+StreamLoadContext* GroupCommitMgr::_new_group_ctx(StreamLoadContext* ctx) {
+    auto* group_ctx = new StreamLoadContext(_exec_env);
+    group_ctx->ref();
+    group_ctx->load_type = TLoadType::MANUAL_LOAD;
+    group_ctx->load_src_type = TLoadSourceType::RAW;
+    group_ctx->db = ctx->db;
+    group_ctx->table = ctx->table;
+    group_ctx->label = "group_commit_" + generate_uuid_string();
+    group_ctx->auth = ctx->auth;
+    group_ctx->format = ctx->format;
+    group_ctx->timeout_second = ctx->timeout_second;
+    return group_ctx;
+}
+
+void GroupCommitMgr::_append_group(const std::shared_ptr<Group>& group) {
+    while (true) {
+        std::vector<ByteBufferPtr> buffers;
+        {
+            std::lock_guard<std::mutex> l(group->lock);
+            if (group->pending.empty()) {
+                group->appending = false;
+                if (!group->sealed) {
+                    // the next request of the group submits another append task
+                    return;
+                }
+                break;
+            }
+            buffers.swap(group->pending);
+        }
+        // the RPCs to open the group and a full load pipe only block this thread
+        if (!group->opened) {
+            group->opened = true;
+            group->status = _open_group(group.get());
+            if (!group->status.ok()) {
+                LOG(WARNING) << "Fail to open group commit load, db=" << group->ctx->db
+                             << ", tbl=" << group->ctx->table << ", errmsg=" << group->status.get_error_msg();
+            }
+        }
+        for (auto& buffer : buffers) {
+            if (!group->status.ok()) {
+                // the rows of the group fail together, the bodies left are dropped
+                break;
+            }
+            group->status = group->ctx->body_sink->append(std::move(buffer));
+        }
+        if (!group->status.ok()) {
+            std::lock_guard<std::mutex> l(group->lock);
+            if (!group->sealed) {
+                // no more requests can join the failed group, the next request opens a new one
+                _seal_group(group);
+            }
+        }
+    }
+    _commit_group(group);
+}
+
+Status GroupCommitMgr::_open_group(Group* group) {
+    StreamLoadContext* group_ctx = group->ctx;
+    int64_t begin_txn_start_time = MonotonicNanos();
+    RETURN_IF_ERROR(_exec_env->stream_load_executor()->begin_txn(group_ctx));
+    group_ctx->begin_txn_cost_nanos = MonotonicNanos() - begin_txn_start_time;
+    // the load is cleaned up by _commit_group if it fails
+    RETURN_IF_ERROR(_plan_func(group->plan_req.get(), group_ctx));
+
+    LOG(INFO) << "open group commit load. " << group_ctx->brief() << ", db=" << group_ctx->db
+              << ", tbl=" << group_ctx->table;
+    return Status::OK();
+}
+
+void GroupCommitMgr::_seal_group(const std::shared_ptr<Group>& group) {
+    group->sealed = true;
+    std::lock_guard<std::mutex> l(_lock);
+    auto iter = _groups.find(group->key);
+    if (iter != _groups.end() && iter->second == group) {
+        _groups.erase(iter);
+    }
+}
+
+void GroupCommitMgr::_commit_group(const std::shared_ptr<Group>& group) {
+    StreamLoadContext* ctx = group->ctx;
+    Status st = group->status;
+    if (st.ok()) {
+        st = ctx->body_sink->finish();
+    }
+    if (st.ok()) {
+        st = ctx->future.get();
+    }
+    if (st.ok()) {
+        int64_t commit_and_publish_start_time = MonotonicNanos();
+        st = _exec_env->stream_load_executor()->commit_txn(ctx);
+        ctx->commit_and_publish_txn_cost_nanos = MonotonicNanos() - commit_and_publish_start_time;
+    }
+    if (!st.ok() && st.code() != TStatusCode::PUBLISH_TIMEOUT) {
+        ctx->status = st;
+        if (ctx->body_sink != nullptr) {
+            ctx->body_sink->cancel(st);
+        }
+        if (ctx->need_rollback) {
+            _exec_env->stream_load_executor()->rollback_txn(ctx);
+            ctx->need_rollback = false;
+        }
+    }
+    _exec_env->load_stream_mgr()->remove(ctx->id);
+
+    LOG(INFO) << "finish group commit load. " << ctx->brief() << ", requests=" << group->num_requests
+              << ", bytes=" << group->bytes << ", cost_ms=" << MonotonicMillis() - group->create_ms
+              << ", status=" << st.to_string();
+    _finish_group(group.get(), st);
+}
+
+void GroupCommitMgr::_finish_group(Group* group, const Status& st) {
+    StreamLoadContext* group_ctx = group->ctx;
+    for (auto& [ctx, done] : group->waiters) {
+        ctx->txn_id = group_ctx->txn_id;
+        ctx->begin_txn_cost_nanos = group_ctx->begin_txn_cost_nanos;
+        ctx->stream_load_put_cost_nanos = group_ctx->stream_load_put_cost_nanos;
+        // rows are only counted for the whole group
+        ctx->number_total_rows = group_ctx->number_total_rows;
+        ctx->number_loaded_rows = group_ctx->number_loaded_rows;
+        ctx->number_filtered_rows = group_ctx->number_filtered_rows;
+        ctx->number_unselected_rows = group_ctx->number_unselected_rows;
+        ctx->error_url = group_ctx->error_url;
+        ctx->commit_and_publish_txn_cost_nanos = group_ctx->commit_and_publish_txn_cost_nanos;
+        done(st);
+        if (ctx->unref()) {
+            delete ctx;
+        }
+    }
+    group->waiters.clear();
+}
+
+void GroupCommitMgr::_flush_expired_groups(bool all) {
+    std::vector<std::shared_ptr<Group>> expired;
+    {
+        std::lock_guard<std::mutex> l(_lock);
+        int64_t now = MonotonicMillis();
+        for (auto& [key, group] : _groups) {
+            if (all || now - group->create_ms >= config::stream_load_group_commit_interval_ms) {
+                expired.push_back(group);
+            }
+        }
+    }
+    for (auto& group : expired) {
+        // wait for the request which is appending to the group
+        std::lock_guard<std::mutex> l(group->lock);
+        if (group->sealed) {
+            continue;
+        }
+        _seal_group(group);
+        if (group->appending || group->waiters.empty()) {
+            // committed by its append task once it's done, or nobody is waiting for it
+            continue;
+        }
+        _commit_pool->submit_func([this, group] { _commit_group(group); });
+    }
+}
+
+} // namespace starrocks
@@ -0,0 +1,89 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#pragma once
+
+#include <atomic>
+#include <condition_variable>
+#include <functional>
+#include <memory>
+#include <mutex>
+#include <string>
+#include <thread>
+#include <unordered_map>
+#include <utility>
+#include <vector>
+
+#include "common/status.h"
+#include "util/byte_buffer.h"
+#include "util/threadpool.h"
+
+namespace starrocks {
+
+class ExecEnv;
+class HttpRequest;
+class StreamLoadContext;
+
+// Merge small stream loads of the same table into one shared load.
+//
+// A request with the "group_commit: true" header buffers its whole body, then queues it to the
+// open group of its table. The group begins one transaction and plans one load with the headers of
+// its first request, and appends the queued bodies to the load, all in a group commit thread, so
+// the http worker thread never waits for an RPC or a full load pipe. It is committed once it is
+// older than stream_load_group_commit_interval_ms or
+// larger than stream_load_group_commit_max_bytes, and every request of the group is called back with
+// the result of that commit, so a request is acknowledged only after its rows are committed.
+//
+// Requests are grouped only when every header that affects the plan is the same. The label of a
+// request is not registered in FE, so a retried request is not deduplicated, and the rows of one
+// request fail or succeed together with the rest of its group.
+class GroupCommitMgr {
+public:
+    using PlanFunc = std::function<Status(HttpRequest*, StreamLoadContext*)>;
+    // called in a group commit thread with the result of the group, the statistics of the group are set to
+    // the context of the request before it
+    using DoneCallback = std::function<void(const Status&)>;
+
+    // plan_func begins to execute the load of the group ctx with the headers of the request
+    GroupCommitMgr(ExecEnv* exec_env, PlanFunc plan_func);
+    ~GroupCommitMgr();
+
+    // Whether the request may join a group, called after its headers are parsed into ctx.
+    static bool can_group_commit(HttpRequest* req, StreamLoadContext* ctx);
+
+    // Queue the buffered body of ctx to the group of its table without blocking, done is called once the
+    // group is committed or fails. If the request can't join a group, the error is returned and done is
+    // not called. req is not used after this returns.
+    Status append(HttpRequest* req, StreamLoadContext* ctx, DoneCallback done);
+
+private:
+    struct Group;
+
+    static std::string _group_key(HttpRequest* req, StreamLoadContext* ctx);
+
+    std::shared_ptr<Group> _get_or_create_group(const std::string& key);
+    StreamLoadContext* _new_group_ctx(StreamLoadContext* ctx);
+    // open the group and append its queued bodies to the load until there is none, then commit the
+    // group if it's sealed, at most one runs for a group at a time
+    void _append_group(const std::shared_ptr<Group>& group);
+    Status _open_group(Group* group);
+    // must hold group->lock
+    void _seal_group(const std::shared_ptr<Group>& group);
+    void _commit_group(const std::shared_ptr<Group>& group);
+    // call back the requests of the group, called once for a group
+    void _finish_group(Group* group, const Status& st);
+    void _flush_expired_groups(bool all);
+
+    ExecEnv* _exec_env;
+    PlanFunc _plan_func;
+
+    std::mutex _lock;
+    std::condition_variable _cv;
+    // open groups, a sealed group is removed from here before it is committed
+    std::unordered_map<std::string, std::shared_ptr<Group>> _groups;
+
+    std::unique_ptr<ThreadPool> _commit_pool;
+    std::thread _flush_thread;
+    std::atomic<bool> _stopped{false};
+};
+
+} // namespace starrocks
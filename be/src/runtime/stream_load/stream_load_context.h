@@ -76,6 +76,30 @@ public:
     std::map<std::string, std::string> properties;
 };
 
+class StreamLoadContext;
+
+// the tables of a routine load task which loads multiple tables in one txn
+class MultiTableLoadInfo {
+public:
+    explicit MultiTableLoadInfo(const TRoutineLoadTask& task)
+            : table_plans(task.table_plans),
+              route_column_index(task.__isset.route_column_index ? task.route_column_index : -1),
+              route_column_separator(task.route_column_separator),
+              route_json_key(task.route_json_key) {}
+
+    ~MultiTableLoadInfo();
+
+public:
+    // the plans of the tables besides the table of the task
+    std::vector<TRoutineLoadTablePlan> table_plans;
+    // the route column of a csv row or a json row
+    int32_t route_column_index;
+    std::string route_column_separator;
+    std::string route_json_key;
+    // the contexts which execute table_plans, their rows are committed by the context of the task
+    std::vector<StreamLoadContext*> table_ctxs;
+};
+
 class MessageBodySink;
 
 const std::string TXN_BEGIN = "begin";
@@ -156,6 +180,12 @@ public:
     // when use_streaming is true, we use stream_pipe to send source data,
     // otherwise we save source data to file first, then process it.
     bool use_streaming = false;
+    // when group_commit is true, the body is buffered in memory and appended to a load
+    // shared with other requests of the same table, see GroupCommitMgr.
+    bool group_commit = false;
+    // set in the http worker thread once the http request is freed, e.g. the client has gone,
+    // a group commit request replied later must not touch its http request then
+    bool http_request_freed = false;
     TFileFormatType::type format = TFileFormatType::FORMAT_CSV_PLAIN;
 
     TStreamLoadPutResult put_result;
@@ -183,6 +213,7 @@ public:
     std::string existing_job_status;
 
     std::unique_ptr<KafkaLoadInfo> kafka_info;
+    std::unique_ptr<MultiTableLoadInfo> multi_table_info;
 
     std::vector<TTabletCommitInfo> commit_infos;
 
@@ -215,4 +246,12 @@ private:
     std::atomic<int> _refs;
 };
 
+inline MultiTableLoadInfo::~MultiTableLoadInfo() {
+    for (auto* table_ctx : table_ctxs) {
+        if (table_ctx->unref()) {
+            delete table_ctx;
+        }
+    }
+}
+
 } // namespace starrocks
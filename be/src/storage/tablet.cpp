@@ -124,6 +124,16 @@ Status Tablet::init() {
 void Tablet::save_meta() {
     auto st = _tablet_meta->save_meta(_data_dir);
     CHECK(st.ok()) << "fail to save tablet_meta: " << st;
+    // the version, state and schema changes of a tablet are all saved by save_meta()
+    mark_report_dirty();
+}
+
+void Tablet::mark_report_dirty() {
+    // the tablet may be created without the storage engine in tests
+    auto* engine = StorageEngine::instance();
+    if (engine != nullptr && engine->tablet_manager() != nullptr) {
+        engine->tablet_manager()->mark_tablet_dirty(tablet_id());
+    }
 }
 
 Status Tablet::revise_tablet_meta(const std::vector<RowsetMetaSharedPtr>& rowsets_to_clone,
@@ -203,6 +213,7 @@ Status Tablet::revise_tablet_meta(const std::vector<RowsetMetaSharedPtr>& rowset
 
     // reconstruct from tablet meta
     _timestamped_version_tracker.construct_versioned_tracker(_tablet_meta->all_rs_metas());
+    mark_report_dirty();
 
     LOG(INFO) << "finish to clone data to tablet. status=" << st << ", "
               << "table=" << full_name() << ", "
@@ -86,6 +86,8 @@ public:
     void deregister_tablet_from_dir();
 
     void save_meta();
+    // Mark the tablet to be reported by the next incremental tablet report, called when its reported info changes
+    void mark_report_dirty();
     // Used in clone task, to update local meta when finishing a clone job
     Status revise_tablet_meta(const std::vector<RowsetMetaSharedPtr>& rowsets_to_clone,
                               const std::vector<Version>& versions_to_delete);
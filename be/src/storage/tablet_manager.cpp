@@ -131,6 +131,7 @@ Status TabletManager::_update_tablet_map_and_partition_info(const TabletSharedPt
         return Status::InternalError(fmt::format("tablet {} already exist in map", tablet->tablet_id()));
     }
     _add_tablet_to_partition(*tablet);
+    mark_tablet_dirty(tablet->tablet_id());
     return Status::OK();
 }
 
@@ -356,6 +357,7 @@ Status TabletManager::drop_tablets_on_error_root_path(const std::vector<TabletIn
                 TabletMap& tablet_map = _get_tablet_map(tablet_id);
                 _remove_tablet_from_partition(*dropped_tablet);
                 tablet_map.erase(tablet_id);
+                mark_tablet_dirty(tablet_id);
             }
         }
     }
@@ -734,43 +736,99 @@ Status TabletManager::report_tablet_info(TTabletInfo* tablet_info) {
     return Status::OK();
 }
 
+void TabletManager::mark_tablet_dirty(TTabletId tablet_id) {
+    std::lock_guard l(_dirty_tablets_lock);
+    _dirty_tablet_ids.insert(tablet_id);
+}
+
+void TabletManager::mark_tablets_dirty(const std::vector<TTabletId>& tablet_ids) {
+    std::lock_guard l(_dirty_tablets_lock);
+    _dirty_tablet_ids.insert(tablet_ids.begin(), tablet_ids.end());
+}
+
+static void build_expire_txn_map(std::map<TabletInfo, std::vector<int64_t>>* expire_txn_map) {
+    StorageEngine::instance()->txn_manager()->build_expire_txn_map(expire_txn_map);
+    if (expire_txn_map->size() > 0) {
+        LOG(INFO) << "Found " << expire_txn_map->size() << " expired tablet transactions";
+    }
+}
+
+void TabletManager::_build_tablet_report(const TabletSharedPtr& tablet,
+                                         std::map<TabletInfo, std::vector<int64_t>>* expire_txn_map,
+                                         std::map<TTabletId, TTablet>* tablets_info) {
+    TTablet t_tablet;
+    TTabletInfo tablet_info;
+    tablet->build_tablet_report_info(&tablet_info);
+
+    // find expired transaction corresponding to this tablet
+    TabletInfo tinfo(tablet->tablet_id(), tablet->schema_hash(), tablet->tablet_uid());
+    auto find = expire_txn_map->find(tinfo);
+    if (find != expire_txn_map->end()) {
+        tablet_info.__set_transaction_ids(find->second);
+        expire_txn_map->erase(find);
+    }
+    t_tablet.tablet_infos.push_back(tablet_info);
+    tablets_info->emplace(tablet->tablet_id(), std::move(t_tablet));
+}
+
 Status TabletManager::report_all_tablets_info(std::map<TTabletId, TTablet>* tablets_info) {
     DCHECK(tablets_info != nullptr);
 
+    // all the tablets are reported, the ones changed from now on are reported by the next incremental report
+    {
+        std::lock_guard l(_dirty_tablets_lock);
+        _dirty_tablet_ids.clear();
+    }
+
     // build the expired txn map first, outside the tablet map lock
     std::map<TabletInfo, std::vector<int64_t>> expire_txn_map;
-    StorageEngine::instance()->txn_manager()->build_expire_txn_map(&expire_txn_map);
-    if (expire_txn_map.size() > 0) {
-        LOG(INFO) << "Found " << expire_txn_map.size() << " expired tablet transactions";
-    }
+    build_expire_txn_map(&expire_txn_map);
 
     StarRocksMetrics::instance()->report_all_tablets_requests_total.increment(1);
 
     for (const auto& tablets_shard : _tablets_shards) {
         std::shared_lock rlock(tablets_shard.lock);
         for (const auto& [tablet_id, tablet_ptr] : tablets_shard.tablet_map) {
-            TTablet t_tablet;
-            TTabletInfo tablet_info;
-            tablet_ptr->build_tablet_report_info(&tablet_info);
-
-            // find expired transaction corresponding to this tablet
-            TabletInfo tinfo(tablet_id, tablet_ptr->schema_hash(), tablet_ptr->tablet_uid());
-            auto find = expire_txn_map.find(tinfo);
-            if (find != expire_txn_map.end()) {
-                tablet_info.__set_transaction_ids(find->second);
-                expire_txn_map.erase(find);
-            }
-            t_tablet.tablet_infos.push_back(tablet_info);
-
-            if (!t_tablet.tablet_infos.empty()) {
-                tablets_info->emplace(tablet_id, t_tablet);
-            }
+            _build_tablet_report(tablet_ptr, &expire_txn_map, tablets_info);
         }
     }
     LOG(INFO) << "Report all " << tablets_info->size() << " tablets info";
     return Status::OK();
 }
 
+Status TabletManager::report_dirty_tablets_info(std::map<TTabletId, TTablet>* tablets_info,
+                                                std::vector<TTabletId>* removed_tablet_ids,
+                                                std::vector<TTabletId>* reported_tablet_ids) {
+    DCHECK(tablets_info != nullptr);
+    DCHECK(removed_tablet_ids != nullptr);
+    DCHECK(reported_tablet_ids != nullptr);
+
+    std::unordered_set<TTabletId> dirty_tablet_ids;
+    {
+        std::lock_guard l(_dirty_tablets_lock);
+        dirty_tablet_ids.swap(_dirty_tablet_ids);
+    }
+    // the tablets with expired transactions are reported too, so that FE could abort the transactions
+    std::map<TabletInfo, std::vector<int64_t>> expire_txn_map;
+    build_expire_txn_map(&expire_txn_map);
+    for (const auto& [tablet_info, txn_ids] : expire_txn_map) {
+        dirty_tablet_ids.insert(tablet_info.tablet_id);
+    }
+
+    reported_tablet_ids->assign(dirty_tablet_ids.begin(), dirty_tablet_ids.end());
+    for (TTabletId tablet_id : dirty_tablet_ids) {
+        TabletSharedPtr tablet = get_tablet(tablet_id, false);
+        if (tablet == nullptr) {
+            removed_tablet_ids->push_back(tablet_id);
+        } else {
+            _build_tablet_report(tablet, &expire_txn_map, tablets_info);
+        }
+    }
+    VLOG(1) << "Report " << tablets_info->size() << " changed tablets info and " << removed_tablet_ids->size()
+            << " removed tablets";
+    return Status::OK();
+}
+
 Status TabletManager::start_trash_sweep() {
     {
         // we use this vector to save all tablet ptr for saving lock time.
@@ -1156,6 +1214,7 @@ Status TabletManager::_drop_tablet_unlocked(TTabletId tablet_id, TabletDropFlag
     TabletSharedPtr dropped_tablet = it->second;
     tablet_map.erase(it);
     _remove_tablet_from_partition(*dropped_tablet);
+    mark_tablet_dirty(tablet_id);
     dropped_tablet->stop_compaction();
 
     DroppedTabletInfo drop_info{.tablet = dropped_tablet, .flag = flag};
@@ -119,8 +119,22 @@ public:
     // Returns NotFound if the corresponding tablet does not exist.
     Status report_tablet_info(TTabletInfo* tablet_info);
 
+    // Report all the tablets, the tablets marked dirty before are cleared.
     Status report_all_tablets_info(std::map<TTabletId, TTablet>* tablets_info);
 
+    // Mark the tablet to be reported by the next incremental report. Called when the info reported by the tablet,
+    // e.g. version, state or schema, may be changed, or when the tablet is added or dropped.
+    void mark_tablet_dirty(TTabletId tablet_id);
+
+    void mark_tablets_dirty(const std::vector<TTabletId>& tablet_ids);
+
+    // Report the tablets marked dirty since the last report and the tablets with expired transactions,
+    // the dirty tablets not found are returned in |removed_tablet_ids|. All the reported tablet ids are returned in
+    // |reported_tablet_ids|, they should be marked dirty again if the report isn't accepted by FE.
+    Status report_dirty_tablets_info(std::map<TTabletId, TTablet>* tablets_info,
+                                     std::vector<TTabletId>* removed_tablet_ids,
+                                     std::vector<TTabletId>* reported_tablet_ids);
+
     Status start_trash_sweep();
     // Prevent schema change executed concurrently.
     bool try_schema_change_lock(TTabletId tablet_id);
@@ -205,6 +219,10 @@ private:
 
     void _build_tablet_stat();
 
+    static void _build_tablet_report(const TabletSharedPtr& tablet,
+                                     std::map<TabletInfo, std::vector<int64_t>>* expire_txn_map,
+                                     std::map<TTabletId, TTablet>* tablets_info);
+
     void _add_tablet_to_partition(const Tablet& tablet);
 
     void _remove_tablet_from_partition(const Tablet& tablet);
@@ -240,6 +258,10 @@ private:
     // last update time of tablet stat cache
     int64_t _last_update_stat_ms;
 
+    std::mutex _dirty_tablets_lock;
+    // the tablets to report by the next incremental tablet report
+    std::unordered_set<TTabletId> _dirty_tablet_ids;
+
     // context for compaction checker
     size_t _cur_shard = 0;
     std::unordered_set<int64_t> _shard_visited_tablet_ids;
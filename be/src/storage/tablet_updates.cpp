@@ -504,6 +504,7 @@ Status TabletUpdates::rowset_commit(int64_t version, const RowsetSharedPtr& rows
                 }
                 LOG(INFO) << "add rowset to pending commits tablet:" << _tablet.tablet_id() << " version:" << version
                           << " txn_id: " << rowset->txn_id() << " #pending:" << _pending_commits.size();
+                _tablet.mark_report_dirty();
             }
             return Status::OK();
         }
@@ -595,6 +596,7 @@ Status TabletUpdates::_rowset_commit_unlocked(int64_t version, const RowsetShare
         std::lock_guard lg(_rowset_stats_lock);
         _rowset_stats.emplace(rowsetid, std::move(rowset_stats));
     }
+    _tablet.mark_report_dirty();
     VLOG(1) << "rowset commit finished: " << _debug_string(false, true);
     return Status::OK();
 }
@@ -1004,6 +1006,8 @@ void TabletUpdates::_apply_rowset_commit(const EditVersionInfo& version_info) {
         _apply_version_idx++;
         _apply_version_changed.notify_all();
     }
+    // the stats of the rowsets are updated by the apply
+    _tablet.mark_report_dirty();
 
     st = index.on_commited();
     if (!st.ok()) {
@@ -1262,6 +1266,7 @@ Status TabletUpdates::_commit_compaction(std::unique_ptr<CompactionInfo>* pinfo,
               << " size:" << PrettyPrinter::print(rowset->data_disk_size(), TUnit::BYTES)
               << " #pending:" << _pending_commits.size()
               << " state_memory:" << PrettyPrinter::print(_compaction_state->memory_usage(), TUnit::BYTES);
+    _tablet.mark_report_dirty();
     VLOG(1) << "update compaction commit " << _debug_string(false, true);
     _check_for_apply();
     *commit_version = edit_version_info_ptr->version;
@@ -1403,6 +1408,8 @@ void TabletUpdates::_apply_compaction_commit(const EditVersionInfo& version_info
         _apply_version_idx++;
         _apply_version_changed.notify_all();
     }
+    // the stats of the rowsets are updated by the apply
+    _tablet.mark_report_dirty();
 
     st = index.on_commited();
     if (!st.ok()) {
@@ -2831,6 +2838,7 @@ Status TabletUpdates::load_snapshot(const SnapshotMeta& snapshot_meta) {
         _update_total_stats(_edit_version_infos[_apply_version_idx]->rowsets, nullptr, nullptr);
 
         _apply_version_changed.notify_all();
+        _tablet.mark_report_dirty();
 
         LOG(INFO) << "load full snapshot done " << _debug_string(false);
 
@@ -0,0 +1,276 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#include "runtime/stream_load/group_commit_mgr.h"
+
+#include <event2/http.h>
+#include <gtest/gtest.h>
+
+#include <atomic>
+#include <chrono>
+#include <future>
+#include <memory>
+#include <thread>
+#include <vector>
+
+#include "common/config.h"
+#include "gen_cpp/FrontendService_types.h"
+#include "http/http_common.h"
+#include "http/http_request.h"
+#include "runtime/exec_env.h"
+#include "runtime/stream_load/load_stream_mgr.h"
+#include "runtime/stream_load/stream_load_context.h"
+#include "runtime/stream_load/stream_load_executor.h"
+#include "runtime/stream_load/stream_load_pipe.h"
+#include "testutil/assert.h"
+#include "util/byte_buffer.h"
+#include "util/starrocks_metrics.h"
+
+namespace starrocks {
+
+extern TLoadTxnBeginResult k_stream_load_begin_result;
+extern TLoadTxnCommitResult k_stream_load_commit_result;
+extern TLoadTxnRollbackResult k_stream_load_rollback_result;
+extern Status k_stream_load_plan_status;
+
+class GroupCommitMgrTest : public testing::Test {
+public:
+    void SetUp() override {
+        k_stream_load_begin_result = TLoadTxnBeginResult();
+        k_stream_load_commit_result = TLoadTxnCommitResult();
+        k_stream_load_rollback_result = TLoadTxnRollbackResult();
+        k_stream_load_plan_status = Status::OK();
+        _old_interval_ms = config::stream_load_group_commit_interval_ms;
+        _old_max_bytes = config::stream_load_group_commit_max_bytes;
+
+        _env._load_stream_mgr = new LoadStreamMgr();
+        _env._stream_load_executor = new StreamLoadExecutor(&_env);
+        _mgr = std::make_unique<GroupCommitMgr>(&_env, [this](HttpRequest* req, StreamLoadContext* ctx) -> Status {
+            if (_plan_gate.valid()) {
+                _plan_gate.wait();
+            }
+            _num_plans++;
+            RETURN_IF_ERROR(_plan_status);
+            auto pipe = std::make_shared<StreamLoadPipe>();
+            RETURN_IF_ERROR(_env.load_stream_mgr()->put(ctx->id, pipe));
+            ctx->body_sink = pipe;
+            return _env.stream_load_executor()->execute_plan_fragment(ctx);
+        });
+    }
+
+    void TearDown() override {
+        _mgr.reset();
+        for (auto* req : _requests) {
+            delete req;
+        }
+        for (auto* ev_req : _ev_requests) {
+            evhttp_request_free(ev_req);
+        }
+        for (auto* ctx : _ctxs) {
+            if (ctx->unref()) {
+                delete ctx;
+            }
+        }
+        delete _env._stream_load_executor;
+        _env._stream_load_executor = nullptr;
+        delete _env._load_stream_mgr;
+        _env._load_stream_mgr = nullptr;
+        config::stream_load_group_commit_interval_ms = _old_interval_ms;
+        config::stream_load_group_commit_max_bytes = _old_max_bytes;
+    }
+
+protected:
+    HttpRequest* _new_request(const std::string& columns) {
+        auto* ev_req = evhttp_request_new(nullptr, nullptr);
+        _ev_requests.push_back(ev_req);
+        auto* req = new HttpRequest(ev_req);
+        _requests.push_back(req);
+        if (!columns.empty()) {
+            req->_headers.emplace(HTTP_COLUMNS, columns);
+        }
+        return req;
+    }
+
+    StreamLoadContext* _new_ctx(const std::string& table, const std::string& body) {
+        auto* ctx = new StreamLoadContext(&_env);
+        ctx->ref();
+        _ctxs.push_back(ctx);
+        ctx->db = "db";
+        ctx->table = table;
+        ctx->format = TFileFormatType::FORMAT_CSV_PLAIN;
+        ctx->body_bytes = body.size();
+        ctx->receive_bytes = body.size();
+        ctx->buffer = ByteBuffer::allocate(body.size() + 1);
+        ctx->buffer->put_bytes(body.data(), body.size());
+        return ctx;
+    }
+
+    // append a request, the returned future gets the result of its group
+    std::future<Status> _append(HttpRequest* req, StreamLoadContext* ctx, Status* append_status) {
+        auto promise = std::make_shared<std::promise<Status>>();
+        auto future = promise->get_future();
+        *append_status = _mgr->append(req, ctx, [promise](const Status& st) { promise->set_value(st); });
+        return future;
+    }
+
+    // groups are opened in the group commit threads
+    void _wait_plans(int num_plans) {
+        for (int i = 0; i < 1000 && _num_plans < num_plans; i++) {
+            std::this_thread::sleep_for(std::chrono::milliseconds(10));
+        }
+        ASSERT_EQ(num_plans, _num_plans.load());
+    }
+
+    static Status _wait(std::future<Status>& future) {
+        if (future.wait_for(std::chrono::seconds(10)) != std::future_status::ready) {
+            return Status::TimedOut("group is not committed");
+        }
+        return future.get();
+    }
+
+    ExecEnv _env;
+    std::unique_ptr<GroupCommitMgr> _mgr;
+    Status _plan_status;
+    // the plan waits for it if it's set
+    std::shared_future<void> _plan_gate;
+    std::atomic<int> _num_plans{0};
+    int32_t _old_interval_ms = 0;
+    int64_t _old_max_bytes = 0;
+
+    std::vector<evhttp_request*> _ev_requests;
+    std::vector<HttpRequest*> _requests;
+    std::vector<StreamLoadContext*> _ctxs;
+};
+
+TEST_F(GroupCommitMgrTest, test_can_group_commit) {
+    auto* req = _new_request("");
+    auto* ctx = _new_ctx("tbl", "1,a\n");
+    ASSERT_TRUE(GroupCommitMgr::can_group_commit(req, ctx));
+
+    ctx->format = TFileFormatType::FORMAT_JSON;
+    ASSERT_FALSE(GroupCommitMgr::can_group_commit(req, ctx));
+
+    ctx->format = TFileFormatType::FORMAT_CSV_PLAIN;
+    ctx->body_bytes = config::stream_load_group_commit_max_request_bytes + 1;
+    ASSERT_FALSE(GroupCommitMgr::can_group_commit(req, ctx));
+}
+
+TEST_F(GroupCommitMgrTest, test_group_and_seal_by_size) {
+    config::stream_load_group_commit_interval_ms = 600000;
+    config::stream_load_group_commit_max_bytes = 8;
+    k_stream_load_begin_result.txnId = 100;
+
+    Status st1;
+    Status st2;
+    Status st3;
+    auto* ctx1 = _new_ctx("tbl", "1,a");
+    auto* ctx2 = _new_ctx("tbl", "2,b\n");
+    auto* ctx3 = _new_ctx("tbl", "3,c\n");
+    auto future1 = _append(_new_request("k,v"), ctx1, &st1);
+    // a different plan, so it's in another group
+    auto future3 = _append(_new_request("k,v,c"), ctx3, &st3);
+    ASSERT_OK(st1);
+    ASSERT_OK(st3);
+    _wait_plans(2);
+    ASSERT_EQ(2u, _mgr->_groups.size());
+
+    // the group is sealed once it's large enough
+    auto future2 = _append(_new_request("k,v"), ctx2, &st2);
+    ASSERT_OK(st2);
+    ASSERT_OK(_wait(future1));
+    ASSERT_OK(_wait(future2));
+    ASSERT_EQ(100, ctx1->txn_id);
+    ASSERT_EQ(100, ctx2->txn_id);
+    ASSERT_EQ(1u, _mgr->_groups.size());
+    ASSERT_EQ(std::future_status::timeout, future3.wait_for(std::chrono::milliseconds(100)));
+
+    // the next request of the table opens a new group
+    Status st4;
+    auto future4 = _append(_new_request("k,v"), _new_ctx("tbl", "4,d\n"), &st4);
+    ASSERT_OK(st4);
+    _wait_plans(3);
+}
+
+TEST_F(GroupCommitMgrTest, test_commit_expired_group) {
+    config::stream_load_group_commit_interval_ms = 500;
+
+    Status st1;
+    Status st2;
+    auto future1 = _append(_new_request(""), _new_ctx("tbl", "1,a\n"), &st1);
+    auto future2 = _append(_new_request(""), _new_ctx("tbl", "2,b\n"), &st2);
+    ASSERT_OK(st1);
+    ASSERT_OK(st2);
+    ASSERT_OK(_wait(future1));
+    ASSERT_OK(_wait(future2));
+    ASSERT_EQ(1, _num_plans.load());
+    ASSERT_TRUE(_mgr->_groups.empty());
+}
+
+TEST_F(GroupCommitMgrTest, test_plan_fail) {
+    config::stream_load_group_commit_interval_ms = 100;
+    _plan_status = Status::InternalError("plan failed");
+    int64_t rollbacks = StarRocksMetrics::instance()->txn_rollback_request_total.value();
+
+    Status st;
+    auto future = _append(_new_request(""), _new_ctx("tbl", "1,a\n"), &st);
+    ASSERT_OK(st);
+    ASSERT_EQ("plan failed", _wait(future).get_error_msg());
+    // the transaction begun for the group is rolled back
+    ASSERT_EQ(rollbacks + 1, StarRocksMetrics::instance()->txn_rollback_request_total.value());
+    ASSERT_TRUE(_mgr->_groups.empty());
+
+    // the next request opens a new group
+    _plan_status = Status::OK();
+    auto future2 = _append(_new_request(""), _new_ctx("tbl", "2,b\n"), &st);
+    ASSERT_OK(st);
+    ASSERT_OK(_wait(future2));
+    ASSERT_EQ(2, _num_plans.load());
+}
+
+TEST_F(GroupCommitMgrTest, test_append_without_waiting_for_open) {
+    config::stream_load_group_commit_interval_ms = 100;
+    std::promise<void> gate;
+    _plan_gate = gate.get_future().share();
+
+    // requests join the group while it's being opened in a group commit thread
+    Status st1;
+    Status st2;
+    auto future1 = _append(_new_request(""), _new_ctx("tbl", "1,a\n"), &st1);
+    auto future2 = _append(_new_request(""), _new_ctx("tbl", "2,b\n"), &st2);
+    ASSERT_OK(st1);
+    ASSERT_OK(st2);
+    ASSERT_EQ(std::future_status::timeout, future1.wait_for(std::chrono::milliseconds(200)));
+    ASSERT_EQ(0, _num_plans.load());
+
+    gate.set_value();
+    ASSERT_OK(_wait(future1));
+    ASSERT_OK(_wait(future2));
+    ASSERT_EQ(1, _num_plans.load());
+}
+
+TEST_F(GroupCommitMgrTest, test_load_fail) {
+    config::stream_load_group_commit_interval_ms = 100;
+    k_stream_load_plan_status = Status::InternalError("load failed");
+
+    Status st1;
+    Status st2;
+    auto future1 = _append(_new_request(""), _new_ctx("tbl", "1,a\n"), &st1);
+    auto future2 = _append(_new_request(""), _new_ctx("tbl", "2,b\n"), &st2);
+    ASSERT_OK(st1);
+    ASSERT_OK(st2);
+    // every request of the group gets the error
+    ASSERT_EQ("load failed", _wait(future1).get_error_msg());
+    ASSERT_EQ("load failed", _wait(future2).get_error_msg());
+}
+
+TEST_F(GroupCommitMgrTest, test_commit_fail) {
+    config::stream_load_group_commit_interval_ms = 100;
+    k_stream_load_commit_result.status.__set_status_code(TStatusCode::INTERNAL_ERROR);
+    k_stream_load_commit_result.status.__set_error_msgs({"commit failed"});
+
+    Status st;
+    auto future = _append(_new_request(""), _new_ctx("tbl", "1,a\n"), &st);
+    ASSERT_OK(st);
+    ASSERT_EQ("commit failed", _wait(future).get_error_msg());
+}
+
+} // namespace starrocks
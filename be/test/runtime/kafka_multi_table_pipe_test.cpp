@@ -0,0 +1,73 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#include "runtime/routine_load/kafka_multi_table_pipe.h"
+
+#include <gtest/gtest.h>
+
+namespace starrocks {
+
+static std::string read_all(StreamLoadPipe* pipe) {
+    char buf[1024];
+    size_t data_size = sizeof(buf);
+    bool eof = false;
+    std::string data;
+    while (true) {
+        data_size = sizeof(buf);
+        Status st = pipe->read((uint8_t*)buf, &data_size, &eof);
+        EXPECT_TRUE(st.ok());
+        if (eof || !st.ok()) {
+            break;
+        }
+        data.append(buf, data_size);
+    }
+    return data;
+}
+
+TEST(KafkaMultiTablePipeTest, route_csv) {
+    KafkaMultiTablePipe pipe("t1", 1, "||", "");
+    auto t2_pipe = std::make_shared<KafkaConsumerPipe>();
+    pipe.add_table_pipe("t2", t2_pipe);
+
+    std::vector<std::string> rows = {"1||t1||a", "2||t2||b", "3||t3||c", "4", "5||t2"};
+    for (auto& row : rows) {
+        ASSERT_TRUE(pipe.append_with_row_delimiter(row.data(), row.size(), '\n').ok());
+    }
+    ASSERT_TRUE(pipe.finish().ok());
+
+    // rows without the route column stay in the pipe of the task, and rows of unknown tables are dropped
+    ASSERT_EQ("1||t1||a\n4\n", read_all(&pipe));
+    ASSERT_EQ("2||t2||b\n5||t2\n", read_all(t2_pipe.get()));
+    ASSERT_EQ(1, pipe.num_unrouted_rows());
+}
+
+TEST(KafkaMultiTablePipeTest, route_json) {
+    KafkaMultiTablePipe pipe("t1", -1, "", "tbl");
+    auto t2_pipe = std::make_shared<KafkaConsumerPipe>();
+    pipe.add_table_pipe("t2", t2_pipe);
+
+    std::vector<std::string> rows = {R"({"k1": 1, "tbl": "t2"})", R"({"tbl": "t3"})", R"({"k1": 2})", "[1, 2]"};
+    for (auto& row : rows) {
+        ASSERT_TRUE(pipe.append_json(row.data(), row.size(), '\n').ok());
+    }
+    ASSERT_TRUE(pipe.finish().ok());
+
+    ASSERT_EQ(rows[2] + rows[3], read_all(&pipe));
+    ASSERT_EQ(rows[0], read_all(t2_pipe.get()));
+    ASSERT_EQ(1, pipe.num_unrouted_rows());
+}
+
+TEST(KafkaMultiTablePipeTest, cancel) {
+    KafkaMultiTablePipe pipe("t1", 0, ",", "");
+    auto t2_pipe = std::make_shared<KafkaConsumerPipe>();
+    pipe.add_table_pipe("t2", t2_pipe);
+
+    // closed by the consumer of the task, the load of other tables goes on
+    pipe.close();
+    std::string row = "t2,1";
+    ASSERT_TRUE(pipe.append_with_row_delimiter(row.data(), row.size(), '\n').ok());
+
+    pipe.cancel(Status::Cancelled("cancelled"));
+    ASSERT_FALSE(t2_pipe->append_with_row_delimiter(row.data(), row.size(), '\n').ok());
+}
+
+} // namespace starrocks
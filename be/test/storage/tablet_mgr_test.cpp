@@ -176,6 +176,50 @@ TEST_F(TabletMgrTest, DropTablet) {
     ASSERT_TRUE(!dir_exist);
 }
 
+TEST_F(TabletMgrTest, ReportDirtyTablets) {
+    TCreateTabletReq create_tablet_req = get_create_tablet_request(111, 3333);
+    std::vector<DataDir*> data_dirs;
+    data_dirs.push_back(_data_dir);
+    ASSERT_TRUE(_tablet_mgr->create_tablet(create_tablet_req, data_dirs).ok());
+
+    // the added tablet is reported
+    std::map<TTabletId, TTablet> tablets;
+    std::vector<TTabletId> removed_tablet_ids;
+    std::vector<TTabletId> reported_tablet_ids;
+    ASSERT_TRUE(_tablet_mgr->report_dirty_tablets_info(&tablets, &removed_tablet_ids, &reported_tablet_ids).ok());
+    ASSERT_EQ(1, tablets.count(111));
+    ASSERT_TRUE(removed_tablet_ids.empty());
+
+    // nothing changed since the last report
+    tablets.clear();
+    reported_tablet_ids.clear();
+    ASSERT_TRUE(_tablet_mgr->report_dirty_tablets_info(&tablets, &removed_tablet_ids, &reported_tablet_ids).ok());
+    ASSERT_TRUE(tablets.empty());
+    ASSERT_TRUE(reported_tablet_ids.empty());
+
+    // a full report clears the dirty tablets
+    _tablet_mgr->mark_tablet_dirty(111);
+    ASSERT_TRUE(_tablet_mgr->report_all_tablets_info(&tablets).ok());
+    ASSERT_EQ(1, tablets.count(111));
+    tablets.clear();
+    ASSERT_TRUE(_tablet_mgr->report_dirty_tablets_info(&tablets, &removed_tablet_ids, &reported_tablet_ids).ok());
+    ASSERT_TRUE(tablets.empty());
+
+    // the dropped tablet is reported as removed
+    ASSERT_TRUE(_tablet_mgr->drop_tablet(111, kMoveFilesToTrash).ok());
+    ASSERT_TRUE(_tablet_mgr->report_dirty_tablets_info(&tablets, &removed_tablet_ids, &reported_tablet_ids).ok());
+    ASSERT_TRUE(tablets.empty());
+    ASSERT_EQ(std::vector<TTabletId>{111}, removed_tablet_ids);
+
+    // the report isn't accepted, report the tablets again
+    _tablet_mgr->mark_tablets_dirty(reported_tablet_ids);
+    removed_tablet_ids.clear();
+    reported_tablet_ids.clear();
+    ASSERT_TRUE(_tablet_mgr->report_dirty_tablets_info(&tablets, &removed_tablet_ids, &reported_tablet_ids).ok());
+    ASSERT_EQ(std::vector<TTabletId>{111}, removed_tablet_ids);
+    ASSERT_EQ(std::vector<TTabletId>{111}, reported_tablet_ids);
+}
+
 TEST_F(TabletMgrTest, GetRowsetId) {
     // normal case
     {
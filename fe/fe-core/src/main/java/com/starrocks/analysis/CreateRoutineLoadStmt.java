@@ -105,6 +105,11 @@ public class CreateRoutineLoadStmt extends DdlStmt {
     public static final String JSONPATHS = "jsonpaths";
     public static final String JSONROOT = "json_root";
 
+    // load the topic into these tables besides the table of the job.
+    // every row is loaded into the table named by the value of its route column.
+    public static final String TARGET_TABLES_PROPERTY = "target_tables";
+    public static final String TABLE_ROUTE_COLUMN_PROPERTY = "table_route_column";
+
     // kafka type properties
     public static final String KAFKA_BROKER_LIST_PROPERTY = "kafka_broker_list";
     public static final String KAFKA_TOPIC_PROPERTY = "kafka_topic";
@@ -129,6 +134,8 @@ public class CreateRoutineLoadStmt extends DdlStmt {
             .add(LoadStmt.STRICT_MODE)
             .add(LoadStmt.TIMEZONE)
             .add(LoadStmt.PARTIAL_UPDATE)
+            .add(TARGET_TABLES_PROPERTY)
+            .add(TABLE_ROUTE_COLUMN_PROPERTY)
             .build();
 
     private static final ImmutableSet<String> KAFKA_PROPERTIES_SET = new ImmutableSet.Builder<String>()
@@ -167,6 +174,8 @@ public class CreateRoutineLoadStmt extends DdlStmt {
     private String jsonPaths = "";
     private String jsonRoot = ""; // MUST be a jsonpath string
     private boolean stripOuterArray = false;
+    private List<String> targetTables = Lists.newArrayList();
+    private String tableRouteColumn = "";
 
     // kafka related properties
     private String kafkaBrokerList;
@@ -257,6 +266,14 @@ public class CreateRoutineLoadStmt extends DdlStmt {
         return jsonRoot;
     }
 
+    public List<String> getTargetTables() {
+        return targetTables;
+    }
+
+    public String getTableRouteColumn() {
+        return tableRouteColumn;
+    }
+
     public String getKafkaBrokerList() {
         return kafkaBrokerList;
     }
@@ -425,6 +442,65 @@ public class CreateRoutineLoadStmt extends DdlStmt {
         } else {
             format = "csv"; // default csv
         }
+
+        checkTargetTables();
+    }
+
+    private void checkTargetTables() throws AnalysisException {
+        String targetTablesStr = jobProperties.get(TARGET_TABLES_PROPERTY);
+        if (Strings.isNullOrEmpty(targetTablesStr)) {
+            if (jobProperties.containsKey(TABLE_ROUTE_COLUMN_PROPERTY)) {
+                throw new AnalysisException(TABLE_ROUTE_COLUMN_PROPERTY + " can only be set with "
+                        + TARGET_TABLES_PROPERTY);
+            }
+            return;
+        }
+        for (String targetTable : targetTablesStr.split(",")) {
+            targetTable = targetTable.trim();
+            if (!targetTable.isEmpty() && !targetTable.equals(tableName) && !targetTables.contains(targetTable)) {
+                targetTables.add(targetTable);
+            }
+        }
+        if (targetTables.isEmpty()) {
+            return;
+        }
+
+        tableRouteColumn = Strings.nullToEmpty(jobProperties.get(TABLE_ROUTE_COLUMN_PROPERTY)).trim();
+        if (tableRouteColumn.isEmpty()) {
+            throw new AnalysisException(TABLE_ROUTE_COLUMN_PROPERTY + " must be set with " + TARGET_TABLES_PROPERTY);
+        }
+        if (routineLoadDesc != null && routineLoadDesc.getPartitionNames() != null) {
+            throw new AnalysisException("partitions can not be set with " + TARGET_TABLES_PROPERTY);
+        }
+        if (format.equals("json")) {
+            // the route column is a key of the json object in each message
+            if (!Strings.isNullOrEmpty(jsonPaths) || !Strings.isNullOrEmpty(jsonRoot) || stripOuterArray) {
+                throw new AnalysisException(JSONPATHS + ", " + JSONROOT + " and " + STRIP_OUTER_ARRAY
+                        + " can not be set with " + TARGET_TABLES_PROPERTY);
+            }
+        } else if (routineLoadDesc == null || routineLoadDesc.getColumnsInfo() == null
+                || getCsvRouteColumnIndex(routineLoadDesc.getColumnsInfo().getColumns(), tableRouteColumn) < 0) {
+            throw new AnalysisException(TABLE_ROUTE_COLUMN_PROPERTY + " " + tableRouteColumn
+                    + " must be a column of the csv data in COLUMNS");
+        }
+    }
+
+    // the index of the route column in a csv row, or -1 if it is not a column of the csv data
+    public static int getCsvRouteColumnIndex(List<ImportColumnDesc> columnDescs, String tableRouteColumn) {
+        if (columnDescs == null) {
+            return -1;
+        }
+        int index = 0;
+        for (ImportColumnDesc columnDesc : columnDescs) {
+            if (!columnDesc.isColumn()) {
+                continue;
+            }
+            if (columnDesc.getColumnName().equalsIgnoreCase(tableRouteColumn)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
     }
 
     private void checkDataSourceProperties() throws AnalysisException {
@@ -31,8 +31,10 @@ import com.starrocks.common.util.PrintableMap;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.load.EtlJobType;
 import com.starrocks.load.Load;
+import com.starrocks.load.loadv2.LoadPriority;
 import com.starrocks.sql.ast.AstVisitor;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -76,6 +78,7 @@ public class LoadStmt extends DdlStmt {
     public static final String STRICT_MODE = "strict_mode";
     public static final String TIMEZONE = "timezone";
     public static final String PARTIAL_UPDATE = "partial_update";
+    public static final String PRIORITY = "priority";
 
     // for load data from Baidu Object Store(BOS)
     public static final String BOS_ENDPOINT = "bos_endpoint";
@@ -112,6 +115,7 @@ public class LoadStmt extends DdlStmt {
             .add(VERSION)
             .add(TIMEZONE)
             .add(PARTIAL_UPDATE)
+            .add(PRIORITY)
             .build();
 
     public LoadStmt(LabelName label, List<DataDescription> dataDescriptions,
@@ -242,6 +246,12 @@ public class LoadStmt extends DdlStmt {
             }
         }
 
+        // priority
+        final String priority = properties.get(PRIORITY);
+        if (priority != null && LoadPriority.fromString(priority) == null) {
+            throw new DdlException(PRIORITY + " must be one of " + Arrays.toString(LoadPriority.values()));
+        }
+
         // time zone
         final String timezone = properties.get(TIMEZONE);
         if (timezone != null) {
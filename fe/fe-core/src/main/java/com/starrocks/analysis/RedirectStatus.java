@@ -20,21 +20,33 @@ package com.starrocks.analysis;
 public class RedirectStatus {
     private final boolean isForwardToLeader;
     private boolean needToWaitJournalSync;
+    // the statement only reads the replayed metadata, a non-leader FE could serve it if it's not too stale
+    private final boolean isFollowerReadable;
 
     public RedirectStatus() {
         isForwardToLeader = true;
         needToWaitJournalSync = true;
+        isFollowerReadable = false;
     }
 
     public RedirectStatus(boolean isForwardToLeader, boolean needToWaitJournalSync) {
+        this(isForwardToLeader, needToWaitJournalSync, false);
+    }
+
+    public RedirectStatus(boolean isForwardToLeader, boolean needToWaitJournalSync, boolean isFollowerReadable) {
         this.isForwardToLeader = isForwardToLeader;
         this.needToWaitJournalSync = needToWaitJournalSync;
+        this.isFollowerReadable = isFollowerReadable;
     }
 
     public boolean isForwardToLeader() {
         return isForwardToLeader;
     }
 
+    public boolean isFollowerReadable() {
+        return isFollowerReadable;
+    }
+
     public boolean isNeedToWaitJournalSync() {
         return needToWaitJournalSync;
     }
@@ -46,4 +58,6 @@ public class RedirectStatus {
     public static RedirectStatus FORWARD_NO_SYNC = new RedirectStatus(true, false);
     public static RedirectStatus FORWARD_WITH_SYNC = new RedirectStatus(true, true);
     public static RedirectStatus NO_FORWARD = new RedirectStatus(false, false);
+    // forwarded to leader, unless the session allows reading the metadata of a follower that is fresh enough
+    public static RedirectStatus FORWARD_NO_SYNC_OR_FOLLOWER_READ = new RedirectStatus(true, false, true);
 }
@@ -38,6 +38,7 @@ import com.starrocks.common.UserException;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
 import com.starrocks.common.util.DebugUtil;
+import com.starrocks.common.util.IntentionLock;
 import com.starrocks.common.util.QueryableReentrantReadWriteLock;
 import com.starrocks.common.util.Util;
 import com.starrocks.persist.CreateTableInfo;
@@ -85,6 +86,11 @@ public class Database extends MetaObject implements Writable {
     private long id;
     private String fullQualifiedName;
     private QueryableReentrantReadWriteLock rwLock;
+    // only used if Config.enable_table_level_lock is true, see IntentionLock for the lock modes
+    private IntentionLock intentionLock;
+    // increased when the write lock is got and released, so it's odd if a writer holds the lock.
+    // Readers without lock could validate what they read by it, like a seqlock.
+    private volatile long writeVersion = 0;
 
     // table family group map
     private Map<Long, Table> idToTable;
@@ -116,6 +122,7 @@ public class Database extends MetaObject implements Writable {
             this.fullQualifiedName = "";
         }
         this.rwLock = new QueryableReentrantReadWriteLock(true);
+        this.intentionLock = new IntentionLock();
         this.idToTable = new ConcurrentHashMap<>();
         this.nameToTable = new ConcurrentHashMap<>();
         this.dataQuotaBytes = FeConstants.default_db_data_quota_bytes;
@@ -154,6 +161,7 @@ public class Database extends MetaObject implements Writable {
         long startMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
         Thread formerOwner = rwLock.getOwner();
         this.rwLock.readLock().lock();
+        lockShared();
         logSlowLockEventIfNeeded(startMs, "readLock", formerOwner);
     }
 
@@ -162,11 +170,12 @@ public class Database extends MetaObject implements Writable {
         long startMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
         Thread formerOwner = rwLock.getOwner();
         this.rwLock.readLock().lock();
+        lockShared();
         logSlowLockEventIfNeeded(startMs, "readLock", formerOwner);
         if (exist) {
             return true;
         } else {
-            this.rwLock.readLock().unlock();
+            readUnlock();
             return false;
         }
     }
@@ -179,6 +188,9 @@ public class Database extends MetaObject implements Writable {
                 logTryLockFailureEvent("readLock");
                 return false;
             }
+            if (!tryLockShared(startMs, timeout, unit)) {
+                return false;
+            }
             logSlowLockEventIfNeeded(startMs, "tryReadLock", formerOwner);
             return true;
         } catch (InterruptedException e) {
@@ -196,11 +208,14 @@ public class Database extends MetaObject implements Writable {
                 logTryLockFailureEvent("readLock");
                 return false;
             }
+            if (!tryLockShared(startMs, timeout, unit)) {
+                return false;
+            }
             logSlowLockEventIfNeeded(startMs, "tryReadLock", formerOwner);
             if (exist) {
                 return true;
             } else {
-                this.rwLock.readLock().unlock();
+                readUnlock();
                 return false;
             }
         } catch (InterruptedException e) {
@@ -211,6 +226,99 @@ public class Database extends MetaObject implements Writable {
     }
 
     public void readUnlock() {
+        if (Config.enable_table_level_lock) {
+            intentionLock.unlock(IntentionLock.Mode.SHARED);
+        }
+        this.rwLock.readLock().unlock();
+    }
+
+    // the SHARED mode of intention lock makes the db read lock exclude the table level writers
+    private void lockShared() {
+        if (Config.enable_table_level_lock) {
+            intentionLock.lock(IntentionLock.Mode.SHARED);
+        }
+    }
+
+    // release the db read lock already got if failed
+    private boolean tryLockShared(long startMs, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!Config.enable_table_level_lock) {
+            return true;
+        }
+        long leftMs = unit.toMillis(timeout)
+                - (TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS) - startMs);
+        boolean locked = false;
+        try {
+            locked = intentionLock.tryLock(IntentionLock.Mode.SHARED, Math.max(0, leftMs), TimeUnit.MILLISECONDS);
+        } finally {
+            if (!locked) {
+                this.rwLock.readLock().unlock();
+                logTryLockFailureEvent("readLock");
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Intention shared lock, the caller must read lock all the tables it reads after this.
+     * It only excludes the db write lock, table level writers can go on with the tables not read.
+     */
+    public void intentionReadLock() {
+        long startMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
+        Thread formerOwner = rwLock.getOwner();
+        this.rwLock.readLock().lock();
+        logSlowLockEventIfNeeded(startMs, "intentionReadLock", formerOwner);
+    }
+
+    public void intentionReadUnlock() {
+        this.rwLock.readLock().unlock();
+    }
+
+    /**
+     * Intention exclusive lock, the caller must write lock all the tables it changes after this.
+     * It excludes the db read lock and the db write lock, but not the other intention locks.
+     * Same as tryWriteLock if table level lock is not enabled.
+     */
+    public boolean tryIntentionWriteLock(long timeout, TimeUnit unit) {
+        if (!Config.enable_table_level_lock) {
+            return tryWriteLock(timeout, unit);
+        }
+        try {
+            long startMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
+            Thread formerOwner = rwLock.getOwner();
+            if (!this.rwLock.readLock().tryLock(timeout, unit)) {
+                logTryLockFailureEvent("intentionWriteLock");
+                return false;
+            }
+            long leftMs = unit.toMillis(timeout)
+                    - (TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS) - startMs);
+            boolean locked = false;
+            try {
+                locked = intentionLock.tryLock(IntentionLock.Mode.INTENTION_EXCLUSIVE, Math.max(0, leftMs),
+                        TimeUnit.MILLISECONDS);
+            } finally {
+                if (!locked) {
+                    this.rwLock.readLock().unlock();
+                }
+            }
+            if (!locked) {
+                logTryLockFailureEvent("intentionWriteLock");
+                return false;
+            }
+            logSlowLockEventIfNeeded(startMs, "tryIntentionWriteLock", formerOwner);
+            return true;
+        } catch (InterruptedException e) {
+            LOG.warn("failed to try intention write lock at db[" + id + "]", e);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void intentionWriteUnlock() {
+        if (!Config.enable_table_level_lock) {
+            writeUnlock();
+            return;
+        }
+        intentionLock.unlock(IntentionLock.Mode.INTENTION_EXCLUSIVE);
         this.rwLock.readLock().unlock();
     }
 
@@ -218,6 +326,7 @@ public class Database extends MetaObject implements Writable {
         long startMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
         Thread formerOwner = rwLock.getOwner();
         this.rwLock.writeLock().lock();
+        onWriteLocked();
         logSlowLockEventIfNeeded(startMs, "writeLock", formerOwner);
     }
 
@@ -226,11 +335,12 @@ public class Database extends MetaObject implements Writable {
         long startMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
         Thread formerOwner = rwLock.getOwner();
         this.rwLock.writeLock().lock();
+        onWriteLocked();
         logSlowLockEventIfNeeded(startMs, "writeLock", formerOwner);
         if (exist) {
             return true;
         } else {
-            this.rwLock.writeLock().unlock();
+            writeUnlock();
             return false;
         }
     }
@@ -243,6 +353,7 @@ public class Database extends MetaObject implements Writable {
                 logTryLockFailureEvent("writeLock");
                 return false;
             }
+            onWriteLocked();
             logSlowLockEventIfNeeded(startMs, "tryWriteLock", formerOwner);
             return true;
         } catch (InterruptedException e) {
@@ -260,11 +371,12 @@ public class Database extends MetaObject implements Writable {
                 logTryLockFailureEvent("tryWriteLock");
                 return false;
             }
+            onWriteLocked();
             logSlowLockEventIfNeeded(startMs, "tryWriteLock", formerOwner);
             if (exist) {
                 return true;
             } else {
-                this.rwLock.writeLock().unlock();
+                writeUnlock();
                 return false;
             }
         } catch (InterruptedException e) {
@@ -275,9 +387,22 @@ public class Database extends MetaObject implements Writable {
     }
 
     public void writeUnlock() {
+        if (this.rwLock.getWriteHoldCount() == 1) {
+            writeVersion++;
+        }
         this.rwLock.writeLock().unlock();
     }
 
+    private void onWriteLocked() {
+        if (this.rwLock.getWriteHoldCount() == 1) {
+            writeVersion++;
+        }
+    }
+
+    public long getWriteVersion() {
+        return writeVersion;
+    }
+
     public boolean isWriteLockHeldByCurrentThread() {
         return this.rwLock.writeLock().isHeldByCurrentThread();
     }
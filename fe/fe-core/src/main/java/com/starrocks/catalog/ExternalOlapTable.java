@@ -497,8 +497,10 @@ public class ExternalOlapTable extends OlapTable {
                         }
                     }
                 }
-                addPartition(partition);
+                idToPartition.put(partition.getId(), partition);
+                nameToPartition.put(partition.getName(), partition);
             }
+            publishPartitionSnapshot();
             long endOfTabletMetaBuild = System.currentTimeMillis();
 
             SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getOrCreateSystemInfo(clusterId);
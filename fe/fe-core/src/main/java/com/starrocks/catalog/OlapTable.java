@@ -139,6 +139,9 @@ public class OlapTable extends Table implements GsonPostProcessable {
     @SerializedName(value = "idToPartition")
     protected Map<Long, Partition> idToPartition = new HashMap<>();
     protected Map<String, Partition> nameToPartition = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
+    // immutable copy of idToPartition and nameToPartition, must be published after changing the partitions,
+    // it's only kept when enable_optimistic_planning is set
+    protected transient volatile PartitionSnapshot partitionSnapshot;
 
     @SerializedName(value = "defaultDistributionInfo")
     protected DistributionInfo defaultDistributionInfo;
@@ -310,6 +313,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
                 partition.setName(newName);
                 nameToPartition.clear();
                 nameToPartition.put(newName, partition);
+                publishPartitionSnapshot();
             }
         }
 
@@ -522,6 +526,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
                 idToPartition.put(newPartId, idToPartition.remove(entry.getValue()));
             }
         }
+        publishPartitionSnapshot();
 
         // for each partition, reset rollup index map
         for (Map.Entry<Long, Partition> entry : idToPartition.entrySet()) {
@@ -732,11 +737,35 @@ public class OlapTable extends Table implements GsonPostProcessable {
             partition.setName(newPartitionName);
             nameToPartition.put(newPartitionName, partition);
         }
+        publishPartitionSnapshot();
     }
 
     public void addPartition(Partition partition) {
         idToPartition.put(partition.getId(), partition);
         nameToPartition.put(partition.getName(), partition);
+        publishPartitionSnapshot();
+    }
+
+    protected void publishPartitionSnapshot() {
+        // copying the partitions costs O(n) on every partition change, only pay for it if the planner reads it
+        if (Config.enable_optimistic_planning) {
+            partitionSnapshot = new PartitionSnapshot(idToPartition, nameToPartition);
+        } else {
+            partitionSnapshot = null;
+        }
+    }
+
+    /**
+     * Return the latest partitions without lock.
+     */
+    public PartitionSnapshot getPartitionSnapshot() {
+        PartitionSnapshot snapshot = partitionSnapshot;
+        if (snapshot == null) {
+            // not published yet or enable_optimistic_planning is off, don't cache the copy which may be built
+            // concurrently with the writer
+            snapshot = new PartitionSnapshot(idToPartition, nameToPartition);
+        }
+        return snapshot;
     }
 
     // This is a private method.
@@ -753,6 +782,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
         if (partition != null) {
             idToPartition.remove(partition.getId());
             nameToPartition.remove(partitionName);
+            publishPartitionSnapshot();
 
             Preconditions.checkState(partitionInfo.getType() == PartitionType.RANGE);
             RangePartitionInfo rangePartitionInfo = (RangePartitionInfo) partitionInfo;
@@ -844,14 +874,18 @@ public class OlapTable extends Table implements GsonPostProcessable {
     public Partition getPartition(String partitionName, boolean isTempPartition) {
         if (isTempPartition) {
             return tempPartitions.getPartition(partitionName);
-        } else {
-            return nameToPartition.get(partitionName);
         }
+        PartitionSnapshot pinned = PartitionSnapshot.getPinned(this);
+        if (pinned != null) {
+            return pinned.getPartition(partitionName);
+        }
+        return nameToPartition.get(partitionName);
     }
 
     // get partition by id, including temp partitions
     public Partition getPartition(long partitionId) {
-        Partition partition = idToPartition.get(partitionId);
+        PartitionSnapshot pinned = PartitionSnapshot.getPinned(this);
+        Partition partition = pinned != null ? pinned.getPartition(partitionId) : idToPartition.get(partitionId);
         if (partition == null) {
             partition = tempPartitions.getPartition(partitionId);
         }
@@ -861,6 +895,10 @@ public class OlapTable extends Table implements GsonPostProcessable {
     // get all partitions except temp partitions
     @Override
     public Collection<Partition> getPartitions() {
+        PartitionSnapshot pinned = PartitionSnapshot.getPinned(this);
+        if (pinned != null) {
+            return pinned.getPartitions();
+        }
         return idToPartition.values();
     }
 
@@ -871,7 +909,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
 
     // get all partitions including temp partitions
     public Collection<Partition> getAllPartitions() {
-        List<Partition> partitions = Lists.newArrayList(idToPartition.values());
+        List<Partition> partitions = Lists.newArrayList(getPartitions());
         partitions.addAll(tempPartitions.getAllPartitions());
         return partitions;
     }
@@ -889,6 +927,10 @@ public class OlapTable extends Table implements GsonPostProcessable {
 
     // get all partitions' name except the temp partitions
     public Set<String> getPartitionNames() {
+        PartitionSnapshot pinned = PartitionSnapshot.getPinned(this);
+        if (pinned != null) {
+            return Sets.newHashSet(pinned.getPartitionNames());
+        }
         return Sets.newHashSet(nameToPartition.keySet());
     }
 
@@ -1278,6 +1320,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
             idToPartition.put(partition.getId(), partition);
             nameToPartition.put(partition.getName(), partition);
         }
+        publishPartitionSnapshot();
 
         if (GlobalStateMgr.getCurrentStateJournalVersion() >= FeMetaVersion.VERSION_9) {
             if (in.readBoolean()) {
@@ -1351,6 +1394,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
         for (Partition partition : idToPartition.values()) {
             nameToPartition.put(partition.getName(), partition);
         }
+        publishPartitionSnapshot();
 
         // The table may be restored from another cluster, it should be set to current cluster id.
         clusterId = GlobalStateMgr.getCurrentState().getClusterId();
@@ -1426,6 +1470,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
 
         idToPartition.put(newPartition.getId(), newPartition);
         nameToPartition.put(newPartition.getName(), newPartition);
+        publishPartitionSnapshot();
 
         DataProperty dataProperty = partitionInfo.getDataProperty(oldPartition.getId());
         short replicationNum = partitionInfo.getReplicationNum(oldPartition.getId());
@@ -1795,6 +1840,7 @@ public class OlapTable extends Table implements GsonPostProcessable {
         if (srcPartition != null) {
             idToPartition.remove(srcPartition.getId());
             nameToPartition.remove(sourcePartitionName);
+            publishPartitionSnapshot();
             partitionInfo.dropPartition(srcPartition.getId());
             GlobalStateMgr.getCurrentState().onErasePartition(srcPartition);
         }
@@ -0,0 +1,72 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * PartitionSnapshot is an immutable view of the partitions (temp partitions excluded) of an OlapTable.
+ * The writers of OlapTable build a new snapshot after changing the partitions and swap it in,
+ * so the readers could get a consistent view of the partitions without any lock.
+ *
+ * The planner pins the snapshots during planning by pin() and unpin(): the first time a table's partitions are read
+ * by the planning thread, the current snapshot of the table is pinned, and all the following reads of the same
+ * planning see the same partitions, even if partitions are added or dropped concurrently.
+ */
+public class PartitionSnapshot {
+    private static final ThreadLocal<Map<OlapTable, PartitionSnapshot>> PINNED = new ThreadLocal<>();
+
+    private final ImmutableMap<Long, Partition> idToPartition;
+    private final ImmutableSortedMap<String, Partition> nameToPartition;
+
+    public PartitionSnapshot(Map<Long, Partition> idToPartition, Map<String, Partition> nameToPartition) {
+        this.idToPartition = ImmutableMap.copyOf(idToPartition);
+        this.nameToPartition = ImmutableSortedMap.copyOf(nameToPartition, String.CASE_INSENSITIVE_ORDER);
+    }
+
+    public Partition getPartition(long partitionId) {
+        return idToPartition.get(partitionId);
+    }
+
+    public Partition getPartition(String partitionName) {
+        return nameToPartition.get(partitionName);
+    }
+
+    public Collection<Partition> getPartitions() {
+        return idToPartition.values();
+    }
+
+    public Collection<String> getPartitionNames() {
+        return nameToPartition.keySet();
+    }
+
+    /**
+     * Start pinning the snapshots of the tables read by current thread.
+     * Return false if already pinned by the outer planning, which should unpin it.
+     */
+    public static boolean pin() {
+        if (PINNED.get() != null) {
+            return false;
+        }
+        PINNED.set(new IdentityHashMap<>());
+        return true;
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    // Return the pinned snapshot of the table, or null if current thread doesn't pin the snapshots
+    static PartitionSnapshot getPinned(OlapTable table) {
+        Map<OlapTable, PartitionSnapshot> pinned = PINNED.get();
+        if (pinned == null) {
+            return null;
+        }
+        return pinned.computeIfAbsent(table, OlapTable::getPartitionSnapshot);
+    }
+}
@@ -13,6 +13,7 @@ import com.starrocks.common.io.Writable;
 import com.starrocks.persist.ResourceGroupOpEntry;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryQueueManager;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.ast.AlterResourceGroupStmt;
 import com.starrocks.sql.ast.CreateResourceGroupStmt;
@@ -339,6 +340,7 @@ public class ResourceGroupMgr implements Writable {
     public void dropResourceGroupUnlocked(String name) {
         ResourceGroup wg = resourceGroupMap.get(name);
         removeResourceGroupInternal(name);
+        QueryQueueManager.getInstance().removeQueue(name);
         wg.setVersion(GlobalStateMgr.getCurrentState().getNextId());
         ResourceGroupOpEntry workGroupOp = new ResourceGroupOpEntry(TWorkGroupOpType.WORKGROUP_OP_DELETE, wg);
         GlobalStateMgr.getCurrentState().getEditLog().logResourceGroupOp(workGroupOp);
@@ -356,6 +358,7 @@ public class ResourceGroupMgr implements Writable {
                     break;
                 case WORKGROUP_OP_DELETE:
                     removeResourceGroupInternal(workgroup.getName());
+                    QueryQueueManager.getInstance().removeQueue(workgroup.getName());
                     break;
                 case WORKGROUP_OP_ALTER:
                     removeResourceGroupInternal(workgroup.getName());
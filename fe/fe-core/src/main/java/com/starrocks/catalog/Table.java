@@ -31,6 +31,7 @@ import com.starrocks.analysis.DescriptorTable.ReferencedPartitionInfo;
 import com.starrocks.common.FeMetaVersion;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
+import com.starrocks.common.util.QueryableReentrantReadWriteLock;
 import com.starrocks.lake.LakeTable;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.ast.CreateTableStmt;
@@ -49,6 +50,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
 /**
@@ -126,6 +128,12 @@ public class Table extends MetaObject implements Writable {
     // record all materialized views based on this Table
     private Set<Long> relatedMaterializedViews;
 
+    // not serialized field, only used if Config.enable_table_level_lock is true.
+    // created lazily because the table may be created by gson without calling the constructor.
+    private transient volatile QueryableReentrantReadWriteLock rwLock;
+    // same as Database.writeVersion, but for the table write lock
+    private transient volatile long writeVersion = 0;
+
     public Table(TableType type) {
         this.type = type;
         this.fullSchema = Lists.newArrayList();
@@ -511,4 +519,53 @@ public class Table extends MetaObject implements Writable {
         return relatedMaterializedViews;
     }
 
+    private QueryableReentrantReadWriteLock getRwLock() {
+        QueryableReentrantReadWriteLock lock = rwLock;
+        if (lock == null) {
+            synchronized (this) {
+                if (rwLock == null) {
+                    rwLock = new QueryableReentrantReadWriteLock(true);
+                }
+                lock = rwLock;
+            }
+        }
+        return lock;
+    }
+
+    // Table lock must be got after the intention lock of its db, see Database.intentionReadLock()
+    public void readLock() {
+        getRwLock().readLock().lock();
+    }
+
+    public void readUnlock() {
+        getRwLock().readLock().unlock();
+    }
+
+    public boolean tryWriteLock(long timeout, TimeUnit unit) throws InterruptedException {
+        QueryableReentrantReadWriteLock lock = getRwLock();
+        if (!lock.writeLock().tryLock(timeout, unit)) {
+            return false;
+        }
+        if (lock.getWriteHoldCount() == 1) {
+            writeVersion++;
+        }
+        return true;
+    }
+
+    public void writeUnlock() {
+        QueryableReentrantReadWriteLock lock = getRwLock();
+        if (lock.getWriteHoldCount() == 1) {
+            writeVersion++;
+        }
+        lock.writeLock().unlock();
+    }
+
+    public long getWriteVersion() {
+        return writeVersion;
+    }
+
+    public boolean isWriteLockHeldByCurrentThread() {
+        return getRwLock().writeLock().isHeldByCurrentThread();
+    }
+
 }
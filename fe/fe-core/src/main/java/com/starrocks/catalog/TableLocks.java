@@ -0,0 +1,156 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper to lock the tables of databases in a deadlock free order:
+ * the intention lock of the databases first, then the tables in ascending order of table id.
+ * The table locks are only used if Config.enable_table_level_lock is true.
+ */
+public class TableLocks {
+    private static final Logger LOG = LogManager.getLogger(TableLocks.class);
+
+    // table id is unique in all databases, so the order is global
+    private static List<Table> sortById(Collection<Table> tables) {
+        Map<Long, Table> idToTable = new TreeMap<>();
+        for (Table table : tables) {
+            idToTable.putIfAbsent(table.getId(), table);
+        }
+        return Lists.newArrayList(idToTable.values());
+    }
+
+    // the materialized views are in the same database as their base tables
+    private static Collection<Table> withMaterializedViews(Collection<Database> dbs, Collection<Table> tables) {
+        List<Table> result = Lists.newArrayList(tables);
+        for (Table table : tables) {
+            // null if the table is created by gson
+            if (table.getRelatedMaterializedViews() == null) {
+                continue;
+            }
+            for (long mvId : table.getRelatedMaterializedViews()) {
+                for (Database db : dbs) {
+                    Table mv = db.getTable(mvId);
+                    if (mv != null) {
+                        result.add(mv);
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void updateWaitTime(long startNs) {
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_TABLE_LOCK_WAIT_TIME.update(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs));
+        }
+    }
+
+    /**
+     * Switch from the read lock of the databases to the intention read lock of them and the read lock of the tables,
+     * so the writers of the other tables can go on. The caller must hold the read lock of all the databases.
+     * There is no gap between the two kinds of lock, the tables can't be changed during switching.
+     * The materialized views of the tables are locked too, since the optimizer may rewrite the query with them.
+     * The rollups are covered by the lock of their base table.
+     *
+     * @return the locked tables, which should be passed to unlockTablesRead()
+     */
+    public static List<Table> switchToTablesRead(Collection<Database> dbs, Collection<Table> tables) {
+        List<Table> sorted = sortById(withMaterializedViews(dbs, tables));
+        long startNs = System.nanoTime();
+        // the table writers are excluded by the db read lock, so it won't wait in fact
+        for (Table table : sorted) {
+            table.readLock();
+        }
+        updateWaitTime(startNs);
+        for (Database db : dbs) {
+            db.intentionReadLock();
+            db.readUnlock();
+        }
+        return sorted;
+    }
+
+    public static void unlockTablesRead(Collection<Database> dbs, List<Table> tables) {
+        for (Table table : tables) {
+            table.readUnlock();
+        }
+        for (Database db : dbs) {
+            db.intentionReadUnlock();
+        }
+    }
+
+    /**
+     * Lock the database in intention exclusive mode and then write lock the tables of the ids.
+     * Fall back to the write lock of database if the table level lock is disabled or none of the tables exist.
+     *
+     * @return the locked tables which should be passed to unlockTablesWrite(), or null if timeout.
+     */
+    public static List<Table> tryLockTablesWrite(Database db, Collection<Long> tableIds, long timeoutMs) {
+        List<Table> tables = Lists.newArrayList();
+        if (Config.enable_table_level_lock && tableIds != null) {
+            for (Long tableId : tableIds) {
+                Table table = db.getTable(tableId);
+                if (table != null) {
+                    tables.add(table);
+                }
+            }
+        }
+        if (tables.isEmpty()) {
+            return db.tryWriteLock(timeoutMs, TimeUnit.MILLISECONDS) ? tables : null;
+        }
+
+        long startNs = System.nanoTime();
+        if (!db.tryIntentionWriteLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        List<Table> sorted = sortById(tables);
+        List<Table> locked = Lists.newArrayListWithCapacity(sorted.size());
+        try {
+            for (Table table : sorted) {
+                long leftMs = timeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+                if (!table.tryWriteLock(Math.max(0, leftMs), TimeUnit.MILLISECONDS)) {
+                    LOG.warn("try write lock of table {} in db {} timeout after {}ms",
+                            table.getName(), db.getFullName(), timeoutMs);
+                    break;
+                }
+                locked.add(table);
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("interrupted when write lock tables of db {}", db.getFullName(), e);
+            Thread.currentThread().interrupt();
+        }
+        updateWaitTime(startNs);
+        if (locked.size() < sorted.size()) {
+            for (Table table : locked) {
+                table.writeUnlock();
+            }
+            db.intentionWriteUnlock();
+            return null;
+        }
+        return locked;
+    }
+
+    public static void unlockTablesWrite(Database db, List<Table> tables) {
+        if (tables.isEmpty()) {
+            db.writeUnlock();
+            return;
+        }
+        for (Table table : tables) {
+            table.writeUnlock();
+        }
+        db.intentionWriteUnlock();
+    }
+}
@@ -23,14 +23,17 @@ package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Table;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
 import com.starrocks.catalog.Replica.ReplicaState;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.util.LongLongHashMap;
+import com.starrocks.common.util.LongObjectHashMap;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.thrift.TPartitionVersionInfo;
@@ -46,18 +49,24 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 /*
  * this class stores a inverted index
  * key is tablet id. value is the related ids of this tablet
  * Checkpoint thread is no need to modify this inverted index, because this inverted index will not be wrote
  * into images, all meta data are in globalStateMgr, and the inverted index will be rebuild when FE restart.
+ *
+ * The index is split into stripes by tablet id, each stripe has its own lock and compact primitive keyed maps,
+ * so a large cluster with tens of millions of replicas costs much less heap, and the tablet report of a backend
+ * only holds the lock of one stripe at a time instead of blocking all the other visitors for seconds.
  */
 public class TabletInvertedIndex {
     private static final Logger LOG = LogManager.getLogger(TabletInvertedIndex.class);
@@ -67,39 +76,202 @@ public class TabletInvertedIndex {
     public static final TabletMeta NOT_EXIST_TABLET_META = new TabletMeta(NOT_EXIST_VALUE, NOT_EXIST_VALUE,
             NOT_EXIST_VALUE, NOT_EXIST_VALUE, NOT_EXIST_VALUE, TStorageMedium.HDD);
 
-    private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final Replica[] EMPTY_REPLICAS = new Replica[0];
 
-    // tablet id -> tablet meta
-    private Map<Long, TabletMeta> tabletMetaMap = Maps.newHashMap();
+    private static class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
-    // replica id -> tablet id
-    private Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+        // tablet id -> tablet meta
+        private final LongObjectHashMap<TabletMeta> tabletMetaMap = new LongObjectHashMap<>();
 
-    // tablet id -> (backend id -> replica)
-    private Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
-    // backing replica table, for visiting backend replicas faster.
-    // backend id -> (tablet id -> replica)
-    private Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+        // tablet id -> replicas of the tablet, at most one on each backend
+        private final LongObjectHashMap<Replica[]> replicaMetaMap = new LongObjectHashMap<>();
+        // backing replica map, for visiting backend replicas faster.
+        // backend id -> (tablet id -> replica)
+        private final LongObjectHashMap<LongObjectHashMap<Replica>> backingReplicaMetaMap =
+                new LongObjectHashMap<>();
+
+        private void readLock() {
+            lock.readLock().lock();
+        }
+
+        private void readUnlock() {
+            lock.readLock().unlock();
+        }
+
+        private void writeLock() {
+            lock.writeLock().lock();
+        }
+
+        private void writeUnlock() {
+            lock.writeLock().unlock();
+        }
+
+        private Replica getReplica(long tabletId, long backendId) {
+            Replica[] replicas = replicaMetaMap.get(tabletId);
+            if (replicas != null) {
+                for (Replica replica : replicas) {
+                    if (replica.getBackendId() == backendId) {
+                        return replica;
+                    }
+                }
+            }
+            return null;
+        }
+
+        // add the replica, or replace the replica on the same backend, return the replaced one
+        private Replica putReplica(long tabletId, Replica replica) {
+            Replica[] replicas = replicaMetaMap.get(tabletId);
+            if (replicas == null) {
+                replicas = EMPTY_REPLICAS;
+            }
+            for (int i = 0; i < replicas.length; i++) {
+                if (replicas[i].getBackendId() == replica.getBackendId()) {
+                    Replica old = replicas[i];
+                    replicas[i] = replica;
+                    return old;
+                }
+            }
+            Replica[] newReplicas = Arrays.copyOf(replicas, replicas.length + 1);
+            newReplicas[replicas.length] = replica;
+            replicaMetaMap.put(tabletId, newReplicas);
+            return null;
+        }
+
+        private Replica removeReplica(long tabletId, long backendId) {
+            Replica[] replicas = replicaMetaMap.get(tabletId);
+            if (replicas == null) {
+                return null;
+            }
+            for (int i = 0; i < replicas.length; i++) {
+                if (replicas[i].getBackendId() == backendId) {
+                    Replica old = replicas[i];
+                    if (replicas.length == 1) {
+                        replicaMetaMap.remove(tabletId);
+                    } else {
+                        Replica[] newReplicas = new Replica[replicas.length - 1];
+                        System.arraycopy(replicas, 0, newReplicas, 0, i);
+                        System.arraycopy(replicas, i + 1, newReplicas, i, replicas.length - i - 1);
+                        replicaMetaMap.put(tabletId, newReplicas);
+                    }
+                    return old;
+                }
+            }
+            return null;
+        }
+
+        private void removeBackingReplica(long backendId, long tabletId) {
+            LongObjectHashMap<Replica> backendReplicas = backingReplicaMetaMap.get(backendId);
+            if (backendReplicas != null) {
+                backendReplicas.remove(tabletId);
+                if (backendReplicas.isEmpty()) {
+                    backingReplicaMetaMap.remove(backendId);
+                }
+            }
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    // replica id -> tablet id, striped by replica id and guarded by the map itself.
+    // It's updated under the lock of a tablet stripe, but never takes a stripe lock, so there is no deadlock.
+    private final LongLongHashMap[] replicaToTabletMaps;
 
     public TabletInvertedIndex() {
+        int stripeNum = 1;
+        while (stripeNum < Config.tablet_inverted_index_stripe_num) {
+            stripeNum <<= 1;
+        }
+        stripes = new Stripe[stripeNum];
+        replicaToTabletMaps = new LongLongHashMap[stripeNum];
+        for (int i = 0; i < stripeNum; i++) {
+            stripes[i] = new Stripe();
+            replicaToTabletMaps[i] = new LongLongHashMap(NOT_EXIST_VALUE);
+        }
+        stripeMask = stripeNum - 1;
     }
 
-    private void readLock() {
-        this.lock.readLock().lock();
+    private LongLongHashMap getReplicaToTabletMap(long replicaId) {
+        return replicaToTabletMaps[Long.hashCode(replicaId) & stripeMask];
     }
 
-    private void readUnlock() {
-        this.lock.readLock().unlock();
+    private void putReplicaToTablet(long replicaId, long tabletId) {
+        LongLongHashMap map = getReplicaToTabletMap(replicaId);
+        synchronized (map) {
+            map.put(replicaId, tabletId);
+        }
+    }
+
+    private void removeReplicaToTablet(long replicaId) {
+        LongLongHashMap map = getReplicaToTabletMap(replicaId);
+        synchronized (map) {
+            map.remove(replicaId);
+        }
     }
 
-    private void writeLock() {
-        this.lock.writeLock().lock();
+    private int getStripeIndex(long tabletId) {
+        return Long.hashCode(tabletId) & stripeMask;
     }
 
-    private void writeUnlock() {
-        this.lock.writeLock().unlock();
+    private Stripe getStripe(long tabletId) {
+        return stripes[getStripeIndex(tabletId)];
     }
 
+    /**
+     * The differences between the tablets reported by a backend and the replicas in meta.
+     */
+    public static class TabletReportDiff {
+        // db id -> tablet id
+        public final ListMultimap<Long, Long> tabletSyncMap = LinkedListMultimap.create();
+        // db id -> tablet id
+        public final ListMultimap<Long, Long> tabletDeleteFromMeta = LinkedListMultimap.create();
+        // tablet ids which schema hash is valid
+        public final Set<Long> foundTabletsWithValidSchema = new HashSet<>();
+        // tablet ids which schema hash is invalid
+        public final Map<Long, TTabletInfo> foundTabletsWithInvalidSchema = new HashMap<>();
+        // storage medium -> tablet id
+        public final ListMultimap<TStorageMedium, Long> tabletMigrationMap = LinkedListMultimap.create();
+        // db id -> txn id -> [partition info]
+        public final Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish = Maps.newHashMap();
+        public final Map<Long, Long> transactionsToCommitTime = Maps.newHashMap();
+        public final ListMultimap<Long, Long> transactionsToClear = LinkedListMultimap.create();
+        // db id -> tablet id
+        public final ListMultimap<Long, Long> tabletRecoveryMap = LinkedListMultimap.create();
+        public final Set<Pair<Long, Integer>> tabletWithoutPartitionId = Sets.newHashSet();
+    }
+
+    /**
+     * Diff a whole tablet report of a backend in one pass, the replicas are compared stripe by stripe
+     * under the read lock of each stripe.
+     *
+     * @param incrementalTabletIds null for a full report, or the changed and dropped tablets of an incremental
+     *                             report, only the replicas of these tablets are compared
+     */
+    public TabletReportDiff diffTabletReport(long backendId, Map<Long, TTablet> backendTablets,
+                                             HashMap<Long, TStorageMedium> storageMediumMap,
+                                             Collection<Long> incrementalTabletIds) {
+        TabletReportDiff diff = new TabletReportDiff();
+        tabletReport(backendId, backendTablets, storageMediumMap,
+                diff.tabletSyncMap,
+                diff.tabletDeleteFromMeta,
+                diff.foundTabletsWithValidSchema,
+                diff.foundTabletsWithInvalidSchema,
+                diff.tabletMigrationMap,
+                diff.transactionsToPublish,
+                diff.transactionsToCommitTime,
+                diff.transactionsToClear,
+                diff.tabletRecoveryMap,
+                diff.tabletWithoutPartitionId,
+                incrementalTabletIds);
+        return diff;
+    }
+
+    /**
+     * Diff the tablets reported by a backend with the replicas in meta.
+     *
+     * @param incrementalTabletIds null for a full report, or the changed and dropped tablets of an incremental
+     *                             report, only the replicas of these tablets are compared
+     */
     public void tabletReport(long backendId, Map<Long, TTablet> backendTablets,
                              final HashMap<Long, TStorageMedium> storageMediumMap,
                              ListMultimap<Long, Long> tabletSyncMap,
@@ -111,7 +283,8 @@ public class TabletInvertedIndex {
                              Map<Long, Long> transactionsToCommitTime,
                              ListMultimap<Long, Long> transactionsToClear,
                              ListMultimap<Long, Long> tabletRecoveryMap,
-                             Set<Pair<Long, Integer>> tabletWithoutPartitionId) {
+                             Set<Pair<Long, Integer>> tabletWithoutPartitionId,
+                             Collection<Long> incrementalTabletIds) {
 
         for (TTablet backendTablet : backendTablets.values()) {
             for (TTabletInfo tabletInfo : backendTablet.tablet_infos) {
@@ -127,17 +300,44 @@ public class TabletInvertedIndex {
             backendStorageTypeCnt = be.getAvailableBackendStorageTypeCnt();
         }
 
-        readLock();
+        // the tablets to diff in each stripe for an incremental report
+        List<List<Long>> stripeTabletIds = null;
+        if (incrementalTabletIds != null) {
+            stripeTabletIds = new ArrayList<>(stripes.length);
+            for (int i = 0; i < stripes.length; i++) {
+                stripeTabletIds.add(new ArrayList<>());
+            }
+            for (long tabletId : incrementalTabletIds) {
+                stripeTabletIds.get(getStripeIndex(tabletId)).add(tabletId);
+            }
+        }
+
         long start = System.currentTimeMillis();
-        try {
-            LOG.info("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
+        LOG.info("begin to do {} tablet diff with backend[{}]. num: {}",
+                incrementalTabletIds != null ? "incremental" : "full", backendId, backendTablets.size());
+        // diff stripe by stripe, the other visitors of the index only wait for one stripe at most
+        for (int stripeIndex = 0; stripeIndex < stripes.length; stripeIndex++) {
+            Stripe stripe = stripes[stripeIndex];
+            if (stripeTabletIds != null && stripeTabletIds.get(stripeIndex).isEmpty()) {
+                continue;
+            }
+            stripe.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backingReplicaMetaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
+                long[] tabletIds = stripeTabletIds != null ? Longs.toArray(stripeTabletIds.get(stripeIndex))
+                        : replicaMetaWithBackend.keys();
                 // traverse replicas in meta with this backend
-                for (Map.Entry<Long, Replica> entry : replicaMetaWithBackend.entrySet()) {
-                    long tabletId = entry.getKey();
-                    Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-                    TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
+                for (long tabletId : tabletIds) {
+                    Replica replica = replicaMetaWithBackend.get(tabletId);
+                    if (replica == null) {
+                        // reported incrementally but not in meta, the caller handles it as (be - meta)
+                        continue;
+                    }
+                    TabletMeta tabletMeta = stripe.tabletMetaMap.get(tabletId);
+                    Preconditions.checkState(tabletMeta != null);
 
                     if (tabletMeta.isLakeTablet()) {
                         continue;
@@ -145,7 +345,6 @@ public class TabletInvertedIndex {
 
                     if (backendTablets.containsKey(tabletId)) {
                         TTablet backendTablet = backendTablets.get(tabletId);
-                        Replica replica = entry.getValue();
                         for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
                             if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
                                 foundTabletsWithValidSchema.add(tabletId);
@@ -271,9 +470,9 @@ public class TabletInvertedIndex {
                         tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
                     }
                 } // end for replicaMetaWithBackend
+            } finally {
+                stripe.readUnlock();
             }
-        } finally {
-            readUnlock();
         }
 
         long end = System.currentTimeMillis();
@@ -285,34 +484,31 @@ public class TabletInvertedIndex {
     }
 
     public Long getTabletIdByReplica(long replicaId) {
-        readLock();
-        try {
-            return replicaToTabletMap.get(replicaId);
-        } finally {
-            readUnlock();
+        LongLongHashMap map = getReplicaToTabletMap(replicaId);
+        long tabletId;
+        synchronized (map) {
+            tabletId = map.get(replicaId);
         }
+        return tabletId == NOT_EXIST_VALUE ? null : tabletId;
     }
 
     public TabletMeta getTabletMeta(long tabletId) {
-        readLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.readLock();
         try {
-            return tabletMetaMap.get(tabletId);
+            return stripe.tabletMetaMap.get(tabletId);
         } finally {
-            readUnlock();
+            stripe.readUnlock();
         }
     }
 
     public List<TabletMeta> getTabletMetaList(List<Long> tabletIdList) {
         List<TabletMeta> tabletMetaList = new ArrayList<>(tabletIdList.size());
-        readLock();
-        try {
-            for (Long tabletId : tabletIdList) {
-                tabletMetaList.add(tabletMetaMap.getOrDefault(tabletId, NOT_EXIST_TABLET_META));
-            }
-            return tabletMetaList;
-        } finally {
-            readUnlock();
+        for (Long tabletId : tabletIdList) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            tabletMetaList.add(tabletMeta != null ? tabletMeta : NOT_EXIST_TABLET_META);
         }
+        return tabletMetaList;
     }
 
     private boolean needSync(Replica replicaInFe, TTabletInfo backendTabletInfo) {
@@ -396,13 +592,14 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.writeLock();
         try {
-            tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
+            stripe.tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
 
             LOG.debug("add tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.writeUnlock();
         }
     }
 
@@ -410,23 +607,21 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.writeLock();
         try {
-            Map<Long, Replica> replicas = replicaMetaTable.rowMap().remove(tabletId);
+            Replica[] replicas = stripe.replicaMetaMap.remove(tabletId);
             if (replicas != null) {
-                for (Replica replica : replicas.values()) {
-                    replicaToTabletMap.remove(replica.getId());
-                }
-
-                for (long backendId : replicas.keySet()) {
-                    backingReplicaMetaTable.remove(backendId, tabletId);
+                for (Replica replica : replicas) {
+                    removeReplicaToTablet(replica.getId());
+                    stripe.removeBackingReplica(replica.getBackendId(), tabletId);
                 }
             }
-            tabletMetaMap.remove(tabletId);
+            stripe.tabletMetaMap.remove(tabletId);
 
             LOG.debug("delete tablet: {}", tabletId);
         } finally {
-            writeUnlock();
+            stripe.writeUnlock();
         }
     }
 
@@ -434,16 +629,25 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.writeLock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
-            replicaToTabletMap.put(replica.getId(), tabletId);
-            backingReplicaMetaTable.put(replica.getBackendId(), tabletId, replica);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            Replica old = stripe.putReplica(tabletId, replica);
+            if (old != null) {
+                removeReplicaToTablet(old.getId());
+            }
+            putReplicaToTablet(replica.getId(), tabletId);
+            LongObjectHashMap<Replica> backendReplicas = stripe.backingReplicaMetaMap.get(replica.getBackendId());
+            if (backendReplicas == null) {
+                backendReplicas = new LongObjectHashMap<>();
+                stripe.backingReplicaMetaMap.put(replica.getBackendId(), backendReplicas);
+            }
+            backendReplicas.put(tabletId, replica);
             LOG.debug("add replica {} of tablet {} in backend {}",
                     replica.getId(), tabletId, replica.getBackendId());
         } finally {
-            writeUnlock();
+            stripe.writeUnlock();
         }
     }
 
@@ -451,45 +655,48 @@ public class TabletInvertedIndex {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.writeLock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            if (replicaMetaTable.containsRow(tabletId)) {
-                Replica replica = replicaMetaTable.remove(tabletId, backendId);
-                replicaToTabletMap.remove(replica.getId());
-                replicaMetaTable.remove(tabletId, backendId);
-                backingReplicaMetaTable.remove(backendId, tabletId);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId));
+            Replica replica = stripe.removeReplica(tabletId, backendId);
+            if (replica != null) {
+                removeReplicaToTablet(replica.getId());
+                stripe.removeBackingReplica(backendId, tabletId);
                 LOG.debug("delete replica {} of tablet {} in backend {}",
                         replica.getId(), tabletId, backendId);
             } else {
                 // this may happen when fe restart after tablet is empty(bug cause)
                 // add log instead of assertion to observe
-                LOG.error("tablet[{}] contains no replica in inverted index", tabletId);
+                LOG.error("tablet[{}] contains no replica on backend {} in inverted index", tabletId, backendId);
             }
         } finally {
-            writeUnlock();
+            stripe.writeUnlock();
         }
     }
 
     public Replica getReplica(long tabletId, long backendId) {
-        readLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.readLock();
         try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId), tabletId);
-            return replicaMetaTable.get(tabletId, backendId);
+            Preconditions.checkState(stripe.tabletMetaMap.containsKey(tabletId), tabletId);
+            return stripe.getReplica(tabletId, backendId);
         } finally {
-            readUnlock();
+            stripe.readUnlock();
         }
     }
 
     public List<Replica> getReplicasByTabletId(long tabletId) {
-        readLock();
+        Stripe stripe = getStripe(tabletId);
+        stripe.readLock();
         try {
-            if (replicaMetaTable.containsRow(tabletId)) {
-                return Lists.newArrayList(replicaMetaTable.row(tabletId).values());
+            Replica[] replicas = stripe.replicaMetaMap.get(tabletId);
+            if (replicas != null) {
+                return Lists.newArrayList(replicas);
             }
             return Lists.newArrayList();
         } finally {
-            readUnlock();
+            stripe.readUnlock();
         }
     }
 
@@ -498,98 +705,105 @@ public class TabletInvertedIndex {
      *
      * @param tabletIds tablet_id list
      * @param backendId backendid
-     * @return list of replica or null if backend not found
+     * @return list of replica
      */
     public List<Replica> getReplicasOnBackendByTabletIds(List<Long> tabletIds, long backendId) {
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                List<Replica> replicas = Lists.newArrayList();
-                for (long tabletId : tabletIds) {
-                    replicas.add(replicaMetaWithBackend.get(tabletId));
-                }
-                return replicas;
+        List<Replica> replicas = Lists.newArrayListWithCapacity(tabletIds.size());
+        for (long tabletId : tabletIds) {
+            Stripe stripe = getStripe(tabletId);
+            stripe.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backingReplicaMetaMap.get(backendId);
+                replicas.add(replicaMetaWithBackend != null ? replicaMetaWithBackend.get(tabletId) : null);
+            } finally {
+                stripe.readUnlock();
             }
-            return null;
-        } finally {
-            readUnlock();
         }
+        return replicas;
     }
 
     public List<Long> getTabletIdsByBackendId(long backendId) {
-        List<Long> tabletIds = Lists.newArrayList();
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                tabletIds.addAll(replicaMetaWithBackend.keySet());
-            }
-        } finally {
-            readUnlock();
-        }
-        return tabletIds;
+        return getTabletIdsByBackendIdAndStorageMedium(backendId, null);
     }
 
+    /**
+     * @param storageMedium the storage medium of the tablets, or null for all tablets
+     */
     public List<Long> getTabletIdsByBackendIdAndStorageMedium(long backendId, TStorageMedium storageMedium) {
         List<Long> tabletIds = Lists.newArrayList();
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                tabletIds = replicaMetaWithBackend.keySet().stream().filter(
-                        id -> tabletMetaMap.get(id).getStorageMedium() == storageMedium).collect(Collectors.toList());
+        for (Stripe stripe : stripes) {
+            stripe.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backingReplicaMetaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
+                for (long tabletId : replicaMetaWithBackend.keys()) {
+                    if (storageMedium == null
+                            || stripe.tabletMetaMap.get(tabletId).getStorageMedium() == storageMedium) {
+                        tabletIds.add(tabletId);
+                    }
+                }
+            } finally {
+                stripe.readUnlock();
             }
-        } finally {
-            readUnlock();
         }
         return tabletIds;
     }
 
     public long getTabletNumByBackendId(long backendId) {
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                return replicaMetaWithBackend.size();
+        long num = 0;
+        for (Stripe stripe : stripes) {
+            stripe.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backingReplicaMetaMap.get(backendId);
+                if (replicaMetaWithBackend != null) {
+                    num += replicaMetaWithBackend.size();
+                }
+            } finally {
+                stripe.readUnlock();
             }
-        } finally {
-            readUnlock();
         }
-        return 0;
+        return num;
     }
 
     public long getTabletNumByBackendIdAndPathHash(long backendId, long pathHash) {
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                return replicaMetaWithBackend.values().stream().filter(r -> r.getPathHash() == pathHash).count();
+        long num = 0;
+        for (Stripe stripe : stripes) {
+            stripe.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backingReplicaMetaMap.get(backendId);
+                if (replicaMetaWithBackend != null) {
+                    num += replicaMetaWithBackend.values().stream().filter(r -> r.getPathHash() == pathHash).count();
+                }
+            } finally {
+                stripe.readUnlock();
             }
-        } finally {
-            readUnlock();
         }
-        return 0;
+        return num;
     }
 
     public Map<TStorageMedium, Long> getReplicaNumByBeIdAndStorageMedium(long backendId) {
         Map<TStorageMedium, Long> replicaNumMap = Maps.newHashMap();
         long hddNum = 0;
         long ssdNum = 0;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (replicaMetaWithBackend != null) {
-                for (long tabletId : replicaMetaWithBackend.keySet()) {
-                    if (tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
+        for (Stripe stripe : stripes) {
+            stripe.readLock();
+            try {
+                LongObjectHashMap<Replica> replicaMetaWithBackend = stripe.backingReplicaMetaMap.get(backendId);
+                if (replicaMetaWithBackend == null) {
+                    continue;
+                }
+                for (long tabletId : replicaMetaWithBackend.keys()) {
+                    if (stripe.tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
                         hddNum++;
                     } else {
                         ssdNum++;
                     }
                 }
+            } finally {
+                stripe.readUnlock();
             }
-        } finally {
-            readUnlock();
         }
         replicaNumMap.put(TStorageMedium.HDD, hddNum);
         replicaNumMap.put(TStorageMedium.SSD, ssdNum);
@@ -598,15 +812,20 @@ public class TabletInvertedIndex {
 
     // just for test
     public void clear() {
-        writeLock();
-        try {
-            tabletMetaMap.clear();
-            replicaToTabletMap.clear();
-            replicaMetaTable.clear();
-            backingReplicaMetaTable.clear();
-        } finally {
-            writeUnlock();
+        for (Stripe stripe : stripes) {
+            stripe.writeLock();
+            try {
+                stripe.tabletMetaMap.clear();
+                stripe.replicaMetaMap.clear();
+                stripe.backingReplicaMetaMap.clear();
+            } finally {
+                stripe.writeUnlock();
+            }
+        }
+        for (LongLongHashMap map : replicaToTabletMaps) {
+            synchronized (map) {
+                map.clear();
+            }
         }
     }
 }
-
@@ -123,6 +123,22 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long slow_lock_log_every_ms = 3000L;
 
+    /**
+     * If true, query planning and load commit lock the tables they touch instead of the whole database,
+     * so they won't be blocked by the operations on the other tables of the same database.
+     * The database lock is still used for the namespace changes and the legacy operations.
+     */
+    @ConfField
+    public static boolean enable_table_level_lock = false;
+
+    /**
+     * If true, the optimizer plans a query without holding the database lock, on the pinned snapshots of
+     * the partitions. The plan is discarded and the query is optimized again under the lock,
+     * if any database or table it reads is changed during optimizing.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_optimistic_planning = false;
+
     /**
      * dump_log_dir:
      * This specifies FE dump log dir.
@@ -191,6 +207,19 @@ public class Config extends ConfigBase {
     @ConfField
     public static int label_clean_interval_second = 4 * 3600; // 4 hours
 
+    /**
+     * Finished broker and insert load jobs are moved into a compact archive every
+     * *load_job_archive_interval_second*, which keeps only what SHOW LOAD shows out of the FE heap.
+     * The archived jobs are removed as the other jobs, by *label_keep_max_second* and *label_keep_max_num*.
+     * The leader writes the archived jobs to the journal, so an older FE can only replay the journal
+     * written after this is enabled with *ignore_unknown_log_id*, and it loses the archived jobs.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_load_job_archive = false;
+
+    @ConfField
+    public static int load_job_archive_interval_second = 60;
+
     /**
      * For Task framework do some background operation like cleanup Task/TaskRun.
      * It will run every *task_check_interval_second* to do background job.
@@ -261,6 +290,74 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int edit_log_roll_num = 50000;
 
+    /**
+     * If set to true, the commit log of a transaction is written after the transaction lock of the database is
+     * released, so that other transactions of the database are not blocked by the journal write.
+     * The commit still returns after the log is written.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_async_txn_commit_log = false;
+
+    /**
+     * If set to true, the replica journals are written in the compact encoding, which is about 1/3 size of the legacy
+     * one. Enable it only after all frontends are upgraded, old frontends can't read it.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_compact_replica_journal = false;
+
+    /**
+     * If set to true, follower and observer replay the transaction and replica journals of different databases
+     * in parallel, other journals are still replayed one by one.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_parallel_journal_replay = false;
+
+    /**
+     * The threads to replay journals in parallel.
+     */
+    @ConfField
+    public static int journal_replay_parallelism = 8;
+
+    /**
+     * The max number of journals collected before they are replayed in parallel.
+     */
+    @ConfField(mutable = true)
+    public static int journal_replay_parallel_batch_size = 1000;
+
+    /**
+     * If set to true, the image is saved in the sectioned format, whose sections are saved and loaded in parallel.
+     * Both the sectioned image and the legacy image could be loaded.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_sectioned_image = false;
+
+    /**
+     * The threads to save and load the sectioned image, also the max parts the databases are split into.
+     */
+    @ConfField(mutable = true)
+    public static int image_section_parallelism = 8;
+
+    /**
+     * If set to true, the sections of sectioned image are deflated when saving.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_image_compression = false;
+
+    /**
+     * The checkpoint replays journals into another copy of metadata, which needs as much heap as the serving one.
+     * The leader skips the checkpoint if the heap used after the last gc exceeds this percentage of the max heap.
+     * 100 disables the check.
+     */
+    @ConfField(mutable = true)
+    public static int checkpoint_max_heap_used_percent = 100;
+
+    /**
+     * The checkpoint is not skipped for the heap usage once the journals not in the image exceed this number,
+     * so that the journals to replay on restart are bounded.
+     */
+    @ConfField(mutable = true)
+    public static long checkpoint_heap_check_max_journals = 100000;
+
     /**
      * whether ignore unknown log id
      * when fe rolls back to low version, there may be log id that low version fe can not recognise
@@ -671,6 +768,28 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_broker_concurrency = 100;
 
+    /**
+     * The number of threads which list the source files of broker loads in parallel.
+     */
+    @ConfField
+    public static int broker_load_list_file_thread_num = 16;
+
+    /**
+     * The file list of a path is cached for this long, so that the retries and the loading tasks of
+     * broker loads don't list the same path again. 0 means no cache.
+     * The cache is shared by all broker loads, a load which lists a path within the ttl after another one
+     * doesn't see the files added to the path in the meantime, so only enable it if the files of a path
+     * don't change between loads.
+     */
+    @ConfField(mutable = true)
+    public static int broker_load_list_file_cache_ttl_second = 0;
+
+    /**
+     * Maximal number of file statuses in the file list cache of broker loads.
+     */
+    @ConfField
+    public static long broker_load_list_file_cache_max_files = 500000;
+
     /**
      * Default insert load timeout
      */
@@ -689,6 +808,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_stream_load_timeout_second = 259200; // 3days
 
+    /**
+     * Reuse the plan of a previous stream load to the same table with the same options.
+     * Only the load id, the transaction and the partitions and tablet locations of the sink are
+     * filled in again for each load.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_stream_load_plan_cache = false;
+
+    /**
+     * Max number of stream load plans kept in the plan cache
+     */
+    @ConfField
+    public static int stream_load_plan_cache_size = 1024;
+
     /**
      * Default prepared transaction timeout
      */
@@ -759,6 +892,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int desired_max_waiting_jobs = 100;
 
+    /**
+     * Maximal number of waiting broker and spark load jobs of a user, new jobs of the user are rejected
+     * beyond it, so that one user can't fill the whole waiting queue. 0 means no limit.
+     */
+    @ConfField(mutable = true)
+    public static int desired_max_waiting_jobs_per_user = 0;
+
+    /**
+     * Maximal number of broker and spark load jobs which run at the same time. Jobs beyond it wait in the
+     * queue of the load job scheduler, and the ones with the highest priority are scheduled first.
+     * 0 means no limit.
+     */
+    @ConfField(mutable = true)
+    public static int max_running_bulk_load_jobs = 0;
+
     /**
      * maximun concurrent running txn num including prepare, commit txns under a single db
      * txn manager will reject coming txns
@@ -766,6 +914,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_running_txn_num_per_db = 100;
 
+    /**
+     * The number of lock shards of the transaction manager of a db, rounded up to a power of 2.
+     * Transactions in different shards begin, commit and abort without waiting for each other.
+     * 1 keeps the single transaction lock of a db. Takes effect for the dbs loaded after a restart.
+     */
+    @ConfField
+    public static int txn_lock_shard_num_per_db = 1;
+
     /**
      * The load task executor pool size. This pool size limits the max running load tasks.
      * Currently, it only limits the load task of broker load, pending and loading phases.
@@ -1118,6 +1274,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int tablet_sched_max_migration_task_sent_once = 1000;
 
+    /**
+     * The number of lock stripes of the tablet inverted index, rounded up to a power of 2.
+     * The tablet report of a backend only locks one stripe at a time.
+     */
+    @ConfField
+    public static int tablet_inverted_index_stripe_num = 64;
+
+    /**
+     * A backend sends incremental tablet reports of the changed tablets only, and it's asked to report all
+     * the tablets for a full reconciliation if its last full tablet report is older than this interval.
+     */
+    @ConfField(mutable = true)
+    public static long tablet_full_report_interval_second = 3600;
+
     @Deprecated
     @ConfField(mutable = true)
     public static int report_queue_size = 100;
@@ -1175,6 +1345,34 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long routine_load_kafka_timeout_second = 12;
 
+    /**
+     * the number of threads which prepare routine load tasks and send them to BE
+     */
+    @ConfField
+    public static int routine_load_task_scheduler_thread_num = 10;
+
+    /**
+     * If set to true, the task concurrency and the batch size of a kafka routine load job are sized by
+     * the lag of its partitions and its recent throughput, instead of always using the max of them.
+     * The concurrency is still bounded by max_routine_load_task_concurrent_num and the desired concurrency
+     * of the job, and the batch size by max_routine_load_batch_size.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_routine_load_lag_scheduling = false;
+
+    /**
+     * the min load size of each routine load task when enable_routine_load_lag_scheduling is true
+     */
+    @ConfField(mutable = true)
+    public static long min_routine_load_batch_size = 67108864L; // 64MB
+
+    /**
+     * the min interval between two changes of the task concurrency of a routine load job
+     * by enable_routine_load_lag_scheduling, every change aborts the running tasks of the job
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_lag_scheduling_interval_second = 60;
+
     /**
      * it can't auto-resume routine load job as long as one of the backends is down
      */
@@ -1576,6 +1774,72 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_collect_query_detail_info = false;
 
+    /**
+     * If set to true, FE samples the thread cpu time and allocated heap bytes of each statement
+     * in parse, analyze, optimize, deploy and fetch phases, and reports them in profile, audit log and metrics.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_collect_query_fe_cost = true;
+
+    /**
+     * If set to true, queries with resource group enabled wait in the FE queue of their resource group
+     * until they get the concurrency and memory slots, instead of being deployed to backends directly.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_query_queue = false;
+
+    /**
+     * The default concurrency slots of each resource group queue, used when the resource group
+     * has no concurrency_limit. 0 means unlimited.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_concurrency_limit = 0;
+
+    /**
+     * The memory slots in bytes of each resource group queue, scaled by mem_limit of the resource group.
+     * A query takes query_mem_limit, or exec_mem_limit if not set, from it. 0 means unlimited.
+     */
+    @ConfField(mutable = true)
+    public static long query_queue_mem_limit_bytes = 0;
+
+    /**
+     * The max seconds a query could wait in the queue, the query_timeout of session is also respected.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_pending_timeout_second = 300;
+
+    /**
+     * If set to true, the scan ranges are assigned to replicas by power of two choices on the
+     * latency and in-flight requests of backends, instead of only by the ranges already assigned.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_adaptive_replica_selection = false;
+
+    /**
+     * The weight of the newest sample in the EWMA of backend scan latency, in (0, 1].
+     */
+    @ConfField(mutable = true)
+    public static double adaptive_replica_selection_ewma_alpha = 0.3;
+
+    /**
+     * A query with enable_hedged_fetch issues a backup execution on other replicas, if its first batch
+     * is not returned after this percentile of the recent first batch latencies.
+     */
+    @ConfField(mutable = true)
+    public static double hedged_fetch_delay_percentile = 0.95;
+
+    /**
+     * The min milliseconds to wait for the first batch before issuing the backup execution.
+     */
+    @ConfField(mutable = true)
+    public static long hedged_fetch_min_delay_ms = 50;
+
+    /**
+     * The max threads fetching the first batch of hedged queries, the query is not hedged when they are busy.
+     */
+    @ConfField
+    public static int hedged_fetch_max_threads = 64;
+
     /**
      * Min lag of routine load job to show in metrics
      * Only show the routine load job whose lag is larger than min_routine_load_lag_for_metrics
@@ -1683,6 +1947,12 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int metadata_journal_max_batch_cnt = 100;
 
+    /**
+     * The max number of buffers pooled to serialize journals.
+     */
+    @ConfField
+    public static int metadata_journal_buffer_pool_size = 1024;
+
     /**
      * Fqdn function switch,
      * this switch will be deleted after release the fqdn func
@@ -1721,6 +1991,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_new_publish_mechanism = false;
 
+    /**
+     * If set to true, the publish daemon finishes the published transactions of a db in one batch,
+     * with one lock acquisition and one journal write, instead of one by one.
+     * Only takes effect when enable_new_publish_mechanism is false.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_batch_publish_version = false;
+
     /**
      * Normally FE will quit when replaying a bad journal. This configuration provides a bypass mechanism.
      * If this was set to a positive value, FE will skip the corresponding bad journals before it quits.
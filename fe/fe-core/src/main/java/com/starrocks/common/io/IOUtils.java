@@ -102,4 +102,28 @@ public class IOUtils {
         }
         return null;
     }
+
+    /**
+     * Write a long in zig-zag variable length encoding, small absolute values like ids and -1 take 1 ~ 3 bytes.
+     */
+    public static void writeVLong(DataOutput output, long value) throws IOException {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            output.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        output.writeByte((int) v);
+    }
+
+    public static long readVLong(DataInput input) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IOException("malformed variable length long");
+    }
 }
@@ -0,0 +1,21 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.proc;
+
+import com.starrocks.common.AnalysisException;
+import com.starrocks.qe.QueryQueueManager;
+
+/*
+ * show proc "/query_queue";
+ * show the concurrency and memory slots of the FE query queue of each resource group
+ */
+public class QueryQueueProcNode implements ProcNodeInterface {
+
+    @Override
+    public ProcResult fetchResult() throws AnalysisException {
+        BaseProcResult result = new BaseProcResult();
+        result.setNames(QueryQueueManager.TITLE_NAMES);
+        result.setRows(QueryQueueManager.getInstance().getQueueInfos());
+        return result;
+    }
+}
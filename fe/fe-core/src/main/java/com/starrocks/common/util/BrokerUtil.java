@@ -22,6 +22,9 @@
 package com.starrocks.common.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.starrocks.analysis.BrokerDesc;
 import com.starrocks.catalog.FsBroker;
@@ -29,7 +32,9 @@ import com.starrocks.common.AnalysisException;
 import com.starrocks.common.ClientPool;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
+import com.starrocks.fs.HdfsUtil;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
 import com.starrocks.thrift.TBrokerCheckPathExistRequest;
@@ -65,12 +70,25 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class BrokerUtil {
     private static final Logger LOG = LogManager.getLogger(BrokerUtil.class);
 
     private static int READ_BUFFER_SIZE_B = 1024 * 1024;
 
+    private static final ExecutorService LIST_FILE_EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+            Config.broker_load_list_file_thread_num, Integer.MAX_VALUE, "broker-list-file", false);
+
+    // path -> file statuses of the path, rebuilt once Config.broker_load_list_file_cache_ttl_second changes
+    private static Cache<FileListKey, FileList> fileListCache = null;
+    private static int fileListCacheTtlSecond = 0;
+
     /**
      * Parse file status in path with broker, except directory
      *
@@ -113,6 +131,125 @@ public class BrokerUtil {
         }
     }
 
+    /**
+     * Parse file status of the paths in parallel, with broker or hdfs, except directory.
+     * File statuses are cached for Config.broker_load_list_file_cache_ttl_second.
+     *
+     * @return file statuses of each path, in the order of the paths
+     * @throws UserException if listing any of the paths failed
+     */
+    public static List<List<TBrokerFileStatus>> parseFiles(List<String> paths, BrokerDesc brokerDesc)
+            throws UserException {
+        List<List<TBrokerFileStatus>> result = Lists.newArrayListWithCapacity(paths.size());
+        if (paths.size() == 1) {
+            result.add(parseFileWithCache(paths.get(0), brokerDesc));
+            return result;
+        }
+
+        List<Future<List<TBrokerFileStatus>>> futures = Lists.newArrayListWithCapacity(paths.size());
+        for (String path : paths) {
+            futures.add(LIST_FILE_EXECUTOR.submit(() -> parseFileWithCache(path, brokerDesc)));
+        }
+        try {
+            for (Future<List<TBrokerFileStatus>> future : futures) {
+                result.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserException("Interrupted while listing files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UserException) {
+                throw (UserException) e.getCause();
+            }
+            throw new UserException("List files failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // no need to list the rest paths if any of them failed
+            futures.forEach(future -> future.cancel(true));
+        }
+        return result;
+    }
+
+    private static List<TBrokerFileStatus> parseFileWithCache(String path, BrokerDesc brokerDesc)
+            throws UserException {
+        Cache<FileListKey, FileList> cache = getFileListCache(Config.broker_load_list_file_cache_ttl_second);
+        FileListKey key = new FileListKey(path, brokerDesc);
+        if (cache != null) {
+            FileList fileList = cache.getIfPresent(key);
+            if (fileList != null) {
+                return Lists.newArrayList(fileList.fileStatuses);
+            }
+        }
+
+        List<TBrokerFileStatus> fileStatuses = Lists.newArrayList();
+        if (brokerDesc.hasBroker()) {
+            parseFile(path, brokerDesc, fileStatuses);
+        } else {
+            HdfsUtil.parseFile(path, brokerDesc, fileStatuses);
+        }
+        if (cache != null) {
+            cache.put(key, new FileList(fileStatuses));
+        }
+        return fileStatuses;
+    }
+
+    // returns null if the cache is disabled
+    private static synchronized Cache<FileListKey, FileList> getFileListCache(int ttlSecond) {
+        if (ttlSecond <= 0) {
+            fileListCache = null;
+            return null;
+        }
+        if (fileListCache == null || fileListCacheTtlSecond != ttlSecond) {
+            fileListCache = CacheBuilder.newBuilder()
+                    .maximumWeight(Config.broker_load_list_file_cache_max_files)
+                    .weigher((FileListKey key, FileList value) -> value.fileStatuses.size())
+                    .expireAfterWrite(ttlSecond, TimeUnit.SECONDS)
+                    .build();
+            fileListCacheTtlSecond = ttlSecond;
+        }
+        return fileListCache;
+    }
+
+    private static class FileList {
+        private final List<TBrokerFileStatus> fileStatuses;
+
+        FileList(List<TBrokerFileStatus> fileStatuses) {
+            this.fileStatuses = ImmutableList.copyOf(fileStatuses);
+        }
+    }
+
+    private static class FileListKey {
+        private final String path;
+        private final boolean hasBroker;
+        private final String brokerName;
+        // the same path may be different files with different credentials
+        private final Map<String, String> properties;
+
+        FileListKey(String path, BrokerDesc brokerDesc) {
+            this.path = path;
+            this.hasBroker = brokerDesc.hasBroker();
+            this.brokerName = brokerDesc.getName();
+            this.properties = brokerDesc.getProperties();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FileListKey)) {
+                return false;
+            }
+            FileListKey other = (FileListKey) o;
+            return path.equals(other.path) && hasBroker == other.hasBroker &&
+                    Objects.equals(brokerName, other.brokerName) && Objects.equals(properties, other.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, hasBroker, brokerName, properties);
+        }
+    }
+
     public static String printBroker(String brokerName, TNetworkAddress address) {
         return brokerName + "[" + address.toString() + "]";
     }
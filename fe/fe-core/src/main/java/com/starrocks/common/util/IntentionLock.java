@@ -0,0 +1,143 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.util;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * IntentionLock is a shared lock with two groups of holders: SHARED and INTENTION_EXCLUSIVE.
+ * Any number of threads of the same group may hold it together, but the two groups exclude each other.
+ * It's used together with the read lock of a database to build the multi-granularity locking:
+ *   S  = db read lock + SHARED, blocks the writers which only lock some tables of the db
+ *   IX = db read lock + INTENTION_EXCLUSIVE, the writer must lock the tables it changes afterwards
+ *   IS = db read lock only, the reader must lock the tables it reads afterwards
+ *   X  = db write lock
+ *
+ * A thread already holding the lock is granted again without waiting in the same mode, and in SHARED mode if it
+ * holds INTENTION_EXCLUSIVE, so the legacy code which takes the db read lock under a table level writer won't
+ * deadlock. A SHARED holder asking for INTENTION_EXCLUSIVE waits until the other SHARED holders are gone,
+ * the writer must not change the tables read by them.
+ * New comers wait if the other group is waiting, so neither group starves.
+ */
+public class IntentionLock {
+    public enum Mode {
+        SHARED,
+        INTENTION_EXCLUSIVE
+    }
+
+    private final int[] holders = new int[Mode.values().length];
+    private final int[] waiters = new int[Mode.values().length];
+    // lock count of current thread in each mode
+    private final ThreadLocal<int[]> holds = new ThreadLocal<>();
+
+    public void lock(Mode mode) {
+        boolean interrupted = false;
+        synchronized (this) {
+            if (!grantIfReentrant(mode)) {
+                waiters[mode.ordinal()]++;
+                try {
+                    while (!canGrant(mode)) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    waiters[mode.ordinal()]--;
+                }
+                grant(mode);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean tryLock(Mode mode, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNs = unit.toNanos(timeout);
+        long startNs = System.nanoTime();
+        synchronized (this) {
+            if (grantIfReentrant(mode)) {
+                return true;
+            }
+            waiters[mode.ordinal()]++;
+            try {
+                while (!canGrant(mode)) {
+                    long leftNs = timeoutNs - (System.nanoTime() - startNs);
+                    if (leftNs <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, leftNs);
+                }
+            } finally {
+                waiters[mode.ordinal()]--;
+                // the other group may be waiting for us to give up
+                notifyAll();
+            }
+            grant(mode);
+            return true;
+        }
+    }
+
+    public synchronized void unlock(Mode mode) {
+        int[] counts = holds.get();
+        if (counts == null || counts[mode.ordinal()] == 0) {
+            throw new IllegalMonitorStateException("intention lock is not held in mode " + mode);
+        }
+        counts[mode.ordinal()]--;
+        holders[mode.ordinal()]--;
+        if (counts[Mode.SHARED.ordinal()] == 0 && counts[Mode.INTENTION_EXCLUSIVE.ordinal()] == 0) {
+            holds.remove();
+        }
+        // a holder of this mode may be waiting for the others to leave, see canGrant()
+        notifyAll();
+    }
+
+    public synchronized int getHoldCount(Mode mode) {
+        return holders[mode.ordinal()];
+    }
+
+    public boolean isHeldByCurrentThread(Mode mode) {
+        int[] counts = holds.get();
+        return counts != null && counts[mode.ordinal()] > 0;
+    }
+
+    private boolean grantIfReentrant(Mode mode) {
+        int[] counts = holds.get();
+        if (counts == null) {
+            return false;
+        }
+        int other = 1 - mode.ordinal();
+        if (counts[mode.ordinal()] > 0 || mode == Mode.SHARED || holders[other] == counts[other]) {
+            grant(mode);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean canGrant(Mode mode) {
+        int other = 1 - mode.ordinal();
+        int[] counts = holds.get();
+        int ownHolds = counts == null ? 0 : counts[other];
+        if (holders[other] > ownHolds) {
+            return false;
+        }
+        if (ownHolds > 0) {
+            // the others of our group wait for us to leave, don't wait for them
+            return true;
+        }
+        // let the waiting group in once our group drains
+        return waiters[other] == 0 || holders[mode.ordinal()] == 0;
+    }
+
+    private void grant(Mode mode) {
+        int[] counts = holds.get();
+        if (counts == null) {
+            counts = new int[Mode.values().length];
+            holds.set(counts);
+        }
+        counts[mode.ordinal()]++;
+        holders[mode.ordinal()]++;
+    }
+}
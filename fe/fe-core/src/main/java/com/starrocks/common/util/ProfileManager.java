@@ -63,6 +63,10 @@ public class ProfileManager {
     public static final String DEFAULT_DB = "Default Db";
     public static final String QUERY_CPU_COST = "QueryCpuCost";
     public static final String QUERY_MEM_COST = "QueryMemCost";
+    public static final String FE_CPU_COST = "FeCpuCost";
+    public static final String FE_ALLOCATED_BYTES = "FeAllocatedBytes";
+    public static final String FE_COST_DETAIL = "FeCostDetail";
+    public static final String QUERY_QUEUE_WAIT_TIME = "QueryQueueWaitTime";
     public static final String VARIABLES = "Variables";
     public static final String PROFILE_TIME = "Collect Profile Time";
 
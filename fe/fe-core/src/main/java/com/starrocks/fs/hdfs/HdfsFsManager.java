@@ -20,6 +20,7 @@ package com.starrocks.fs.hdfs;
 import com.google.common.base.Strings;
 import com.starrocks.common.Config;
 import com.starrocks.common.NotImplementedException;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.thrift.TBrokerFD;
 import com.starrocks.thrift.TBrokerFileStatus;
@@ -31,7 +32,9 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.GlobFilter;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.hdfs.HdfsConfiguration;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.logging.log4j.LogManager;
@@ -42,13 +45,18 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -204,6 +212,10 @@ public class HdfsFsManager {
 
     private ScheduledExecutorService handleManagementPool = Executors.newScheduledThreadPool(1);
 
+    // lists the directories matched by a path pattern in parallel
+    private static final ExecutorService LIST_DIR_EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+            Config.broker_load_list_file_thread_num, Integer.MAX_VALUE, "hdfs-list-dir", false);
+
     private int readBufferSize = 128 << 10; // 128k
     private int writeBufferSize = 128 << 10; // 128k
 
@@ -810,12 +822,8 @@ public class HdfsFsManager {
         HdfsFs fileSystem = getFileSystem(path, loadProperties, null);
         Path pathPattern = new Path(pathUri.getPath());
         try {
-            FileStatus[] files = fileSystem.getDFSFileSystem().globStatus(pathPattern);
-            if (files == null) {
-                resultFileStatus = new ArrayList<>(0);
-                return resultFileStatus;
-            }
-            resultFileStatus = new ArrayList<>(files.length);
+            List<FileStatus> files = globStatus(fileSystem.getDFSFileSystem(), pathPattern);
+            resultFileStatus = new ArrayList<>(files.size());
             for (FileStatus fileStatus : files) {
                 TBrokerFileStatus brokerFileStatus = new TBrokerFileStatus();
                 brokerFileStatus.setIsDir(fileStatus.isDirectory());
@@ -845,6 +853,81 @@ public class HdfsFsManager {
         return resultFileStatus;
     }
 
+    /**
+     * Same as FileSystem.globStatus(), but if the last component of the pattern has wildcards, e.g. dir/*,
+     * the directories matched by the parent are listed in parallel, and each of them is listed page by page
+     * with a RemoteIterator instead of being returned as a whole array.
+     */
+    private static List<FileStatus> globStatus(FileSystem fs, Path pattern) throws IOException {
+        Path parent = pattern.getParent();
+        if (parent == null || !hasWildcard(pattern.getName())) {
+            FileStatus[] files = fs.globStatus(pattern);
+            return files == null ? Collections.emptyList() : Arrays.asList(files);
+        }
+
+        List<Path> dirs = new ArrayList<>();
+        FileStatus[] parents = fs.globStatus(parent);
+        if (parents != null) {
+            for (FileStatus parentStatus : parents) {
+                if (parentStatus.isDirectory()) {
+                    dirs.add(parentStatus.getPath());
+                }
+            }
+        }
+        GlobFilter filter = new GlobFilter(pattern.getName());
+        if (dirs.size() <= 1) {
+            return dirs.isEmpty() ? Collections.emptyList() : listDir(fs, dirs.get(0), filter);
+        }
+
+        List<Future<List<FileStatus>>> futures = new ArrayList<>(dirs.size());
+        for (Path dir : dirs) {
+            futures.add(LIST_DIR_EXECUTOR.submit(() -> listDir(fs, dir, filter)));
+        }
+        List<FileStatus> files = new ArrayList<>();
+        try {
+            for (Future<List<FileStatus>> future : futures) {
+                files.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while listing " + pattern, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return files;
+    }
+
+    private static List<FileStatus> listDir(FileSystem fs, Path dir, GlobFilter filter) throws IOException {
+        List<FileStatus> files = new ArrayList<>();
+        try {
+            RemoteIterator<FileStatus> iter = fs.listStatusIterator(dir);
+            while (iter.hasNext()) {
+                FileStatus file = iter.next();
+                if (filter.accept(file.getPath())) {
+                    files.add(file);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // the directory is deleted after it is matched, same as globStatus()
+            LOG.info("directory not found: " + dir);
+        }
+        return files;
+    }
+
+    private static boolean hasWildcard(String pattern) {
+        for (char c : pattern.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == '{' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void deletePath(String path, Map<String, String> loadProperties) throws UserException {
         WildcardURI pathUri = new WildcardURI(path);
         HdfsFs fileSystem = getFileSystem(path, loadProperties, null);
@@ -32,6 +32,8 @@ import com.starrocks.http.BaseResponse;
 import com.starrocks.http.IllegalArgException;
 import com.starrocks.server.GlobalStateMgr;
 import io.netty.handler.codec.http.HttpMethod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /*
  * fe_host:fe_http_port/api/bootstrap
@@ -40,8 +42,11 @@ import io.netty.handler.codec.http.HttpMethod;
  * {"status":"FAILED","msg":"err info..."}
  */
 public class BootstrapFinishAction extends RestBaseAction {
+    private static final Logger LOG = LogManager.getLogger(BootstrapFinishAction.class);
+
     private static final String CLUSTER_ID = "cluster_id";
     private static final String TOKEN = "token";
+    public static final String LEADER_JOURNAL_ID = "leader_journal_id";
 
     public static final String REPLAYED_JOURNAL_ID = "replayedJournalId";
     public static final String QUERY_PORT = "queryPort";
@@ -92,6 +97,16 @@ public class BootstrapFinishAction extends RestBaseAction {
                 }
 
                 if (result.status == ActionStatus.OK) {
+                    // the heartbeat from leader carries its max journal id
+                    String leaderJournalIdStr = request.getSingleParameter(LEADER_JOURNAL_ID);
+                    if (!Strings.isNullOrEmpty(leaderJournalIdStr) && !GlobalStateMgr.getCurrentState().isLeader()) {
+                        try {
+                            GlobalStateMgr.getCurrentState().setLeaderJournalId(Long.parseLong(leaderJournalIdStr));
+                        } catch (NumberFormatException e) {
+                            LOG.warn("invalid leader journal id: {}", leaderJournalIdStr);
+                        }
+                    }
+
                     // cluster id and token are valid, return replayed journal id
                     long replayedJournalId = GlobalStateMgr.getCurrentState().getReplayedJournalId();
                     long feStartTime = GlobalStateMgr.getCurrentState().getFeStartTime();
@@ -22,6 +22,7 @@
 package com.starrocks.http.rest;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import com.starrocks.common.DdlException;
 import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
@@ -31,6 +32,7 @@ import com.starrocks.mysql.privilege.PrivPredicate;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
+import com.starrocks.system.SystemInfoService;
 import com.starrocks.thrift.TNetworkAddress;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
@@ -39,9 +41,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 public class LoadAction extends RestBaseAction {
     private static final Logger LOG = LogManager.getLogger(LoadAction.class);
+    private static final String GROUP_COMMIT_KEY = "group_commit";
 
     public LoadAction(ActionController controller) {
         super(controller);
@@ -76,8 +81,13 @@ public class LoadAction extends RestBaseAction {
         // check auth
         checkTblAuth(ConnectContext.get().getCurrentUserIdentity(), dbName, tableName, PrivPredicate.LOAD);
 
-        // Choose a backend sequentially.
-        List<Long> backendIds = GlobalStateMgr.getCurrentSystemInfo().seqChooseBackendIds(1, true, false);
+        List<Long> backendIds;
+        if ("true".equalsIgnoreCase(request.getRequest().headers().get(GROUP_COMMIT_KEY))) {
+            backendIds = chooseGroupCommitBackendIds(dbName, tableName);
+        } else {
+            // Choose a backend sequentially.
+            backendIds = GlobalStateMgr.getCurrentSystemInfo().seqChooseBackendIds(1, true, false);
+        }
         if (CollectionUtils.isEmpty(backendIds)) {
             throw new DdlException("No backend alive.");
         }
@@ -93,5 +103,23 @@ public class LoadAction extends RestBaseAction {
                 redirectAddr.toString(), dbName, tableName, label);
         redirectTo(request, response, redirectAddr);
     }
+
+    // The loads of a table with group commit are merged by the backend which receives them,
+    // so send all of them to the same backend as long as the available backends don't change.
+    public static List<Long> chooseGroupCommitBackendIds(String dbName, String tableName) {
+        SystemInfoService systemInfo = GlobalStateMgr.getCurrentSystemInfo();
+        List<Long> backendIds = systemInfo.getBackendIds(true).stream()
+                .filter(id -> {
+                    Backend backend = systemInfo.getBackend(id);
+                    return backend != null && backend.isAvailable();
+                })
+                .sorted()
+                .collect(Collectors.toList());
+        if (backendIds.isEmpty()) {
+            return backendIds;
+        }
+        int index = Math.floorMod(Objects.hash(dbName, tableName), backendIds.size());
+        return Lists.newArrayList(backendIds.get(index));
+    }
 }
 
@@ -2,18 +2,29 @@
 
 package com.starrocks.journal;
 
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
 import com.starrocks.common.io.DataOutputBuffer;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class JournalTask implements Future<Boolean> {
-    // serialized JournalEntity
-    private DataOutputBuffer buffer;
+    // large buffers are not pooled, to avoid holding memory for rare big journals
+    private static final int MAX_POOLED_BUFFER_BYTES = 64 * 1024;
+    // buffers of committed journals are reused by the following journals
+    private static final BlockingQueue<DataOutputBuffer> BUFFER_POOL =
+            new LinkedBlockingQueue<>(Math.max(1, Config.metadata_journal_buffer_pool_size));
+
+    // serialized JournalEntity, a task of several journals is written atomically in the same batch
+    private List<DataOutputBuffer> buffers;
     // write result
     private Boolean isSucceed = null;
     // count down latch, the producer which called logEdit() will wait on it.
@@ -23,7 +34,11 @@ public class JournalTask implements Future<Boolean> {
     protected long betterCommitBeforeTime;
 
     public JournalTask(DataOutputBuffer buffer, long maxWaitIntervalMs) {
-        this.buffer = buffer;
+        this(Lists.newArrayList(buffer), maxWaitIntervalMs);
+    }
+
+    public JournalTask(List<DataOutputBuffer> buffers, long maxWaitIntervalMs) {
+        this.buffers = buffers;
         this.latch = new CountDownLatch(1);
         if (maxWaitIntervalMs > 0) {
             this.betterCommitBeforeTime = System.currentTimeMillis() + maxWaitIntervalMs;
@@ -32,6 +47,30 @@ public class JournalTask implements Future<Boolean> {
         }
     }
 
+    /**
+     * Get an empty buffer to serialize a journal, from the pool if possible.
+     */
+    public static DataOutputBuffer borrowBuffer(int initSize) {
+        DataOutputBuffer buffer = BUFFER_POOL.poll();
+        return buffer == null ? new DataOutputBuffer(initSize) : buffer;
+    }
+
+    /**
+     * Return the buffer to the pool after the journal is committed, the task can't be written any more.
+     */
+    public void recycleBuffer() {
+        if (buffers == null) {
+            return;
+        }
+        for (DataOutputBuffer buffer : buffers) {
+            if (buffer.getData().length <= MAX_POOLED_BUFFER_BYTES) {
+                buffer.reset();
+                BUFFER_POOL.offer(buffer);
+            }
+        }
+        buffers = null;
+    }
+
     public void markSucceed() {
         isSucceed = true;
         latch.countDown();
@@ -47,12 +86,24 @@ public class JournalTask implements Future<Boolean> {
     }
 
     public long estimatedSizeByte() {
-        // journal id + buffer
-        return Long.SIZE / 8 + buffer.getLength();
+        long size = 0;
+        for (DataOutputBuffer buffer : buffers) {
+            // journal id + buffer
+            size += Long.SIZE / 8 + buffer.getLength();
+        }
+        return size;
     }
 
     public DataOutputBuffer getBuffer() {
-        return buffer;
+        return buffers.get(0);
+    }
+
+    public List<DataOutputBuffer> getBuffers() {
+        return buffers;
+    }
+
+    public int getJournalCount() {
+        return buffers.size();
     }
 
     @Override
@@ -3,6 +3,7 @@
 package com.starrocks.journal;
 
 import com.starrocks.common.Config;
+import com.starrocks.common.io.DataOutputBuffer;
 import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.Util;
 import com.starrocks.metric.MetricRepo;
@@ -84,9 +85,11 @@ public class JournalWriter {
             this.journal.batchWriteBegin();
 
             while (true) {
-                journal.batchWriteAppend(nextJournalId, currentJournal.getBuffer());
+                for (DataOutputBuffer buffer : currentJournal.getBuffers()) {
+                    journal.batchWriteAppend(nextJournalId, buffer);
+                    nextJournalId += 1;
+                }
                 currentBatchTasks.add(currentJournal);
-                nextJournalId += 1;
 
                 if (shouldCommitNow()) {
                     break;
@@ -121,6 +124,8 @@ public class JournalWriter {
         rollJournalAfterBatch();
 
         updateBatchMetrics();
+
+        recycleCurrentBatch();
     }
 
     private void initBatch() {
@@ -135,6 +140,20 @@ public class JournalWriter {
         }
     }
 
+    private long getCurrentBatchJournalCount() {
+        long count = 0;
+        for (JournalTask t : currentBatchTasks) {
+            count += t.getJournalCount();
+        }
+        return count;
+    }
+
+    private void recycleCurrentBatch() {
+        for (JournalTask t : currentBatchTasks) {
+            t.recycleBuffer();
+        }
+    }
+
     private void abortCurrentBatch(String errMsg) {
         for (JournalTask t : currentBatchTasks) {
             abortJournalTask(t, errMsg);
@@ -190,7 +209,7 @@ public class JournalWriter {
      */
     private void updateBatchMetrics() {
         if (MetricRepo.isInit) {
-            MetricRepo.COUNTER_EDIT_LOG_WRITE.increase((long) currentBatchTasks.size());
+            MetricRepo.COUNTER_EDIT_LOG_WRITE.increase(getCurrentBatchJournalCount());
             MetricRepo.HISTO_JOURNAL_WRITE_LATENCY.update((System.nanoTime() - startTimeNano) / 1000000);
             MetricRepo.HISTO_JOURNAL_WRITE_BATCH.update(currentBatchTasks.size());
             MetricRepo.HISTO_JOURNAL_WRITE_BYTES.update(uncommittedEstimatedBytes);
@@ -206,7 +225,7 @@ public class JournalWriter {
     }
 
     private void rollJournalAfterBatch() {
-        rollJournalCounter += currentBatchTasks.size();
+        rollJournalCounter += getCurrentBatchJournalCount();
         if (rollJournalCounter >= Config.edit_log_roll_num) {
             try {
                 journal.rollJournal(nextVisibleJournalId);
@@ -36,6 +36,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.List;
@@ -88,6 +92,13 @@ public class Checkpoint extends LeaderDaemon {
             return;
         }
 
+        if (belongToGlobalStateMgr && !hasEnoughHeapForCheckpoint(checkPointVersion - imageVersion)) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_CHECKPOINT_SKIPPED.increase(1L);
+            }
+            return;
+        }
+
         boolean success = false;
         if (belongToGlobalStateMgr) {
             success = replayAndGenerateGlobalStateMgrImage(checkPointVersion);
@@ -195,6 +206,7 @@ public class Checkpoint extends LeaderDaemon {
         long replayedJournalId = -1;
         // generate new image file
         LOG.info("begin to generate new image: image.{}", checkPointVersion);
+        long startMs = System.currentTimeMillis();
         globalStateMgr = GlobalStateMgr.getCurrentState();
         globalStateMgr.setJournal(journal);
         try {
@@ -205,6 +217,9 @@ public class Checkpoint extends LeaderDaemon {
             replayedJournalId = globalStateMgr.getReplayedJournalId();
             if (MetricRepo.isInit) {
                 MetricRepo.COUNTER_IMAGE_WRITE.increase(1L);
+                MetricRepo.COUNTER_IMAGE_WRITE_BYTES.increase(
+                        new Storage(imageDir).getImageFile(replayedJournalId).length());
+                MetricRepo.HISTO_CHECKPOINT_DURATION.update(System.currentTimeMillis() - startMs);
             }
             GlobalStateMgr.getServingState().setImageJournalId(checkPointVersion);
             LOG.info("checkpoint finished save image.{}", replayedJournalId);
@@ -220,6 +235,43 @@ public class Checkpoint extends LeaderDaemon {
         }
     }
 
+    private boolean hasEnoughHeapForCheckpoint(long pendingJournals) {
+        if (Config.checkpoint_max_heap_used_percent >= 100) {
+            return true;
+        }
+        if (pendingJournals >= Config.checkpoint_heap_check_max_journals) {
+            LOG.info("{} journals are not in the image, do checkpoint regardless of the heap usage", pendingJournals);
+            return true;
+        }
+        long usedPercent = getHeapUsedAfterGcPercent();
+        if (usedPercent > Config.checkpoint_max_heap_used_percent) {
+            LOG.warn("skip checkpoint, heap used after the last gc {}% exceeds checkpoint_max_heap_used_percent {}%",
+                    usedPercent, Config.checkpoint_max_heap_used_percent);
+            return false;
+        }
+        return true;
+    }
+
+    // The heap used by live objects, measured by the usage of heap pools right after their last gc, so that the
+    // garbage not collected yet isn't counted and no gc has to be forced on the serving leader.
+    private static long getHeapUsedAfterGcPercent() {
+        long max = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        if (max <= 0) {
+            return 0;
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used * 100 / max;
+    }
+
     private boolean replayAndGenerateStarMgrImage(long checkPointVersion) {
         assert belongToGlobalStateMgr == false;
         StarMgrServer starMgrServer = StarMgrServer.getCurrentState();
@@ -22,7 +22,6 @@
 package com.starrocks.leader;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -92,7 +91,6 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TException;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -113,6 +111,19 @@ public class ReportHandler extends Daemon {
 
     private Map<ReportType, Map<Long, ReportTask>> pendingTaskMap = Maps.newHashMap();
 
+    // backend id -> report version of the last accepted tablet report, the base of the next incremental report
+    private static final Map<Long, Long> LAST_TABLET_REPORT_VERSIONS = Maps.newConcurrentMap();
+    // backend id -> time of the last accepted full tablet report
+    private static final Map<Long, Long> LAST_FULL_TABLET_REPORT_TIME_MS = Maps.newConcurrentMap();
+    // backends whose last tablet report sent repairs (sync, republish or deferred delete), their results are
+    // only visible in a full report, because the repaired tablets may not change on the backend
+    private static final Set<Long> BACKENDS_NEED_FULL_TABLET_REPORT = Sets.newConcurrentHashSet();
+
+    // backend id -> number of pending reports, for metrics
+    private static final Map<Long, Integer> BACKEND_PENDING_REPORTS = Maps.newConcurrentMap();
+    // backend id -> cost of the last tablet report, for metrics
+    private static final Map<Long, Long> BACKEND_TABLET_REPORT_COST_MS = Maps.newConcurrentMap();
+
     public ReportHandler() {
         super("ReportHandler");
         GaugeMetric<Long> gaugeQueueSize = new GaugeMetric<Long>(
@@ -153,6 +164,7 @@ public class ReportHandler extends Daemon {
         Map<Long, TTablet> tablets = null;
         List<TWorkGroup> activeWorkGroups = null;
         long reportVersion = -1;
+        Set<Long> removedTabletIds = null;
 
         ReportType reportType = ReportType.UNKNOWN_REPORT;
         if (request.isSetTasks()) {
@@ -191,6 +203,11 @@ public class ReportHandler extends Daemon {
             reportType = ReportType.TABLET_REPORT;
         }
 
+        if (reportType == ReportType.TABLET_REPORT && request.isIncremental_tablet_report()) {
+            removedTabletIds = request.isSetRemoved_tablet_ids() ?
+                    Sets.newHashSet(request.getRemoved_tablet_ids()) : Sets.newHashSet();
+        }
+
         if (request.isSetTablet_max_compaction_score()) {
             backend.setTabletMaxCompactionScore(request.getTablet_max_compaction_score());
         }
@@ -210,8 +227,24 @@ public class ReportHandler extends Daemon {
 
         ReportTask reportTask =
                 new ReportTask(beId, reportType, tasks, disks, tablets, reportVersion, activeWorkGroups);
+        if (removedTabletIds != null) {
+            reportTask.setIncremental(request.getBase_report_version(), removedTabletIds);
+        }
         try {
-            putToQueue(reportTask);
+            if (!putToQueue(reportTask)) {
+                LOG.info("reject incremental tablet report from be {}, base report version: {}",
+                        beId, request.getBase_report_version());
+                result.setSupport_incremental_tablet_report(true);
+                result.setNeed_full_tablet_report(true);
+                return result;
+            }
+            if (reportType == ReportType.TABLET_REPORT) {
+                // old FEs never set it, so the backend only reports incrementally to a FE that can handle it
+                result.setSupport_incremental_tablet_report(true);
+                if (isFullTabletReportDue(beId)) {
+                    result.setNeed_full_tablet_report(true);
+                }
+            }
         } catch (Exception e) {
             tStatus.setStatus_code(TStatusCode.INTERNAL_ERROR);
             List<String> errorMsgs = Lists.newArrayList();
@@ -236,19 +269,66 @@ public class ReportHandler extends Daemon {
         LOG.warn(errorMsgs);
     }
 
-    private void putToQueue(ReportTask reportTask) throws Exception {
+    /**
+     * @return false if it's an incremental tablet report whose base is not the last accepted tablet report,
+     * the changes between them are lost, so the backend should report all the tablets instead.
+     */
+    private boolean putToQueue(ReportTask reportTask) throws Exception {
         synchronized (pendingTaskMap) {
             if (!pendingTaskMap.containsKey(reportTask.type)) {
                 throw new Exception("Unknown report task type" + reportTask.toString());
             }
+            if (reportTask.type == ReportType.TABLET_REPORT) {
+                Long lastVersion = LAST_TABLET_REPORT_VERSIONS.get(reportTask.beId);
+                if (reportTask.incremental && (lastVersion == null || lastVersion != reportTask.baseReportVersion)) {
+                    return false;
+                }
+                LAST_TABLET_REPORT_VERSIONS.put(reportTask.beId, reportTask.reportVersion);
+                if (!reportTask.incremental) {
+                    LAST_FULL_TABLET_REPORT_TIME_MS.put(reportTask.beId, System.currentTimeMillis());
+                    BACKENDS_NEED_FULL_TABLET_REPORT.remove(reportTask.beId);
+                }
+            }
             ReportTask oldTask = pendingTaskMap.get(reportTask.type).get(reportTask.beId);
             if (oldTask == null) {
                 reportQueue.put(reportTask);
+                BACKEND_PENDING_REPORTS.merge(reportTask.beId, 1, Integer::sum);
             } else {
                 LOG.info("update be {} report task {}", oldTask.beId, oldTask);
+                if (reportTask.incremental) {
+                    // the changes in the pending report are not diffed yet
+                    reportTask.mergeFrom(oldTask);
+                }
             }
             pendingTaskMap.get(reportTask.type).put(reportTask.beId, reportTask);
         }
+        return true;
+    }
+
+    private boolean isFullTabletReportDue(long beId) {
+        if (BACKENDS_NEED_FULL_TABLET_REPORT.contains(beId)) {
+            return true;
+        }
+        Long lastFullTime = LAST_FULL_TABLET_REPORT_TIME_MS.get(beId);
+        return lastFullTime == null ||
+                System.currentTimeMillis() - lastFullTime > Config.tablet_full_report_interval_second * 1000L;
+    }
+
+    // drop the report states of a dropped backend
+    public static void removeBackend(long beId) {
+        LAST_TABLET_REPORT_VERSIONS.remove(beId);
+        LAST_FULL_TABLET_REPORT_TIME_MS.remove(beId);
+        BACKENDS_NEED_FULL_TABLET_REPORT.remove(beId);
+        BACKEND_PENDING_REPORTS.remove(beId);
+        BACKEND_TABLET_REPORT_COST_MS.remove(beId);
+    }
+
+    public static long getPendingReportNum(long beId) {
+        return BACKEND_PENDING_REPORTS.getOrDefault(beId, 0);
+    }
+
+    public static long getLastTabletReportCostMs(long beId) {
+        return BACKEND_TABLET_REPORT_COST_MS.getOrDefault(beId, 0L);
     }
 
     private Map<Long, TTablet> buildTabletMap(List<TTablet> tabletList) {
@@ -272,6 +352,10 @@ public class ReportHandler extends Daemon {
         private Map<Long, TTablet> tablets;
         private long reportVersion;
         private List<TWorkGroup> activeWorkGroups;
+        // the tablets of an incremental report are the changed ones since the report of baseReportVersion
+        private boolean incremental = false;
+        private long baseReportVersion = -1;
+        private Set<Long> removedTabletIds;
 
         public ReportTask(long beId, ReportType type, Map<TTaskType, Set<Long>> tasks,
                           Map<String, TDisk> disks,
@@ -286,6 +370,30 @@ public class ReportHandler extends Daemon {
             this.activeWorkGroups = activeWorkGroups;
         }
 
+        public void setIncremental(long baseReportVersion, Set<Long> removedTabletIds) {
+            this.incremental = true;
+            this.baseReportVersion = baseReportVersion;
+            this.removedTabletIds = removedTabletIds;
+        }
+
+        // merge the older pending tablet report of the same backend, the changes of this one override it
+        public void mergeFrom(ReportTask older) {
+            Map<Long, TTablet> mergedTablets = Maps.newHashMap(older.tablets);
+            mergedTablets.keySet().removeAll(removedTabletIds);
+            mergedTablets.putAll(tablets);
+            if (older.incremental) {
+                Set<Long> mergedRemoved = Sets.newHashSet(older.removedTabletIds);
+                mergedRemoved.removeAll(tablets.keySet());
+                mergedRemoved.addAll(removedTabletIds);
+                removedTabletIds = mergedRemoved;
+            } else {
+                // apply the changes to the full report, it's still a full one
+                incremental = false;
+                removedTabletIds = null;
+            }
+            tablets = mergedTablets;
+        }
+
         @Override
         protected void exec() {
             if (tasks != null) {
@@ -295,7 +403,7 @@ public class ReportHandler extends Daemon {
                 ReportHandler.diskReport(beId, disks);
             }
             if (tablets != null) {
-                ReportHandler.tabletReport(beId, tablets, reportVersion);
+                ReportHandler.tabletReport(beId, tablets, reportVersion, incremental ? removedTabletIds : null);
             }
             if (activeWorkGroups != null) {
                 ReportHandler.workgroupReport(beId, activeWorkGroups);
@@ -303,73 +411,55 @@ public class ReportHandler extends Daemon {
         }
     }
 
-    private static void tabletReport(long backendId, Map<Long, TTablet> backendTablets, long backendReportVersion) {
+    /**
+     * @param removedTabletIds null for a full report, or the tablets dropped since the base of an incremental report,
+     *                         backendTablets only contains the changed tablets in this case
+     */
+    private static void tabletReport(long backendId, Map<Long, TTablet> backendTablets, long backendReportVersion,
+                                     Set<Long> removedTabletIds) {
         long start = System.currentTimeMillis();
-        LOG.info("backend[{}] reports {} tablet(s). report version: {}",
-                backendId, backendTablets.size(), backendReportVersion);
+        LOG.info("backend[{}] reports {} tablet(s), incremental: {}. report version: {}",
+                backendId, backendTablets.size(), removedTabletIds != null, backendReportVersion);
 
         // storage medium map
         HashMap<Long, TStorageMedium> storageMediumMap =
                 GlobalStateMgr.getCurrentState().getPartitionIdToStorageMediumMap();
 
-        // db id -> tablet id
-        ListMultimap<Long, Long> tabletSyncMap = LinkedListMultimap.create();
-        // db id -> tablet id
-        ListMultimap<Long, Long> tabletDeleteFromMeta = LinkedListMultimap.create();
-        // tablet ids which schema hash is valid
-        Set<Long> foundTabletsWithValidSchema = new HashSet<Long>();
-        // tablet ids which schema hash is invalid
-        Map<Long, TTabletInfo> foundTabletsWithInvalidSchema = new HashMap<Long, TTabletInfo>();
-        // storage medium -> tablet id
-        ListMultimap<TStorageMedium, Long> tabletMigrationMap = LinkedListMultimap.create();
-
-        // dbid -> txn id -> [partition info]
-        Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish = Maps.newHashMap();
-        Map<Long, Long> transactionsToCommitTime = Maps.newHashMap();
-        ListMultimap<Long, Long> transactionsToClear = LinkedListMultimap.create();
-
-        // db id -> tablet id
-        ListMultimap<Long, Long> tabletRecoveryMap = LinkedListMultimap.create();
-
-        Set<Pair<Long, Integer>> tabletWithoutPartitionId = Sets.newHashSet();
-
         // 1. do the diff. find out (intersection) / (be - meta) / (meta - be)
-        GlobalStateMgr.getCurrentInvertedIndex().tabletReport(backendId, backendTablets, storageMediumMap,
-                tabletSyncMap,
-                tabletDeleteFromMeta,
-                foundTabletsWithValidSchema,
-                foundTabletsWithInvalidSchema,
-                tabletMigrationMap,
-                transactionsToPublish,
-                transactionsToCommitTime,
-                transactionsToClear,
-                tabletRecoveryMap,
-                tabletWithoutPartitionId);
+        TabletInvertedIndex.TabletReportDiff diff = GlobalStateMgr.getCurrentInvertedIndex().diffTabletReport(backendId,
+                backendTablets, storageMediumMap,
+                removedTabletIds == null ? null : Sets.union(backendTablets.keySet(), removedTabletIds));
 
         // 2. sync
-        sync(backendTablets, tabletSyncMap, backendId, backendReportVersion);
+        sync(backendTablets, diff.tabletSyncMap, backendId, backendReportVersion);
 
         // 3. delete (meta - be)
         // BE will automatically drop defective tablets. these tablets should also be dropped in globalStateMgr
-        deleteFromMeta(tabletDeleteFromMeta, backendId, backendReportVersion);
+        boolean deferredDelete = deleteFromMeta(diff.tabletDeleteFromMeta, backendId, backendReportVersion);
 
         // 4. handle (be - meta)
-        deleteFromBackend(backendTablets, foundTabletsWithValidSchema, foundTabletsWithInvalidSchema, backendId);
+        deleteFromBackend(backendTablets, diff.foundTabletsWithValidSchema, diff.foundTabletsWithInvalidSchema, backendId);
 
         // 5. migration (ssd <-> hdd)
-        handleMigration(tabletMigrationMap, backendId);
+        handleMigration(diff.tabletMigrationMap, backendId);
 
         // 6. send clear transactions to be
-        handleClearTransactions(transactionsToClear, backendId);
+        handleClearTransactions(diff.transactionsToClear, backendId);
 
         // 7. send publish version request to be
-        handleRepublishVersionInfo(transactionsToPublish, transactionsToCommitTime, backendId);
+        handleRepublishVersionInfo(diff.transactionsToPublish, diff.transactionsToCommitTime, backendId);
+
+        // the repaired tablets may not change on the backend, so check them in the next report even if it's
+        // an incremental one
+        if (deferredDelete || !diff.tabletSyncMap.isEmpty() || !diff.transactionsToPublish.isEmpty()) {
+            BACKENDS_NEED_FULL_TABLET_REPORT.add(backendId);
+        }
 
         // 8. send recover request to be
-        handleRecoverTablet(tabletRecoveryMap, backendTablets, backendId);
+        handleRecoverTablet(diff.tabletRecoveryMap, backendTablets, backendId);
 
         // 9. send set tablet partition info to be
-        handleSetTabletPartitionId(backendId, tabletWithoutPartitionId);
+        handleSetTabletPartitionId(backendId, diff.tabletWithoutPartitionId);
 
         // 10. send set tablet in memory to be
         handleSetTabletInMemory(backendId, backendTablets);
@@ -385,6 +475,10 @@ public class ReportHandler extends Daemon {
         }
 
         long end = System.currentTimeMillis();
+        BACKEND_TABLET_REPORT_COST_MS.put(backendId, end - start);
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_TABLET_REPORT_LATENCY.update(end - start);
+        }
         LOG.info("tablet report from backend[{}] cost: {} ms", backendId, (end - start));
     }
 
@@ -607,8 +701,12 @@ public class ReportHandler extends Daemon {
         } // end for dbs
     }
 
-    private static void deleteFromMeta(ListMultimap<Long, Long> tabletDeleteFromMeta, long backendId,
-                                       long backendReportVersion) {
+    /**
+     * @return true if the meta delete of some replicas is deferred to the next tablet report
+     */
+    private static boolean deleteFromMeta(ListMultimap<Long, Long> tabletDeleteFromMeta, long backendId,
+                                          long backendReportVersion) {
+        boolean deferred = false;
         AgentBatchTask createReplicaBatchTask = new AgentBatchTask();
         TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
         GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
@@ -733,6 +831,7 @@ public class ReportHandler extends Daemon {
                         // for details.
                         if (replica.getDeferReplicaDeleteToNextReport()) {
                             replica.setDeferReplicaDeleteToNextReport(false);
+                            deferred = true;
                             continue;
                         } else {
                             tablet.deleteReplicaByBackendId(backendId);
@@ -772,6 +871,7 @@ public class ReportHandler extends Daemon {
             AgentTaskQueue.addBatchTask(createReplicaBatchTask);
             AgentTaskExecutor.submit(createReplicaBatchTask);
         }
+        return deferred;
     }
 
     private static void addDropReplicaTask(AgentBatchTask batchTask, long backendId,
@@ -1300,6 +1400,7 @@ public class ReportHandler extends Daemon {
                         throw new Exception("pendingTaskMap not exists " + task.beId);
                     }
                     pendingTaskMap.get(task.type).remove(task.beId, task);
+                    BACKEND_PENDING_REPORTS.computeIfPresent(task.beId, (k, v) -> v > 1 ? v - 1 : null);
                 }
                 task.exec();
             } catch (Exception e) {
@@ -0,0 +1,39 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2;
+
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * The finished load jobs moved into the archive by the leader, in the order they are archived.
+ */
+public class ArchiveLoadJobsInfo implements Writable {
+    @SerializedName(value = "jobIds")
+    private List<Long> jobIds;
+
+    public ArchiveLoadJobsInfo(List<Long> jobIds) {
+        this.jobIds = jobIds;
+    }
+
+    public List<Long> getJobIds() {
+        return jobIds;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        Text.writeString(out, GsonUtils.GSON.toJson(this));
+    }
+
+    public static ArchiveLoadJobsInfo read(DataInput in) throws IOException {
+        String json = Text.readString(in);
+        return GsonUtils.GSON.fromJson(json, ArchiveLoadJobsInfo.class);
+    }
+}
@@ -0,0 +1,157 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.AuthorizationInfo;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.ErrorCode;
+import com.starrocks.common.ErrorReport;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.load.EtlJobType;
+import com.starrocks.load.Load;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.mysql.privilege.Privilege;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What is kept of a finished load job in the {@link LoadJobArchive}: the row of SHOW LOAD and the few fields
+ * which the label check and the load info of the http api need.
+ * The load statistic, the file groups and the tasks of the job are dropped.
+ */
+public class ArchivedLoadJob implements Writable {
+    private long id;
+    private long dbId;
+    private String label;
+    private JobState state;
+    private EtlJobType jobType;
+    private long finishTimestamp;
+    private AuthorizationInfo authorizationInfo;
+    private Set<String> tableNames;
+    private String failMsg;
+    private List<String> showInfo;
+
+    // only for persist
+    private ArchivedLoadJob() {
+    }
+
+    public ArchivedLoadJob(long id, long dbId, String label, JobState state, EtlJobType jobType, long finishTimestamp,
+                           AuthorizationInfo authorizationInfo, Set<String> tableNames, String failMsg,
+                           List<String> showInfo) {
+        this.id = id;
+        this.dbId = dbId;
+        this.label = label;
+        this.state = state;
+        this.jobType = jobType;
+        this.finishTimestamp = finishTimestamp;
+        this.authorizationInfo = authorizationInfo;
+        this.tableNames = tableNames;
+        this.failMsg = failMsg;
+        this.showInfo = showInfo;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getDbId() {
+        return dbId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public JobState getState() {
+        return state;
+    }
+
+    public EtlJobType getJobType() {
+        return jobType;
+    }
+
+    public long getFinishTimestamp() {
+        return finishTimestamp;
+    }
+
+    public boolean checkAuth() {
+        return GlobalStateMgr.getCurrentState().getAuth().checkPrivByAuthInfo(ConnectContext.get(), authorizationInfo,
+                PrivPredicate.LOAD);
+    }
+
+    /**
+     * @return the same row as {@link LoadJob#getShowInfo()} when the job was archived
+     */
+    public List<Comparable> getShowInfo() {
+        List<Comparable> jobInfo = Lists.newArrayListWithCapacity(showInfo.size());
+        jobInfo.addAll(showInfo);
+        // SHOW LOAD may order the rows of archived and live jobs together, keep the types of the columns
+        jobInfo.set(0, id);
+        jobInfo.set(4, jobType);
+        return jobInfo;
+    }
+
+    public void getJobInfo(Load.JobInfo jobInfo) throws DdlException {
+        if (!checkAuth()) {
+            ErrorReport.reportDdlException(ErrorCode.ERR_SPECIFIC_ACCESS_DENIED_ERROR, Privilege.LOAD_PRIV);
+        }
+        jobInfo.tblNames.addAll(tableNames);
+        jobInfo.state = state;
+        jobInfo.failMsg = failMsg;
+        // the same as the tracking url column of SHOW LOAD
+        jobInfo.trackingUrl = showInfo.get(13);
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeLong(dbId);
+        Text.writeString(out, label);
+        Text.writeString(out, state.name());
+        Text.writeString(out, jobType.name());
+        out.writeLong(finishTimestamp);
+        authorizationInfo.write(out);
+        out.writeInt(tableNames.size());
+        for (String tableName : tableNames) {
+            Text.writeString(out, tableName);
+        }
+        Text.writeString(out, failMsg);
+        out.writeInt(showInfo.size());
+        for (String column : showInfo) {
+            Text.writeString(out, column);
+        }
+    }
+
+    public static ArchivedLoadJob read(DataInput in) throws IOException {
+        ArchivedLoadJob job = new ArchivedLoadJob();
+        job.id = in.readLong();
+        job.dbId = in.readLong();
+        job.label = Text.readString(in);
+        job.state = JobState.valueOf(Text.readString(in));
+        job.jobType = EtlJobType.valueOf(Text.readString(in));
+        job.finishTimestamp = in.readLong();
+        job.authorizationInfo = new AuthorizationInfo();
+        job.authorizationInfo.readFields(in);
+        int size = in.readInt();
+        job.tableNames = Sets.newHashSetWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            job.tableNames.add(Text.readString(in));
+        }
+        job.failMsg = Text.readString(in);
+        size = in.readInt();
+        job.showInfo = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            job.showInfo.add(Text.readString(in));
+        }
+        return job;
+    }
+}
@@ -27,7 +27,6 @@ import com.starrocks.common.UserException;
 import com.starrocks.common.util.BrokerUtil;
 import com.starrocks.common.util.LogBuilder;
 import com.starrocks.common.util.LogKey;
-import com.starrocks.fs.HdfsUtil;
 import com.starrocks.load.BrokerFileGroup;
 import com.starrocks.load.BrokerFileGroupAggInfo.FileGroupAggKey;
 import com.starrocks.load.FailMsg;
@@ -35,6 +34,7 @@ import com.starrocks.thrift.TBrokerFileStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -66,6 +66,18 @@ public class BrokerLoadPendingTask extends LoadTask {
         long start = System.currentTimeMillis();
         long totalFileSize = 0;
         int totalFileNum = 0;
+
+        // list the paths of all file groups in parallel
+        List<String> allPaths = Lists.newArrayList();
+        for (List<BrokerFileGroup> fileGroups : aggKeyToBrokerFileGroups.values()) {
+            for (BrokerFileGroup fileGroup : fileGroups) {
+                allPaths.addAll(fileGroup.getFilePaths());
+            }
+        }
+        Iterator<List<TBrokerFileStatus>> pathFileStatuses = BrokerUtil.parseFiles(allPaths, brokerDesc).iterator();
+        LOG.info("list {} paths. cost: {} ms, job: {}", allPaths.size(), System.currentTimeMillis() - start,
+                callback.getCallbackId());
+
         for (Map.Entry<FileGroupAggKey, List<BrokerFileGroup>> entry : aggKeyToBrokerFileGroups.entrySet()) {
             FileGroupAggKey aggKey = entry.getKey();
             List<BrokerFileGroup> fileGroups = entry.getValue();
@@ -77,12 +89,8 @@ public class BrokerLoadPendingTask extends LoadTask {
             for (BrokerFileGroup fileGroup : fileGroups) {
                 long groupFileSize = 0;
                 List<TBrokerFileStatus> fileStatuses = Lists.newArrayList();
-                for (String path : fileGroup.getFilePaths()) {
-                    if (brokerDesc.hasBroker()) {
-                        BrokerUtil.parseFile(path, brokerDesc, fileStatuses);
-                    } else {
-                        HdfsUtil.parseFile(path, brokerDesc, fileStatuses);
-                    }
+                for (int i = 0; i < fileGroup.getFilePaths().size(); i++) {
+                    fileStatuses.addAll(pathFileStatuses.next());
                 }
                 fileStatusList.add(fileStatuses);
                 for (TBrokerFileStatus fstatus : fileStatuses) {
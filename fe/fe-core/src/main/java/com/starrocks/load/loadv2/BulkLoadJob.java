@@ -83,6 +83,8 @@ public abstract class BulkLoadJob extends LoadJob {
     // sessionVariable's name -> sessionVariable's value
     // we persist these sessionVariables due to the session is not available when replaying the job.
     protected Map<String, String> sessionVariables = Maps.newHashMap();
+    // the user who created the job, not persisted, so jobs recovered from the image share an empty user
+    protected String user = "";
 
     // only for log replay
     public BulkLoadJob() {
@@ -99,6 +101,10 @@ public abstract class BulkLoadJob extends LoadJob {
             sessionVariables.put(SessionVariable.SQL_MODE, Long.toString(var.getSqlMode()));
             sessionVariables.put(SessionVariable.LOAD_TRANSMISSION_COMPRESSION_TYPE, var.getloadTransmissionCompressionType());
             sessionVariables.put(SessionVariable.ENABLE_REPLICATED_STORAGE, Boolean.toString(var.getEnableReplicatedStorage()));
+            if (!Strings.isNullOrEmpty(var.getResourceGroup())) {
+                sessionVariables.put(SessionVariable.RESOURCE_GROUP, var.getResourceGroup());
+            }
+            user = Strings.nullToEmpty(ConnectContext.get().getQualifiedUser());
         } else {
             sessionVariables.put(SessionVariable.SQL_MODE, String.valueOf(SqlModeHelper.MODE_DEFAULT));
         }
@@ -252,6 +258,15 @@ public abstract class BulkLoadJob extends LoadJob {
         }
     }
 
+    public String getUser() {
+        return user;
+    }
+
+    // the resource group set by the session which created the job, empty if not set
+    public String getResourceGroupName() {
+        return Strings.nullToEmpty(sessionVariables.get(SessionVariable.RESOURCE_GROUP));
+    }
+
     /**
      * If the db or table could not be found, the Broker load job will be cancelled.
      */
@@ -275,6 +290,13 @@ public abstract class BulkLoadJob extends LoadJob {
                 throw new DdlException("Database[" + dbId + "] does not exist");
             }
             checkAndSetDataSourceInfo(db, stmt.getDataDescriptions());
+            // the priority is not persisted
+            if (stmt.getProperties() != null && stmt.getProperties().containsKey(LoadStmt.PRIORITY)) {
+                priority = LoadPriority.fromString(stmt.getProperties().get(LoadStmt.PRIORITY));
+                if (priority == null) {
+                    priority = LoadPriority.NORMAL;
+                }
+            }
         } catch (Exception e) {
             LOG.info(new LogBuilder(LogKey.LOAD_JOB, id)
                     .add("origin_stmt", originStmt)
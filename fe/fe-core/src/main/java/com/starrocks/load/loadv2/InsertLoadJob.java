@@ -111,13 +111,13 @@ public class InsertLoadJob extends LoadJob {
             this.timeoutSecond = Config.insert_load_default_timeout_second;
             this.authorizationInfo = gatherAuthInfo();
             this.loadingStatus.setTrackingUrl(trackingUrl);
+            // persistent, under the lock so that the job is not archived before it
+            GlobalStateMgr.getCurrentState().getEditLog().logEndLoadJob(
+                    new LoadJobFinalOperation(this.id, this.loadingStatus, this.progress,
+                    this.loadStartTimestamp, this.finishTimestamp, this.state, this.failMsg));
         } finally {
             writeUnlock();
         }
-        // persistent
-        GlobalStateMgr.getCurrentState().getEditLog().logEndLoadJob(
-                new LoadJobFinalOperation(this.id, this.loadingStatus, this.progress, 
-                this.loadStartTimestamp, this.finishTimestamp, this.state, this.failMsg));
     }
 
     public AuthorizationInfo gatherAuthInfo() throws MetaNotFoundException {
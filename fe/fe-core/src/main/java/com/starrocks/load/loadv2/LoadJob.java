@@ -105,6 +105,8 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
     protected boolean strictMode = false; // default is false
     protected String timezone = TimeUtils.DEFAULT_TIME_ZONE;
     protected boolean partialUpdate = false;
+    // not persisted, bulk load jobs restore it from the origin statement
+    protected LoadPriority priority = LoadPriority.NORMAL;
     // reuse deleteFlag as partialUpdate
     // @Deprecated
     // protected boolean deleteFlag = false;
@@ -215,6 +217,10 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
         return transactionId;
     }
 
+    public LoadPriority getPriority() {
+        return priority;
+    }
+
     public void initLoadProgress(TUniqueId loadId, Set<TUniqueId> fragmentIds, List<Long> relatedBackendIds) {
         loadingStatus.getLoadStatistic().initLoad(loadId, fragmentIds, relatedBackendIds);
     }
@@ -304,6 +310,13 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
                 strictMode = Boolean.valueOf(properties.get(LoadStmt.STRICT_MODE));
             }
 
+            if (properties.containsKey(LoadStmt.PRIORITY)) {
+                priority = LoadPriority.fromString(properties.get(LoadStmt.PRIORITY));
+                if (priority == null) {
+                    throw new DdlException("Invalid priority " + properties.get(LoadStmt.PRIORITY));
+                }
+            }
+
             if (properties.containsKey(LoadStmt.TIMEZONE)) {
                 timezone = properties.get(LoadStmt.TIMEZONE);
             } else if (ConnectContext.get() != null) {
@@ -662,68 +675,101 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
         try {
             // check auth
             checkAuth("SHOW LOAD");
-            List<Comparable> jobInfo = Lists.newArrayList();
-            // jobId
-            jobInfo.add(id);
-            // label
-            jobInfo.add(label);
-            // state
-            if (state == JobState.COMMITTED) {
-                jobInfo.add("PREPARED");
-            } else {
-                jobInfo.add(state.name());
-            }
-            // progress
-            switch (state) {
-                case PENDING:
-                    jobInfo.add("ETL:0%; LOAD:0%");
-                    break;
-                case CANCELLED:
-                    jobInfo.add("ETL:N/A; LOAD:N/A");
-                    break;
-                case ETL:
-                    jobInfo.add("ETL:" + progress + "%; LOAD:0%");
-                    break;
-                default:
-                    jobInfo.add("ETL:100%; LOAD:" + progress + "%");
-                    break;
-            }
+            return unprotectedGetShowInfo();
+        } finally {
+            readUnlock();
+        }
+    }
+
+    private List<Comparable> unprotectedGetShowInfo() {
+        List<Comparable> jobInfo = Lists.newArrayList();
+        // jobId
+        jobInfo.add(id);
+        // label
+        jobInfo.add(label);
+        // state
+        if (state == JobState.COMMITTED) {
+            jobInfo.add("PREPARED");
+        } else {
+            jobInfo.add(state.name());
+        }
+        // progress
+        switch (state) {
+            case PENDING:
+                jobInfo.add("ETL:0%; LOAD:0%");
+                break;
+            case CANCELLED:
+                jobInfo.add("ETL:N/A; LOAD:N/A");
+                break;
+            case ETL:
+                jobInfo.add("ETL:" + progress + "%; LOAD:0%");
+                break;
+            default:
+                jobInfo.add("ETL:100%; LOAD:" + progress + "%");
+                break;
+        }
 
-            // type
-            jobInfo.add(jobType);
+        // type
+        jobInfo.add(jobType);
 
-            // etl info
-            if (loadingStatus.getCounters().size() == 0) {
-                jobInfo.add(FeConstants.null_string);
-            } else {
-                jobInfo.add(Joiner.on("; ").withKeyValueSeparator("=").join(loadingStatus.getCounters()));
-            }
+        // etl info
+        if (loadingStatus.getCounters().size() == 0) {
+            jobInfo.add(FeConstants.null_string);
+        } else {
+            jobInfo.add(Joiner.on("; ").withKeyValueSeparator("=").join(loadingStatus.getCounters()));
+        }
 
-            // task info
-            jobInfo.add("resource:" + getResourceName() + "; timeout(s):" + timeoutSecond
-                    + "; max_filter_ratio:" + maxFilterRatio);
+        // task info
+        jobInfo.add("resource:" + getResourceName() + "; timeout(s):" + timeoutSecond
+                + "; max_filter_ratio:" + maxFilterRatio);
 
-            // error msg
-            if (failMsg == null) {
-                jobInfo.add(FeConstants.null_string);
-            } else {
-                jobInfo.add("type:" + failMsg.getCancelType() + "; msg:" + failMsg.getMsg());
-            }
+        // error msg
+        if (failMsg == null) {
+            jobInfo.add(FeConstants.null_string);
+        } else {
+            jobInfo.add("type:" + failMsg.getCancelType() + "; msg:" + failMsg.getMsg());
+        }
 
-            // create time
-            jobInfo.add(TimeUtils.longToTimeString(createTimestamp));
-            // etl start time
-            jobInfo.add(TimeUtils.longToTimeString(getEtlStartTimestamp()));
-            // etl end time
-            jobInfo.add(TimeUtils.longToTimeString(loadStartTimestamp));
-            // load start time
-            jobInfo.add(TimeUtils.longToTimeString(loadStartTimestamp));
-            // load end time
-            jobInfo.add(TimeUtils.longToTimeString(finishTimestamp));
-            // tracking url
-            jobInfo.add(loadingStatus.getTrackingUrl());
-            jobInfo.add(loadingStatus.getLoadStatistic().toShowInfoStr());
-            return jobInfo;
+        // create time
+        jobInfo.add(TimeUtils.longToTimeString(createTimestamp));
+        // etl start time
+        jobInfo.add(TimeUtils.longToTimeString(getEtlStartTimestamp()));
+        // etl end time
+        jobInfo.add(TimeUtils.longToTimeString(loadStartTimestamp));
+        // load start time
+        jobInfo.add(TimeUtils.longToTimeString(loadStartTimestamp));
+        // load end time
+        jobInfo.add(TimeUtils.longToTimeString(finishTimestamp));
+        // tracking url
+        jobInfo.add(loadingStatus.getTrackingUrl());
+        jobInfo.add(loadingStatus.getLoadStatistic().toShowInfoStr());
+        return jobInfo;
+    }
+
+    /**
+     * @return the copy of this finished job which is kept in the {@link LoadJobArchive}
+     */
+    public ArchivedLoadJob toArchivedLoadJob() {
+        readLock();
+        try {
+            AuthorizationInfo authInfo = authorizationInfo;
+            if (authInfo == null) {
+                // the same privileges as checkAuthWithoutAuthInfo()
+                Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
+                Set<String> tableNames;
+                try {
+                    tableNames = getTableNames();
+                } catch (MetaNotFoundException e) {
+                    tableNames = Sets.newHashSet();
+                }
+                authInfo = new AuthorizationInfo(db == null ? null : db.getFullName(), tableNames);
+            }
+            List<String> showInfo = Lists.newArrayList();
+            for (Comparable column : unprotectedGetShowInfo()) {
+                showInfo.add(column.toString());
+            }
+            return new ArchivedLoadJob(id, dbId, label, state, jobType, finishTimestamp, authInfo,
+                    getTableNamesForShow(), failMsg == null ? "" : failMsg.getMsg(), showInfo);
         } finally {
             readUnlock();
         }
@@ -0,0 +1,327 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.starrocks.common.Config;
+import com.starrocks.load.EtlJobType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The finished load jobs which are moved out of {@link LoadManager}, in the order they are archived.
+ * <p>
+ * Jobs are appended to the open block, which is sealed once it is full. A sealed block keeps the columns which
+ * jobs are filtered by (db, state, job type and finish time) in primitive arrays and the labels in a bloom filter,
+ * while the jobs themselves are deflated into a direct buffer out of the heap and only inflated to be shown.
+ * Jobs are removed from the head only, when their labels expire.
+ * <p>
+ * Not thread safe, it is protected by the lock of LoadManager.
+ */
+public class LoadJobArchive {
+    private static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final int blockSize;
+    private final Deque<Block> sealedBlocks = new ArrayDeque<>();
+    private final Deque<ArchivedLoadJob> openBlock = new ArrayDeque<>();
+    private int size = 0;
+    // state -> job type -> the number of jobs
+    private final long[][] jobNums = new long[JobState.values().length][EtlJobType.values().length];
+
+    public LoadJobArchive() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    @VisibleForTesting
+    LoadJobArchive(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public void add(ArchivedLoadJob job) {
+        openBlock.addLast(job);
+        size++;
+        jobNums[job.getState().ordinal()][job.getJobType().ordinal()]++;
+        if (openBlock.size() >= blockSize) {
+            sealedBlocks.addLast(new Block(openBlock));
+            openBlock.clear();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove the jobs at the head whose labels have been kept for *label_keep_max_second*.
+     *
+     * @return the number of removed jobs
+     */
+    public int removeExpired(long currentTimeMs) {
+        int removed = 0;
+        while (size > 0 && (currentTimeMs - getHeadFinishTimestamp()) / 1000 > Config.label_keep_max_second) {
+            removeHead();
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of removed jobs, less than num if the archive has less jobs
+     */
+    public int removeOldest(int num) {
+        int removed = 0;
+        while (size > 0 && removed < num) {
+            removeHead();
+            removed++;
+        }
+        return removed;
+    }
+
+    private long getHeadFinishTimestamp() {
+        Block block = sealedBlocks.peekFirst();
+        return block != null ? block.finishTimestamps[block.start] : openBlock.getFirst().getFinishTimestamp();
+    }
+
+    private void removeHead() {
+        Block block = sealedBlocks.peekFirst();
+        int state;
+        int jobType;
+        if (block != null) {
+            state = block.states[block.start];
+            jobType = block.jobTypes[block.start];
+            block.start++;
+            if (block.size() == 0) {
+                sealedBlocks.removeFirst();
+            }
+        } else {
+            ArchivedLoadJob job = openBlock.removeFirst();
+            state = job.getState().ordinal();
+            jobType = job.getJobType().ordinal();
+        }
+        jobNums[state][jobType]--;
+        size--;
+    }
+
+    /**
+     * @param labelValue    null or empty to return the jobs of any label
+     * @param accurateMatch true: the label of the jobs is labelValue. false: the label of the jobs contains labelValue.
+     */
+    public List<ArchivedLoadJob> getJobs(long dbId, String labelValue, boolean accurateMatch, Set<JobState> states) {
+        boolean matchAnyLabel = Strings.isNullOrEmpty(labelValue);
+        List<ArchivedLoadJob> jobs = Lists.newArrayList();
+        for (Block block : sealedBlocks) {
+            if (accurateMatch && !matchAnyLabel && !block.mightContain(dbId, labelValue)) {
+                continue;
+            }
+            if (!block.contains(dbId, states)) {
+                continue;
+            }
+            for (ArchivedLoadJob job : block.getJobs()) {
+                if (isMatched(job, dbId, labelValue, matchAnyLabel, accurateMatch, states)) {
+                    jobs.add(job);
+                }
+            }
+        }
+        for (ArchivedLoadJob job : openBlock) {
+            if (isMatched(job, dbId, labelValue, matchAnyLabel, accurateMatch, states)) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
+    }
+
+    private static boolean isMatched(ArchivedLoadJob job, long dbId, String labelValue, boolean matchAnyLabel,
+                                     boolean accurateMatch, Set<JobState> states) {
+        if (job.getDbId() != dbId || !states.contains(job.getState())) {
+            return false;
+        }
+        if (matchAnyLabel) {
+            return true;
+        }
+        return accurateMatch ? job.getLabel().equals(labelValue) : job.getLabel().contains(labelValue);
+    }
+
+    /**
+     * @return the latest archived job of the label, null if there is none
+     */
+    public ArchivedLoadJob getLatestJob(long dbId, String label) {
+        Iterator<ArchivedLoadJob> openIter = openBlock.descendingIterator();
+        while (openIter.hasNext()) {
+            ArchivedLoadJob job = openIter.next();
+            if (job.getDbId() == dbId && job.getLabel().equals(label)) {
+                return job;
+            }
+        }
+        Iterator<Block> blockIter = sealedBlocks.descendingIterator();
+        while (blockIter.hasNext()) {
+            Block block = blockIter.next();
+            if (!block.mightContain(dbId, label)) {
+                continue;
+            }
+            List<ArchivedLoadJob> jobs = block.getJobs();
+            for (int i = jobs.size() - 1; i >= 0; i--) {
+                ArchivedLoadJob job = jobs.get(i);
+                if (job.getDbId() == dbId && job.getLabel().equals(label)) {
+                    return job;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the label is used by an archived job which is not cancelled
+     */
+    public boolean isLabelUsed(long dbId, String label) {
+        for (ArchivedLoadJob job : openBlock) {
+            if (job.getDbId() == dbId && job.getState() != JobState.CANCELLED && job.getLabel().equals(label)) {
+                return true;
+            }
+        }
+        for (Block block : sealedBlocks) {
+            if (!block.mightContain(dbId, label)) {
+                continue;
+            }
+            for (ArchivedLoadJob job : block.getJobs()) {
+                if (job.getDbId() == dbId && job.getState() != JobState.CANCELLED && job.getLabel().equals(label)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public long getJobNum(JobState state, EtlJobType jobType) {
+        return jobNums[state.ordinal()][jobType.ordinal()];
+    }
+
+    public long getJobNum(JobState state, long dbId) {
+        long num = openBlock.stream().filter(job -> job.getDbId() == dbId && job.getState() == state).count();
+        for (Block block : sealedBlocks) {
+            for (int i = block.start; i < block.dbIds.length; i++) {
+                if (block.dbIds[i] == dbId && block.states[i] == state.ordinal()) {
+                    num++;
+                }
+            }
+        }
+        return num;
+    }
+
+    /**
+     * @return all the jobs, oldest first
+     */
+    public List<ArchivedLoadJob> getJobs() {
+        List<ArchivedLoadJob> jobs = Lists.newArrayListWithCapacity(size);
+        for (Block block : sealedBlocks) {
+            jobs.addAll(block.getJobs());
+        }
+        jobs.addAll(openBlock);
+        return jobs;
+    }
+
+    private static class Block {
+        private final long[] dbIds;
+        private final long[] finishTimestamps;
+        private final byte[] states;
+        private final byte[] jobTypes;
+        private final BloomFilter<CharSequence> labels;
+        // the deflated jobs
+        private final ByteBuffer data;
+        // the jobs before it have been removed
+        private int start = 0;
+
+        Block(Deque<ArchivedLoadJob> jobs) {
+            int num = jobs.size();
+            dbIds = new long[num];
+            finishTimestamps = new long[num];
+            states = new byte[num];
+            jobTypes = new byte[num];
+            labels = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), num);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+                int i = 0;
+                for (ArchivedLoadJob job : jobs) {
+                    dbIds[i] = job.getDbId();
+                    finishTimestamps[i] = job.getFinishTimestamp();
+                    states[i] = (byte) job.getState().ordinal();
+                    jobTypes[i] = (byte) job.getJobType().ordinal();
+                    labels.put(labelKey(job.getDbId(), job.getLabel()));
+                    job.write(out);
+                    i++;
+                }
+            } catch (IOException e) {
+                // never happens when writing to memory
+                throw new IllegalStateException(e);
+            } finally {
+                deflater.end();
+            }
+            data = ByteBuffer.allocateDirect(bytes.size());
+            data.put(bytes.toByteArray());
+            data.flip();
+        }
+
+        int size() {
+            return dbIds.length - start;
+        }
+
+        boolean mightContain(long dbId, String label) {
+            return labels.mightContain(labelKey(dbId, label));
+        }
+
+        boolean contains(long dbId, Set<JobState> jobStates) {
+            for (int i = start; i < dbIds.length; i++) {
+                if (dbIds[i] == dbId && jobStates.contains(JobState.values()[states[i]])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<ArchivedLoadJob> getJobs() {
+            byte[] bytes = new byte[data.remaining()];
+            data.duplicate().get(bytes);
+            List<ArchivedLoadJob> jobs = Lists.newArrayListWithCapacity(size());
+            Inflater inflater = new Inflater();
+            try (DataInputStream in = new DataInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(bytes), inflater))) {
+                for (int i = 0; i < dbIds.length; i++) {
+                    ArchivedLoadJob job = ArchivedLoadJob.read(in);
+                    if (i >= start) {
+                        jobs.add(job);
+                    }
+                }
+            } catch (IOException e) {
+                // never happens when reading from memory
+                throw new IllegalStateException(e);
+            } finally {
+                inflater.end();
+            }
+            return jobs;
+        }
+
+        private static String labelKey(long dbId, String label) {
+            return dbId + "/" + label;
+        }
+    }
+}
@@ -21,7 +21,9 @@
 
 package com.starrocks.load.loadv2;
 
-import com.google.common.collect.Queues;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.ResourceGroup;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.DuplicatedRequestException;
@@ -31,24 +33,42 @@ import com.starrocks.common.util.LeaderDaemon;
 import com.starrocks.common.util.LogBuilder;
 import com.starrocks.common.util.LogKey;
 import com.starrocks.load.FailMsg;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.transaction.BeginTransactionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.RejectedExecutionException;
 
 /**
  * LoadScheduler will schedule the pending LoadJob which belongs to LoadManager.
  * The function of execute will be called in LoadScheduler.
  * The status of LoadJob will be changed to loading after LoadScheduler.
+ *
+ * Jobs with a higher priority are scheduled first, and the users of the same priority take turns, so that
+ * neither a flood of low priority jobs nor the jobs of one user can starve the others. A job waits in the queue
+ * if Config.max_running_bulk_load_jobs, or the concurrency limit of the resource group of the job, is reached.
  */
 public class LoadJobScheduler extends LeaderDaemon {
 
     private static final Logger LOG = LogManager.getLogger(LoadJobScheduler.class);
 
-    private LinkedBlockingQueue<LoadJob> needScheduleJobs = Queues.newLinkedBlockingQueue();
+    // priority -> user -> waiting jobs of the user, the highest priority first
+    private final TreeMap<LoadPriority, LinkedHashMap<String, Deque<LoadJob>>> needScheduleJobs =
+            new TreeMap<>(Comparator.reverseOrder());
+    private final Map<String, Integer> userToWaitingJobNum = Maps.newHashMap();
+    // job id -> the time when the job is submitted for the first time
+    private final Map<Long, Long> jobIdToSubmitTimeMs = Maps.newHashMap();
+    private int waitingJobNum = 0;
 
     public LoadJobScheduler() {
         super("Load job scheduler", Config.load_checker_interval_second * 1000);
@@ -64,16 +84,23 @@ public class LoadJobScheduler extends LeaderDaemon {
     }
 
     private void process() throws InterruptedException {
+        Map<String, Integer> runningJobNums = GlobalStateMgr.getCurrentState().getLoadManager()
+                .getRunningBulkLoadJobNums();
         while (true) {
             // take one load job from queue
-            LoadJob loadJob = needScheduleJobs.poll();
+            LoadJob loadJob = pollJob(runningJobNums);
             if (loadJob == null) {
                 return;
             }
 
             // schedule job
+            Long submitTimeMs;
+            synchronized (this) {
+                submitTimeMs = jobIdToSubmitTimeMs.remove(loadJob.getId());
+            }
             try {
                 loadJob.execute();
+                onJobScheduled(loadJob, submitTimeMs, runningJobNums);
             } catch (LabelAlreadyUsedException | AnalysisException e) {
                 LOG.warn(new LogBuilder(LogKey.LOAD_JOB, loadJob.getId())
                         .add("error_msg", "There are error properties in job. Job will be cancelled")
@@ -93,14 +120,14 @@ public class LoadJobScheduler extends LeaderDaemon {
                 LOG.warn(new LogBuilder(LogKey.LOAD_JOB, loadJob.getId())
                         .add("error_msg", "Failed to begin txn with duplicate request. Job will be rescheduled later")
                         .build(), e);
-                needScheduleJobs.put(loadJob);
+                resubmitJob(loadJob, submitTimeMs);
                 return;
             } catch (BeginTransactionException e) {
                 LOG.warn(new LogBuilder(LogKey.LOAD_JOB, loadJob.getId())
                         .add("error_msg", "Failed to begin txn when job is scheduling. "
                                 + "Job will be rescheduled later")
                         .build(), e);
-                needScheduleJobs.put(loadJob);
+                resubmitJob(loadJob, submitTimeMs);
                 return;
             } catch (RejectedExecutionException e) {
                 LOG.warn(new LogBuilder(LogKey.LOAD_JOB, loadJob.getId())
@@ -112,15 +139,123 @@ public class LoadJobScheduler extends LeaderDaemon {
         }
     }
 
-    public boolean isQueueFull() {
-        return needScheduleJobs.size() > Config.desired_max_waiting_jobs;
+    private void onJobScheduled(LoadJob loadJob, Long submitTimeMs, Map<String, Integer> runningJobNums) {
+        if (submitTimeMs != null && MetricRepo.isInit) {
+            MetricRepo.HISTO_LOAD_JOB_QUEUE_WAIT_TIME.update(System.currentTimeMillis() - submitTimeMs);
+        }
+        runningJobNums.merge(getResourceGroupName(loadJob), 1, Integer::sum);
+    }
+
+    /**
+     * Take the next job to schedule: the first job of the next user of the highest priority, which is not limited
+     * by the number of running jobs.
+     *
+     * @param runningJobNums resource group -> the number of running jobs of the group
+     * @return null if there is no job to schedule now
+     */
+    @VisibleForTesting
+    synchronized LoadJob pollJob(Map<String, Integer> runningJobNums) {
+        int maxRunningJobNum = Config.max_running_bulk_load_jobs;
+        if (maxRunningJobNum > 0 && runningJobNums.values().stream().mapToInt(Integer::intValue).sum()
+                >= maxRunningJobNum) {
+            return null;
+        }
+        for (Map.Entry<LoadPriority, LinkedHashMap<String, Deque<LoadJob>>> priorityEntry : needScheduleJobs.entrySet()) {
+            LinkedHashMap<String, Deque<LoadJob>> userToJobs = priorityEntry.getValue();
+            for (Map.Entry<String, Deque<LoadJob>> entry : userToJobs.entrySet()) {
+                String user = entry.getKey();
+                Deque<LoadJob> jobs = entry.getValue();
+                Iterator<LoadJob> iter = jobs.iterator();
+                while (iter.hasNext()) {
+                    LoadJob job = iter.next();
+                    // the cancelled jobs are not scheduled
+                    if (job.isCompleted()) {
+                        iter.remove();
+                        onJobRemoved(user);
+                        jobIdToSubmitTimeMs.remove(job.getId());
+                        continue;
+                    }
+                    if (isResourceGroupFull(getResourceGroupName(job), runningJobNums)) {
+                        continue;
+                    }
+                    iter.remove();
+                    onJobRemoved(user);
+                    // the user goes to the end of the turn
+                    userToJobs.remove(user);
+                    if (!jobs.isEmpty()) {
+                        userToJobs.put(user, jobs);
+                    } else if (userToJobs.isEmpty()) {
+                        needScheduleJobs.remove(priorityEntry.getKey());
+                    }
+                    return job;
+                }
+            }
+        }
+        // remove the users whose jobs are all cancelled
+        needScheduleJobs.values().removeIf(userToJobs -> {
+            userToJobs.values().removeIf(Deque::isEmpty);
+            return userToJobs.isEmpty();
+        });
+        return null;
+    }
+
+    private void onJobRemoved(String user) {
+        waitingJobNum--;
+        userToWaitingJobNum.computeIfPresent(user, (k, v) -> v > 1 ? v - 1 : null);
+    }
+
+    private static boolean isResourceGroupFull(String resourceGroupName, Map<String, Integer> runningJobNums) {
+        if (resourceGroupName.isEmpty()) {
+            return false;
+        }
+        ResourceGroup resourceGroup =
+                GlobalStateMgr.getCurrentState().getResourceGroupMgr().getResourceGroup(resourceGroupName);
+        if (resourceGroup == null || resourceGroup.getConcurrencyLimit() == null
+                || resourceGroup.getConcurrencyLimit() <= 0) {
+            return false;
+        }
+        return runningJobNums.getOrDefault(resourceGroupName, 0) >= resourceGroup.getConcurrencyLimit();
+    }
+
+    private static String getUser(LoadJob job) {
+        return job instanceof BulkLoadJob ? ((BulkLoadJob) job).getUser() : "";
+    }
+
+    private static String getResourceGroupName(LoadJob job) {
+        return job instanceof BulkLoadJob ? ((BulkLoadJob) job).getResourceGroupName() : "";
     }
 
-    public void submitJob(LoadJob job) {
-        needScheduleJobs.add(job);
+    public synchronized boolean isQueueFull() {
+        return waitingJobNum > Config.desired_max_waiting_jobs;
+    }
+
+    public synchronized boolean isUserQueueFull(String user) {
+        int maxWaitingJobNum = Config.desired_max_waiting_jobs_per_user;
+        return maxWaitingJobNum > 0 && userToWaitingJobNum.getOrDefault(user, 0) >= maxWaitingJobNum;
+    }
+
+    public synchronized int getWaitingJobNum() {
+        return waitingJobNum;
+    }
+
+    public synchronized void submitJob(LoadJob job) {
+        String user = getUser(job);
+        needScheduleJobs.computeIfAbsent(job.getPriority(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(user, k -> new ArrayDeque<>()).add(job);
+        userToWaitingJobNum.merge(user, 1, Integer::sum);
+        jobIdToSubmitTimeMs.putIfAbsent(job.getId(), System.currentTimeMillis());
+        waitingJobNum++;
+    }
+
+    // the job is scheduled again later, its queue wait time counts from the first submission
+    private synchronized void resubmitJob(LoadJob job, Long submitTimeMs) {
+        if (submitTimeMs != null) {
+            jobIdToSubmitTimeMs.put(job.getId(), submitTimeMs);
+        }
+        submitJob(job);
     }
 
-    public void submitJob(List<LoadJob> jobs) {
-        needScheduleJobs.addAll(jobs);
+    public synchronized void submitJob(List<LoadJob> jobs) {
+        jobs.forEach(this::submitJob);
     }
 }
@@ -44,6 +44,7 @@ import com.starrocks.load.EtlJobType;
 import com.starrocks.load.FailMsg;
 import com.starrocks.load.FailMsg.CancelType;
 import com.starrocks.load.Load;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.thrift.TLoadJobType;
@@ -84,6 +85,8 @@ public class LoadManager implements Writable {
 
     private Map<Long, LoadJob> idToLoadJob = Maps.newConcurrentMap();
     private Map<Long, Map<String, List<LoadJob>>> dbIdToLabelToLoadJobs = Maps.newConcurrentMap();
+    // the finished jobs which are moved out of idToLoadJob and dbIdToLabelToLoadJobs
+    private LoadJobArchive loadJobArchive = new LoadJobArchive();
     private LoadJobScheduler loadJobScheduler;
 
     private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
@@ -108,11 +111,7 @@ public class LoadManager implements Writable {
             if (stmt.getBrokerDesc() == null && stmt.getResourceDesc() == null) {
                 throw new DdlException("LoadManager only support the broker and spark load.");
             }
-            if (loadJobScheduler.isQueueFull()) {
-                throw new DdlException(
-                        "There are more than " + Config.desired_max_waiting_jobs + " load jobs in waiting queue, "
-                                + "please retry later.");
-            }
+            checkWaitingQueue(context == null ? "" : Strings.nullToEmpty(context.getQualifiedUser()));
             loadJob = BulkLoadJob.fromLoadStmt(stmt, context);
             createLoadJob(loadJob);
         } finally {
@@ -125,6 +124,24 @@ public class LoadManager implements Writable {
         loadJobScheduler.submitJob(loadJob);
     }
 
+    // reject the new job of the user if the waiting queue is full
+    private void checkWaitingQueue(String user) throws DdlException {
+        String errMsg = null;
+        if (loadJobScheduler.isQueueFull()) {
+            errMsg = "There are more than " + Config.desired_max_waiting_jobs + " load jobs in waiting queue, "
+                    + "please retry later.";
+        } else if (loadJobScheduler.isUserQueueFull(user)) {
+            errMsg = "There are more than " + Config.desired_max_waiting_jobs_per_user + " load jobs of user " + user
+                    + " in waiting queue, please retry later.";
+        }
+        if (errMsg != null) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_LOAD_JOB_REJECTED.increase(1L);
+            }
+            throw new DdlException(errMsg);
+        }
+    }
+
     public void replayCreateLoadJob(LoadJob loadJob) {
         createLoadJob(loadJob);
         LOG.info(new LogBuilder(LogKey.LOAD_JOB, loadJob.getId())
@@ -268,13 +285,14 @@ public class LoadManager implements Writable {
     public long getLoadJobNum(JobState jobState, long dbId) {
         readLock();
         try {
+            long archivedNum = loadJobArchive.getJobNum(jobState, dbId);
             Map<String, List<LoadJob>> labelToLoadJobs = dbIdToLabelToLoadJobs.get(dbId);
             if (labelToLoadJobs == null) {
-                return 0;
+                return archivedNum;
             }
             List<LoadJob> loadJobList = labelToLoadJobs.values().stream()
                     .flatMap(entity -> entity.stream()).collect(Collectors.toList());
-            return (int) loadJobList.stream().filter(entity -> entity.getState() == jobState).count();
+            return loadJobList.stream().filter(entity -> entity.getState() == jobState).count() + archivedNum;
         } finally {
             readUnlock();
         }
@@ -284,12 +302,39 @@ public class LoadManager implements Writable {
         readLock();
         try {
             return idToLoadJob.values().stream().filter(j -> j.getState() == jobState && j.getJobType() == jobType)
-                    .count();
+                    .count() + loadJobArchive.getJobNum(jobState, jobType);
         } finally {
             readUnlock();
         }
     }
 
+    /**
+     * @return the number of broker and spark load jobs which have been scheduled and are not finished,
+     * by the resource group of the jobs
+     */
+    public Map<String, Integer> getRunningBulkLoadJobNums() {
+        Map<String, Integer> resourceGroupToJobNum = Maps.newHashMap();
+        for (LoadJob job : idToLoadJob.values()) {
+            if (job instanceof BulkLoadJob && isScheduled(job)) {
+                resourceGroupToJobNum.merge(((BulkLoadJob) job).getResourceGroupName(), 1, Integer::sum);
+            }
+        }
+        return resourceGroupToJobNum;
+    }
+
+    private static boolean isScheduled(LoadJob job) {
+        switch (job.getState()) {
+            case PENDING:
+                // a spark load job stays pending after it's scheduled, until its etl job is submitted
+                return job.getTransactionId() > 0;
+            case ETL:
+            case LOADING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private void unprotectedRemoveJobReleatedMeta(LoadJob job) {
         long dbId = job.getDbId();
         String label = job.getLabel();
@@ -326,6 +371,11 @@ public class LoadManager implements Writable {
 
         writeLock();
         try {
+            int numArchivedJobsRemoved = loadJobArchive.removeExpired(currentTimeMs);
+            if (numArchivedJobsRemoved > 0) {
+                LOG.info("remove {} expired archived jobs", numArchivedJobsRemoved);
+            }
+
             // add load job to a sorted tree set
             Set<LoadJob> jobs = new TreeSet<>(new Comparator<LoadJob>() {
                 @Override
@@ -350,8 +400,14 @@ public class LoadManager implements Writable {
             }
 
             // if there are still more jobs than LABEL_KEEP_MAX_NUM
-            // remove the ones that finished earlier
-            int numJobsToRemove = idToLoadJob.size() - Config.label_keep_max_num;
+            // remove the ones that finished earlier, the archived jobs first
+            int numJobsToRemove = idToLoadJob.size() + loadJobArchive.size() - Config.label_keep_max_num;
+            if (numJobsToRemove > 0) {
+                numArchivedJobsRemoved = loadJobArchive.removeOldest(numJobsToRemove);
+                LOG.info("remove {} archived jobs from {}", numArchivedJobsRemoved,
+                        loadJobArchive.size() + numArchivedJobsRemoved);
+                numJobsToRemove -= numArchivedJobsRemoved;
+            }
             if (numJobsToRemove > 0) {
                 LOG.info("remove {} jobs from {}", numJobsToRemove, jobs.size());
                 Iterator<LoadJob> iterator = jobs.iterator();
@@ -366,6 +422,74 @@ public class LoadManager implements Writable {
         }
     }
 
+    /**
+     * Move the finished broker and insert load jobs into the archive, which keeps only what SHOW LOAD needs.
+     * Spark load jobs are kept until they expire, because their spark launcher logs are removed with them.
+     * Only the leader archives jobs, and followers replay the journal of it. A job is completed and its end
+     * operation, if any, is journaled under the write lock of the job, so the end operation of a job is always
+     * replayed before it's archived.
+     */
+    public void archiveFinishedLoadJobs() {
+        if (!Config.enable_load_job_archive) {
+            return;
+        }
+        List<LoadJob> candidates;
+        readLock();
+        try {
+            candidates = idToLoadJob.values().stream().filter(job -> !(job instanceof SparkLoadJob))
+                    .collect(Collectors.toList());
+        } finally {
+            readUnlock();
+        }
+        List<LoadJob> jobs = Lists.newArrayList();
+        for (LoadJob job : candidates) {
+            job.readLock();
+            try {
+                if (job.isCompleted()) {
+                    jobs.add(job);
+                }
+            } finally {
+                job.readUnlock();
+            }
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+        List<Long> jobIds = jobs.stream().sorted(Comparator.comparingLong(LoadJob::getFinishTimestamp))
+                .map(LoadJob::getId).collect(Collectors.toList());
+        writeLock();
+        try {
+            GlobalStateMgr.getCurrentState().getEditLog().logArchiveLoadJobs(new ArchiveLoadJobsInfo(jobIds));
+            unprotectedArchiveLoadJobs(jobIds);
+        } finally {
+            writeUnlock();
+        }
+    }
+
+    public void replayArchiveLoadJobs(ArchiveLoadJobsInfo info) {
+        writeLock();
+        try {
+            unprotectedArchiveLoadJobs(info.getJobIds());
+        } finally {
+            writeUnlock();
+        }
+    }
+
+    private void unprotectedArchiveLoadJobs(List<Long> jobIds) {
+        int archivedNum = 0;
+        for (long jobId : jobIds) {
+            LoadJob job = idToLoadJob.get(jobId);
+            if (job == null) {
+                // removed as expired in the meantime
+                continue;
+            }
+            loadJobArchive.add(job.toArchivedLoadJob());
+            unprotectedRemoveJobReleatedMeta(job);
+            archivedNum++;
+        }
+        LOG.info("archive {} finished load jobs, {} archived jobs in total", archivedNum, loadJobArchive.size());
+    }
+
     // only for those jobs which transaction is not started
     public void processTimeoutJobs() {
         idToLoadJob.values().stream().forEach(entity -> entity.processTimeout());
@@ -423,10 +547,6 @@ public class LoadManager implements Writable {
     public List<List<Comparable>> getLoadJobInfosByDb(long dbId, String labelValue,
                                                       boolean accurateMatch, Set<String> statesValue) {
         LinkedList<List<Comparable>> loadJobInfos = new LinkedList<List<Comparable>>();
-        if (!dbIdToLabelToLoadJobs.containsKey(dbId)) {
-            return loadJobInfos;
-        }
-
         Set<JobState> states = Sets.newHashSet();
         if (statesValue == null || statesValue.size() == 0) {
             states.addAll(EnumSet.allOf(JobState.class));
@@ -442,7 +562,16 @@ public class LoadManager implements Writable {
 
         readLock();
         try {
+            for (ArchivedLoadJob archivedJob : loadJobArchive.getJobs(dbId, labelValue, accurateMatch, states)) {
+                if (archivedJob.checkAuth()) {
+                    loadJobInfos.add(archivedJob.getShowInfo());
+                }
+            }
+
             Map<String, List<LoadJob>> labelToLoadJobs = dbIdToLabelToLoadJobs.get(dbId);
+            if (labelToLoadJobs == null) {
+                return loadJobInfos;
+            }
             List<LoadJob> loadJobList = Lists.newArrayList();
             if (Strings.isNullOrEmpty(labelValue)) {
                 loadJobList.addAll(labelToLoadJobs.values()
@@ -486,18 +615,23 @@ public class LoadManager implements Writable {
         Database database = checkDb(info.dbName);
         readLock();
         try {
-            // find the latest load job by info
+            // find the latest load job by info, the archived jobs are older than the ones in memory
             Map<String, List<LoadJob>> labelToLoadJobs = dbIdToLabelToLoadJobs.get(database.getId());
-            if (labelToLoadJobs == null) {
-                throw new DdlException("No jobs belong to database(" + info.dbName + ")");
+            List<LoadJob> loadJobList = labelToLoadJobs == null ? null : labelToLoadJobs.get(info.label);
+            if (loadJobList != null && !loadJobList.isEmpty()) {
+                LoadJob loadJob = loadJobList.get(loadJobList.size() - 1);
+                loadJob.getJobInfo(info);
+                return;
             }
-            List<LoadJob> loadJobList = labelToLoadJobs.get(info.label);
-            if (loadJobList == null || loadJobList.isEmpty()) {
+
+            ArchivedLoadJob archivedJob = loadJobArchive.getLatestJob(database.getId(), info.label);
+            if (archivedJob != null) {
+                archivedJob.getJobInfo(info);
+            } else if (labelToLoadJobs == null) {
+                throw new DdlException("No jobs belong to database(" + info.dbName + ")");
+            } else {
                 throw new DdlException("Unknown job(" + info.label + ")");
             }
-
-            LoadJob loadJob = loadJobList.get(loadJobList.size() - 1);
-            loadJob.getJobInfo(info);
         } finally {
             readUnlock();
         }
@@ -559,6 +693,10 @@ public class LoadManager implements Writable {
                 }
             }
         }
+        if (loadJobArchive.isLabelUsed(dbId, label)) {
+            LOG.warn("Failed to add load job when label {} has been used by an archived job.", label);
+            throw new LabelAlreadyUsedException(label);
+        }
     }
 
     private void readLock() {
@@ -663,4 +801,33 @@ public class LoadManager implements Writable {
         write(out);
         return checksum;
     }
+
+    // The archive is saved in a section of its own at the end of the legacy image, which an older FE doesn't read.
+    public long loadLoadJobArchive(DataInputStream in, long checksum) throws IOException {
+        int size = in.readInt();
+        checksum ^= size;
+        for (int i = 0; i < size; i++) {
+            loadJobArchive.add(ArchivedLoadJob.read(in));
+        }
+        // the expired archived jobs are discarded when the image is loaded
+        loadJobArchive.removeExpired(System.currentTimeMillis());
+        LOG.info("finished replay {} archived load jobs from image", size);
+        return checksum;
+    }
+
+    public long saveLoadJobArchive(DataOutputStream out, long checksum) throws IOException {
+        List<ArchivedLoadJob> archivedJobs;
+        readLock();
+        try {
+            archivedJobs = loadJobArchive.getJobs();
+        } finally {
+            readUnlock();
+        }
+        out.writeInt(archivedJobs.size());
+        checksum ^= archivedJobs.size();
+        for (ArchivedLoadJob archivedJob : archivedJobs) {
+            archivedJob.write(out);
+        }
+        return checksum;
+    }
 }
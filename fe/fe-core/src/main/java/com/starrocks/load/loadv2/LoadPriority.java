@@ -0,0 +1,24 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2;
+
+/**
+ * Priority of a broker or spark load job, jobs with a higher priority are scheduled first by LoadJobScheduler.
+ */
+public enum LoadPriority {
+    LOWEST,
+    LOW,
+    NORMAL,
+    HIGH,
+    HIGHEST;
+
+    // return null if the priority is invalid
+    public static LoadPriority fromString(String priority) {
+        for (LoadPriority value : values()) {
+            if (value.name().equalsIgnoreCase(priority)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
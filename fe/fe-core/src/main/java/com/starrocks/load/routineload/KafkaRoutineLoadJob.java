@@ -21,6 +21,7 @@
 
 package com.starrocks.load.routineload;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
@@ -61,6 +62,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -87,6 +89,12 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     private Map<String, String> customProperties = Maps.newHashMap();
     private Map<String, String> convertedCustomProperties = Maps.newHashMap();
 
+    // the lag of each partition, measured when a task checks the latest offsets of its partitions.
+    // it is not persisted, and is measured again after the job is replayed.
+    private Map<Integer, Long> partitionIdToLag = Maps.newConcurrentMap();
+    // the last time the task concurrency was calculated by the lag of the job
+    private long lastLagRescheduleTimeMs = 0;
+
     public KafkaRoutineLoadJob() {
         // for serialization, id is dummy
         super(-1, LoadDataSourceType.KAFKA);
@@ -205,11 +213,99 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         LOG.debug("current concurrent task number is min"
                         + "(partition num: {}, desire task concurrent num: {}, alive be num: {}, config: {})",
                 partitionNum, desireTaskConcurrentNum, aliveBeNum, Config.max_routine_load_task_concurrent_num);
-        currentTaskConcurrentNum = Math.min(Math.min(partitionNum, Math.min(desireTaskConcurrentNum, aliveBeNum)),
-                Config.max_routine_load_task_concurrent_num);
+        int maxTaskNum = calculateMaxTaskNum(aliveBeNum);
+        if (Config.enable_routine_load_lag_scheduling) {
+            currentTaskConcurrentNum = calculateLagTaskNum(maxTaskNum);
+            lastLagRescheduleTimeMs = System.currentTimeMillis();
+        } else {
+            currentTaskConcurrentNum = maxTaskNum;
+        }
         return currentTaskConcurrentNum;
     }
 
+    private int calculateMaxTaskNum(int aliveBeNum) {
+        return Math.min(Math.min(currentKafkaPartitions.size(), Math.min(desireTaskConcurrentNum, aliveBeNum)),
+                Config.max_routine_load_task_concurrent_num);
+    }
+
+    // The number of tasks which can consume the current lag of the job in one round,
+    // with the throughput of one task measured from the finished tasks.
+    // Returns maxTaskNum if the lag or the throughput is unknown yet.
+    @VisibleForTesting
+    int calculateLagTaskNum(int maxTaskNum) {
+        if (maxTaskNum <= 1 || partitionIdToLag.isEmpty() || committedTaskNum == 0 || totalTaskExcutionTimeMs <= 0) {
+            return maxTaskNum;
+        }
+        long rowsPerTask = totalRows * Config.routine_load_task_consume_second * 1000 / totalTaskExcutionTimeMs;
+        if (rowsPerTask <= 0) {
+            return maxTaskNum;
+        }
+        long taskNum = (getTotalLag() + rowsPerTask - 1) / rowsPerTask;
+        return (int) Math.max(1, Math.min(maxTaskNum, taskNum));
+    }
+
+    // Record the lag of partitions, with the latest offsets fetched from kafka and the offsets the task begins with.
+    public void updatePartitionLag(Map<Integer, Long> latestOffsets, Map<Integer, Long> beginOffsets) {
+        for (Map.Entry<Integer, Long> entry : beginOffsets.entrySet()) {
+            Long latestOffset = latestOffsets.get(entry.getKey());
+            // the begin offset may be OFFSET_BEGINNING or OFFSET_END before the partition is consumed
+            if (latestOffset == null || entry.getValue() < 0) {
+                continue;
+            }
+            partitionIdToLag.put(entry.getKey(), Math.max(0L, latestOffset - entry.getValue()));
+        }
+    }
+
+    public Map<Integer, Long> getPartitionIdToLag() {
+        return partitionIdToLag;
+    }
+
+    public long getTotalLag() {
+        return partitionIdToLag.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // The max load size of a task with the given partitions, which is the estimated size of their lag
+    // if enable_routine_load_lag_scheduling, so a task which catches up with the lag commits earlier.
+    public long getTaskMaxBatchSize(Collection<Integer> partitions) {
+        if (!Config.enable_routine_load_lag_scheduling || totalRows == 0) {
+            return Config.max_routine_load_batch_size;
+        }
+        long lagRows = 0;
+        for (Integer partition : partitions) {
+            Long lag = partitionIdToLag.get(partition);
+            if (lag == null) {
+                return Config.max_routine_load_batch_size;
+            }
+            lagRows += lag;
+        }
+        long lagBytes = (long) ((double) receivedBytes / totalRows * lagRows);
+        long minBatchSize = Math.min(Config.min_routine_load_batch_size, Config.max_routine_load_batch_size);
+        return Math.max(minBatchSize, Math.min(lagBytes, Config.max_routine_load_batch_size));
+    }
+
+    // Whether the task concurrency of a running job should be changed for its lag.
+    // The job scales out as soon as its lag needs more tasks, but scales in only when it needs
+    // no more than half of the tasks, because every change aborts the running tasks.
+    private boolean needRescheduleForLag() {
+        if (!Config.enable_routine_load_lag_scheduling || state != JobState.RUNNING
+                || System.currentTimeMillis() - lastLagRescheduleTimeMs
+                < Config.routine_load_lag_scheduling_interval_second * 1000) {
+            return false;
+        }
+        int lagTaskNum = calculateLagTaskNum(
+                calculateMaxTaskNum(GlobalStateMgr.getCurrentSystemInfo().getAliveBackendNumber()));
+        if (lagTaskNum > currentTaskConcurrentNum || lagTaskNum * 2 <= currentTaskConcurrentNum) {
+            LOG.info(new LogBuilder(LogKey.ROUTINE_LOAD_JOB, id)
+                    .add("current_task_concurrent_num", currentTaskConcurrentNum)
+                    .add("lag_task_concurrent_num", lagTaskNum)
+                    .add("total_lag", getTotalLag())
+                    .add("msg", "task concurrency is changed for the lag of job")
+                    .build());
+            return true;
+        }
+        return false;
+    }
+
     // Through the transaction status and attachment information, to determine whether the progress needs to be updated.
     @Override
     protected boolean checkCommitInfo(RLTaskTxnCommitAttachment rlTaskTxnCommitAttachment,
@@ -284,7 +380,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         if (this.state == JobState.RUNNING || this.state == JobState.NEED_SCHEDULE) {
             if (customKafkaPartitions != null && customKafkaPartitions.size() != 0) {
                 currentKafkaPartitions = customKafkaPartitions;
-                return false;
+                return needRescheduleForLag();
             } else {
                 List<Integer> newCurrentKafkaPartition;
                 try {
@@ -303,6 +399,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
                 }
                 if (currentKafkaPartitions.containsAll(newCurrentKafkaPartition)) {
                     if (currentKafkaPartitions.size() > newCurrentKafkaPartition.size()) {
+                        partitionIdToLag.keySet().retainAll(newCurrentKafkaPartition);
                         currentKafkaPartitions = newCurrentKafkaPartition;
                         if (LOG.isDebugEnabled()) {
                             LOG.debug(new LogBuilder(LogKey.ROUTINE_LOAD_JOB, id)
@@ -312,7 +409,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
                         }
                         return true;
                     } else {
-                        return false;
+                        return needRescheduleForLag();
                     }
                 } else {
                     currentKafkaPartitions = newCurrentKafkaPartition;
@@ -353,6 +450,9 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
                 Long.valueOf((totalRows - errorRows - unselectedRows) / totalTaskExcutionTimeMs * 1000));
         summary.put("committedTaskNum", Long.valueOf(committedTaskNum));
         summary.put("abortedTaskNum", Long.valueOf(abortedTaskNum));
+        if (!partitionIdToLag.isEmpty()) {
+            summary.put("totalLag", Long.valueOf(getTotalLag()));
+        }
         Gson gson = new GsonBuilder().disableHtmlEscaping().create();
         return gson.toJson(summary);
     }
@@ -370,11 +470,16 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         }
 
         long tableId = -1L;
+        List<Long> targetTableIds = Lists.newArrayList();
         db.readLock();
         try {
             unprotectedCheckMeta(db, stmt.getTableName(), stmt.getRoutineLoadDesc());
             Table table = db.getTable(stmt.getTableName());
             tableId = table.getId();
+            for (String targetTableName : stmt.getTargetTables()) {
+                unprotectedCheckMeta(db, targetTableName, null);
+                targetTableIds.add(db.getTable(targetTableName).getId());
+            }
         } finally {
             db.readUnlock();
         }
@@ -384,6 +489,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         KafkaRoutineLoadJob kafkaRoutineLoadJob = new KafkaRoutineLoadJob(id, stmt.getName(),
                 db.getId(), tableId, stmt.getKafkaBrokerList(), stmt.getKafkaTopic());
         kafkaRoutineLoadJob.setOptional(stmt);
+        kafkaRoutineLoadJob.setTargetTables(targetTableIds, stmt.getTableRouteColumn());
         kafkaRoutineLoadJob.checkCustomProperties();
         kafkaRoutineLoadJob.checkCustomPartition();
 
@@ -24,6 +24,7 @@ package com.starrocks.load.routineload;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
+import com.starrocks.analysis.CreateRoutineLoadStmt;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
@@ -37,6 +38,7 @@ import com.starrocks.thrift.TFileFormatType;
 import com.starrocks.thrift.TKafkaLoadInfo;
 import com.starrocks.thrift.TLoadSourceType;
 import com.starrocks.thrift.TPlanFragment;
+import com.starrocks.thrift.TRoutineLoadTablePlan;
 import com.starrocks.thrift.TRoutineLoadTask;
 import com.starrocks.thrift.TUniqueId;
 import org.apache.logging.log4j.LogManager;
@@ -87,6 +89,7 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
                 kafkaRoutineLoadJob.getTopic(),
                 ImmutableMap.copyOf(kafkaRoutineLoadJob.getConvertedCustomProperties()),
                 new ArrayList<>(partitionIdToOffset.keySet()));
+        kafkaRoutineLoadJob.updatePartitionLag(latestOffsets, partitionIdToOffset);
         for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
             int partitionId = entry.getKey();
             Long latestOffset = latestOffsets.get(partitionId);
@@ -156,9 +159,12 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         tRoutineLoadTask.setKafka_load_info(tKafkaLoadInfo);
         tRoutineLoadTask.setType(TLoadSourceType.KAFKA);
         tRoutineLoadTask.setParams(plan(routineLoadJob));
+        if (routineLoadJob.isMultiTable()) {
+            setTablePlans(tRoutineLoadTask, routineLoadJob, database);
+        }
         tRoutineLoadTask.setMax_interval_s(Config.routine_load_task_consume_second);
         tRoutineLoadTask.setMax_batch_rows(routineLoadJob.getMaxBatchRows());
-        tRoutineLoadTask.setMax_batch_size(Config.max_routine_load_batch_size);
+        tRoutineLoadTask.setMax_batch_size(routineLoadJob.getTaskMaxBatchSize(partitionIdToOffset.keySet()));
         if (!routineLoadJob.getFormat().isEmpty() && routineLoadJob.getFormat().equalsIgnoreCase("json")) {
             tRoutineLoadTask.setFormat(TFileFormatType.FORMAT_JSON);
         } else {
@@ -173,10 +179,47 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         return gson.toJson(partitionIdToOffset);
     }
 
+    // the rows of the table of the job are loaded by the params of the task,
+    // and the rows of every target table are loaded by its own plan in the same txn
+    private void setTablePlans(TRoutineLoadTask tRoutineLoadTask, RoutineLoadJob routineLoadJob, Database database)
+            throws UserException {
+        for (long targetTableId : routineLoadJob.getTargetTableIds()) {
+            Table targetTable = database.getTable(targetTableId);
+            if (targetTable == null) {
+                throw new MetaNotFoundException("table " + targetTableId + " does not exist");
+            }
+            UUID tableLoadId = UUID.randomUUID();
+            TRoutineLoadTablePlan tablePlan = new TRoutineLoadTablePlan();
+            tablePlan.setTbl(targetTable.getName());
+            tablePlan.setParams(plan(routineLoadJob, targetTableId,
+                    new TUniqueId(tableLoadId.getMostSignificantBits(), tableLoadId.getLeastSignificantBits())));
+            tRoutineLoadTask.addToTable_plans(tablePlan);
+        }
+
+        String tableRouteColumn = routineLoadJob.getTableRouteColumn();
+        if (routineLoadJob.getFormat().equalsIgnoreCase("json")) {
+            tRoutineLoadTask.setRoute_json_key(tableRouteColumn);
+        } else {
+            int routeColumnIndex =
+                    CreateRoutineLoadStmt.getCsvRouteColumnIndex(routineLoadJob.getColumnDescs(), tableRouteColumn);
+            if (routeColumnIndex < 0) {
+                throw new UserException("route column " + tableRouteColumn + " is not a column of the csv data");
+            }
+            tRoutineLoadTask.setRoute_column_index(routeColumnIndex);
+            tRoutineLoadTask.setRoute_column_separator(routineLoadJob.getColumnSeparator() == null ? "\t" :
+                    routineLoadJob.getColumnSeparator().getColumnSeparator());
+        }
+    }
+
     private TExecPlanFragmentParams plan(RoutineLoadJob routineLoadJob) throws UserException {
         TUniqueId loadId = new TUniqueId(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return plan(routineLoadJob, routineLoadJob.getTableId(), loadId);
+    }
+
+    private TExecPlanFragmentParams plan(RoutineLoadJob routineLoadJob, long tableId, TUniqueId loadId)
+            throws UserException {
         // plan for each task, in case table has change(rollup or schema change)
-        TExecPlanFragmentParams tExecPlanFragmentParams = routineLoadJob.plan(loadId, txnId);
+        TExecPlanFragmentParams tExecPlanFragmentParams = routineLoadJob.plan(tableId, loadId, txnId);
         TPlanFragment tPlanFragment = tExecPlanFragmentParams.getFragment();
         tPlanFragment.getOutput_sink().getOlap_table_sink().setTxn_id(txnId);
         return tExecPlanFragmentParams;
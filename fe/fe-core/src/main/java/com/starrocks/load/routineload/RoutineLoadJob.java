@@ -191,6 +191,9 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
     private static final String PROPS_STRIP_OUTER_ARRAY = "strip_outer_array";
     private static final String PROPS_JSONPATHS = "jsonpaths";
     private static final String PROPS_JSONROOT = "json_root";
+    // the ids of the tables which are loaded besides the table of the job, separated by ","
+    private static final String PROPS_TARGET_TABLE_IDS = "target_table_ids";
+    private static final String PROPS_TABLE_ROUTE_COLUMN = "table_route_column";
 
     protected int currentTaskConcurrentNum;
     protected RoutineLoadProgress progress;
@@ -391,6 +394,41 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
         return tableId;
     }
 
+    // the tables which are loaded besides the table of the job, every row goes to the table named by its route column
+    protected void setTargetTables(List<Long> targetTableIds, String tableRouteColumn) {
+        if (targetTableIds.isEmpty()) {
+            return;
+        }
+        jobProperties.put(PROPS_TARGET_TABLE_IDS, Joiner.on(",").join(targetTableIds));
+        jobProperties.put(PROPS_TABLE_ROUTE_COLUMN, tableRouteColumn);
+    }
+
+    public boolean isMultiTable() {
+        return !Strings.isNullOrEmpty(jobProperties.get(PROPS_TARGET_TABLE_IDS));
+    }
+
+    public List<Long> getTargetTableIds() {
+        List<Long> targetTableIds = Lists.newArrayList();
+        String value = jobProperties.get(PROPS_TARGET_TABLE_IDS);
+        if (!Strings.isNullOrEmpty(value)) {
+            for (String targetTableId : value.split(",")) {
+                targetTableIds.add(Long.parseLong(targetTableId));
+            }
+        }
+        return targetTableIds;
+    }
+
+    // the table of the job first, then the target tables
+    public List<Long> getTableIds() {
+        List<Long> tableIds = Lists.newArrayList(tableId);
+        tableIds.addAll(getTargetTableIds());
+        return tableIds;
+    }
+
+    public String getTableRouteColumn() {
+        return Strings.nullToEmpty(jobProperties.get(PROPS_TABLE_ROUTE_COLUMN));
+    }
+
     public String getTableName() throws MetaNotFoundException {
         Database database = GlobalStateMgr.getCurrentState().getDb(dbId);
         if (database == null) {
@@ -684,15 +722,20 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
     }
 
     public TExecPlanFragmentParams plan(TUniqueId loadId, long txnId) throws UserException {
+        return plan(this.tableId, loadId, txnId);
+    }
+
+    // plan the load of one of the tables of the job
+    public TExecPlanFragmentParams plan(long tableId, TUniqueId loadId, long txnId) throws UserException {
         Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
         if (db == null) {
             throw new MetaNotFoundException("db " + dbId + " does not exist");
         }
         db.readLock();
         try {
-            Table table = db.getTable(this.tableId);
+            Table table = db.getTable(tableId);
             if (table == null) {
-                throw new MetaNotFoundException("table " + this.tableId + " does not exist");
+                throw new MetaNotFoundException("table " + tableId + " does not exist");
             }
             StreamLoadPlanner planner =
                     new StreamLoadPlanner(db, (OlapTable) table, StreamLoadTask.fromRoutineLoadJob(this));
@@ -996,6 +1039,8 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
                 TransactionState.TxnStatusChangeReason.fromString(txnStatusChangeReasonStr))) {
             // step2: update job progress
             updateProgress(rlTaskTxnCommitAttachment);
+            GlobalStateMgr.getCurrentState().getRoutineLoadManager().updateBeReceivedBytes(
+                    routineLoadTaskInfo.getBeId(), rlTaskTxnCommitAttachment.getReceivedBytes());
         }
 
         if (rlTaskTxnCommitAttachment != null && !Strings.isNullOrEmpty(rlTaskTxnCommitAttachment.getErrorLogUrl())) {
@@ -1346,10 +1391,23 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
         jobProperties.put("currentTaskConcurrentNum", String.valueOf(currentTaskConcurrentNum));
         jobProperties.put("desireTaskConcurrentNum", String.valueOf(desireTaskConcurrentNum));
         jobProperties.putAll(this.jobProperties);
+        if (isMultiTable()) {
+            jobProperties.put("targetTables", Joiner.on(",").join(getTargetTableNames()));
+        }
         Gson gson = new GsonBuilder().disableHtmlEscaping().create();
         return gson.toJson(jobProperties);
     }
 
+    private List<String> getTargetTableNames() {
+        List<String> names = Lists.newArrayList();
+        Database db = GlobalStateMgr.getCurrentState().getDb(dbId);
+        for (long targetTableId : getTargetTableIds()) {
+            Table table = db == null ? null : db.getTable(targetTableId);
+            names.add(table == null ? String.valueOf(targetTableId) : table.getName());
+        }
+        return names;
+    }
+
     abstract String dataSourcePropertiesJsonToString();
 
     abstract String customPropertiesJsonToString();
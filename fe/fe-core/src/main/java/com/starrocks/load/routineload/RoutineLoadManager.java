@@ -65,6 +65,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
@@ -74,7 +76,11 @@ public class RoutineLoadManager implements Writable {
 
     // be => running tasks num
     private Map<Long, Integer> beTasksNum = Maps.newHashMap();
+    // be => bytes received by the routine load tasks on it recently, halved every time the slots are updated
+    private Map<Long, Long> beRecentReceivedBytes = Maps.newHashMap();
     private ReentrantLock slotLock = new ReentrantLock();
+    // signaled when a slot is released
+    private Condition slotReleased = slotLock.newCondition();
 
     // routine load job meta
     private Map<Long, RoutineLoadJob> idToRoutineLoadJob = Maps.newConcurrentMap();
@@ -107,11 +113,17 @@ public class RoutineLoadManager implements Writable {
         try {
             long beId = -1L;
             int minTasksNum = Integer.MAX_VALUE;
+            long minReceivedBytes = Long.MAX_VALUE;
+            // choose the be with the most idle slots, and the one which ingests the least data among them
             for (Map.Entry<Long, Integer> entry : beTasksNum.entrySet()) {
-                if (entry.getValue() < Config.max_routine_load_task_num_per_be
-                        && entry.getValue() < minTasksNum) {
+                if (entry.getValue() >= Config.max_routine_load_task_num_per_be || entry.getValue() > minTasksNum) {
+                    continue;
+                }
+                long receivedBytes = beRecentReceivedBytes.getOrDefault(entry.getKey(), 0L);
+                if (entry.getValue() < minTasksNum || receivedBytes < minReceivedBytes) {
                     beId = entry.getKey();
                     minTasksNum = entry.getValue();
+                    minReceivedBytes = receivedBytes;
                 }
             }
             if (beId != -1) {
@@ -148,6 +160,30 @@ public class RoutineLoadManager implements Writable {
                 } else {
                     beTasksNum.put(beId, 0);
                 }
+                slotReleased.signalAll();
+            }
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    // wait until a slot is released or the timeout elapses
+    public void waitForIdleSlot(long timeoutMs) throws InterruptedException {
+        slotLock.lock();
+        try {
+            if (getClusterIdleSlotNum() <= 0) {
+                slotReleased.await(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    public void updateBeReceivedBytes(long beId, long receivedBytes) {
+        slotLock.lock();
+        try {
+            if (beTasksNum.containsKey(beId)) {
+                beRecentReceivedBytes.merge(beId, receivedBytes, Long::sum);
             }
         } finally {
             slotLock.unlock();
@@ -169,6 +205,10 @@ public class RoutineLoadManager implements Writable {
 
             // remove not alive be
             beTasksNum.keySet().removeIf(beId -> !aliveBeIds.contains(beId));
+
+            // decay the received bytes, so that they reflect the recent ingestion
+            beRecentReceivedBytes.keySet().retainAll(beTasksNum.keySet());
+            beRecentReceivedBytes.replaceAll((beId, bytes) -> bytes / 2);
         } finally {
             slotLock.unlock();
         }
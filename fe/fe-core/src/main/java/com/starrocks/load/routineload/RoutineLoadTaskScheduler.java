@@ -66,12 +66,11 @@ public class RoutineLoadTaskScheduler extends LeaderDaemon {
 
     private static final long BACKEND_SLOT_UPDATE_INTERVAL_MS = 10000; // 10s
     private static final long SLOT_FULL_SLEEP_MS = 10000; // 10s
-    private static final int THREAD_POOL_SIZE = 10;
 
     private final RoutineLoadManager routineLoadManager;
     private final LinkedBlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingQueue();
     private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-    private final ExecutorService threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    private final ExecutorService threadPool = Executors.newFixedThreadPool(Config.routine_load_task_scheduler_thread_num);
 
     private long lastBackendSlotUpdateTime = -1;
 
@@ -99,12 +98,13 @@ public class RoutineLoadTaskScheduler extends LeaderDaemon {
         updateBackendSlotIfNecessary();
 
         int idleSlotNum = routineLoadManager.getClusterIdleSlotNum();
-        // scheduler will be blocked when there is no slot for task in cluster
+        // scheduler will be blocked when there is no slot for task in cluster,
+        // until a task finishes and releases its slot
         if (idleSlotNum <= 0) {
-            LOG.warn("no available be slot to scheduler tasks, wait for {} seconds to scheduler again, " +
+            LOG.warn("no available be slot to scheduler tasks, wait for at most {} seconds to scheduler again, " +
                             "you can set max_routine_load_task_num_per_be bigger in fe.conf, current value is {}",
                     SLOT_FULL_SLEEP_MS / 1000, Config.max_routine_load_task_num_per_be);
-            Thread.sleep(SLOT_FULL_SLEEP_MS);
+            routineLoadManager.waitForIdleSlot(SLOT_FULL_SLEEP_MS);
             return;
         }
 
@@ -335,7 +335,7 @@ public class RoutineLoadTaskScheduler extends LeaderDaemon {
 
     // try to allocate a task to BE which has idle slot.
     // 1. First is to check if the previous allocated BE is available. If yes, allocate task to previous BE.
-    // 2. If not, try to find a better one with most idle slots.
+    // 2. If not, try to find a better one with most idle slots and least recently received bytes.
     // return true if allocate successfully. return false if failed.
     // throw exception if unrecoverable errors happen.
     private boolean allocateTaskToBe(RoutineLoadTaskInfo routineLoadTaskInfo) {
@@ -24,6 +24,7 @@ package com.starrocks.metric;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.alter.Alter;
 import com.starrocks.alter.AlterJobV2;
@@ -35,6 +36,7 @@ import com.starrocks.common.DdlException;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.KafkaUtil;
+import com.starrocks.leader.ReportHandler;
 import com.starrocks.load.EtlJobType;
 import com.starrocks.load.loadv2.JobState;
 import com.starrocks.load.loadv2.LoadManager;
@@ -74,6 +76,8 @@ public final class MetricRepo {
 
     public static final String TABLET_NUM = "tablet_num";
     public static final String TABLET_MAX_COMPACTION_SCORE = "tablet_max_compaction_score";
+    public static final String PENDING_REPORT_NUM = "pending_report_num";
+    public static final String TABLET_REPORT_COST = "tablet_report_cost_ms";
 
     public static LongCounterMetric COUNTER_REQUEST_ALL;
     public static LongCounterMetric COUNTER_QUERY_ALL;
@@ -81,13 +85,18 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_TIMEOUT;
     public static LongCounterMetric COUNTER_QUERY_SUCCESS;
     public static LongCounterMetric COUNTER_SLOW_QUERY;
+    public static LongCounterMetric COUNTER_OPTIMISTIC_PLAN_CONFLICT;
     public static LongCounterMetric COUNTER_LOAD_ADD;
     public static LongCounterMetric COUNTER_LOAD_FINISHED;
+    public static LongCounterMetric COUNTER_LOAD_JOB_REJECTED;
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
     public static LongCounterMetric COUNTER_EDIT_LOG_READ;
+    public static LongCounterMetric COUNTER_EDIT_LOG_REPLAY_PARALLEL;
     public static LongCounterMetric COUNTER_EDIT_LOG_SIZE_BYTES;
     public static LongCounterMetric COUNTER_IMAGE_WRITE;
     public static LongCounterMetric COUNTER_IMAGE_PUSH;
+    public static LongCounterMetric COUNTER_IMAGE_WRITE_BYTES;
+    public static LongCounterMetric COUNTER_CHECKPOINT_SKIPPED;
     public static LongCounterMetric COUNTER_TXN_REJECT;
     public static LongCounterMetric COUNTER_TXN_BEGIN;
     public static LongCounterMetric COUNTER_TXN_FAILED;
@@ -96,12 +105,22 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
+    public static LongCounterMetric COUNTER_QUERY_QUEUE_TIMEOUT;
+    public static LongCounterMetric COUNTER_QUERY_HEDGED;
+    public static LongCounterMetric COUNTER_QUERY_HEDGED_WIN;
 
     public static Histogram HISTO_QUERY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
+    public static Histogram HISTO_QUERY_FE_CPU_COST;
+    public static Histogram HISTO_QUERY_FE_ALLOCATED_BYTES;
+    public static Histogram HISTO_QUERY_QUEUE_PENDING_TIME;
+    public static Histogram HISTO_CHECKPOINT_DURATION;
+    public static Histogram HISTO_TABLE_LOCK_WAIT_TIME;
+    public static Histogram HISTO_TABLET_REPORT_LATENCY;
+    public static Histogram HISTO_LOAD_JOB_QUEUE_WAIT_TIME;
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
@@ -220,6 +239,33 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(metaLogCount);
 
+        // meta replay lag of follower and observer
+        GaugeMetric<Long> metaReplayLagMs = new GaugeMetric<Long>(
+                "meta_replay_lag_ms", MetricUnit.MILLISECONDS, "time since the last timestamp replayed from leader") {
+            @Override
+            public Long getValue() {
+                GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+                if (globalStateMgr.isLeader() || globalStateMgr.getSynchronizedTimeMs() <= 0) {
+                    return 0L;
+                }
+                return Math.max(0L, System.currentTimeMillis() - globalStateMgr.getSynchronizedTimeMs());
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(metaReplayLagMs);
+
+        GaugeMetric<Long> metaReplayLagJournals = new GaugeMetric<Long>(
+                "meta_replay_lag_journals", MetricUnit.NOUNIT, "number of journals not replayed yet") {
+            @Override
+            public Long getValue() {
+                GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+                if (globalStateMgr.isLeader()) {
+                    return 0L;
+                }
+                return Math.max(0L, globalStateMgr.getMaxJournalId() - globalStateMgr.getReplayedJournalId());
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(metaReplayLagJournals);
+
         // scheduled tablet num
         GaugeMetric<Long> scheduledTabletNum = (GaugeMetric<Long>) new GaugeMetric<Long>(
                 "scheduled_tablet_num", MetricUnit.NOUNIT, "number of tablets being scheduled") {
@@ -323,6 +369,9 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_ALL);
         COUNTER_QUERY_ERR = new LongCounterMetric("query_err", MetricUnit.REQUESTS, "total error query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_ERR);
+        COUNTER_OPTIMISTIC_PLAN_CONFLICT = new LongCounterMetric("optimistic_plan_conflict", MetricUnit.REQUESTS,
+                "counter of queries optimized again under lock because the catalog changed during planning");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_OPTIMISTIC_PLAN_CONFLICT);
         COUNTER_QUERY_TIMEOUT = new LongCounterMetric("query_timeout", MetricUnit.REQUESTS, "total timeout query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_TIMEOUT);
         COUNTER_QUERY_SUCCESS = new LongCounterMetric("query_success", MetricUnit.REQUESTS, "total success query");
@@ -331,6 +380,9 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SLOW_QUERY);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
+        COUNTER_LOAD_JOB_REJECTED = new LongCounterMetric("load_job_rejected", MetricUnit.REQUESTS,
+                "counter of broker and spark load jobs rejected because the waiting queue is full");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_JOB_REJECTED);
         COUNTER_ROUTINE_LOAD_PAUSED =
                 new LongCounterMetric("routine_load_paused", MetricUnit.REQUESTS, "counter of routine load paused");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_PAUSED);
@@ -342,6 +394,9 @@ public final class MetricRepo {
         COUNTER_EDIT_LOG_READ =
                 new LongCounterMetric("edit_log_read", MetricUnit.OPERATIONS, "counter of edit log read from bdbje");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_EDIT_LOG_READ);
+        COUNTER_EDIT_LOG_REPLAY_PARALLEL = new LongCounterMetric("edit_log_replay_parallel", MetricUnit.OPERATIONS,
+                "counter of edit log replayed in parallel");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_EDIT_LOG_REPLAY_PARALLEL);
         COUNTER_EDIT_LOG_SIZE_BYTES =
                 new LongCounterMetric("edit_log_size_bytes", MetricUnit.BYTES, "size of edit log");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_EDIT_LOG_SIZE_BYTES);
@@ -350,6 +405,12 @@ public final class MetricRepo {
         COUNTER_IMAGE_PUSH = new LongCounterMetric("image_push", MetricUnit.OPERATIONS,
                 "counter of image succeeded in pushing to other frontends");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_IMAGE_PUSH);
+        COUNTER_IMAGE_WRITE_BYTES = new LongCounterMetric("image_write_bytes", MetricUnit.BYTES,
+                "total bytes of image generated");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_IMAGE_WRITE_BYTES);
+        COUNTER_CHECKPOINT_SKIPPED = new LongCounterMetric("checkpoint_skipped", MetricUnit.OPERATIONS,
+                "counter of checkpoint skipped for lack of heap");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_CHECKPOINT_SKIPPED);
 
         COUNTER_TXN_REJECT =
                 new LongCounterMetric("txn_reject", MetricUnit.REQUESTS, "counter of rejected transactions");
@@ -372,6 +433,16 @@ public final class MetricRepo {
                 "total error rows of routine load");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_ERROR_ROWS);
 
+        COUNTER_QUERY_QUEUE_TIMEOUT = new LongCounterMetric("query_queue_timeout", MetricUnit.REQUESTS,
+                "counter of queries timeout when waiting in the query queue");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_TIMEOUT);
+        COUNTER_QUERY_HEDGED = new LongCounterMetric("query_hedged", MetricUnit.REQUESTS,
+                "counter of queries which issue a backup execution on other replicas");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_HEDGED);
+        COUNTER_QUERY_HEDGED_WIN = new LongCounterMetric("query_hedged_win", MetricUnit.REQUESTS,
+                "counter of queries whose backup execution returns the first batch earlier");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_HEDGED_WIN);
+
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
         HISTO_EDIT_LOG_WRITE_LATENCY =
@@ -382,6 +453,20 @@ public final class MetricRepo {
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "batch"));
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
+        HISTO_QUERY_FE_CPU_COST =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "fe", "cpu", "ns"));
+        HISTO_QUERY_FE_ALLOCATED_BYTES =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "fe", "allocated", "bytes"));
+        HISTO_QUERY_QUEUE_PENDING_TIME =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "queue", "pending", "ms"));
+        HISTO_CHECKPOINT_DURATION =
+                METRIC_REGISTER.histogram(MetricRegistry.name("checkpoint", "duration", "ms"));
+        HISTO_TABLE_LOCK_WAIT_TIME =
+                METRIC_REGISTER.histogram(MetricRegistry.name("table", "lock", "wait", "ms"));
+        HISTO_TABLET_REPORT_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("tablet", "report", "latency", "ms"));
+        HISTO_LOAD_JOB_QUEUE_WAIT_TIME =
+                METRIC_REGISTER.histogram(MetricRegistry.name("load", "job", "queue", "wait", "ms"));
 
         // init system metrics
         initSystemMetrics();
@@ -447,6 +532,8 @@ public final class MetricRepo {
         // remove all previous 'tablet' metric
         STARROCKS_METRIC_REGISTER.removeMetrics(TABLET_NUM);
         STARROCKS_METRIC_REGISTER.removeMetrics(TABLET_MAX_COMPACTION_SCORE);
+        STARROCKS_METRIC_REGISTER.removeMetrics(PENDING_REPORT_NUM);
+        STARROCKS_METRIC_REGISTER.removeMetrics(TABLET_REPORT_COST);
 
         SystemInfoService infoService = GlobalStateMgr.getCurrentSystemInfo();
         TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
@@ -486,6 +573,28 @@ public final class MetricRepo {
             tabletMaxCompactionScore.addLabel(new MetricLabel("backend", be.getHost() + ":" + be.getHeartbeatPort()));
             STARROCKS_METRIC_REGISTER.addMetric(tabletMaxCompactionScore);
 
+            // number of pending reports of each backends
+            GaugeMetric<Long> pendingReportNum = (GaugeMetric<Long>) new GaugeMetric<Long>(PENDING_REPORT_NUM,
+                    MetricUnit.NOUNIT, "pending report number") {
+                @Override
+                public Long getValue() {
+                    return ReportHandler.getPendingReportNum(beId);
+                }
+            };
+            pendingReportNum.addLabel(new MetricLabel("backend", be.getHost() + ":" + be.getHeartbeatPort()));
+            STARROCKS_METRIC_REGISTER.addMetric(pendingReportNum);
+
+            // cost of the last tablet report of each backends
+            GaugeMetric<Long> tabletReportCost = (GaugeMetric<Long>) new GaugeMetric<Long>(TABLET_REPORT_COST,
+                    MetricUnit.MILLISECONDS, "cost of the last tablet report") {
+                @Override
+                public Long getValue() {
+                    return ReportHandler.getLastTabletReportCostMs(beId);
+                }
+            };
+            tabletReportCost.addLabel(new MetricLabel("backend", be.getHost() + ":" + be.getHeartbeatPort()));
+            STARROCKS_METRIC_REGISTER.addMetric(tabletReportCost);
+
         } // end for backends
     }
 
@@ -539,6 +648,8 @@ public final class MetricRepo {
             List<Long> latestOffsets = offsetProxyResults.get(i).latestOffsets;
 
             long maxLag = Long.MIN_VALUE;
+            long totalLag = 0;
+            Map<Integer, Long> partitionIdToLatestOffset = Maps.newHashMap();
             for (int j = 0; j < partitionIds.size(); j++) {
                 int partitionId = partitionIds.get(j);
                 if (!partitionIdToProgress.containsKey(partitionId)) {
@@ -549,8 +660,23 @@ public final class MetricRepo {
                     progress = beginningOffsets.get(j);
                 }
 
-                maxLag = Math.max(latestOffsets.get(j) - progress, maxLag);
+                long lag = latestOffsets.get(j) - progress;
+                maxLag = Math.max(lag, maxLag);
+                totalLag += Math.max(lag, 0);
+                partitionIdToLatestOffset.put(partitionId, latestOffsets.get(j));
+                if (lag >= Config.min_routine_load_lag_for_metrics) {
+                    GaugeMetricImpl<Long> metric =
+                            new GaugeMetricImpl<>("routine_load_lag_of_partition", MetricUnit.NOUNIT,
+                                    "routine load kafka lag of partition");
+                    metric.addLabel(new MetricLabel("job_name", kJob.getName()));
+                    metric.addLabel(new MetricLabel("partition", String.valueOf(partitionId)));
+                    metric.setValue(lag);
+                    routineLoadLags.add(metric);
+                }
             }
+            // refresh the lag which the job is scheduled by
+            kJob.updatePartitionLag(partitionIdToLatestOffset, partitionIdToProgress);
+
             if (maxLag >= Config.min_routine_load_lag_for_metrics) {
                 GaugeMetricImpl<Long> metric =
                         new GaugeMetricImpl<>("routine_load_max_lag_of_partition", MetricUnit.NOUNIT,
@@ -558,6 +684,13 @@ public final class MetricRepo {
                 metric.addLabel(new MetricLabel("job_name", kJob.getName()));
                 metric.setValue(maxLag);
                 routineLoadLags.add(metric);
+
+                GaugeMetricImpl<Long> totalLagMetric =
+                        new GaugeMetricImpl<>("routine_load_total_lag", MetricUnit.NOUNIT,
+                                "routine load kafka lag of all partitions");
+                totalLagMetric.addLabel(new MetricLabel("job_name", kJob.getName()));
+                totalLagMetric.setValue(totalLag);
+                routineLoadLags.add(totalLagMetric);
             }
         }
 
@@ -633,6 +766,10 @@ public final class MetricRepo {
                                 .addLabel(new MetricLabel("tbl_id", String.valueOf(table.getId())));
                         visitor.visit(m);
                     }
+                    if (entity.histoPublishLatency.getCount() > 0) {
+                        visitor.visitHistogram(MetricRegistry.name(TableMetricsEntity.TABLE_PUBLISH_LATENCY,
+                                String.valueOf(table.getId())), entity.histoPublishLatency);
+                    }
                 }
             } finally {
                 db.readUnlock();
@@ -654,5 +791,9 @@ public final class MetricRepo {
         init();
         STARROCKS_METRIC_REGISTER.addMetric(metric);
     }
+
+    public static void removeMetric(Metric<?> metric) {
+        STARROCKS_METRIC_REGISTER.removeMetric(metric);
+    }
 }
 
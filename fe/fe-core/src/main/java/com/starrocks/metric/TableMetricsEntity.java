@@ -3,6 +3,8 @@
 package com.starrocks.metric;
 
 import avro.shaded.com.google.common.collect.Lists;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
 import com.starrocks.metric.Metric.MetricUnit;
 
 import java.util.List;
@@ -23,6 +25,8 @@ public final class TableMetricsEntity {
     public static final String TABLE_LOAD_FINISHED = "table_load_finished";
     private static final String TABLE_LOAD_FINISHED_COMMENT = "total loaded times of this table";
 
+    public static final String TABLE_PUBLISH_LATENCY = "table_publish_latency_ms";
+
     private List<Metric> metrics;
 
     public LongCounterMetric counterScanBytesTotal;
@@ -49,6 +53,9 @@ public final class TableMetricsEntity {
     public LongCounterMetric counterSparkLoadRowsTotal;
     public LongCounterMetric counterSparkLoadFinishedTotal;
 
+    // time from commit to visible of the transactions on this table
+    public Histogram histoPublishLatency;
+
     public TableMetricsEntity() {
         initTableMetrics();
     }
@@ -134,6 +141,8 @@ public final class TableMetricsEntity {
                 new LongCounterMetric(TABLE_LOAD_FINISHED, MetricUnit.REQUESTS, TABLE_LOAD_FINISHED_COMMENT);
         counterInsertLoadFinishedTotal.addLabel(new MetricLabel("type", "insert_into"));
         metrics.add(counterInsertLoadFinishedTotal);
+
+        histoPublishLatency = new Histogram(new ExponentiallyDecayingReservoir());
     }
 }
 
@@ -38,6 +38,7 @@ import com.starrocks.catalog.Resource;
 import com.starrocks.cluster.Cluster;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
+import com.starrocks.common.Pair;
 import com.starrocks.common.io.DataOutputBuffer;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
@@ -52,6 +53,7 @@ import com.starrocks.load.ExportJob;
 import com.starrocks.load.ExportMgr;
 import com.starrocks.load.LoadErrorHub;
 import com.starrocks.load.MultiDeleteInfo;
+import com.starrocks.load.loadv2.ArchiveLoadJobsInfo;
 import com.starrocks.load.loadv2.LoadJob.LoadJobStateUpdateInfo;
 import com.starrocks.load.loadv2.LoadJobFinalOperation;
 import com.starrocks.load.routineload.RoutineLoadJob;
@@ -350,17 +352,20 @@ public class EditLog {
                     deleteHandler.replayMultiDelete(info, globalStateMgr);
                     break;
                 }
-                case OperationType.OP_ADD_REPLICA: {
+                case OperationType.OP_ADD_REPLICA:
+                case OperationType.OP_ADD_REPLICA_V2: {
                     ReplicaPersistInfo info = (ReplicaPersistInfo) journal.getData();
                     globalStateMgr.replayAddReplica(info);
                     break;
                 }
-                case OperationType.OP_UPDATE_REPLICA: {
+                case OperationType.OP_UPDATE_REPLICA:
+                case OperationType.OP_UPDATE_REPLICA_V2: {
                     ReplicaPersistInfo info = (ReplicaPersistInfo) journal.getData();
                     globalStateMgr.replayUpdateReplica(info);
                     break;
                 }
-                case OperationType.OP_DELETE_REPLICA: {
+                case OperationType.OP_DELETE_REPLICA:
+                case OperationType.OP_DELETE_REPLICA_V2: {
                     ReplicaPersistInfo info = (ReplicaPersistInfo) journal.getData();
                     globalStateMgr.replayDeleteReplica(info);
                     break;
@@ -648,6 +653,11 @@ public class EditLog {
                     globalStateMgr.getLoadManager().replayUpdateLoadJobStateInfo(info);
                     break;
                 }
+                case OperationType.OP_ARCHIVE_LOAD_JOBS: {
+                    ArchiveLoadJobsInfo info = (ArchiveLoadJobsInfo) journal.getData();
+                    globalStateMgr.getLoadManager().replayArchiveLoadJobs(info);
+                    break;
+                }
                 case OperationType.OP_CREATE_RESOURCE: {
                     final Resource resource = (Resource) journal.getData();
                     globalStateMgr.getResourceMgr().replayCreateResource(resource);
@@ -914,13 +924,45 @@ public class EditLog {
         }
     }
 
+    /**
+     * submit log to queue and return without waiting for JournalWriter, so that the caller could release its
+     * locks before waiting. Logs are written in the order they are submitted. The caller must wait the returned
+     * future by waitLogEdit() before telling anyone the operation is done.
+     */
+    public Future<Boolean> logEditAsync(short op, Writable writable) {
+        return submitLog(op, writable, -1);
+    }
+
+    /**
+     * submit several related logs which are written atomically in the same batch, with continuous journal ids
+     */
+    public Future<Boolean> logEditsAsync(List<Pair<Short, Writable>> edits) {
+        List<DataOutputBuffer> buffers = Lists.newArrayList();
+        for (Pair<Short, Writable> edit : edits) {
+            buffers.add(serialize(edit.first, edit.second));
+        }
+        return submitTask(new JournalTask(buffers, -1));
+    }
+
+    public void logEdits(List<Pair<Short, Writable>> edits) {
+        waitLogEdit(logEditsAsync(edits));
+    }
+
+    public void waitLogEdit(Future<Boolean> task) {
+        boolean result = waitInfinity(task);
+        // for now if journal writer fails, it will exit directly, so this function should always return true.
+        assert (result == true);
+    }
+
     /**
      * submit log in queue and return immediately
      */
     private Future<Boolean> submitLog(short op, Writable writable, long maxWaitIntervalMs) {
-        DataOutputBuffer buffer = new DataOutputBuffer(OUTPUT_BUFFER_INIT_SIZE);
+        return submitTask(new JournalTask(serialize(op, writable), maxWaitIntervalMs));
+    }
 
-        // 1. serialized
+    private DataOutputBuffer serialize(short op, Writable writable) {
+        DataOutputBuffer buffer = JournalTask.borrowBuffer(OUTPUT_BUFFER_INIT_SIZE);
         try {
             JournalEntity entity = new JournalEntity();
             entity.setOpCode(op);
@@ -930,14 +972,15 @@ public class EditLog {
             // The old implementation swallow exception like this
             LOG.info("failed to serialized: {}", e);
         }
-        JournalTask task = new JournalTask(buffer, maxWaitIntervalMs);
+        return buffer;
+    }
 
+    private Future<Boolean> submitTask(JournalTask task) {
         /*
          * for historical reasons, logEdit is not allowed to raise Exception, which is really unreasonable to me.
          * This PR will continue to swallow exception and retry till the end of the world like before.
          * Hope some day we'll fix it.
          */
-        // 2. put to queue
         int cnt = 0;
         while (true) {
             try {
@@ -1130,15 +1173,27 @@ public class EditLog {
     }
 
     public void logAddReplica(ReplicaPersistInfo info) {
-        logEdit(OperationType.OP_ADD_REPLICA, info);
+        if (Config.enable_compact_replica_journal) {
+            logEdit(OperationType.OP_ADD_REPLICA_V2, info.compact());
+        } else {
+            logEdit(OperationType.OP_ADD_REPLICA, info);
+        }
     }
 
     public void logUpdateReplica(ReplicaPersistInfo info) {
-        logEdit(OperationType.OP_UPDATE_REPLICA, info);
+        if (Config.enable_compact_replica_journal) {
+            logEdit(OperationType.OP_UPDATE_REPLICA_V2, info.compact());
+        } else {
+            logEdit(OperationType.OP_UPDATE_REPLICA, info);
+        }
     }
 
     public void logDeleteReplica(ReplicaPersistInfo info) {
-        logEdit(OperationType.OP_DELETE_REPLICA, info);
+        if (Config.enable_compact_replica_journal) {
+            logEdit(OperationType.OP_DELETE_REPLICA_V2, info.compact());
+        } else {
+            logEdit(OperationType.OP_DELETE_REPLICA, info);
+        }
     }
 
     public void logTimestamp(Timestamp stamp) {
@@ -1263,6 +1318,22 @@ public class EditLog {
         logEdit(OperationType.OP_UPSERT_TRANSACTION_STATE, transactionState);
     }
 
+    public Future<Boolean> logInsertTransactionStateAsync(TransactionState transactionState) {
+        return logEditAsync(OperationType.OP_UPSERT_TRANSACTION_STATE, transactionState);
+    }
+
+    /**
+     * persist the states of several transactions in one journal batch, each of them is replayed as a
+     * normal OP_UPSERT_TRANSACTION_STATE
+     */
+    public void logInsertTransactionStateBatch(List<TransactionState> transactionStates) {
+        List<Pair<Short, Writable>> edits = Lists.newArrayListWithCapacity(transactionStates.size());
+        for (TransactionState transactionState : transactionStates) {
+            edits.add(Pair.create(OperationType.OP_UPSERT_TRANSACTION_STATE, transactionState));
+        }
+        logEdits(edits);
+    }
+
     public void logDeleteTransactionState(TransactionState transactionState) {
         logEdit(OperationType.OP_DELETE_TRANSACTION_STATE, transactionState);
     }
@@ -1359,6 +1430,10 @@ public class EditLog {
         logEdit(OperationType.OP_UPDATE_LOAD_JOB, info);
     }
 
+    public void logArchiveLoadJobs(ArchiveLoadJobsInfo info) {
+        logEdit(OperationType.OP_ARCHIVE_LOAD_JOBS, info);
+    }
+
     public void logCreateResource(Resource resource) {
         logEdit(OperationType.OP_CREATE_RESOURCE, resource);
     }
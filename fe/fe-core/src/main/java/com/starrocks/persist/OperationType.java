@@ -165,6 +165,8 @@ public class OperationType {
     public static final short OP_END_LOAD_JOB = 231;
     // update job info, used by spark load
     public static final short OP_UPDATE_LOAD_JOB = 232;
+    // move finished jobs into the archive
+    public static final short OP_ARCHIVE_LOAD_JOBS = 233;
 
     // small files 251~260
     public static final short OP_CREATE_SMALL_FILE = 251;
@@ -261,6 +263,11 @@ public class OperationType {
     // only used in lake table currently
     public static final short OP_ADD_PARTITIONS_V2 = 10242;
 
+    // compact encoding of hot journals 10261 ~ 10280
+    public static final short OP_ADD_REPLICA_V2 = 10261;
+    public static final short OP_UPDATE_REPLICA_V2 = 10262;
+    public static final short OP_DELETE_REPLICA_V2 = 10263;
+
     // integrate with starmgr
     public static final short OP_STARMGR = 11000;
 }
@@ -0,0 +1,134 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * ParallelJournalReplayer replays the journals of different databases concurrently on follower and observer.
+ * Only the hot journals which are known to touch a single database, like transaction state and replica changes,
+ * are partitioned by database id, the journals of the same database are replayed in the same lane in order.
+ * All other journals are barriers: the collected journals must be replayed before them.
+ */
+public class ParallelJournalReplayer {
+    public static final long GLOBAL_PARTITION = -1;
+
+    private static final int PARALLELISM = Math.max(1, Config.journal_replay_parallelism);
+    private static final ThreadPoolExecutor EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(PARALLELISM,
+            Integer.MAX_VALUE, "journal-replayer", true);
+
+    private final List<JournalEntity> entities = Lists.newArrayList();
+
+    /**
+     * Return the database id the journal belongs to, or GLOBAL_PARTITION if it must be replayed as a barrier.
+     */
+    public static long getPartitionKey(JournalEntity entity) {
+        switch (entity.getOpCode()) {
+            case OperationType.OP_UPSERT_TRANSACTION_STATE:
+            case OperationType.OP_DELETE_TRANSACTION_STATE:
+                return ((TransactionState) entity.getData()).getDbId();
+            case OperationType.OP_ADD_REPLICA:
+            case OperationType.OP_UPDATE_REPLICA:
+            case OperationType.OP_DELETE_REPLICA:
+            case OperationType.OP_ADD_REPLICA_V2:
+            case OperationType.OP_UPDATE_REPLICA_V2:
+            case OperationType.OP_DELETE_REPLICA_V2:
+                return ((ReplicaPersistInfo) entity.getData()).getDbId();
+            default:
+                return GLOBAL_PARTITION;
+        }
+    }
+
+    /**
+     * Collect the journal if it could be replayed in parallel, return false if it's a barrier.
+     */
+    public boolean add(JournalEntity entity) {
+        if (getPartitionKey(entity) < 0) {
+            return false;
+        }
+        entities.add(entity);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return entities.isEmpty();
+    }
+
+    public boolean isFull() {
+        return entities.size() >= Math.max(1, Config.journal_replay_parallel_batch_size);
+    }
+
+    /**
+     * Replay all the collected journals and wait them finish.
+     * Return the error of each journal in the order they are collected, null if the journal is replayed.
+     */
+    public Throwable[] replay(GlobalStateMgr globalStateMgr) throws InterruptedException {
+        List<List<Integer>> lanes = Lists.newArrayList();
+        for (int i = 0; i < PARALLELISM; i++) {
+            lanes.add(Lists.newArrayList());
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            lanes.get((int) (getPartitionKey(entities.get(i)) % PARALLELISM)).add(i);
+        }
+
+        Throwable[] errors = new Throwable[entities.size()];
+        MetaContext metaContext = MetaContext.get();
+        boolean isCheckpoint = GlobalStateMgr.isCheckpointThread();
+        List<Future<?>> futures = Lists.newArrayList();
+        for (List<Integer> lane : lanes) {
+            if (lane.isEmpty()) {
+                continue;
+            }
+            futures.add(EXECUTOR.submit(() -> {
+                if (metaContext != null) {
+                    metaContext.setThreadLocalInfo();
+                }
+                if (isCheckpoint) {
+                    GlobalStateMgr.registerCheckpointWorker();
+                }
+                try {
+                    for (int idx : lane) {
+                        try {
+                            EditLog.loadJournal(globalStateMgr, entities.get(idx));
+                        } catch (Throwable e) {
+                            errors[idx] = e;
+                        }
+                    }
+                } finally {
+                    if (isCheckpoint) {
+                        GlobalStateMgr.unregisterCheckpointWorker();
+                    }
+                    MetaContext.remove();
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // errors of journals are caught in the task
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_EDIT_LOG_REPLAY_PARALLEL.increase((long) entities.size());
+            }
+        } finally {
+            entities.clear();
+        }
+        return errors;
+    }
+}
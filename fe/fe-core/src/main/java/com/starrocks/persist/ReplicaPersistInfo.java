@@ -22,6 +22,7 @@
 package com.starrocks.persist;
 
 import com.starrocks.common.FeMetaVersion;
+import com.starrocks.common.io.IOUtils;
 import com.starrocks.common.io.Writable;
 import com.starrocks.server.GlobalStateMgr;
 
@@ -30,6 +31,8 @@ import java.io.DataOutput;
 import java.io.IOException;
 
 public class ReplicaPersistInfo implements Writable {
+    // version of the compact encoding, see writeCompact()
+    private static final byte COMPACT_FORMAT_VERSION = 1;
 
     public enum ReplicaOperationType {
         ADD(0),
@@ -343,6 +346,58 @@ public class ReplicaPersistInfo implements Writable {
         }
     }
 
+    /**
+     * The compact encoding used by the V2 replica journals, which drops the obsolete version hashes and writes
+     * all numbers in variable length, about 1/3 size of the fixed length encoding.
+     */
+    public Writable compact() {
+        return this::writeCompact;
+    }
+
+    private void writeCompact(DataOutput out) throws IOException {
+        out.writeByte(COMPACT_FORMAT_VERSION);
+        IOUtils.writeVLong(out, dbId);
+        IOUtils.writeVLong(out, tableId);
+        IOUtils.writeVLong(out, partitionId);
+        IOUtils.writeVLong(out, indexId);
+        IOUtils.writeVLong(out, tabletId);
+        IOUtils.writeVLong(out, backendId);
+        IOUtils.writeVLong(out, replicaId);
+        IOUtils.writeVLong(out, version);
+        IOUtils.writeVLong(out, dataSize);
+        IOUtils.writeVLong(out, rowCount);
+        IOUtils.writeVLong(out, opType.value);
+        IOUtils.writeVLong(out, lastFailedVersion);
+        IOUtils.writeVLong(out, lastSuccessVersion);
+        IOUtils.writeVLong(out, schemaHash);
+    }
+
+    public static ReplicaPersistInfo readCompact(DataInput in) throws IOException {
+        byte formatVersion = in.readByte();
+        if (formatVersion != COMPACT_FORMAT_VERSION) {
+            throw new IOException("unknown compact replica info format version " + formatVersion);
+        }
+        ReplicaPersistInfo info = new ReplicaPersistInfo();
+        info.dbId = IOUtils.readVLong(in);
+        info.tableId = IOUtils.readVLong(in);
+        info.partitionId = IOUtils.readVLong(in);
+        info.indexId = IOUtils.readVLong(in);
+        info.tabletId = IOUtils.readVLong(in);
+        info.backendId = IOUtils.readVLong(in);
+        info.replicaId = IOUtils.readVLong(in);
+        info.version = IOUtils.readVLong(in);
+        info.dataSize = IOUtils.readVLong(in);
+        info.rowCount = IOUtils.readVLong(in);
+        info.opType = ReplicaOperationType.findByValue((int) IOUtils.readVLong(in));
+        if (info.opType == null) {
+            throw new IOException("could not parse operation type from replica info");
+        }
+        info.lastFailedVersion = IOUtils.readVLong(in);
+        info.lastSuccessVersion = IOUtils.readVLong(in);
+        info.schemaHash = (int) IOUtils.readVLong(in);
+        return info;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
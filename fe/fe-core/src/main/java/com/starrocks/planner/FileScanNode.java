@@ -111,6 +111,8 @@ public class FileScanNode extends LoadScanNode {
     // File groups need to
     private List<TScanRangeLocations> locationsList;
     private PriorityQueue<Pair<TScanRangeLocations, Long>> locationsHeap;
+    // backend id -> bytes of the scan ranges assigned to the backend
+    private Map<Long, Long> backendIdToScanBytes;
 
     // used both for load statement and select statement
     private int parallelInstanceNum;
@@ -382,10 +384,26 @@ public class FileScanNode extends LoadScanNode {
         TBrokerScanRange brokerScanRange = new TBrokerScanRange();
         brokerScanRange.setParams(params);
 
+        // Scan range
+        TScanRange scanRange = new TScanRange();
+        scanRange.setBroker_scan_range(brokerScanRange);
+
+        // Locations
+        TScanRangeLocations locations = new TScanRangeLocations();
+        locations.setScan_range(scanRange);
+        setBackend(locations, selectedBackend, brokerName, hasBroker);
+        return locations;
+    }
+
+    // Scan the locations on the backend, with the broker on the same host
+    private void setBackend(TScanRangeLocations locations, Backend backend, String brokerName, boolean hasBroker)
+            throws UserException {
+        TBrokerScanRange brokerScanRange = brokerScanRange(locations);
+        brokerScanRange.unsetBroker_addresses();
         if (hasBroker) {
             FsBroker broker = null;
             try {
-                broker = GlobalStateMgr.getCurrentState().getBrokerMgr().getBroker(brokerName, selectedBackend.getHost());
+                broker = GlobalStateMgr.getCurrentState().getBrokerMgr().getBroker(brokerName, backend.getHost());
             } catch (AnalysisException e) {
                 throw new UserException(e.getMessage());
             }
@@ -394,20 +412,11 @@ public class FileScanNode extends LoadScanNode {
             brokerScanRange.addToBroker_addresses(new TNetworkAddress("", 0));
         }
 
-        // Scan range
-        TScanRange scanRange = new TScanRange();
-        scanRange.setBroker_scan_range(brokerScanRange);
-
-        // Locations
-        TScanRangeLocations locations = new TScanRangeLocations();
-        locations.setScan_range(scanRange);
-
         TScanRangeLocation location = new TScanRangeLocation();
-        location.setBackend_id(selectedBackend.getId());
-        location.setServer(new TNetworkAddress(selectedBackend.getHost(), selectedBackend.getBePort()));
+        location.setBackend_id(backend.getId());
+        location.setServer(new TNetworkAddress(backend.getHost(), backend.getBePort()));
+        locations.unsetLocations();
         locations.addToLocations(location);
-
-        return locations;
     }
 
     private TBrokerScanRange brokerScanRange(TScanRangeLocations locations) {
@@ -424,12 +433,9 @@ public class FileScanNode extends LoadScanNode {
             filesAdded = 0;
             for (BrokerFileGroup fileGroup : fileGroups) {
                 List<TBrokerFileStatus> fileStatuses = Lists.newArrayList();
-                for (String path : fileGroup.getFilePaths()) {
-                    if (brokerDesc.hasBroker()) {
-                        BrokerUtil.parseFile(path, brokerDesc, fileStatuses);
-                    } else {
-                        HdfsUtil.parseFile(path, brokerDesc, fileStatuses);
-                    }
+                for (List<TBrokerFileStatus> pathFileStatuses : BrokerUtil.parseFiles(fileGroup.getFilePaths(),
+                        brokerDesc)) {
+                    fileStatuses.addAll(pathFileStatuses);
                 }
                 fileStatusesList.add(fileStatuses);
                 filesAdded += fileStatuses.size();
@@ -554,12 +560,25 @@ public class FileScanNode extends LoadScanNode {
         }
 
         // Put locations with valid scan ranges to locationsList
+        List<Pair<TScanRangeLocations, Long>> validLocations = Lists.newArrayList();
         while (!locationsHeap.isEmpty()) {
-            TScanRangeLocations locations = locationsHeap.poll().first;
-            if (brokerScanRange(locations).isSetRanges()) {
-                locationsList.add(locations);
+            Pair<TScanRangeLocations, Long> locations = locationsHeap.poll();
+            if (brokerScanRange(locations.first).isSetRanges()) {
+                validLocations.add(locations);
             }
         }
+        // Balance the bytes to scan of backends instead of the number of locations, the last locations of
+        // file groups may be much smaller than the others. The largest locations go first, each to the backend
+        // with the least bytes to scan so far.
+        for (int i = validLocations.size() - 1; i >= 0; i--) {
+            Pair<TScanRangeLocations, Long> locations = validLocations.get(i);
+            Backend backend = backends.stream()
+                    .min(Comparator.comparingLong(be -> backendIdToScanBytes.getOrDefault(be.getId(), 0L)))
+                    .get();
+            setBackend(locations.first, backend, brokerDesc.getName(), brokerDesc.hasBroker());
+            backendIdToScanBytes.merge(backend.getId(), locations.second, Long::sum);
+            locationsList.add(locations.first);
+        }
     }
 
     private TBrokerRangeDesc createBrokerRangeDesc(long curFileOffset, TBrokerFileStatus fileStatus,
@@ -597,6 +616,7 @@ public class FileScanNode extends LoadScanNode {
     public void finalizeStats(Analyzer analyzer) throws UserException {
         locationsList = Lists.newArrayList();
         locationsHeap = new PriorityQueue<>(SCAN_RANGE_LOCATIONS_COMPARATOR);
+        backendIdToScanBytes = Maps.newHashMap();
 
         for (int i = 0; i < fileGroups.size(); ++i) {
             List<TBrokerFileStatus> fileStatuses = fileStatusesList.get(i);
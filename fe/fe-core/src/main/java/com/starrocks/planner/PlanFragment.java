@@ -509,7 +509,7 @@ public class PlanFragment extends TreeNode<PlanFragment> {
         if (root instanceof JoinNode) {
             JoinNode joinNode = (JoinNode) root;
             for (RuntimeFilterDescription description : joinNode.getBuildRuntimeFilters()) {
-                description.addMergeNode(host);
+                description.setMergeNode(host);
             }
         }
 
@@ -222,10 +222,10 @@ public class RuntimeFilterDescription {
         }
     }
 
-    public void addMergeNode(TNetworkAddress addr) {
-        if (mergeNodes.contains(addr)) {
-            return;
-        }
+    // Each coordinator deploying the plan sets its own merge node, e.g. the backup execution of a hedged query
+    // deploys the plan of the primary execution again
+    public void setMergeNode(TNetworkAddress addr) {
+        mergeNodes.clear();
         mergeNodes.add(addr);
     }
 
@@ -0,0 +1,207 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.planner;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.starrocks.analysis.PartitionNames;
+import com.starrocks.analysis.SlotDescriptor;
+import com.starrocks.analysis.TupleDescriptor;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedIndexMeta;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.task.StreamLoadTask;
+import com.starrocks.thrift.TBrokerRangeDesc;
+import com.starrocks.thrift.TExecPlanFragmentParams;
+import com.starrocks.thrift.TFileType;
+import com.starrocks.thrift.TPlanFragmentExecParams;
+import com.starrocks.thrift.TQueryGlobals;
+import com.starrocks.thrift.TScanRangeParams;
+import com.starrocks.thrift.TStreamLoadPutRequest;
+import com.starrocks.thrift.TUniqueId;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of stream load plans, keyed by the table, its schema and the options of the load.
+ *
+ * Repeated stream loads to a table with the same options share everything of the plan except the
+ * load id, the transaction, and the partitions and tablet locations of the sink, which are filled in
+ * again for every load. Any schema change of the table changes the key, so a stale plan is never reused.
+ * A plan carrying global dicts is never cached, and a cached plan is dropped once a global dict of its
+ * columns is built.
+ */
+public class StreamLoadPlanCache {
+    private static final StreamLoadPlanCache INSTANCE = new StreamLoadPlanCache();
+
+    private final Cache<PlanKey, CachedPlan> cache = CacheBuilder.newBuilder()
+            .maximumSize(Config.stream_load_plan_cache_size)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    public static StreamLoadPlanCache getInstance() {
+        return INSTANCE;
+    }
+
+    // must hold the db read lock
+    public TExecPlanFragmentParams plan(Database db, OlapTable table, TStreamLoadPutRequest request)
+            throws UserException {
+        // the plan of a local file load contains the path of the file
+        if (!Config.enable_stream_load_plan_cache || request.getFileType() != TFileType.FILE_STREAM) {
+            return planWithoutCache(db, table, request).params;
+        }
+
+        PlanKey key = new PlanKey(table, request);
+        CachedPlan cachedPlan = cache.getIfPresent(key);
+        if (cachedPlan != null) {
+            if (!cachedPlan.hasGlobalDict(table)) {
+                return cachedPlan.instantiate(db, table, request);
+            }
+            // a global dict is built after the plan was cached, only a new plan carries it
+            cache.invalidate(key);
+        }
+
+        PlanResult planned = planWithoutCache(db, table, request);
+        if (planned.planner.isReusable()) {
+            cache.put(key, new CachedPlan(planned.params.deepCopy(), planned.planner.getTupleDesc(),
+                    planned.task.getPartitions()));
+        }
+        return planned.params;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static PlanResult planWithoutCache(Database db, OlapTable table, TStreamLoadPutRequest request)
+            throws UserException {
+        StreamLoadTask streamLoadTask = StreamLoadTask.fromTStreamLoadPutRequest(request, db);
+        StreamLoadPlanner planner = new StreamLoadPlanner(db, table, streamLoadTask);
+        TExecPlanFragmentParams params = planner.plan(streamLoadTask.getId());
+        return new PlanResult(streamLoadTask, planner, params);
+    }
+
+    private static class PlanResult {
+        private final StreamLoadTask task;
+        private final StreamLoadPlanner planner;
+        private final TExecPlanFragmentParams params;
+
+        PlanResult(StreamLoadTask task, StreamLoadPlanner planner, TExecPlanFragmentParams params) {
+            this.task = task;
+            this.planner = planner;
+            this.params = params;
+        }
+    }
+
+    private static class CachedPlan {
+        // never sent to backends, every load gets a deep copy of it
+        private final TExecPlanFragmentParams template;
+        private final TupleDescriptor tupleDesc;
+        private final PartitionNames partitionNames;
+
+        CachedPlan(TExecPlanFragmentParams template, TupleDescriptor tupleDesc, PartitionNames partitionNames) {
+            this.template = template;
+            this.tupleDesc = tupleDesc;
+            this.partitionNames = partitionNames;
+        }
+
+        // only plans without global dicts are cached
+        boolean hasGlobalDict(OlapTable table) {
+            for (SlotDescriptor slot : tupleDesc.getSlots()) {
+                if (slot.getColumn() != null && StreamLoadPlanner.useGlobalDict(table, slot.getColumn())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        TExecPlanFragmentParams instantiate(Database db, OlapTable table, TStreamLoadPutRequest request)
+                throws UserException {
+            TUniqueId loadId = request.getLoadId();
+            TExecPlanFragmentParams params = template.deepCopy();
+
+            TPlanFragmentExecParams execParams = params.getParams();
+            execParams.setQuery_id(loadId);
+            execParams.setFragment_instance_id(new TUniqueId(loadId.hi, loadId.lo + 1));
+            for (List<TScanRangeParams> scanRanges : execParams.getPer_node_scan_ranges().values()) {
+                for (TScanRangeParams scanRange : scanRanges) {
+                    for (TBrokerRangeDesc rangeDesc : scanRange.getScan_range().getBroker_scan_range().getRanges()) {
+                        rangeDesc.setLoad_id(loadId);
+                    }
+                }
+            }
+
+            // partitions and tablets may have changed since the plan was cached
+            List<Long> partitionIds = StreamLoadPlanner.getAllPartitionIds(table, partitionNames);
+            OlapTableSink olapTableSink = new OlapTableSink(table, tupleDesc, partitionIds);
+            olapTableSink.init(loadId, request.getTxnId(), db.getId(), params.getQuery_options().getQuery_timeout());
+            olapTableSink.complete();
+            params.getFragment().setOutput_sink(olapTableSink.toThrift());
+
+            TQueryGlobals queryGlobals = params.getQuery_globals();
+            Date now = new Date();
+            queryGlobals.setNow_string(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(now));
+            queryGlobals.setTimestamp_ms(now.getTime());
+            return params;
+        }
+    }
+
+    private static class PlanKey {
+        private final long tableId;
+        // changes with any schema change or rollup of the table
+        private final String schemaSignature;
+        // the options of the load, without the fields which differ between loads
+        private final TStreamLoadPutRequest options;
+
+        PlanKey(OlapTable table, TStreamLoadPutRequest request) {
+            this.tableId = table.getId();
+            StringBuilder signature = new StringBuilder();
+            signature.append(table.getState()).append(';').append(Config.stream_load_default_timeout_second);
+            for (Map.Entry<Long, MaterializedIndexMeta> entry : table.getIndexIdToMeta().entrySet()) {
+                MaterializedIndexMeta indexMeta = entry.getValue();
+                signature.append(';').append(entry.getKey())
+                        .append(':').append(indexMeta.getSchemaVersion())
+                        .append(':').append(indexMeta.getSchemaHash());
+            }
+            this.schemaSignature = signature.toString();
+
+            this.options = request.deepCopy();
+            options.unsetUser();
+            options.unsetPasswd();
+            options.unsetUser_ip();
+            options.unsetAuth_code();
+            options.unsetLoadId();
+            options.unsetTxnId();
+            options.unsetThrift_rpc_timeout_ms();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return tableId == other.tableId && schemaSignature.equals(other.schemaSignature) &&
+                    options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableId, schemaSignature, options);
+        }
+    }
+}
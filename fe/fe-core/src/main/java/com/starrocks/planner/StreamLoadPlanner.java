@@ -81,6 +81,9 @@ public class StreamLoadPlanner {
 
     private Analyzer analyzer;
     private DescriptorTable descTable;
+    // tuple of the rows written by the sink, and whether the plan can be reused, valid after "plan()"
+    private TupleDescriptor tupleDesc;
+    private boolean reusable;
 
     public StreamLoadPlanner(Database db, OlapTable destTable, StreamLoadTask streamLoadTask) {
         this.db = db;
@@ -98,12 +101,27 @@ public class StreamLoadPlanner {
         return destTable;
     }
 
+    public TupleDescriptor getTupleDesc() {
+        return tupleDesc;
+    }
+
+    // the plan can be reused by another load with the same options, see StreamLoadPlanCache
+    public boolean isReusable() {
+        return reusable;
+    }
+
+    // whether the plan of a load into the column carries its global dict
+    public static boolean useGlobalDict(OlapTable table, Column col) {
+        return col.getType().isVarchar() && Config.enable_dict_optimize_stream_load &&
+                IDictManager.getInstance().hasGlobalDict(table.getId(), col.getName());
+    }
+
     // create the plan. the plan's query id and load id are same, using the parameter 'loadId'
     public TExecPlanFragmentParams plan(TUniqueId loadId) throws UserException {
         boolean isPrimaryKey = destTable.getKeysType() == KeysType.PRIMARY_KEYS;
         resetAnalyzer();
         // construct tuple descriptor, used for scanNode and dataSink
-        TupleDescriptor tupleDesc = descTable.createTupleDescriptor("DstTableTuple");
+        tupleDesc = descTable.createTupleDescriptor("DstTableTuple");
         boolean negative = streamLoadTask.getNegative();
         if (isPrimaryKey) {
             if (negative) {
@@ -130,9 +148,7 @@ public class StreamLoadPlanner {
                 throw new DdlException("Column is not SUM AggreateType. column:" + col.getName());
             }
 
-            if (col.getType().isVarchar() && Config.enable_dict_optimize_stream_load &&
-                    IDictManager.getInstance().hasGlobalDict(destTable.getId(),
-                            col.getName())) {
+            if (useGlobalDict(destTable, col)) {
                 Optional<ColumnDict> dict = IDictManager.getInstance().getGlobalDict(destTable.getId(), col.getName());
                 dict.ifPresent(columnDict -> globalDicts.add(new Pair<>(slotDesc.getId().asInt(), columnDict)));
             }
@@ -155,7 +171,7 @@ public class StreamLoadPlanner {
         descTable.computeMemLayout();
 
         // create dest sink
-        List<Long> partitionIds = getAllPartitionIds();
+        List<Long> partitionIds = getAllPartitionIds(destTable, streamLoadTask.getPartitions());
         OlapTableSink olapTableSink = new OlapTableSink(destTable, tupleDesc, partitionIds);
         olapTableSink.init(loadId, streamLoadTask.getTxnId(), db.getId(), streamLoadTask.getTimeout());
         olapTableSink.complete();
@@ -172,6 +188,8 @@ public class StreamLoadPlanner {
         // After data loading, we need to check the global dict for low cardinality string column
         // whether update.
         fragment.setLoadGlobalDicts(globalDicts);
+        // global dicts may be updated after this load, so the plan which carries them is not reused
+        reusable = globalDicts.isEmpty();
 
         fragment.createDataSink(TResultSinkType.MYSQL_PROTOCAL);
 
@@ -231,10 +249,10 @@ public class StreamLoadPlanner {
 
     // get all specified partition ids.
     // if no partition specified, return all partitions
-    private List<Long> getAllPartitionIds() throws DdlException {
+    public static List<Long> getAllPartitionIds(OlapTable destTable, PartitionNames partitionNames)
+            throws DdlException {
         List<Long> partitionIds = Lists.newArrayList();
 
-        PartitionNames partitionNames = streamLoadTask.getPartitions();
         if (partitionNames != null) {
             for (String partName : partitionNames.getPartitionNames()) {
                 Partition part = destTable.getPartition(partName, partitionNames.isTemp());
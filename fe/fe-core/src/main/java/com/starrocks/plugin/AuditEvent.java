@@ -100,6 +100,10 @@ public class AuditEvent {
     public double planCpuCosts = 0.0;
     @AuditField(value = "PlanMemCost")
     public double planMemCosts = 0.0;
+    @AuditField(value = "FeCpuCostNs")
+    public long feCpuCostNs = -1;
+    @AuditField(value = "FeAllocatedBytes")
+    public long feAllocatedBytes = -1;
 
     public static class AuditEventBuilder {
 
@@ -235,6 +239,19 @@ public class AuditEvent {
             return this;
         }
 
+        /**
+         * Cpu cost of FE threads in nanoseconds
+         */
+        public AuditEventBuilder setFeCpuCostNs(long feCpuCostNs) {
+            auditEvent.feCpuCostNs = feCpuCostNs;
+            return this;
+        }
+
+        public AuditEventBuilder setFeAllocatedBytes(long feAllocatedBytes) {
+            auditEvent.feAllocatedBytes = feAllocatedBytes;
+            return this;
+        }
+
         public AuditEvent build() {
             return this.auditEvent;
         }
@@ -161,6 +161,8 @@ public class ConnectContext {
 
     protected PlannerProfile plannerProfile;
 
+    protected FeExecuteCost feExecuteCost = new FeExecuteCost();
+
     protected ResourceGroup resourceGroup;
 
     public static ConnectContext get() {
@@ -497,6 +499,10 @@ public class ConnectContext {
         return plannerProfile;
     }
 
+    public FeExecuteCost getFeExecuteCost() {
+        return feExecuteCost;
+    }
+
     public ResourceGroup getResourceGroup() {
         return resourceGroup;
     }
@@ -151,7 +151,9 @@ public class ConnectProcessor {
                 .setMemCostBytes(statistics == null || statistics.memCostBytes == null ? 0 : statistics.memCostBytes)
                 .setReturnRows(ctx.getReturnRows())
                 .setStmtId(ctx.getStmtId())
-                .setQueryId(ctx.getQueryId() == null ? "NaN" : ctx.getQueryId().toString());
+                .setQueryId(ctx.getQueryId() == null ? "NaN" : ctx.getQueryId().toString())
+                .setFeCpuCostNs(ctx.getFeExecuteCost().getTotalCpuCostNs())
+                .setFeAllocatedBytes(ctx.getFeExecuteCost().getTotalAllocatedBytes());
 
         if (ctx.getState().isQuery()) {
             MetricRepo.COUNTER_QUERY_ALL.increase(1L);
@@ -164,6 +166,8 @@ public class ConnectProcessor {
                 // ok query
                 MetricRepo.COUNTER_QUERY_SUCCESS.increase(1L);
                 MetricRepo.HISTO_QUERY_LATENCY.update(elapseMs);
+                MetricRepo.HISTO_QUERY_FE_CPU_COST.update(ctx.getFeExecuteCost().getTotalCpuCostNs());
+                MetricRepo.HISTO_QUERY_FE_ALLOCATED_BYTES.update(ctx.getFeExecuteCost().getTotalAllocatedBytes());
                 ResourceGroupMetricMgr.updateQueryLatency(ctx, elapseMs);
                 if (elapseMs > Config.qe_slow_log_ms || ctx.getSessionVariable().isEnableSQLDigest()) {
                     MetricRepo.COUNTER_SLOW_QUERY.increase(1L);
@@ -226,6 +230,8 @@ public class ConnectProcessor {
         }
         queryDetail.setEndTime(endTime);
         queryDetail.setLatency(elapseMs);
+        queryDetail.setFeCpuCostNs(ctx.getFeExecuteCost().getTotalCpuCostNs());
+        queryDetail.setFeAllocatedBytes(ctx.getFeExecuteCost().getTotalAllocatedBytes());
         queryDetail.setResourceGroupName(ctx.getResourceGroup() != null ? ctx.getResourceGroup().getName() : "");
         QueryDetailQueue.addAndRemoveTimeoutQueryDetail(queryDetail);
     }
@@ -278,13 +284,14 @@ public class ConnectProcessor {
                 .setDb(ctx.getDatabase())
                 .setCatalog(ctx.getCurrentCatalog());
         ctx.getPlannerProfile().reset();
+        ctx.getFeExecuteCost().reset();
 
         // execute this query.
         StatementBase parsedStmt = null;
         try {
             ctx.setQueryId(UUIDUtil.genUUID());
             List<StatementBase> stmts;
-            try {
+            try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.PARSE)) {
                 stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable());
             } catch (ParsingException parsingException) {
                 throw new AnalysisException(parsingException.getMessage());
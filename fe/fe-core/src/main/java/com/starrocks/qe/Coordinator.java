@@ -78,6 +78,7 @@ import com.starrocks.service.FrontendOptions;
 import com.starrocks.sql.common.ErrorType;
 import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.system.Backend;
+import com.starrocks.system.BackendLoadStat;
 import com.starrocks.system.ComputeNode;
 import com.starrocks.task.LoadEtlTask;
 import com.starrocks.thrift.InternalServiceVersion;
@@ -209,6 +210,12 @@ public class Coordinator {
     private final List<TTabletCommitInfo> commitInfos = Lists.newArrayList();
     // Input parameter
     private long jobId = -1; // job which this task belongs to
+    // milliseconds waiting in the FE query queue before deployment
+    private long queueWaitMs = 0;
+    // the replicas on these backends are not used if there are other replicas, for hedged query
+    private Set<Long> excludedBackendIds = Collections.emptySet();
+    // the backup execution of hedged query stands in for the admitted primary one, so it's not queued
+    private boolean bypassQueryQueue = false;
     private TUniqueId queryId;
     private final ConnectContext connectContext;
     private final boolean needReport;
@@ -240,8 +247,14 @@ public class Coordinator {
     // Used for new planner
     public Coordinator(ConnectContext context, List<PlanFragment> fragments, List<ScanNode> scanNodes,
                        TDescriptorTable descTable) {
+        this(context, context.getExecutionId(), fragments, scanNodes, descTable);
+    }
+
+    // Used for the backup execution of hedged query, which runs the plan of the primary execution with another query id
+    public Coordinator(ConnectContext context, TUniqueId queryId, List<PlanFragment> fragments,
+                       List<ScanNode> scanNodes, TDescriptorTable descTable) {
         this.isBlockQuery = false;
-        this.queryId = context.getExecutionId();
+        this.queryId = queryId;
         this.connectContext = context;
         this.fragments = fragments;
         this.scanNodes = scanNodes;
@@ -550,7 +563,91 @@ public class Coordinator {
 
     public void exec() throws Exception {
         prepareExec();
-        deliverExecFragments();
+        if (!bypassQueryQueue && QueryQueueManager.isEnabled(connectContext)) {
+            queueWaitMs = QueryQueueManager.getInstance().waitForSlots(connectContext, queryId, resourceGroup);
+        }
+        try {
+            deliverExecFragments();
+        } catch (Exception e) {
+            releaseQueueSlots();
+            abortScans();
+            throw e;
+        }
+    }
+
+    // Give back the slots of the query queue once the query is finished, failed or cancelled,
+    // it's idempotent and unregistering the query releases them again in case of any path missing it
+    private void releaseQueueSlots() {
+        QueryQueueManager.getInstance().releaseSlots(queryId);
+    }
+
+    // Stop tracking the scan instances in BackendLoadStat. The instances still running when the query ends are not
+    // sampled: the eos of the result only bounds them by the latency of the whole query, not of the scan.
+    private void abortScans() {
+        for (BackendExecState execState : backendExecStates.values()) {
+            execState.finishScan(false);
+        }
+    }
+
+    public long getQueueWaitMs() {
+        return queueWaitMs;
+    }
+
+    public void setExcludedBackendIds(Set<Long> excludedBackendIds) {
+        this.excludedBackendIds = excludedBackendIds;
+    }
+
+    public void setBypassQueryQueue(boolean bypassQueryQueue) {
+        this.bypassQueryQueue = bypassQueryQueue;
+    }
+
+    /**
+     * Whether the query could be hedged by a backup execution on other replicas. Only the query returning
+     * its result to the client is supported, and all its scan ranges must have more than one replica.
+     * Must be called after exec.
+     */
+    public boolean canHedge() {
+        if (receiver == null) {
+            return false;
+        }
+        DataSink sink = fragments.get(0).getSink();
+        if (!(sink instanceof ResultSink) || ((ResultSink) sink).isOutputFileSink()) {
+            return false;
+        }
+        for (ScanNode scanNode : scanNodes) {
+            if (!(scanNode instanceof OlapScanNode)) {
+                return false;
+            }
+            for (TScanRangeLocations locations : scanNode.getScanRangeLocations(0)) {
+                if (locations.getLocationsSize() < 2) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the coordinator of the backup execution of a hedged query. It deploys the same plan with new query and
+     * instance ids, so the query isn't planned again when the hedge fires. Must be called after exec, the plan is
+     * only touched by the backup when it's deployed, after the primary execution has serialized it.
+     */
+    public Coordinator createHedgedBackup(TUniqueId backupId) {
+        return new Coordinator(connectContext, backupId, fragments, scanNodes, descTable);
+    }
+
+    // the backends running the fragment instances of this query
+    public Set<Long> getExecBackendIds() {
+        Set<Long> backendIds = Sets.newHashSet();
+        for (FragmentExecParams params : fragmentExecParamsMap.values()) {
+            for (FInstanceExecParam instanceExecParam : params.instanceExecParams) {
+                Long backendId = addressToBackendID.get(instanceExecParam.host);
+                if (backendId != null) {
+                    backendIds.add(backendId);
+                }
+            }
+        }
+        return backendIds;
     }
 
     public static ResourceGroup prepareResourceGroup(ConnectContext connect) {
@@ -1320,6 +1417,8 @@ public class Coordinator {
         }
 
         if (!copyStatus.ok()) {
+            releaseQueueSlots();
+            abortScans();
             if (Strings.isNullOrEmpty(copyStatus.getErrorMsg())) {
                 copyStatus.rewriteErrorMsg();
             }
@@ -1340,6 +1439,8 @@ public class Coordinator {
 
         if (resultBatch.isEos()) {
             this.returnedAllResults = true;
+            releaseQueueSlots();
+            abortScans();
 
             // if this query is a block query do not cancel.
             long numLimitRows = fragments.get(0).getPlanRoot().getLimit();
@@ -1371,6 +1472,8 @@ public class Coordinator {
             cancelInternal(PPlanFragmentCancelReason.USER_CANCEL);
         } finally {
             unlock();
+            releaseQueueSlots();
+            abortScans();
         }
     }
 
@@ -2556,6 +2659,8 @@ public class Coordinator {
         TNetworkAddress address;
         ComputeNode backend;
         long lastMissingHeartbeatTime = -1;
+        // the time the scan instance is delivered, -1 if it's not tracked by BackendLoadStat
+        long scanStartTimeMs = -1;
 
         public BackendExecState(PlanFragmentId fragmentId, TNetworkAddress host, int profileFragmentId,
                                 TExecPlanFragmentParams rpcParams,
@@ -2597,9 +2702,35 @@ public class Coordinator {
                 profile.update(params.profile);
             }
             this.done = params.done;
+            if (this.done) {
+                finishScan(true);
+            }
             return true;
         }
 
+        // track the latency of the instance scanning this replica, only the instances with scan ranges are counted
+        private synchronized void startScan() {
+            Map<Integer, List<TScanRangeParams>> scanRanges = uniqueRpcParams.params.getPer_node_scan_ranges();
+            if (scanStartTimeMs >= 0 || scanRanges == null || scanRanges.values().stream().allMatch(List::isEmpty)) {
+                return;
+            }
+            scanStartTimeMs = System.currentTimeMillis();
+            BackendLoadStat.onRequestStart(backend.getId());
+        }
+
+        // the latency is sampled only by the done report of the instance, otherwise it's just not in-flight
+        public synchronized void finishScan(boolean finished) {
+            if (scanStartTimeMs < 0) {
+                return;
+            }
+            if (finished) {
+                BackendLoadStat.onRequestFinish(backend.getId(), System.currentTimeMillis() - scanStartTimeMs);
+            } else {
+                BackendLoadStat.onRequestAbort(backend.getId());
+            }
+            scanStartTimeMs = -1;
+        }
+
         public synchronized void printProfile(StringBuilder builder) {
             this.profile.computeTimeInProfile();
             this.profile.prettyPrint(builder, "");
@@ -2670,6 +2801,7 @@ public class Coordinator {
                 throw new TException(e.getMessage());
             }
             this.initiated = true;
+            startScan();
             try {
                 return BackendServiceClient.getInstance().execPlanFragmentAsync(brpcAddress, uniqueRpcParams);
             } catch (RpcException e) {
@@ -2773,6 +2905,9 @@ public class Coordinator {
 
         public void setInitiated(boolean initiated) {
             this.initiated = initiated;
+            if (initiated) {
+                startScan();
+            }
         }
     }
 
@@ -3109,14 +3244,29 @@ public class Coordinator {
         public void computeScanRangeAssignment() throws Exception {
             HashMap<TNetworkAddress, Long> assignedBytesPerHost = Maps.newHashMap();
             for (TScanRangeLocations scanRangeLocations : locations) {
-                // assign this scan range to the host w/ the fewest assigned bytes
-                Long minAssignedBytes = Long.MAX_VALUE;
+                List<TScanRangeLocation> candidates = scanRangeLocations.getLocations();
+                if (!excludedBackendIds.isEmpty()) {
+                    List<TScanRangeLocation> others = candidates.stream()
+                            .filter(location -> !excludedBackendIds.contains(location.backend_id))
+                            .collect(Collectors.toList());
+                    if (!others.isEmpty()) {
+                        candidates = others;
+                    }
+                }
                 TScanRangeLocation minLocation = null;
-                for (final TScanRangeLocation location : scanRangeLocations.getLocations()) {
-                    Long assignedBytes = BackendSelector.findOrInsert(assignedBytesPerHost, location.server, 0L);
-                    if (assignedBytes < minAssignedBytes) {
-                        minAssignedBytes = assignedBytes;
-                        minLocation = location;
+                if (Config.enable_adaptive_replica_selection) {
+                    // assign this scan range to the replica which is expected to finish it earlier
+                    minLocation = SimpleScheduler.selectReplicaByLoad(candidates, assignedBytesPerHost);
+                    BackendSelector.findOrInsert(assignedBytesPerHost, minLocation.server, 0L);
+                } else {
+                    // assign this scan range to the host w/ the fewest assigned bytes
+                    Long minAssignedBytes = Long.MAX_VALUE;
+                    for (final TScanRangeLocation location : candidates) {
+                        Long assignedBytes = BackendSelector.findOrInsert(assignedBytesPerHost, location.server, 0L);
+                        if (assignedBytes < minAssignedBytes) {
+                            minAssignedBytes = assignedBytes;
+                            minLocation = location;
+                        }
                     }
                 }
                 assignedBytesPerHost.put(minLocation.server,
@@ -0,0 +1,191 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.DebugUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * FeExecuteCost records the thread cpu time and heap bytes allocated by the FE for one statement,
+ * split by execution phase. Usage:
+ * ```
+ * try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.DEPLOY)) {
+ * // code of this phase
+ * }
+ * ```
+ * The sampler reads the counters of the current thread via {@link ThreadMXBean} when it is opened and closed,
+ * so it only accounts the work done by the calling thread, rpc threads or other pools are not included.
+ */
+public class FeExecuteCost {
+    private static final Logger LOG = LogManager.getLogger(FeExecuteCost.class);
+
+    public enum Phase {
+        PARSE("Parse"),
+        ANALYZE("Analyze"),
+        OPTIMIZE("Optimize"),
+        DEPLOY("Deploy"),
+        FETCH("Fetch");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean SUN_THREAD_MX_BEAN;
+    private static final boolean CPU_TIME_SUPPORTED;
+
+    static {
+        boolean cpuTimeSupported = false;
+        try {
+            cpuTimeSupported = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+            if (cpuTimeSupported && !THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+                THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOG.warn("thread cpu time is not supported, fe cpu cost of query will not be collected", e);
+            cpuTimeSupported = false;
+        }
+        CPU_TIME_SUPPORTED = cpuTimeSupported;
+
+        com.sun.management.ThreadMXBean sunBean = null;
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            sunBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            try {
+                if (!sunBean.isThreadAllocatedMemorySupported()) {
+                    sunBean = null;
+                } else if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                }
+            } catch (UnsupportedOperationException | SecurityException e) {
+                LOG.warn("thread allocated memory is not supported, fe allocated bytes of query will not be collected",
+                        e);
+                sunBean = null;
+            }
+        }
+        SUN_THREAD_MX_BEAN = sunBean;
+    }
+
+    public static class ScopedSampler implements AutoCloseable {
+        private final FeExecuteCost cost;
+        private final Phase phase;
+        private final long threadId;
+        private final long startCpuNs;
+        private final long startAllocatedBytes;
+
+        private ScopedSampler(FeExecuteCost cost, Phase phase) {
+            this.cost = cost;
+            this.phase = phase;
+            this.threadId = Thread.currentThread().getId();
+            this.startCpuNs = currentThreadCpuNs();
+            this.startAllocatedBytes = currentThreadAllocatedBytes(threadId);
+        }
+
+        @Override
+        public void close() {
+            if (cost == null || threadId != Thread.currentThread().getId()) {
+                return;
+            }
+            cost.add(phase, currentThreadCpuNs() - startCpuNs,
+                    currentThreadAllocatedBytes(threadId) - startAllocatedBytes);
+        }
+    }
+
+    private static final ScopedSampler NOOP_SAMPLER = new ScopedSampler(null, Phase.PARSE);
+
+    private final Map<Phase, long[]> costs = new EnumMap<>(Phase.class);
+
+    /**
+     * Start sampling the given phase for the statement of the current thread's ConnectContext.
+     * Return a sampler doing nothing if there is no context or the collection is disabled.
+     */
+    public static ScopedSampler sample(Phase phase) {
+        ConnectContext ctx = ConnectContext.get();
+        if (ctx == null || !Config.enable_collect_query_fe_cost) {
+            return NOOP_SAMPLER;
+        }
+        return new ScopedSampler(ctx.getFeExecuteCost(), phase);
+    }
+
+    static boolean isCpuTimeSupported() {
+        return CPU_TIME_SUPPORTED;
+    }
+
+    static boolean isAllocatedBytesSupported() {
+        return SUN_THREAD_MX_BEAN != null;
+    }
+
+    private static long currentThreadCpuNs() {
+        return CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long currentThreadAllocatedBytes(long threadId) {
+        return SUN_THREAD_MX_BEAN != null ? SUN_THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) : 0;
+    }
+
+    public synchronized void add(Phase phase, long cpuNs, long allocatedBytes) {
+        long[] cost = costs.computeIfAbsent(phase, k -> new long[2]);
+        cost[0] += Math.max(cpuNs, 0);
+        cost[1] += Math.max(allocatedBytes, 0);
+    }
+
+    public synchronized long getCpuCostNs(Phase phase) {
+        long[] cost = costs.get(phase);
+        return cost == null ? 0 : cost[0];
+    }
+
+    public synchronized long getAllocatedBytes(Phase phase) {
+        long[] cost = costs.get(phase);
+        return cost == null ? 0 : cost[1];
+    }
+
+    public synchronized long getTotalCpuCostNs() {
+        long total = 0;
+        for (long[] cost : costs.values()) {
+            total += cost[0];
+        }
+        return total;
+    }
+
+    public synchronized long getTotalAllocatedBytes() {
+        long total = 0;
+        for (long[] cost : costs.values()) {
+            total += cost[1];
+        }
+        return total;
+    }
+
+    /**
+     * Format as "Parse: 1ms/2.000 KB, Analyze: ..." which is used by the query profile,
+     * phases never sampled are skipped.
+     */
+    public synchronized String toPrettyString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Phase, long[]> entry : costs.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey().getName()).append(": ")
+                    .append(DebugUtil.getPrettyStringNs(entry.getValue()[0])).append("/")
+                    .append(DebugUtil.getPrettyStringBytes(entry.getValue()[1]));
+        }
+        return sb.toString();
+    }
+
+    public synchronized void reset() {
+        costs.clear();
+    }
+}
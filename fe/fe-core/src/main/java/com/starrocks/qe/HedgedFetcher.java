@@ -0,0 +1,227 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.thrift.TUniqueId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HedgedFetcher cuts the tail latency of low-latency queries caused by a stalled backend.
+ * If the first batch of a query is not returned after a percentile of the recent first batch latencies,
+ * the plan of the query is deployed again on other replicas as a backup, and the execution returning the
+ * first batch earlier wins, the other one is cancelled. Nothing is sent to the client before the first batch,
+ * so switching to the backup execution is safe. The backup execution is deployed and fetched in the background,
+ * and it isn't admitted by the query queue, since it only stands in for the primary one.
+ */
+public class HedgedFetcher {
+    private static final Logger LOG = LogManager.getLogger(HedgedFetcher.class);
+
+    private static final ThreadPoolExecutor EXECUTOR = ThreadPoolManager.newDaemonThreadPool(0,
+            Config.hedged_fetch_max_threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ThreadPoolExecutor.AbortPolicy(), "hedged-fetch", true);
+
+    private static final Histogram FIRST_BATCH_LATENCY = new Histogram(new ExponentiallyDecayingReservoir());
+
+    /**
+     * Creates the coordinator of the backup execution from the plan of the primary execution,
+     * returns null if the query can't be hedged.
+     */
+    public interface BackupFactory {
+        Coordinator create(TUniqueId backupId) throws Exception;
+    }
+
+    public static class Result {
+        private final Coordinator coordinator;
+        private final RowBatch batch;
+
+        private Result(Coordinator coordinator, RowBatch batch) {
+            this.coordinator = coordinator;
+            this.batch = batch;
+        }
+
+        public Coordinator getCoordinator() {
+            return coordinator;
+        }
+
+        public RowBatch getBatch() {
+            return batch;
+        }
+    }
+
+    // The backup execution, it's cancelled by whoever sees it abandoned after it's deployed,
+    // so that no fragment instance is left behind if it loses while being deployed
+    private static class Backup {
+        private final TUniqueId queryId;
+        private final Coordinator coordinator;
+        private boolean deployed = false;
+        private boolean abandoned = false;
+
+        private Backup(TUniqueId queryId, Coordinator coordinator) {
+            this.queryId = queryId;
+            this.coordinator = coordinator;
+        }
+
+        private Result deployAndFetch(ConnectContext context) throws Exception {
+            context.setThreadLocalInfo();
+            try {
+                coordinator.exec();
+            } finally {
+                ConnectContext.remove();
+                synchronized (this) {
+                    deployed = true;
+                    if (abandoned) {
+                        coordinator.cancel();
+                    }
+                }
+            }
+            return fetch(context, coordinator);
+        }
+
+        private void abandon() {
+            synchronized (this) {
+                abandoned = true;
+                if (deployed) {
+                    coordinator.cancel();
+                }
+            }
+            QeProcessorImpl.INSTANCE.unregisterQuery(queryId);
+        }
+    }
+
+    public static boolean isEnabled(ConnectContext context, Coordinator coord) {
+        return context.getSessionVariable().isEnableHedgedFetch() && coord.canHedge();
+    }
+
+    /**
+     * Fetch the first batch of the query which has been deployed by the primary coordinator.
+     * The coordinator returning the first batch is returned along with the batch, and the execution id of
+     * the context is switched to its query id.
+     */
+    public static Result fetchFirstBatch(ConnectContext context, Coordinator primary, BackupFactory backupFactory,
+                                         String originStmt) throws Exception {
+        long startMs = System.currentTimeMillis();
+        ExecutorCompletionService<Result> completionService = new ExecutorCompletionService<>(EXECUTOR);
+        Future<Result> primaryFuture;
+        try {
+            primaryFuture = completionService.submit(() -> fetch(context, primary));
+        } catch (RejectedExecutionException e) {
+            // all threads are busy, don't hedge
+            return new Result(primary, primary.getNext());
+        }
+
+        Future<Result> done = completionService.poll(getHedgeDelayMs(), TimeUnit.MILLISECONDS);
+        if (done != null) {
+            FIRST_BATCH_LATENCY.update(System.currentTimeMillis() - startMs);
+            return getResult(done);
+        }
+
+        UUID uuid = UUID.randomUUID();
+        TUniqueId backupId = new TUniqueId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        Backup backup;
+        try {
+            Coordinator coordinator = backupFactory.create(backupId);
+            if (coordinator == null) {
+                return getResult(primaryFuture);
+            }
+            coordinator.setExcludedBackendIds(primary.getExecBackendIds());
+            coordinator.setBypassQueryQueue(true);
+            backup = new Backup(backupId, coordinator);
+        } catch (Exception e) {
+            LOG.warn("failed to create the backup execution {} of query {}", DebugUtil.printId(backupId),
+                    DebugUtil.printId(primary.getQueryId()), e);
+            return getResult(primaryFuture);
+        }
+
+        Result result = null;
+        try {
+            QeProcessorImpl.INSTANCE.registerQuery(backupId,
+                    new QeProcessorImpl.QueryInfo(context, originStmt, backup.coordinator));
+            completionService.submit(() -> backup.deployAndFetch(context));
+        } catch (Exception e) {
+            LOG.warn("failed to issue the backup execution {} of query {}", DebugUtil.printId(backupId),
+                    DebugUtil.printId(primary.getQueryId()), e);
+            backup.abandon();
+            return getResult(primaryFuture);
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_QUERY_HEDGED.increase(1L);
+        }
+        LOG.info("query {} has not returned the first batch after {}ms, issue the backup execution {}",
+                DebugUtil.printId(primary.getQueryId()), System.currentTimeMillis() - startMs,
+                DebugUtil.printId(backupId));
+
+        try {
+            try {
+                result = getResult(completionService.take());
+            } catch (Exception e) {
+                // the first finished one failed, wait for the other one
+                LOG.warn("one execution of hedged query {} failed", DebugUtil.printId(primary.getQueryId()), e);
+                result = getResult(completionService.take());
+            }
+            FIRST_BATCH_LATENCY.update(System.currentTimeMillis() - startMs);
+        } finally {
+            if (result == null || result.getCoordinator() != backup.coordinator) {
+                // the primary execution is unregistered by the caller with the execution id of the context
+                backup.abandon();
+            }
+        }
+
+        if (result.getCoordinator() == backup.coordinator) {
+            primary.cancel();
+            QeProcessorImpl.INSTANCE.unregisterQuery(primary.getQueryId());
+            LOG.info("transfer QueryId: {} to {}, the backup execution wins",
+                    DebugUtil.printId(primary.getQueryId()), DebugUtil.printId(backupId));
+            context.setExecutionId(backupId);
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_QUERY_HEDGED_WIN.increase(1L);
+            }
+        }
+        return result;
+    }
+
+    private static Result fetch(ConnectContext context, Coordinator coord) throws Exception {
+        context.setThreadLocalInfo();
+        try {
+            return new Result(coord, coord.getNext());
+        } finally {
+            ConnectContext.remove();
+        }
+    }
+
+    private static Result getResult(Future<Result> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    static long getHedgeDelayMs() {
+        double percentile = Math.min(1.0, Math.max(0.0, Config.hedged_fetch_delay_percentile));
+        long delayMs = (long) FIRST_BATCH_LATENCY.getSnapshot().getValue(percentile);
+        return Math.max(Config.hedged_fetch_min_delay_ms, delayMs);
+    }
+
+    static void recordFirstBatchLatency(long latencyMs) {
+        FIRST_BATCH_LATENCY.update(latencyMs);
+    }
+}
@@ -78,6 +78,7 @@ public final class QeProcessorImpl implements QeProcessor {
 
     @Override
     public void unregisterQuery(TUniqueId queryId) {
+        QueryQueueManager.getInstance().releaseSlots(queryId);
         if (coordinatorMap.remove(queryId) != null) {
             LOG.info("deregister query id {}", DebugUtil.printId(queryId));
         }
@@ -59,6 +59,9 @@ public class QueryDetail implements Serializable {
     private String explain;
     private String profile;
     private String resourceGroupName;
+    // cpu time and heap bytes consumed by FE threads, updated upon query finished.
+    private long feCpuCostNs = -1;
+    private long feAllocatedBytes = -1;
 
     public QueryDetail() {
     }
@@ -105,6 +108,8 @@ public class QueryDetail implements Serializable {
         queryDetail.errorMessage = this.errorMessage;
         queryDetail.explain = this.explain;
         queryDetail.profile = this.profile;
+        queryDetail.feCpuCostNs = this.feCpuCostNs;
+        queryDetail.feAllocatedBytes = this.feAllocatedBytes;
         return queryDetail;
     }
 
@@ -227,4 +232,20 @@ public class QueryDetail implements Serializable {
     public void setResourceGroupName(String workGroupName) {
         this.resourceGroupName = workGroupName;
     }
+
+    public long getFeCpuCostNs() {
+        return feCpuCostNs;
+    }
+
+    public void setFeCpuCostNs(long feCpuCostNs) {
+        this.feCpuCostNs = feCpuCostNs;
+    }
+
+    public long getFeAllocatedBytes() {
+        return feAllocatedBytes;
+    }
+
+    public void setFeAllocatedBytes(long feAllocatedBytes) {
+        this.feAllocatedBytes = feAllocatedBytes;
+    }
 }
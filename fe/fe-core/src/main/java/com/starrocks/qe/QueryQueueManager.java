@@ -0,0 +1,291 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.metric.GaugeMetric;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.thrift.TUniqueId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * QueryQueueManager does the admission control of queries on FE side.
+ * Each resource group owns a queue with concurrency slots and memory slots. A query which can not get
+ * its slots waits in the queue before its fragments are deployed, instead of being sent to the backends
+ * and competing with the running ones. Pending queries are admitted by priority, then by arrival order,
+ * and fail when they have waited longer than the pending timeout.
+ */
+public class QueryQueueManager {
+    private static final Logger LOG = LogManager.getLogger(QueryQueueManager.class);
+
+    public static final ImmutableList<String> TITLE_NAMES = new ImmutableList.Builder<String>()
+            .add("ResourceGroup").add("ConcurrencyLimit").add("Running").add("Pending")
+            .add("MemLimitBytes").add("MemUsedBytes").add("TotalAdmitted").add("TotalTimeout")
+            .build();
+
+    private static final String QUERY_QUEUE_PENDING = "query_queue_pending";
+    private static final String QUERY_QUEUE_RUNNING = "query_queue_running";
+
+    private static final QueryQueueManager INSTANCE = new QueryQueueManager();
+
+    private final Map<String, GroupQueue> queues = new ConcurrentHashMap<>();
+    // query id -> the queue holding its slots
+    private final Map<TUniqueId, GroupQueue> admittedQueries = new ConcurrentHashMap<>();
+    private final AtomicLong seqGenerator = new AtomicLong(0);
+
+    public static QueryQueueManager getInstance() {
+        return INSTANCE;
+    }
+
+    private static class PendingQuery {
+        private final TUniqueId queryId;
+        private final int priority;
+        private final long seq;
+        private final long memBytes;
+
+        private PendingQuery(TUniqueId queryId, int priority, long seq, long memBytes) {
+            this.queryId = queryId;
+            this.priority = priority;
+            this.seq = seq;
+            this.memBytes = memBytes;
+        }
+    }
+
+    // higher priority first, then first come first served
+    private static final Comparator<PendingQuery> PENDING_ORDER =
+            Comparator.comparingInt((PendingQuery p) -> -p.priority).thenComparingLong(p -> p.seq);
+
+    private static class GroupQueue {
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition slotReleased = lock.newCondition();
+        private final PriorityQueue<PendingQuery> pendingQueries = new PriorityQueue<>(PENDING_ORDER);
+        private final Map<TUniqueId, Long> runningQueries = new ConcurrentHashMap<>();
+        private volatile int concurrencyLimit;
+        private volatile long memLimitBytes;
+        private long memUsedBytes = 0;
+        private long totalAdmitted = 0;
+        private long totalTimeout = 0;
+        private final List<Metric<?>> metrics = Lists.newArrayList();
+
+        private GroupQueue(String name) {
+            this.name = name;
+        }
+
+        // must hold lock
+        private boolean canAdmit(PendingQuery query) {
+            if (pendingQueries.peek() != query) {
+                return false;
+            }
+            if (concurrencyLimit > 0 && runningQueries.size() >= concurrencyLimit) {
+                return false;
+            }
+            // a query always runs if it is alone, even if its memory exceeds the limit
+            return memLimitBytes <= 0 || runningQueries.isEmpty() || memUsedBytes + query.memBytes <= memLimitBytes;
+        }
+
+        private int getPendingNum() {
+            lock.lock();
+            try {
+                return pendingQueries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<String> toRow() {
+            lock.lock();
+            try {
+                return Lists.newArrayList(name, String.valueOf(concurrencyLimit),
+                        String.valueOf(runningQueries.size()), String.valueOf(pendingQueries.size()),
+                        String.valueOf(memLimitBytes), String.valueOf(memUsedBytes),
+                        String.valueOf(totalAdmitted), String.valueOf(totalTimeout));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public static boolean isEnabled(ConnectContext ctx) {
+        return Config.enable_query_queue && ctx != null && ctx.getState().isQuery()
+                && ctx.getSessionVariable().isEnableResourceGroup();
+    }
+
+    /**
+     * Block until the query gets slots from the queue of its resource group.
+     * Return the milliseconds spent waiting in the queue.
+     */
+    public long waitForSlots(ConnectContext ctx, TUniqueId queryId, ResourceGroup resourceGroup)
+            throws UserException {
+        GroupQueue queue = getOrCreateQueue(resourceGroup);
+        long memBytes = ctx.getSessionVariable().getQueryMemLimit() > 0 ?
+                ctx.getSessionVariable().getQueryMemLimit() : ctx.getSessionVariable().getMaxExecMemByte();
+        PendingQuery query = new PendingQuery(queryId, ctx.getSessionVariable().getQueryQueuePriority(),
+                seqGenerator.incrementAndGet(), memBytes);
+        long timeoutMs = TimeUnit.SECONDS.toMillis(
+                Math.min(Config.query_queue_pending_timeout_second, ctx.getSessionVariable().getQueryTimeoutS()));
+        long startMs = System.currentTimeMillis();
+
+        queue.lock.lock();
+        try {
+            queue.pendingQueries.add(query);
+            while (!queue.canAdmit(query)) {
+                long remainMs = timeoutMs - (System.currentTimeMillis() - startMs);
+                if (remainMs <= 0 || ctx.isKilled()) {
+                    queue.pendingQueries.remove(query);
+                    queue.slotReleased.signalAll();
+                    if (ctx.isKilled()) {
+                        throw new UserException("query is killed when waiting in the queue of resource group "
+                                + queue.name);
+                    }
+                    queue.totalTimeout++;
+                    if (MetricRepo.isInit) {
+                        MetricRepo.COUNTER_QUERY_QUEUE_TIMEOUT.increase(1L);
+                    }
+                    throw new UserException(String.format(
+                            "query waits in the queue of resource group %s timeout after %dms, " +
+                                    "running: %d, pending: %d", queue.name, timeoutMs,
+                            queue.runningQueries.size(), queue.pendingQueries.size()));
+                }
+                try {
+                    // wake up periodically to check whether the query is killed
+                    queue.slotReleased.await(Math.min(remainMs, 1000L), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    queue.pendingQueries.remove(query);
+                    queue.slotReleased.signalAll();
+                    Thread.currentThread().interrupt();
+                    throw new UserException("interrupted when waiting in the queue of resource group " + queue.name);
+                }
+            }
+            queue.pendingQueries.poll();
+            queue.runningQueries.put(queryId, memBytes);
+            queue.memUsedBytes += memBytes;
+            queue.totalAdmitted++;
+            admittedQueries.put(queryId, queue);
+            // the next pending query may also fit
+            queue.slotReleased.signalAll();
+        } finally {
+            queue.lock.unlock();
+        }
+
+        long waitMs = System.currentTimeMillis() - startMs;
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_QUERY_QUEUE_PENDING_TIME.update(waitMs);
+        }
+        if (waitMs > 0) {
+            LOG.debug("query {} waits {}ms in the queue of resource group {}", DebugUtil.printId(queryId),
+                    waitMs, queue.name);
+        }
+        return waitMs;
+    }
+
+    /**
+     * Give back the slots of the query, it's ok to call it several times or for a query never admitted.
+     */
+    public void releaseSlots(TUniqueId queryId) {
+        GroupQueue queue = admittedQueries.remove(queryId);
+        if (queue == null) {
+            return;
+        }
+        queue.lock.lock();
+        try {
+            Long memBytes = queue.runningQueries.remove(queryId);
+            if (memBytes != null) {
+                queue.memUsedBytes -= memBytes;
+            }
+            queue.slotReleased.signalAll();
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    private GroupQueue getOrCreateQueue(ResourceGroup resourceGroup) {
+        String name = resourceGroup == null || resourceGroup.getName() == null ?
+                ResourceGroup.DEFAULT_RESOURCE_GROUP_NAME : resourceGroup.getName();
+        GroupQueue queue = queues.computeIfAbsent(name, this::createQueue);
+        // the limits of resource group may be altered, always refresh them
+        int concurrencyLimit = Config.query_queue_concurrency_limit;
+        if (resourceGroup != null && resourceGroup.getConcurrencyLimit() != null
+                && resourceGroup.getConcurrencyLimit() > 0) {
+            concurrencyLimit = resourceGroup.getConcurrencyLimit();
+        }
+        long memLimitBytes = Config.query_queue_mem_limit_bytes;
+        if (memLimitBytes > 0 && resourceGroup != null && resourceGroup.getMemLimit() != null
+                && resourceGroup.getMemLimit() > 0) {
+            memLimitBytes = (long) (memLimitBytes * resourceGroup.getMemLimit());
+        }
+        queue.concurrencyLimit = concurrencyLimit;
+        queue.memLimitBytes = memLimitBytes;
+        return queue;
+    }
+
+    private GroupQueue createQueue(String name) {
+        GroupQueue queue = new GroupQueue(name);
+
+        GaugeMetric<Long> pending = new GaugeMetric<Long>(QUERY_QUEUE_PENDING, Metric.MetricUnit.REQUESTS,
+                "pending queries in the queue of resource group") {
+            @Override
+            public Long getValue() {
+                return (long) queue.getPendingNum();
+            }
+        };
+        pending.addLabel(new MetricLabel("name", name));
+        MetricRepo.addMetric(pending);
+        queue.metrics.add(pending);
+
+        GaugeMetric<Long> running = new GaugeMetric<Long>(QUERY_QUEUE_RUNNING, Metric.MetricUnit.REQUESTS,
+                "running queries admitted by the queue of resource group") {
+            @Override
+            public Long getValue() {
+                return (long) queue.runningQueries.size();
+            }
+        };
+        running.addLabel(new MetricLabel("name", name));
+        MetricRepo.addMetric(running);
+        queue.metrics.add(running);
+        LOG.info("create query queue for resource group {}", name);
+        return queue;
+    }
+
+    /**
+     * Remove the queue and the gauges of a dropped resource group. The queries which are running or pending
+     * in the queue keep a reference to it, so their slots are still given back or taken as usual.
+     */
+    public void removeQueue(String name) {
+        GroupQueue queue = queues.remove(name);
+        if (queue == null) {
+            return;
+        }
+        for (Metric<?> metric : queue.metrics) {
+            MetricRepo.removeMetric(metric);
+        }
+        LOG.info("remove query queue of resource group {}", name);
+    }
+
+    public List<List<String>> getQueueInfos() {
+        List<List<String>> rows = Lists.newArrayList();
+        for (GroupQueue queue : queues.values()) {
+            rows.add(queue.toRow());
+        }
+        rows.sort(Comparator.comparing(row -> row.get(0)));
+        return rows;
+    }
+}
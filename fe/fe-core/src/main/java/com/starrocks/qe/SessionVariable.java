@@ -156,6 +156,9 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     // memory limit etc. in BE.
     public static final String ENABLE_RESOURCE_GROUP = "enable_resource_group";
 
+    // The priority of query in the FE query queue of its resource group, larger value is admitted first.
+    public static final String QUERY_QUEUE_PRIORITY = "query_queue_priority";
+
     public static final String ENABLE_TABLET_INTERNAL_PARALLEL = "enable_tablet_internal_parallel";
     public static final String ENABLE_TABLET_INTERNAL_PARALLEL_V2 = "enable_tablet_internal_parallel_v2";
 
@@ -204,6 +207,12 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String ENABLE_GROUPBY_USE_OUTPUT_ALIAS = "enable_groupby_use_output_alias";
     public static final String ENABLE_QUERY_DUMP = "enable_query_dump";
 
+    // plan the primary key point lookup without the memo
+    public static final String ENABLE_SHORT_CIRCUIT = "enable_short_circuit";
+
+    // issue a backup execution on other replicas if the first batch is slow
+    public static final String ENABLE_HEDGED_FETCH = "enable_hedged_fetch";
+
     public static final String CBO_MAX_REORDER_NODE_USE_EXHAUSTIVE = "cbo_max_reorder_node_use_exhaustive";
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
@@ -262,6 +271,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String PARSE_TOKENS_LIMIT = "parse_tokens_limit";
 
+    public static final String FOLLOWER_READ_MAX_STALENESS_MS = "follower_read_max_staleness_ms";
+
     public static final List<String> DEPRECATED_VARIABLES = ImmutableList.<String>builder()
             .add(CODEGEN_LEVEL)
             .add(ENABLE_SPILLING)
@@ -310,6 +321,15 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_RESOURCE_GROUP)
     private boolean enableResourceGroup = false;
 
+    @VariableMgr.VarAttr(name = QUERY_QUEUE_PRIORITY)
+    private int queryQueuePriority = 0;
+
+    @VariableMgr.VarAttr(name = ENABLE_SHORT_CIRCUIT)
+    private boolean enableShortCircuit = false;
+
+    @VariableMgr.VarAttr(name = ENABLE_HEDGED_FETCH)
+    private boolean enableHedgedFetch = false;
+
     @VariableMgr.VarAttr(name = ENABLE_TABLET_INTERNAL_PARALLEL_V2,
             alias = ENABLE_TABLET_INTERNAL_PARALLEL, show = ENABLE_TABLET_INTERNAL_PARALLEL)
     private boolean enableTabletInternalParallel = true;
@@ -633,6 +653,12 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = PARSE_TOKENS_LIMIT)
     private int parseTokensLimit = 3500000;
 
+    // The max staleness of the metadata allowed by the queries and the read only statements served by
+    // a follower or observer, they are forwarded to the leader if the FE is staler than this.
+    // Negative value means the legacy behavior: queries are served by any FE that can read.
+    @VariableMgr.VarAttr(name = FOLLOWER_READ_MAX_STALENESS_MS)
+    private long followerReadMaxStalenessMs = -1;
+
     public void setCboCTEMaxLimit(int cboCTEMaxLimit) {
         this.cboCTEMaxLimit = cboCTEMaxLimit;
     }
@@ -689,6 +715,34 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return loadMemLimit;
     }
 
+    public long getQueryMemLimit() {
+        return queryMemLimit;
+    }
+
+    public boolean isEnableShortCircuit() {
+        return enableShortCircuit;
+    }
+
+    public void setEnableShortCircuit(boolean enableShortCircuit) {
+        this.enableShortCircuit = enableShortCircuit;
+    }
+
+    public boolean isEnableHedgedFetch() {
+        return enableHedgedFetch;
+    }
+
+    public void setEnableHedgedFetch(boolean enableHedgedFetch) {
+        this.enableHedgedFetch = enableHedgedFetch;
+    }
+
+    public int getQueryQueuePriority() {
+        return queryQueuePriority;
+    }
+
+    public void setQueryQueuePriority(int queryQueuePriority) {
+        this.queryQueuePriority = queryQueuePriority;
+    }
+
     public int getQueryTimeoutS() {
         return queryTimeoutS;
     }
@@ -1161,6 +1215,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.parseTokensLimit = parseTokensLimit;
     }
 
+    public long getFollowerReadMaxStalenessMs() {
+        return followerReadMaxStalenessMs;
+    }
+
+    public void setFollowerReadMaxStalenessMs(long followerReadMaxStalenessMs) {
+        this.followerReadMaxStalenessMs = followerReadMaxStalenessMs;
+    }
+
     public boolean getEnableReplicatedStorage() {
         return enableReplicatedStorage;
     }
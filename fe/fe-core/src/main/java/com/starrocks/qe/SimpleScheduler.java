@@ -28,6 +28,7 @@ import com.starrocks.common.Config;
 import com.starrocks.common.Reference;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
+import com.starrocks.system.BackendLoadStat;
 import com.starrocks.system.ComputeNode;
 import com.starrocks.system.SystemInfoService;
 import com.starrocks.thrift.TNetworkAddress;
@@ -38,6 +39,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -221,6 +223,41 @@ public class SimpleScheduler {
         return null;
     }
 
+    /**
+     * Choose a replica by power of two choices: pick two random replicas and take the one with the lower
+     * estimated finish time, i.e. the ranges already assigned to it in this query multiplied by its load score.
+     * The dead or blacklisted replica is replaced later by {@link #getHost}.
+     */
+    public static TScanRangeLocation selectReplicaByLoad(List<TScanRangeLocation> locations,
+                                                         Map<TNetworkAddress, Long> assignedPerHost) {
+        if (locations.size() == 1) {
+            return locations.get(0);
+        }
+        int first;
+        int second;
+        if (locations.size() == 2) {
+            first = 0;
+            second = 1;
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            first = random.nextInt(locations.size());
+            second = random.nextInt(locations.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+        }
+        TScanRangeLocation firstLocation = locations.get(first);
+        TScanRangeLocation secondLocation = locations.get(second);
+        return estimateFinishTime(firstLocation, assignedPerHost) <= estimateFinishTime(secondLocation,
+                assignedPerHost) ? firstLocation : secondLocation;
+    }
+
+    private static double estimateFinishTime(TScanRangeLocation location, Map<TNetworkAddress, Long> assignedPerHost) {
+        long assigned = assignedPerHost.getOrDefault(location.server, 0L);
+        // the backends without latency samples are treated as 1ms
+        return (assigned + 1) * Math.max(1.0, BackendLoadStat.getScore(location.backend_id));
+    }
+
     public static void addToBlacklist(Long backendID) {
         if (backendID == null) {
             return;
@@ -217,6 +217,13 @@ public class StmtExecutor {
         summaryProfile.addInfoString(ProfileManager.QUERY_CPU_COST, DebugUtil.getPrettyStringNs(cpuCostNs));
         summaryProfile.addInfoString(ProfileManager.QUERY_MEM_COST, DebugUtil.getPrettyStringBytes(memCostBytes));
 
+        FeExecuteCost feExecuteCost = context.getFeExecuteCost();
+        summaryProfile.addInfoString(ProfileManager.FE_CPU_COST,
+                DebugUtil.getPrettyStringNs(feExecuteCost.getTotalCpuCostNs()));
+        summaryProfile.addInfoString(ProfileManager.FE_ALLOCATED_BYTES,
+                DebugUtil.getPrettyStringBytes(feExecuteCost.getTotalAllocatedBytes()));
+        summaryProfile.addInfoString(ProfileManager.FE_COST_DETAIL, feExecuteCost.toPrettyString());
+
         // Add some import variables in profile
         SessionVariable variables = context.getSessionVariable();
         if (variables != null) {
@@ -239,6 +246,8 @@ public class StmtExecutor {
         context.getPlannerProfile().build(plannerProfile);
 
         if (coord != null) {
+            summaryProfile.addInfoString(ProfileManager.QUERY_QUEUE_WAIT_TIME,
+                    DebugUtil.getPrettyStringMs(coord.getQueueWaitMs()));
             coord.getQueryProfile().getCounterTotalTime().setValue(TimeUtils.getEstimatedTime(beginTimeInNanoSecond));
             coord.endProfile();
             coord.mergeIsomorphicProfiles();
@@ -252,6 +261,13 @@ public class StmtExecutor {
             return false;
         }
 
+        // the client bounds the staleness of the metadata, serve the read here unless this FE is too stale
+        long maxStalenessMs = context.getSessionVariable().getFollowerReadMaxStalenessMs();
+        if (maxStalenessMs >= 0 && (parsedStmt instanceof QueryStatement
+                || (redirectStatus != null && redirectStatus.isFollowerReadable()))) {
+            return GlobalStateMgr.getCurrentState().getMetaStalenessMs() > maxStalenessMs;
+        }
+
         // this is a query stmt, but this non-master FE can not read, forward it to master
         if (parsedStmt instanceof QueryStatement && !GlobalStateMgr.getCurrentState().isLeader()
                 && !GlobalStateMgr.getCurrentState().canRead()) {
@@ -550,8 +566,10 @@ public class StmtExecutor {
         if (parsedStmt == null) {
             List<StatementBase> stmts;
             try {
-                stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt.originStmt,
-                        context.getSessionVariable());
+                try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.PARSE)) {
+                    stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt.originStmt,
+                            context.getSessionVariable());
+                }
                 parsedStmt = stmts.get(originStmt.idx);
                 parsedStmt.setOrigStmt(originStmt);
             } catch (ParsingException parsingException) {
@@ -706,7 +724,9 @@ public class StmtExecutor {
         QeProcessorImpl.INSTANCE.registerQuery(context.getExecutionId(),
                 new QeProcessorImpl.QueryInfo(context, originStmt.originStmt, coord));
 
-        coord.exec();
+        try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.DEPLOY)) {
+            coord.exec();
+        }
 
         // send result
         // 1. If this is a query with OUTFILE clause, eg: select * from tbl1 into outfile xxx,
@@ -723,36 +743,53 @@ public class StmtExecutor {
             isOutfileQuery = ((QueryStatement) queryStmt).hasOutFileClause();
         }
         boolean isSendFields = false;
-        while (true) {
-            batch = coord.getNext();
-            // for outfile query, there will be only one empty batch send back with eos flag
-            if (batch.getBatch() != null && !isOutfileQuery) {
-                // For some language driver, getting error packet after fields packet will be recognized as a success result
-                // so We need to send fields after first batch arrived
-                if (!isSendFields) {
-                    sendFields(colNames, outputExprs);
-                    isSendFields = true;
+        FeExecuteCost.ScopedSampler fetchSampler = FeExecuteCost.sample(FeExecuteCost.Phase.FETCH);
+        try {
+            RowBatch firstBatch = null;
+            if (HedgedFetcher.isEnabled(context, coord)) {
+                HedgedFetcher.Result result = HedgedFetcher.fetchFirstBatch(context, coord,
+                        coord::createHedgedBackup, originStmt.originStmt);
+                coord = result.getCoordinator();
+                firstBatch = result.getBatch();
+            }
+            while (true) {
+                if (firstBatch != null) {
+                    batch = firstBatch;
+                    firstBatch = null;
+                } else {
+                    batch = coord.getNext();
                 }
-                if (channel.isSendBufferNull()) {
-                    int bufferSize = 0;
+                // for outfile query, there will be only one empty batch send back with eos flag
+                if (batch.getBatch() != null && !isOutfileQuery) {
+                    // For some language driver, getting error packet after fields packet will be recognized as a success result
+                    // so We need to send fields after first batch arrived
+                    if (!isSendFields) {
+                        sendFields(colNames, outputExprs);
+                        isSendFields = true;
+                    }
+                    if (channel.isSendBufferNull()) {
+                        int bufferSize = 0;
+                        for (ByteBuffer row : batch.getBatch().getRows()) {
+                            bufferSize += (row.position() - row.limit());
+                        }
+                        // +8 for header size
+                        channel.initBuffer(bufferSize + 8);
+                    }
+
                     for (ByteBuffer row : batch.getBatch().getRows()) {
-                        bufferSize += (row.position() - row.limit());
+                        channel.sendOnePacket(row);
                     }
-                    // +8 for header size
-                    channel.initBuffer(bufferSize + 8);
+                    context.updateReturnRows(batch.getBatch().getRows().size());
                 }
-
-                for (ByteBuffer row : batch.getBatch().getRows()) {
-                    channel.sendOnePacket(row);
+                if (batch.isEos()) {
+                    break;
                 }
-                context.updateReturnRows(batch.getBatch().getRows().size());
             }
-            if (batch.isEos()) {
-                break;
+            if (!isSendFields && !isOutfileQuery) {
+                sendFields(colNames, outputExprs);
             }
-        }
-        if (!isSendFields && !isOutfileQuery) {
-            sendFields(colNames, outputExprs);
+        } finally {
+            fetchSampler.close();
         }
 
         statisticsForAuditLog = batch.getQueryStatistics();
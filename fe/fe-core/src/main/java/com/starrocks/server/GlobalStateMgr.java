@@ -165,6 +165,7 @@ import com.starrocks.persist.GlobalVarPersistInfo;
 import com.starrocks.persist.ModifyTableColumnOperationLog;
 import com.starrocks.persist.ModifyTablePropertyOperationLog;
 import com.starrocks.persist.MultiEraseTableInfo;
+import com.starrocks.persist.ParallelJournalReplayer;
 import com.starrocks.persist.PartitionPersistInfo;
 import com.starrocks.persist.PartitionPersistInfoV2;
 import com.starrocks.persist.RecoverInfo;
@@ -252,6 +253,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -301,6 +304,7 @@ public class GlobalStateMgr {
     private UpdateDbUsedDataQuotaDaemon updateDbUsedDataQuotaDaemon;
 
     private LeaderDaemon labelCleaner; // To clean old LabelInfo, ExportJobInfos
+    private LeaderDaemon loadJobArchiver; // To archive finished load jobs
     private LeaderDaemon txnTimeoutChecker; // To abort timeout txns
     private LeaderDaemon taskCleaner;   // To clean expire Task/TaskRun
     private JournalWriter journalWriter; // leader only: write journal log
@@ -333,9 +337,14 @@ public class GlobalStateMgr {
     private Journal journal;
     // For checkpoint and observer memory replayed marker
     private AtomicLong replayedJournalId;
+    // the max journal id of the leader told by its last heartbeat, and the time receiving it,
+    // used by the non-leader FE to bound the staleness of its metadata
+    private volatile long leaderJournalId = -1;
+    private volatile long leaderJournalIdTimeMs = 0;
 
     private static GlobalStateMgr CHECKPOINT = null;
     private static long checkpointThreadId = -1;
+    private static final Set<Long> CHECKPOINT_WORKER_THREAD_IDS = ConcurrentHashMap.newKeySet();
     private Checkpoint checkpointer;
 
     private HAProtocol haProtocol = null;
@@ -714,7 +723,18 @@ public class GlobalStateMgr {
     }
 
     public static boolean isCheckpointThread() {
-        return Thread.currentThread().getId() == checkpointThreadId;
+        long threadId = Thread.currentThread().getId();
+        return threadId == checkpointThreadId
+                || (!CHECKPOINT_WORKER_THREAD_IDS.isEmpty() && CHECKPOINT_WORKER_THREAD_IDS.contains(threadId));
+    }
+
+    // Let current thread work for the checkpoint thread, e.g. load and save image sections in parallel.
+    public static void registerCheckpointWorker() {
+        CHECKPOINT_WORKER_THREAD_IDS.add(Thread.currentThread().getId());
+    }
+
+    public static void unregisterCheckpointWorker() {
+        CHECKPOINT_WORKER_THREAD_IDS.remove(Thread.currentThread().getId());
     }
 
     public static PluginMgr getCurrentPluginMgr() {
@@ -855,6 +875,7 @@ public class GlobalStateMgr {
 
         // 4. create load and export job label cleaner thread
         createLabelCleaner();
+        createLoadJobArchiver();
 
         // 5. create txn timeout checker thread
         createTxnTimeoutChecker();
@@ -1057,6 +1078,7 @@ public class GlobalStateMgr {
         statisticAutoCollector.start();
         taskManager.start();
         taskCleaner.start();
+        loadJobArchiver.start();
 
         if (Config.use_staros) {
             shardManager.getShardDeleter().start();
@@ -1135,6 +1157,13 @@ public class GlobalStateMgr {
         LOG.info("start load image from {}. is ckpt: {}", curFile.getAbsolutePath(),
                 GlobalStateMgr.isCheckpointThread());
         long loadImageStartTime = System.currentTimeMillis();
+        if (SectionedImage.isSectionedImage(curFile)) {
+            createSectionedImage(replayedJournalId.get()).load(curFile);
+            this.imageJournalId = storage.getImageJournalId();
+            LOG.info("finished to load sectioned image in {} ms",
+                    System.currentTimeMillis() - loadImageStartTime);
+            return;
+        }
         DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(curFile)));
 
         long checksum = 0;
@@ -1186,6 +1215,11 @@ public class GlobalStateMgr {
             remoteChecksum = dis.readLong();
             checksum = loadCompactionManager(dis, checksum);
             remoteChecksum = dis.readLong();
+            // the image saved by an older FE ends here
+            if (dis.available() > 0) {
+                checksum = loadManager.loadLoadJobArchive(dis, checksum);
+                remoteChecksum = dis.readLong();
+            }
         } catch (EOFException exception) {
             LOG.warn("load image eof.", exception);
         } finally {
@@ -1380,8 +1414,15 @@ public class GlobalStateMgr {
         // save image does not need any lock. because only checkpoint thread will call this method.
         LOG.info("start save image to {}. is ckpt: {}", curFile.getAbsolutePath(), GlobalStateMgr.isCheckpointThread());
 
-        long checksum = 0;
         long saveImageStartTime = System.currentTimeMillis();
+        if (Config.enable_sectioned_image) {
+            createSectionedImage(replayedJournalId).setCompressed(Config.enable_image_compression).save(curFile);
+            LOG.info("finished save sectioned image {} in {} ms", curFile.getAbsolutePath(),
+                    System.currentTimeMillis() - saveImageStartTime);
+            return;
+        }
+
+        long checksum = 0;
         try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(curFile))) {
             checksum = saveHeader(dos, replayedJournalId, checksum);
             checksum = nodeMgr.saveLeaderInfo(dos, checksum);
@@ -1422,6 +1463,9 @@ public class GlobalStateMgr {
             dos.writeLong(checksum);
             checksum = compactionManager.saveCompactionManager(dos, checksum);
             dos.writeLong(checksum);
+            // optional, an older FE stops reading before it
+            checksum = loadManager.saveLoadJobArchive(dos, checksum);
+            dos.writeLong(checksum);
         }
 
         long saveImageEndTime = System.currentTimeMillis();
@@ -1429,6 +1473,102 @@ public class GlobalStateMgr {
                 curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime), checksum);
     }
 
+    /**
+     * The sections of image, the legacy checksum is replaced by the crc32 of each section.
+     * Phase 0: header, which sets the meta version.
+     * Phase 1: databases in parts, and the sections not depending on databases.
+     * Phase 2: the sections depending on databases, transactions are loaded along with them.
+     * Phase 3: load jobs, which depend on transactions.
+     */
+    private SectionedImage createSectionedImage(long replayedJournalId) {
+        SectionedImage image = new SectionedImage(Config.image_section_parallelism);
+        image.add("Header", 0, "main", dos -> saveHeader(dos, replayedJournalId, 0), dis -> loadHeader(dis, 0));
+
+        // databases are the largest section, split them into parts
+        List<Database> dbs = localMetastore.getDbsForImage();
+        int parts = Math.max(1, Math.min(image.getParallelism(), dbs.size()));
+        List<SectionedImage.Writer> dbWriters = Lists.newArrayList();
+        for (int i = 0; i < parts; i++) {
+            List<Database> part = Lists.newArrayList();
+            for (int j = i; j < dbs.size(); j += parts) {
+                part.add(dbs.get(j));
+            }
+            dbWriters.add(dos -> LocalMetastore.saveDbs(dos, part));
+        }
+        List<Database> loadedDbs = Collections.synchronizedList(Lists.newArrayList());
+        image.addGroup("Databases", 1, dbWriters, dis -> loadedDbs.addAll(LocalMetastore.loadDbs(dis)));
+        image.add("LeaderInfo", 1, "nodes", dos -> nodeMgr.saveLeaderInfo(dos, 0),
+                dis -> nodeMgr.loadLeaderInfo(dis, 0));
+        image.add("Frontends", 1, "nodes", dos -> nodeMgr.saveFrontends(dos, 0),
+                dis -> nodeMgr.loadFrontends(dis, 0));
+        image.add("Backends", 1, "nodes", dos -> nodeMgr.saveBackends(dos, 0),
+                dis -> nodeMgr.loadBackends(dis, 0));
+        image.add("Brokers", 1, "nodes", dos -> nodeMgr.saveBrokers(dos, 0),
+                dis -> nodeMgr.loadBrokers(dis, 0));
+        image.add("ComputeNodes", 1, "nodes", dos -> nodeMgr.saveComputeNodes(dos, 0),
+                dis -> nodeMgr.loadComputeNodes(dis, 0));
+        image.add("GlobalVariables", 1, "main", dos -> VariableMgr.saveGlobalVariable(dos, 0),
+                dis -> VariableMgr.loadGlobalVariable(dis, 0));
+        image.add("Resources", 1, "main", dos -> resourceMgr.saveResources(dos, 0),
+                dis -> loadResources(dis, 0));
+        image.add("Auth", 1, "main", dos -> auth.saveAuth(dos, 0), dis -> auth.loadAuth(dis, 0));
+        image.add("ResourceGroups", 1, "main", dos -> resourceGroupMgr.saveResourceGroups(dos, 0),
+                dis -> resourceGroupMgr.loadResourceGroups(dis, 0));
+        image.add("AuthGson", 1, "main", dos -> auth.writeAsGson(dos, 0), dis -> auth.readAsGson(dis, 0));
+        image.add("Analyze", 1, "main", dos -> analyzeManager.saveAnalyze(dos, 0),
+                dis -> analyzeManager.loadAnalyze(dis, 0));
+        image.add("Tasks", 1, "main", dos -> taskManager.saveTasks(dos, 0), dis -> taskManager.loadTasks(dis, 0));
+        image.add("Catalogs", 1, "main", dos -> catalogMgr.saveCatalogs(dos, 0),
+                dis -> catalogMgr.loadCatalogs(dis, 0));
+        image.add("ShardManager", 1, "star", dos -> shardManager.saveShardManager(dos, 0),
+                dis -> loadShardManager(dis, 0));
+        image.add("CompactionManager", 1, "star", dos -> compactionManager.saveCompactionManager(dos, 0),
+                dis -> loadCompactionManager(dis, 0));
+        image.afterPhase(1, () -> {
+            loadedDbs.sort(Comparator.comparingLong(Database::getId));
+            for (Database db : loadedDbs) {
+                localMetastore.addDbFromImage(db);
+            }
+            LOG.info("finished replay {} databases from image", loadedDbs.size());
+            // ATTN: this should be done after load Db, and before loadAlterJob
+            localMetastore.recreateTabletInvertIndex();
+            // rebuild es state state
+            esRepository.loadTableFromCatalog();
+            starRocksRepository.loadTableFromCatalog();
+        });
+
+        image.add("Transactions", 2, "txn", dos -> globalTransactionMgr.saveTransactionState(dos, 0),
+                dis -> globalTransactionMgr.loadTransactionState(dis, 0));
+        image.add("LoadJobs", 2, "main", dos -> load.saveLoadJob(dos, 0), dis -> load.loadLoadJob(dis, 0));
+        image.add("AlterJobs", 2, "main", dos -> saveAlterJob(dos, 0), dis -> loadAlterJob(dis, 0));
+        image.add("RecycleBin", 2, "main", dos -> recycleBin.saveRecycleBin(dos, 0),
+                dis -> recycleBin.loadRecycleBin(dis, 0));
+        image.add("Cluster", 2, "main", dos -> localMetastore.saveCluster(dos, 0),
+                dis -> localMetastore.loadCluster(dis, 0));
+        image.add("ExportJobs", 2, "main", dos -> exportMgr.saveExportJob(dos, 0),
+                dis -> exportMgr.loadExportJob(dis, 0));
+        image.add("BackupHandler", 2, "main", dos -> backupHandler.saveBackupHandler(dos, 0),
+                dis -> backupHandler.loadBackupHandler(dis, 0, this));
+        image.add("ColocateTableIndex", 2, "main", dos -> colocateTableIndex.saveColocateTableIndex(dos, 0),
+                dis -> colocateTableIndex.loadColocateTableIndex(dis, 0));
+        image.add("SmallFiles", 2, "main", dos -> smallFileMgr.saveSmallFiles(dos, 0),
+                dis -> smallFileMgr.loadSmallFiles(dis, 0));
+        image.add("Plugins", 2, "main", dos -> pluginMgr.savePlugins(dos, 0), dis -> pluginMgr.loadPlugins(dis, 0));
+        image.add("DeleteHandler", 2, "main", dos -> deleteHandler.saveDeleteHandler(dos, 0),
+                dis -> loadDeleteHandler(dis, 0));
+        image.add("InsertOverwriteJobs", 2, "main", dos -> saveInsertOverwriteJobs(dos, 0),
+                dis -> loadInsertOverwriteJobs(dis, 0));
+
+        // global transaction must be replayed before load jobs
+        image.add("RoutineLoadJobs", 3, "routine", dos -> routineLoadManager.saveRoutineLoadJobs(dos, 0),
+                dis -> routineLoadManager.loadRoutineLoadJobs(dis, 0));
+        image.add("LoadJobsV2", 3, "main", dos -> loadManager.saveLoadJobsV2(dos, 0),
+                dis -> loadManager.loadLoadJobsV2(dis, 0));
+        image.add("LoadJobArchive", 3, "main", dos -> loadManager.saveLoadJobArchive(dos, 0),
+                dis -> loadManager.loadLoadJobArchive(dis, 0));
+        return image;
+    }
+
     public long saveHeader(DataOutputStream dos, long replayedJournalId, long checksum) throws IOException {
         // Write meta version
         // community meta version is a positive integer, so we write -1 to distinguish old image structure
@@ -1504,6 +1644,16 @@ public class GlobalStateMgr {
         };
     }
 
+    // the archived jobs are written to the journal, and followers replay it
+    public void createLoadJobArchiver() {
+        loadJobArchiver = new LeaderDaemon("LoadJobArchiver", Config.load_job_archive_interval_second * 1000L) {
+            @Override
+            protected void runAfterCatalogReady() {
+                loadManager.archiveFinishedLoadJobs();
+            }
+        };
+    }
+
     public void createTaskCleaner() {
         taskCleaner = new LeaderDaemon("TaskCleaner", Config.task_check_interval_second * 1000L) {
             @Override
@@ -1673,6 +1823,8 @@ public class GlobalStateMgr {
         long startReplayId = replayedJournalId.get();
         long startTime = System.currentTimeMillis();
         long lineCnt = 0;
+        ParallelJournalReplayer parallelReplayer =
+                Config.enable_parallel_journal_replay ? new ParallelJournalReplayer() : null;
         while (true) {
             JournalEntity entity = null;
             try {
@@ -1683,9 +1835,28 @@ public class GlobalStateMgr {
                     break;
                 }
 
+                if (parallelReplayer != null) {
+                    if (parallelReplayer.add(entity)) {
+                        if (!parallelReplayer.isFull()) {
+                            continue;
+                        }
+                        lineCnt += replayInParallel(parallelReplayer);
+                        entity = null;
+                    } else {
+                        // barrier, the journals before it must be replayed first
+                        lineCnt += replayInParallel(parallelReplayer);
+                    }
+                }
+
                 // apply
-                EditLog.loadJournal(this, entity);
+                if (entity != null) {
+                    EditLog.loadJournal(this, entity);
+                }
             } catch (Throwable e) {
+                if (parallelReplayer != null && !parallelReplayer.isEmpty()) {
+                    // the journals read before must be replayed before skipping the bad one
+                    replayInParallel(parallelReplayer);
+                }
                 if (canSkipBadReplayedJournal()) {
                     LOG.error("!!! DANGER: SKIP JOURNAL {}: {} !!!",
                             replayedJournalId.incrementAndGet(),
@@ -1699,15 +1870,10 @@ public class GlobalStateMgr {
                 throw e;
             }
 
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-
-            if (feType != FrontendNodeType.LEADER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
-            }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+            if (entity != null) {
+                onJournalReplayed(1);
+                LOG.debug("journal {} replayed.", replayedJournalId);
+                lineCnt += 1;
             }
 
             if (flowControl) {
@@ -1718,7 +1884,6 @@ public class GlobalStateMgr {
                     break;
                 }
                 // consume too much lines
-                lineCnt += 1;
                 if (lineCnt > REPLAYER_MAX_LOGS_PER_LOOP) {
                     LOG.warn("replay too many journals: lineCnt {}, replayedJournalId: {}", lineCnt, replayedJournalId);
                     break;
@@ -1726,6 +1891,9 @@ public class GlobalStateMgr {
             }
 
         }
+        if (parallelReplayer != null && !parallelReplayer.isEmpty()) {
+            replayInParallel(parallelReplayer);
+        }
         if (replayedJournalId.get() - startReplayId > 0) {
             LOG.info("replayed journal from {} - {}", startReplayId, replayedJournalId);
             return true;
@@ -1733,6 +1901,44 @@ public class GlobalStateMgr {
         return false;
     }
 
+    /**
+     * Replay the journals collected by the parallel replayer, which are the next ones of replayedJournalId.
+     * Return the number of replayed journals.
+     */
+    private int replayInParallel(ParallelJournalReplayer parallelReplayer)
+            throws InterruptedException, JournalInconsistentException {
+        if (parallelReplayer.isEmpty()) {
+            return 0;
+        }
+        Throwable[] errors = parallelReplayer.replay(this);
+        for (Throwable error : errors) {
+            if (error == null) {
+                onJournalReplayed(1);
+                continue;
+            }
+            if (canSkipBadReplayedJournal()) {
+                LOG.error("!!! DANGER: SKIP JOURNAL {} !!!", replayedJournalId.incrementAndGet(), error);
+                continue;
+            }
+            // the journals of other databases after the bad one may have been replayed, can't retry from it
+            LOG.warn("catch exception when replaying {} in parallel,", replayedJournalId.get() + 1, error);
+            throw new JournalInconsistentException(String.format("failed to replay journal %d in parallel: %s",
+                    replayedJournalId.get() + 1, error.getMessage()));
+        }
+        return errors.length;
+    }
+
+    private void onJournalReplayed(int count) {
+        replayedJournalId.addAndGet(count);
+        if (feType != FrontendNodeType.LEADER) {
+            journalObservable.notifyObservers(replayedJournalId.get());
+        }
+        if (MetricRepo.isInit) {
+            // Metric repo may not init after this replay thread start
+            MetricRepo.COUNTER_EDIT_LOG_READ.increase((long) count);
+        }
+    }
+
     private boolean canSkipBadReplayedJournal() {
         try {
             for (String idStr : Config.metadata_journal_skip_bad_journal_ids.split(",")) {
@@ -2631,6 +2837,33 @@ public class GlobalStateMgr {
         return feType == FrontendNodeType.LEADER;
     }
 
+    public long getSynchronizedTimeMs() {
+        return synchronizedTimeMs;
+    }
+
+    public void setLeaderJournalId(long journalId) {
+        // write the id before the time, so the readers never pair a new time with an old id
+        this.leaderJournalId = journalId;
+        this.leaderJournalIdTimeMs = System.currentTimeMillis();
+    }
+
+    /**
+     * The upper bound of how stale the metadata of this FE is, compared with the leader.
+     * Once this FE replays up to the journal id the leader told by heartbeat, its metadata is at least as new as
+     * the leader when the heartbeat was received. Return Long.MAX_VALUE if it can't be bounded.
+     */
+    public long getMetaStalenessMs() {
+        if (isLeader()) {
+            return 0;
+        }
+        long timeMs = leaderJournalIdTimeMs;
+        long journalId = leaderJournalId;
+        if (journalId < 0 || replayedJournalId.get() < journalId) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, System.currentTimeMillis() - timeMs);
+    }
+
     public void setSynchronizedTime(long time) {
         this.synchronizedTimeMs = time;
     }
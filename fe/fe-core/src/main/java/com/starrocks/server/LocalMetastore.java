@@ -314,15 +314,54 @@ public class LocalMetastore implements ConnectorMetadata {
             Database db = new Database();
             db.readFields(dis);
             newChecksum ^= db.getId();
-            idToDb.put(db.getId(), db);
-            fullNameToDb.put(db.getFullName(), db);
-            stateMgr.getGlobalTransactionMgr().addDatabaseTransactionMgr(db.getId());
-            db.getMaterializedViews().forEach(Table::onCreate);
+            addDbFromImage(db);
         }
         LOG.info("finished replay databases from image");
         return newChecksum;
     }
 
+    public void addDbFromImage(Database db) {
+        idToDb.put(db.getId(), db);
+        fullNameToDb.put(db.getFullName(), db);
+        stateMgr.getGlobalTransactionMgr().addDatabaseTransactionMgr(db.getId());
+        db.getMaterializedViews().forEach(Table::onCreate);
+    }
+
+    // the databases to save in image, information_schema is not saved
+    public List<Database> getDbsForImage() {
+        List<Database> dbs = Lists.newArrayList();
+        for (Database db : idToDb.values()) {
+            if (!InfoSchemaDb.isInfoSchemaDb(db.getFullName())) {
+                dbs.add(db);
+            }
+        }
+        return dbs;
+    }
+
+    // Used by sectioned image, the databases are saved in several parts.
+    public static void saveDbs(DataOutputStream dos, List<Database> dbs) throws IOException {
+        dos.writeInt(dbs.size());
+        for (Database db : dbs) {
+            db.readLock();
+            try {
+                db.write(dos);
+            } finally {
+                db.readUnlock();
+            }
+        }
+    }
+
+    public static List<Database> loadDbs(DataInputStream dis) throws IOException {
+        int dbCount = dis.readInt();
+        List<Database> dbs = Lists.newArrayListWithCapacity(dbCount);
+        for (int i = 0; i < dbCount; ++i) {
+            Database db = new Database();
+            db.readFields(dis);
+            dbs.add(db);
+        }
+        return dbs;
+    }
+
     public long saveDb(DataOutputStream dos, long checksum) throws IOException {
         int dbCount = idToDb.size() - 1;
         checksum ^= dbCount;
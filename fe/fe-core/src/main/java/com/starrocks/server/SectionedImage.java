@@ -0,0 +1,437 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.server;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.starrocks.common.io.Text;
+import com.starrocks.meta.MetaContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * SectionedImage is the image format made of independent sections, so that they could be saved and loaded
+ * in parallel. The layout is:
+ * <pre>
+ * | section 0 | section 1 | ... | index | index offset (long) | MAGIC (long) |
+ * </pre>
+ * The index records the name, offset, length, crc32 and compression of every section. A compressed section is
+ * deflated as a stream, so the memory to save and load it is bounded by the buffers. The legacy image is one
+ * stream chained by a running checksum, and never ends with the MAGIC.
+ * <p>
+ * Every section belongs to a phase and a lane. Phases are loaded one after another, the lanes of a phase are
+ * loaded in parallel, and the sections of a lane are loaded in the order they are added. So the dependencies
+ * between sections are expressed by phases and lanes. A group is a section split into several parts, each
+ * part is an independent lane, e.g. the databases are split into parts by database.
+ * Saving only reads the metadata, so all sections are saved in parallel.
+ */
+public class SectionedImage {
+    private static final Logger LOG = LogManager.getLogger(SectionedImage.class);
+
+    // "SRIMAGE2"
+    public static final long MAGIC = 0x5352494D41474532L;
+    // version 2 adds the compression of sections
+    private static final int FORMAT_VERSION = 2;
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_DEFLATE = 1;
+    private static final int FOOTER_SIZE = 16;
+    // must not start with "image", which is treated as an image file by Storage
+    private static final String TMP_FILE_PREFIX = "section.ckpt.";
+    private static final String GROUP_SEPARATOR = "#";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public interface Writer {
+        void write(DataOutputStream dos) throws IOException;
+    }
+
+    public interface Reader {
+        void read(DataInputStream dis) throws IOException;
+    }
+
+    public interface PhaseAction {
+        void run() throws IOException;
+    }
+
+    private static class Section {
+        private final String name;
+        private final int phase;
+        private final String lane;
+        private final Writer writer;
+        private final Reader reader;
+
+        private Section(String name, int phase, String lane, Writer writer, Reader reader) {
+            this.name = name;
+            this.phase = phase;
+            this.lane = lane;
+            this.writer = writer;
+            this.reader = reader;
+        }
+    }
+
+    private static class IndexEntry {
+        private final String name;
+        private final long offset;
+        private final long length;
+        private final long crc;
+        private final byte compression;
+
+        private IndexEntry(String name, long offset, long length, long crc, byte compression) {
+            this.name = name;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+            this.compression = compression;
+        }
+    }
+
+    private final int parallelism;
+    private boolean compressed = false;
+    // the sections to save, in order
+    private final List<Section> sections = Lists.newArrayList();
+    // section name or group name -> the section to load it
+    private final Map<String, Section> readers = Maps.newHashMap();
+    private final Map<Integer, PhaseAction> afterPhaseActions = Maps.newHashMap();
+    // section name -> milliseconds spent to save or load it
+    private final Map<String, Long> sectionCostMs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public SectionedImage(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public SectionedImage add(String name, int phase, String lane, Writer writer, Reader reader) {
+        Section section = new Section(name, phase, lane, writer, reader);
+        sections.add(section);
+        readers.put(name, section);
+        return this;
+    }
+
+    /**
+     * Add a section split into parts, each part is saved by its own writer and loaded by the same reader
+     * in its own lane.
+     */
+    public SectionedImage addGroup(String name, int phase, List<Writer> partWriters, Reader reader) {
+        for (int i = 0; i < partWriters.size(); i++) {
+            String partName = name + GROUP_SEPARATOR + i;
+            sections.add(new Section(partName, phase, partName, partWriters.get(i), reader));
+        }
+        readers.put(name, new Section(name, phase, null, null, reader));
+        return this;
+    }
+
+    /**
+     * Run the action in the loading thread after all the sections of the phase are loaded.
+     */
+    public SectionedImage afterPhase(int phase, PhaseAction action) {
+        afterPhaseActions.put(phase, action);
+        return this;
+    }
+
+    /**
+     * Deflate the sections when saving, the compression is recorded in the index, so it's not needed for loading.
+     */
+    public SectionedImage setCompressed(boolean compressed) {
+        this.compressed = compressed;
+        return this;
+    }
+
+    public Map<String, Long> getSectionCostMs() {
+        return sectionCostMs;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public static boolean isSectionedImage(File file) throws IOException {
+        if (file.length() < FOOTER_SIZE) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(file.length() - Long.BYTES);
+            return raf.readLong() == MAGIC;
+        }
+    }
+
+    public void save(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        List<File> tmpFiles = Lists.newArrayList();
+        for (int i = 0; i < sections.size(); i++) {
+            tmpFiles.add(new File(dir, TMP_FILE_PREFIX + i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Callable<Long>> tasks = Lists.newArrayList();
+            for (int i = 0; i < sections.size(); i++) {
+                Section section = sections.get(i);
+                File tmpFile = tmpFiles.get(i);
+                tasks.add(() -> saveSection(section, tmpFile));
+            }
+            List<Long> crcs = invokeAll(pool, tasks);
+
+            List<IndexEntry> index = Lists.newArrayList();
+            try (FileOutputStream fos = new FileOutputStream(file);
+                    FileChannel out = fos.getChannel()) {
+                long offset = 0;
+                for (int i = 0; i < sections.size(); i++) {
+                    long length = tmpFiles.get(i).length();
+                    try (FileInputStream fis = new FileInputStream(tmpFiles.get(i));
+                            FileChannel in = fis.getChannel()) {
+                        long transferred = 0;
+                        while (transferred < length) {
+                            transferred += in.transferTo(transferred, length - transferred, out);
+                        }
+                    }
+                    index.add(new IndexEntry(sections.get(i).name, offset, length, crcs.get(i),
+                            compressed ? COMPRESSION_DEFLATE : COMPRESSION_NONE));
+                    offset += length;
+                }
+
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+                dos.writeInt(FORMAT_VERSION);
+                dos.writeInt(index.size());
+                for (IndexEntry entry : index) {
+                    Text.writeString(dos, entry.name);
+                    dos.writeLong(entry.offset);
+                    dos.writeLong(entry.length);
+                    dos.writeLong(entry.crc);
+                    dos.writeByte(entry.compression);
+                }
+                dos.writeLong(offset);
+                dos.writeLong(MAGIC);
+                dos.flush();
+            }
+        } finally {
+            pool.shutdown();
+            for (File tmpFile : tmpFiles) {
+                if (tmpFile.exists() && !tmpFile.delete()) {
+                    LOG.warn("failed to delete tmp image section file {}", tmpFile.getAbsolutePath());
+                }
+            }
+        }
+        LOG.info("saved {} image sections, cost ms: {}", sections.size(), sectionCostMs);
+    }
+
+    private long saveSection(Section section, File tmpFile) throws IOException {
+        long startMs = System.currentTimeMillis();
+        // the crc covers the bytes stored
+        CRC32 crc = new CRC32();
+        OutputStream out = new CheckedOutputStream(new FileOutputStream(tmpFile), crc);
+        Deflater deflater = null;
+        if (compressed) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            out = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+        }
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE))) {
+            section.writer.write(dos);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        sectionCostMs.put(section.name, System.currentTimeMillis() - startMs);
+        return crc.getValue();
+    }
+
+    public void load(File file) throws IOException {
+        List<IndexEntry> index = readIndex(file);
+
+        // phase -> lane -> sections of the lane
+        TreeMap<Integer, Map<String, List<IndexEntry>>> phases = new TreeMap<>();
+        Map<String, Section> entryToSection = Maps.newHashMap();
+        for (IndexEntry entry : index) {
+            Section section = readers.get(entry.name);
+            String lane;
+            if (section != null) {
+                lane = section.lane;
+            } else {
+                int pos = entry.name.lastIndexOf(GROUP_SEPARATOR);
+                section = pos < 0 ? null : readers.get(entry.name.substring(0, pos));
+                if (section == null) {
+                    throw new IOException("unknown image section " + entry.name);
+                }
+                lane = entry.name;
+            }
+            entryToSection.put(entry.name, section);
+            phases.computeIfAbsent(section.phase, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(lane, k -> Lists.newArrayList()).add(entry);
+        }
+        // there may be no section in the phase, but the action must run
+        for (Integer phase : afterPhaseActions.keySet()) {
+            phases.computeIfAbsent(phase, k -> new LinkedHashMap<>());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Map.Entry<Integer, Map<String, List<IndexEntry>>> phase : phases.entrySet()) {
+                List<Callable<Long>> tasks = Lists.newArrayList();
+                for (List<IndexEntry> lane : phase.getValue().values()) {
+                    tasks.add(() -> {
+                        for (IndexEntry entry : lane) {
+                            loadSection(file, entry, entryToSection.get(entry.name));
+                        }
+                        return 0L;
+                    });
+                }
+                if (tasks.size() == 1) {
+                    // run in the current thread, e.g. the header sets the meta version of current thread
+                    callUnchecked(tasks.get(0));
+                } else if (!tasks.isEmpty()) {
+                    invokeAll(pool, tasks);
+                }
+                PhaseAction action = afterPhaseActions.get(phase.getKey());
+                if (action != null) {
+                    action.run();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        LOG.info("loaded {} image sections, cost ms: {}", index.size(), sectionCostMs);
+    }
+
+    private List<IndexEntry> readIndex(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(file.length() - FOOTER_SIZE);
+            long indexOffset = raf.readLong();
+            if (raf.readLong() != MAGIC) {
+                throw new IOException("not a sectioned image: " + file.getAbsolutePath());
+            }
+            raf.seek(indexOffset);
+            int version = raf.readInt();
+            if (version > FORMAT_VERSION) {
+                throw new IOException("unsupported sectioned image version " + version);
+            }
+            int size = raf.readInt();
+            List<IndexEntry> index = Lists.newArrayListWithCapacity(size);
+            for (int i = 0; i < size; i++) {
+                String name = Text.readString(raf);
+                long offset = raf.readLong();
+                long length = raf.readLong();
+                long crc = raf.readLong();
+                byte compression = version >= 2 ? raf.readByte() : COMPRESSION_NONE;
+                index.add(new IndexEntry(name, offset, length, crc, compression));
+            }
+            return index;
+        }
+    }
+
+    private void loadSection(File file, IndexEntry entry, Section section) throws IOException {
+        long startMs = System.currentTimeMillis();
+        CRC32 crc = new CRC32();
+        Inflater inflater = null;
+        try (FileInputStream fis = new FileInputStream(file)) {
+            fis.getChannel().position(entry.offset);
+            InputStream in = new CheckedInputStream(ByteStreams.limit(fis, entry.length), crc);
+            if (entry.compression == COMPRESSION_DEFLATE) {
+                inflater = new Inflater();
+                in = new InflaterInputStream(in, inflater, BUFFER_SIZE);
+            } else if (entry.compression != COMPRESSION_NONE) {
+                throw new IOException("unknown compression " + entry.compression + " of image section " + entry.name);
+            }
+            DataInputStream dis = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+            section.reader.read(dis);
+            // the crc covers the whole section
+            long remaining = ByteStreams.exhaust(dis);
+            if (remaining > 0) {
+                LOG.warn("{} bytes of image section {} are not read", remaining, entry.name);
+            }
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+        if (crc.getValue() != entry.crc) {
+            throw new IOException(String.format("checksum of image section %s mismatch, %d vs. %d",
+                    entry.name, crc.getValue(), entry.crc));
+        }
+        sectionCostMs.put(entry.name, System.currentTimeMillis() - startMs);
+    }
+
+    // run the tasks in the pool, with the meta context and checkpoint flag of current thread
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) throws IOException {
+        MetaContext metaContext = MetaContext.get();
+        boolean isCheckpoint = GlobalStateMgr.isCheckpointThread();
+        List<Future<T>> futures = Lists.newArrayList();
+        for (Callable<T> task : tasks) {
+            futures.add(pool.submit(() -> {
+                if (metaContext != null) {
+                    metaContext.setThreadLocalInfo();
+                }
+                if (isCheckpoint) {
+                    GlobalStateMgr.registerCheckpointWorker();
+                }
+                try {
+                    return task.call();
+                } finally {
+                    if (isCheckpoint) {
+                        GlobalStateMgr.unregisterCheckpointWorker();
+                    }
+                    MetaContext.remove();
+                }
+            }));
+        }
+        List<T> results = Lists.newArrayList();
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted when saving or loading image", e);
+            } catch (ExecutionException e) {
+                throw toIOException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private static <T> T callUnchecked(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw toIOException(e);
+        }
+    }
+
+    private static IOException toIOException(Throwable t) {
+        if (t instanceof IOException) {
+            return (IOException) t;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IOException(t);
+    }
+}
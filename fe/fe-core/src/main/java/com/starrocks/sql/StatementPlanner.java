@@ -5,9 +5,17 @@ import com.starrocks.analysis.DeleteStmt;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.analysis.UpdateStmt;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedIndexMeta;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.PartitionSnapshot;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.TableLocks;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.ResultSink;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.FeExecuteCost;
 import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.PrivilegeChecker;
@@ -15,6 +23,8 @@ import com.starrocks.sql.ast.InsertStmt;
 import com.starrocks.sql.ast.QueryRelation;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.Relation;
+import com.starrocks.sql.common.ErrorType;
+import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.Optimizer;
 import com.starrocks.sql.optimizer.OptimizerTraceUtil;
@@ -26,12 +36,16 @@ import com.starrocks.sql.optimizer.transformer.RelationTransformer;
 import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.sql.plan.PlanFragmentBuilder;
 import com.starrocks.thrift.TResultSinkType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 public class StatementPlanner {
+    private static final Logger LOG = LogManager.getLogger(StatementPlanner.class);
 
     public static ExecPlan plan(StatementBase stmt, ConnectContext session) {
         return plan(stmt, session, true, TResultSinkType.MYSQL_PROTOCAL);
@@ -43,38 +57,159 @@ public class StatementPlanner {
         }
 
         Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(session, stmt);
+        if (lockDb && stmt instanceof QueryStatement && Config.enable_optimistic_planning) {
+            return planQueryOptimistically((QueryStatement) stmt, session, dbs, resultSinkType);
+        }
+
         Map<String, Database> dbLocks = null;
         if (lockDb) {
             dbLocks = dbs;
         }
+        List<Table> lockedTables = null;
         try {
             lock(dbLocks);
-            Analyzer.analyze(stmt, session);
-            PrivilegeChecker.check(stmt, session);
+            try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.ANALYZE)) {
+                Analyzer.analyze(stmt, session);
+                PrivilegeChecker.check(stmt, session);
+            }
             if (stmt instanceof QueryStatement) {
                 OptimizerTraceUtil.logQueryStatement(session, "after analyze:\n%s", (QueryStatement) stmt);
+                if (dbLocks != null && Config.enable_table_level_lock) {
+                    // the tables are known after analyze, only lock them during optimizing
+                    lockedTables = TableLocks.switchToTablesRead(dbLocks.values(),
+                            AnalyzerUtils.collectAllTableIncludingSubquery(stmt));
+                }
             }
 
-            if (stmt instanceof QueryStatement) {
-                session.setCurrentSqlDbIds(dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
-                ExecPlan plan = createQueryPlan(((QueryStatement) stmt).getQueryRelation(), session, resultSinkType);
-                setOutfileSink((QueryStatement) stmt, plan);
+            try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.OPTIMIZE)) {
+                if (stmt instanceof QueryStatement) {
+                    session.setCurrentSqlDbIds(
+                            dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
+                    ExecPlan plan =
+                            createQueryPlan(((QueryStatement) stmt).getQueryRelation(), session, resultSinkType);
+                    setOutfileSink((QueryStatement) stmt, plan);
 
-                return plan;
-            } else if (stmt instanceof InsertStmt) {
-                return new InsertPlanner().plan((InsertStmt) stmt, session);
-            } else if (stmt instanceof UpdateStmt) {
-                return new UpdatePlanner().plan((UpdateStmt) stmt, session);
-            } else if (stmt instanceof DeleteStmt) {
-                return new DeletePlanner().plan((DeleteStmt) stmt, session);
+                    return plan;
+                } else if (stmt instanceof InsertStmt) {
+                    return new InsertPlanner().plan((InsertStmt) stmt, session);
+                } else if (stmt instanceof UpdateStmt) {
+                    return new UpdatePlanner().plan((UpdateStmt) stmt, session);
+                } else if (stmt instanceof DeleteStmt) {
+                    return new DeletePlanner().plan((DeleteStmt) stmt, session);
+                }
             }
         } finally {
-            unLock(dbLocks);
+            if (lockedTables != null) {
+                TableLocks.unlockTablesRead(dbLocks.values(), lockedTables);
+            } else {
+                unLock(dbLocks);
+            }
         }
         return null;
     }
 
 
+    /**
+     * Analyze the query under the db lock, then optimize it without lock, reading the pinned snapshots of partitions.
+     * If any db or table read by the query is written during optimizing, the plan may be built on the inconsistent
+     * metadata, so it's discarded and the query is optimized again under the lock.
+     */
+    private static ExecPlan planQueryOptimistically(QueryStatement stmt, ConnectContext session,
+                                                    Map<String, Database> dbs, TResultSinkType resultSinkType) {
+        CatalogVersions versions;
+        lock(dbs);
+        try {
+            try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.ANALYZE)) {
+                Analyzer.analyze(stmt, session);
+                PrivilegeChecker.check(stmt, session);
+            }
+            versions = new CatalogVersions(dbs.values(), AnalyzerUtils.collectAllTableIncludingSubquery(stmt));
+        } finally {
+            unLock(dbs);
+        }
+        OptimizerTraceUtil.logQueryStatement(session, "after analyze:\n%s", stmt);
+
+        try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.OPTIMIZE)) {
+            session.setCurrentSqlDbIds(dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
+            boolean pinned = PartitionSnapshot.pin();
+            try {
+                ExecPlan plan = createQueryPlan(stmt.getQueryRelation(), session, resultSinkType);
+                if (versions.isUnchanged()) {
+                    setOutfileSink(stmt, plan);
+                    return plan;
+                }
+            } catch (RuntimeException e) {
+                if (versions.isUnchanged()) {
+                    throw e;
+                }
+                LOG.debug("failed to plan query without lock because catalog is changed", e);
+            } finally {
+                if (pinned) {
+                    PartitionSnapshot.unpin();
+                }
+            }
+
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_OPTIMISTIC_PLAN_CONFLICT.increase(1L);
+            }
+            lock(dbs);
+            try {
+                versions.checkSchemaUnchanged();
+                ExecPlan plan = createQueryPlan(stmt.getQueryRelation(), session, resultSinkType);
+                setOutfileSink(stmt, plan);
+                return plan;
+            } finally {
+                unLock(dbs);
+            }
+        }
+    }
+
+    // The write versions of the dbs and tables read by a query, recorded under the db lock after analyzing
+    private static class CatalogVersions {
+        private final Map<Database, Long> dbVersions = new IdentityHashMap<>();
+        private final Map<Table, Long> tableVersions = new IdentityHashMap<>();
+        // the analyzed query is bound to the base index meta, which is replaced by schema change
+        private final Map<OlapTable, MaterializedIndexMeta> baseIndexMetas = new IdentityHashMap<>();
+
+        CatalogVersions(Iterable<Database> dbs, List<Table> tables) {
+            for (Database db : dbs) {
+                dbVersions.put(db, db.getWriteVersion());
+            }
+            for (Table table : tables) {
+                tableVersions.put(table, table.getWriteVersion());
+                if (table instanceof OlapTable) {
+                    OlapTable olapTable = (OlapTable) table;
+                    baseIndexMetas.put(olapTable, olapTable.getIndexMetaByIndexId(olapTable.getBaseIndexId()));
+                }
+            }
+        }
+
+        boolean isUnchanged() {
+            for (Map.Entry<Database, Long> entry : dbVersions.entrySet()) {
+                if (entry.getKey().getWriteVersion() != entry.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<Table, Long> entry : tableVersions.entrySet()) {
+                if (entry.getKey().getWriteVersion() != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // must be called under the db lock
+        void checkSchemaUnchanged() {
+            for (Map.Entry<OlapTable, MaterializedIndexMeta> entry : baseIndexMetas.entrySet()) {
+                OlapTable table = entry.getKey();
+                if (table.getIndexMetaByIndexId(table.getBaseIndexId()) != entry.getValue()) {
+                    throw new StarRocksPlannerException("Schema of table " + table.getName()
+                            + " is changed during planning, please retry", ErrorType.USER_ERROR);
+                }
+            }
+        }
+    }
+
     public static ExecPlan createQueryPlan(Relation relation, ConnectContext session, TResultSinkType resultSinkType) {
         QueryRelation query = (QueryRelation) relation;
         List<String> colNames = query.getColumnOutputNames();
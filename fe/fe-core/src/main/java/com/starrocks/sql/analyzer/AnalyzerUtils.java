@@ -39,6 +39,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class AnalyzerUtils {
     public static void verifyNoAggregateFunctions(Expr expression, String clause) {
@@ -218,6 +219,14 @@ public class AnalyzerUtils {
         return tables;
     }
 
+    // Get all the tables used, including the tables in the subqueries of expressions
+    public static List<Table> collectAllTableIncludingSubquery(StatementBase statementBase) {
+        Map<TableName, Table> tables = Maps.newHashMap();
+        new TableCollectorWithSubquery(tables).visit(statementBase);
+        tables.values().removeIf(Objects::isNull);
+        return Lists.newArrayList(tables.values());
+    }
+
     private static class TableCollector extends AstVisitor<Void, Void> {
         protected final Map<TableName, Table> tables;
 
@@ -284,6 +293,41 @@ public class AnalyzerUtils {
         }
     }
 
+    private static class TableCollectorWithSubquery extends TableCollector {
+        public TableCollectorWithSubquery(Map<TableName, Table> tables) {
+            super(tables);
+        }
+
+        @Override
+        public Void visitSelect(SelectRelation node, Void context) {
+            super.visitSelect(node, context);
+            if (node.getOutputExpr() != null) {
+                node.getOutputExpr().forEach(this::visitSubqueries);
+            }
+            visitSubqueries(node.getPredicate());
+            visitSubqueries(node.getHaving());
+            return null;
+        }
+
+        @Override
+        public Void visitJoin(JoinRelation node, Void context) {
+            super.visitJoin(node, context);
+            visitSubqueries(node.getOnPredicate());
+            return null;
+        }
+
+        private void visitSubqueries(Expr expr) {
+            if (expr == null) {
+                return;
+            }
+            List<Subquery> subqueries = Lists.newArrayList();
+            expr.collectAll((Predicate<Expr>) arg -> arg instanceof Subquery, subqueries);
+            for (Subquery subquery : subqueries) {
+                visit(subquery.getQueryStatement());
+            }
+        }
+    }
+
     public static Map<TableName, Table> collectAllTableWithAlias(StatementBase statementBase) {
         Map<TableName, Table> tables = Maps.newHashMap();
         new AnalyzerUtils.TableCollectorWithAlias(tables).visit(statementBase);
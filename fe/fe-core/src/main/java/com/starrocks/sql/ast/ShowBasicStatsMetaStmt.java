@@ -70,7 +70,7 @@ public class ShowBasicStatsMetaStmt extends ShowStmt {
 
     @Override
     public RedirectStatus getRedirectStatus() {
-        return RedirectStatus.FORWARD_NO_SYNC;
+        return RedirectStatus.FORWARD_NO_SYNC_OR_FOLLOWER_READ;
     }
 
     @Override
@@ -62,7 +62,7 @@ public class ShowHistogramStatsMetaStmt extends ShowStmt {
 
     @Override
     public RedirectStatus getRedirectStatus() {
-        return RedirectStatus.FORWARD_NO_SYNC;
+        return RedirectStatus.FORWARD_NO_SYNC_OR_FOLLOWER_READ;
     }
 
     @Override
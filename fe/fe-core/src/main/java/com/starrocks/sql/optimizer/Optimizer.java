@@ -6,6 +6,7 @@ import com.google.common.collect.Lists;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.Explain;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
@@ -85,7 +86,33 @@ public class Optimizer {
         TaskContext rootTaskContext =
                 new TaskContext(context, requiredProperty, requiredColumns.clone(), Double.MAX_VALUE);
 
+        if (connectContext.getSessionVariable().isEnableShortCircuit()
+                && ShortCircuitPlanner.isPointLookupCandidate(logicOperatorTree)) {
+            // rewrite a copy of the tree with its own required columns, if it's not pruned to one tablet,
+            // the original tree goes through the full logical rewrite and the memo
+            TaskContext shortCircuitTaskContext =
+                    new TaskContext(context, requiredProperty, requiredColumns.clone(), Double.MAX_VALUE);
+            try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer("Optimizer.ShortCircuit")) {
+                OptExpression shortCircuitTree = shortCircuitRuleRewrite(
+                        ShortCircuitPlanner.copyTree(logicOperatorTree), shortCircuitTaskContext);
+                if (ShortCircuitPlanner.canShortCircuit(shortCircuitTree)) {
+                    OptExpression result = ShortCircuitPlanner.implement(shortCircuitTree, context);
+                    OptimizerTraceUtil.logOptExpression(connectContext, "short circuit plan:\n%s", result);
+                    connectContext.getAuditEventBuilder().setPlanCpuCosts(0).setPlanMemCosts(0);
+                    return physicalRuleRewrite(shortCircuitTaskContext, result);
+                }
+            }
+        }
+
         logicOperatorTree = logicalRuleRewrite(logicOperatorTree, rootTaskContext);
+        return memoOptimizeAndExtract(connectContext, logicOperatorTree, requiredProperty, rootTaskContext);
+    }
+
+    private OptExpression memoOptimizeAndExtract(ConnectContext connectContext,
+                                                 OptExpression logicOperatorTree,
+                                                 PhysicalPropertySet requiredProperty,
+                                                 TaskContext rootTaskContext) {
+        Memo memo = context.getMemo();
 
         memo.init(logicOperatorTree);
         OptimizerTraceUtil.log(connectContext, "after logical rewrite, root group:\n%s", memo.getRootGroup());
@@ -127,6 +154,32 @@ public class Optimizer {
         return finalPlan;
     }
 
+    // The necessary rewrites for a single table point lookup, most rules of logicalRuleRewrite
+    // are about join, aggregation, subquery and cte, which never appear in it.
+    // The rules choosing the scanned index and tablets run in the same order as logicalRuleRewrite,
+    // so that the short circuit never reads another index or more tablets than the memo plan.
+    private OptExpression shortCircuitRuleRewrite(OptExpression tree, TaskContext rootTaskContext) {
+        tree = OptExpression.create(new LogicalTreeAnchor(), tree);
+        deriveLogicalProperty(tree);
+
+        ruleRewriteIterative(tree, rootTaskContext, RuleSetType.PUSH_DOWN_PREDICATE);
+        ruleRewriteIterative(tree, rootTaskContext, new MergeTwoProjectRule());
+        ruleRewriteOnlyOnce(tree, rootTaskContext, RuleSetType.PRUNE_COLUMNS);
+        deriveLogicalProperty(tree);
+
+        tree = new MaterializedViewRule().transform(tree, context).get(0);
+        deriveLogicalProperty(tree);
+
+        ruleRewriteOnlyOnce(tree, rootTaskContext, RuleSetType.PARTITION_PRUNE);
+        ruleRewriteOnlyOnce(tree, rootTaskContext, LimitPruneTabletsRule.getInstance());
+        ruleRewriteIterative(tree, rootTaskContext, RuleSetType.PRUNE_PROJECT);
+        ruleRewriteIterative(tree, rootTaskContext, new MergeTwoProjectRule());
+        ruleRewriteIterative(tree, rootTaskContext, new MergeProjectWithChildRule());
+        deriveLogicalProperty(tree);
+
+        return tree.getInputs().get(0);
+    }
+
     private OptExpression logicalRuleRewrite(OptExpression tree, TaskContext rootTaskContext) {
         tree = OptExpression.create(new LogicalTreeAnchor(), tree);
         deriveLogicalProperty(tree);
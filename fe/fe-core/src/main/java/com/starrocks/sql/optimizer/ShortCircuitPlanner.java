@@ -0,0 +1,204 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.KeysType;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.implementation.FilterImplementationRule;
+import com.starrocks.sql.optimizer.rule.implementation.OlapScanImplementationRule;
+import com.starrocks.sql.optimizer.rule.implementation.ProjectImplementationRule;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.sql.optimizer.statistics.Statistics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ShortCircuitPlanner plans the primary key point lookup, e.g. `select * from pk_table where pk = 1`,
+ * without the memo. A point lookup reads at most one row from one tablet, so there is nothing to explore:
+ * the logical tree is rewritten by a few necessary rules (predicate push down, column prune, partition and
+ * distribution prune), then implemented to physical operators one to one.
+ * <p>
+ * Only a chain of Project/Filter over one LogicalOlapScan of a PRIMARY_KEYS table with equality predicates on
+ * all key columns is supported.
+ * <p>
+ * Only the optimizer is short circuited. The plan is still built into fragments and deployed by the Coordinator
+ * of StmtExecutor as a single fragment on one tablet, because BE has no lightweight row lookup rpc yet,
+ * so the deploy and fetch rpcs remain in the latency of a point lookup. ShortCircuitPlanBench measures the
+ * FE planning time.
+ */
+public class ShortCircuitPlanner {
+
+    private ShortCircuitPlanner() {
+    }
+
+    /**
+     * Check the logical tree before rewrite, it's a cheap check to decide whether to try the short circuit.
+     */
+    public static boolean isPointLookupCandidate(OptExpression root) {
+        List<ScalarOperator> conjuncts = Lists.newArrayList();
+        OptExpression current = root;
+        while (current.getOp().getOpType() == OperatorType.LOGICAL_PROJECT
+                || current.getOp().getOpType() == OperatorType.LOGICAL_FILTER) {
+            if (current.getInputs().size() != 1) {
+                return false;
+            }
+            if (current.getOp().getPredicate() != null) {
+                conjuncts.addAll(Utils.extractConjuncts(current.getOp().getPredicate()));
+            }
+            current = current.inputAt(0);
+        }
+        if (current.getOp().getOpType() != OperatorType.LOGICAL_OLAP_SCAN) {
+            return false;
+        }
+        LogicalOlapScanOperator scan = (LogicalOlapScanOperator) current.getOp();
+        Table table = scan.getTable();
+        if (!(table instanceof OlapTable) || ((OlapTable) table).getKeysType() != KeysType.PRIMARY_KEYS) {
+            return false;
+        }
+        if (scan.getPredicate() != null) {
+            conjuncts.addAll(Utils.extractConjuncts(scan.getPredicate()));
+        }
+        return hasEqualityOnAllKeys((OlapTable) table, scan.getColRefToColumnMetaMap(), conjuncts);
+    }
+
+    private static boolean hasEqualityOnAllKeys(OlapTable table, Map<ColumnRefOperator, Column> columnMetaMap,
+                                                List<ScalarOperator> conjuncts) {
+        Set<String> keyColumns = table.getKeyColumnsByIndexId(table.getBaseIndexId()).stream()
+                .map(Column::getName).collect(Collectors.toSet());
+        if (keyColumns.isEmpty()) {
+            return false;
+        }
+        for (ScalarOperator conjunct : conjuncts) {
+            if (!(conjunct instanceof BinaryPredicateOperator)) {
+                continue;
+            }
+            BinaryPredicateOperator predicate = (BinaryPredicateOperator) conjunct;
+            if (predicate.getBinaryType() != BinaryPredicateOperator.BinaryType.EQ) {
+                continue;
+            }
+            ScalarOperator left = predicate.getChild(0);
+            ScalarOperator right = predicate.getChild(1);
+            if (!left.isColumnRef()) {
+                ScalarOperator tmp = left;
+                left = right;
+                right = tmp;
+            }
+            if (left.isColumnRef() && right.isConstant() && columnMetaMap.containsKey(left)) {
+                keyColumns.remove(columnMetaMap.get(left).getName());
+            }
+        }
+        return keyColumns.isEmpty();
+    }
+
+    /**
+     * Copy the candidate tree for the short circuit rewrite, which changes the tree in place. The operators
+     * and predicates are copied too, so the original tree is left as it is for the full logical rewrite.
+     */
+    public static OptExpression copyTree(OptExpression root) {
+        List<OptExpression> children = Lists.newArrayList();
+        for (OptExpression child : root.getInputs()) {
+            children.add(copyTree(child));
+        }
+
+        Operator op = root.getOp();
+        ScalarOperator predicate = op.getPredicate() == null ? null : op.getPredicate().clone();
+        Operator copy;
+        switch (op.getOpType()) {
+            case LOGICAL_PROJECT:
+                LogicalProjectOperator project = (LogicalProjectOperator) op;
+                copy = new LogicalProjectOperator.Builder().withOperator(project)
+                        .setColumnRefMap(Maps.newHashMap(project.getColumnRefMap()))
+                        .setPredicate(predicate)
+                        .build();
+                break;
+            case LOGICAL_FILTER:
+                copy = new LogicalFilterOperator.Builder().withOperator((LogicalFilterOperator) op)
+                        .setPredicate(predicate)
+                        .build();
+                break;
+            case LOGICAL_OLAP_SCAN:
+                copy = new LogicalOlapScanOperator.Builder().withOperator((LogicalOlapScanOperator) op)
+                        .setPredicate(predicate)
+                        .build();
+                break;
+            default:
+                throw new IllegalStateException("short circuit not support " + op.getOpType());
+        }
+        return OptExpression.create(copy, children);
+    }
+
+    /**
+     * Check the logical tree after rewrite, the scan must be pruned to only one tablet.
+     */
+    public static boolean canShortCircuit(OptExpression root) {
+        OptExpression current = root;
+        while (current.getOp().getOpType() == OperatorType.LOGICAL_PROJECT
+                || current.getOp().getOpType() == OperatorType.LOGICAL_FILTER) {
+            if (current.getInputs().size() != 1) {
+                return false;
+            }
+            current = current.inputAt(0);
+        }
+        if (current.getOp().getOpType() != OperatorType.LOGICAL_OLAP_SCAN) {
+            return false;
+        }
+        LogicalOlapScanOperator scan = (LogicalOlapScanOperator) current.getOp();
+        return scan.getSelectedPartitionId().size() == 1 && scan.getSelectedTabletId().size() == 1;
+    }
+
+    /**
+     * Implement the logical tree to the physical tree directly. The logical property of the input
+     * must have been derived.
+     */
+    public static OptExpression implement(OptExpression logical, OptimizerContext context) {
+        List<OptExpression> children = Lists.newArrayList();
+        for (OptExpression child : logical.getInputs()) {
+            children.add(implement(child, context));
+        }
+
+        OptExpression input = OptExpression.create(logical.getOp(), children);
+        OptExpression physical;
+        switch (logical.getOp().getOpType()) {
+            case LOGICAL_PROJECT:
+                physical = new ProjectImplementationRule().transform(input, context).get(0);
+                break;
+            case LOGICAL_FILTER:
+                physical = new FilterImplementationRule().transform(input, context).get(0);
+                break;
+            case LOGICAL_OLAP_SCAN:
+                physical = new OlapScanImplementationRule().transform(input, context).get(0);
+                break;
+            default:
+                throw new IllegalStateException("short circuit not support " + logical.getOp().getOpType());
+        }
+        physical.setLogicalProperty(logical.getLogicalProperty());
+        physical.setStatistics(buildPointLookupStatistics(logical, context.getColumnRefFactory()));
+        return physical;
+    }
+
+    // a point lookup returns at most one row, the statistics of columns are useless
+    private static Statistics buildPointLookupStatistics(OptExpression logical, ColumnRefFactory factory) {
+        Statistics.Builder builder = Statistics.builder();
+        builder.setOutputRowCount(1);
+        for (int id : logical.getLogicalProperty().getOutputColumns().getColumnIds()) {
+            builder.addColumnStatistic(factory.getColumnRef(id), ColumnStatistic.unknown());
+        }
+        return builder.build();
+    }
+}
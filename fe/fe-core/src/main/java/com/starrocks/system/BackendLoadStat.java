@@ -0,0 +1,133 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.system;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.metric.GaugeMetric;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BackendLoadStat tracks the live load of each backend seen from this FE: the EWMA of the latency of the
+ * fragment instances scanning its replicas and the number of such instances in flight. The score of a backend
+ * estimates how long a new scan waits on it, lower is better. It's used to favor fast replicas when assigning
+ * scan ranges.
+ */
+public class BackendLoadStat {
+    private static final String BACKEND_SELECT_SCORE = "backend_select_score";
+
+    private static final ConcurrentHashMap<Long, LoadStat> LOAD_STATS = new ConcurrentHashMap<>();
+
+    private static class LoadStat {
+        private final AtomicInteger inflight = new AtomicInteger(0);
+        private double ewmaLatencyMs = -1;
+        private GaugeMetric<Double> scoreMetric;
+
+        private synchronized void update(long latencyMs) {
+            if (ewmaLatencyMs < 0) {
+                ewmaLatencyMs = latencyMs;
+            } else {
+                double alpha = Math.min(1.0, Math.max(0.01, Config.adaptive_replica_selection_ewma_alpha));
+                ewmaLatencyMs = alpha * latencyMs + (1 - alpha) * ewmaLatencyMs;
+            }
+        }
+
+        private synchronized double getEwmaLatencyMs() {
+            return ewmaLatencyMs;
+        }
+
+        private double getScore() {
+            double latency = getEwmaLatencyMs();
+            if (latency < 0) {
+                // never requested, treat it as fast so that it gets a chance
+                return 0;
+            }
+            // every in-flight request queued ahead of the new one costs about one latency
+            return latency * (1 + inflight.get());
+        }
+    }
+
+    private static LoadStat getOrCreate(long backendId) {
+        return LOAD_STATS.computeIfAbsent(backendId, BackendLoadStat::createLoadStat);
+    }
+
+    private static LoadStat createLoadStat(long backendId) {
+        LoadStat stat = new LoadStat();
+        if (MetricRepo.isInit) {
+            GaugeMetric<Double> score = new GaugeMetric<Double>(BACKEND_SELECT_SCORE, Metric.MetricUnit.NOUNIT,
+                    "the score used to select replicas on backend, lower is better") {
+                @Override
+                public Double getValue() {
+                    return stat.getScore();
+                }
+            };
+            score.addLabel(new MetricLabel("backend", String.valueOf(backendId)));
+            MetricRepo.addMetric(score);
+            stat.scoreMetric = score;
+        }
+        return stat;
+    }
+
+    /**
+     * Called when a scan instance is delivered to the backend, must be paired with {@link #onRequestFinish}
+     * or {@link #onRequestAbort}.
+     */
+    public static void onRequestStart(long backendId) {
+        getOrCreate(backendId).inflight.incrementAndGet();
+    }
+
+    public static void onRequestFinish(long backendId, long latencyMs) {
+        // the stat is gone if the backend is dropped while the scan is running
+        LoadStat stat = LOAD_STATS.get(backendId);
+        if (stat != null) {
+            stat.inflight.decrementAndGet();
+            stat.update(Math.max(0, latencyMs));
+        }
+    }
+
+    /**
+     * Called when a scan instance is cancelled, failed or hasn't reported done when the query ends, its latency
+     * is unknown so no sample is taken.
+     */
+    public static void onRequestAbort(long backendId) {
+        LoadStat stat = LOAD_STATS.get(backendId);
+        if (stat != null) {
+            stat.inflight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Called when the backend is dropped, removes its stat and gauge.
+     */
+    public static void removeBackend(long backendId) {
+        LoadStat stat = LOAD_STATS.remove(backendId);
+        if (stat != null && stat.scoreMetric != null) {
+            MetricRepo.removeMetric(stat.scoreMetric);
+        }
+    }
+
+    public static double getScore(long backendId) {
+        LoadStat stat = LOAD_STATS.get(backendId);
+        return stat == null ? 0 : stat.getScore();
+    }
+
+    public static double getEwmaLatencyMs(long backendId) {
+        LoadStat stat = LOAD_STATS.get(backendId);
+        return stat == null ? -1 : stat.getEwmaLatencyMs();
+    }
+
+    public static int getInflight(long backendId) {
+        LoadStat stat = LOAD_STATS.get(backendId);
+        return stat == null ? 0 : stat.inflight.get();
+    }
+
+    @VisibleForTesting
+    public static void reset() {
+        LOAD_STATS.clear();
+    }
+}
@@ -360,8 +360,11 @@ public class HeartbeatMgr extends LeaderDaemon {
                 }
             }
 
+            // tell the follower the max journal id of leader, to bound the staleness of its metadata
             String url = "http://" + fe.getHost() + ":" + Config.http_port
-                    + "/api/bootstrap?cluster_id=" + clusterId + "&token=" + token;
+                    + "/api/bootstrap?cluster_id=" + clusterId + "&token=" + token
+                    + "&" + BootstrapFinishAction.LEADER_JOURNAL_ID + "="
+                    + GlobalStateMgr.getCurrentState().getMaxJournalId();
             try {
                 String result = Util.getResultForUrl(url, null, 2000, 2000);
                 /*
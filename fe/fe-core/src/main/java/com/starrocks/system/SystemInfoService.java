@@ -47,6 +47,7 @@ import com.starrocks.common.Pair;
 import com.starrocks.common.Status;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.util.NetUtils;
+import com.starrocks.leader.ReportHandler;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.persist.DropComputeNodeLog;
 import com.starrocks.persist.gson.GsonUtils;
@@ -285,6 +286,8 @@ public class SystemInfoService {
         Map<Long, ComputeNode> copiedComputeNodes = Maps.newHashMap(idToComputeNodeRef);
         copiedComputeNodes.remove(dropComputeNode.getId());
         idToComputeNodeRef = ImmutableMap.copyOf(copiedComputeNodes);
+        BackendLoadStat.removeBackend(dropComputeNode.getId());
+        ReportHandler.removeBackend(dropComputeNode.getId());
 
         // update cluster
         final Cluster cluster = GlobalStateMgr.getCurrentState().getCluster();
@@ -388,6 +391,8 @@ public class SystemInfoService {
         Map<Long, AtomicLong> copiedReportVerions = Maps.newHashMap(idToReportVersionRef);
         copiedReportVerions.remove(droppedBackend.getId());
         idToReportVersionRef = ImmutableMap.copyOf(copiedReportVerions);
+        BackendLoadStat.removeBackend(droppedBackend.getId());
+        ReportHandler.removeBackend(droppedBackend.getId());
 
         // update cluster
         final Cluster cluster = GlobalStateMgr.getCurrentState().getCluster();
@@ -941,6 +946,8 @@ public class SystemInfoService {
         Map<Long, ComputeNode> copiedComputeNodes = Maps.newHashMap(idToComputeNodeRef);
         copiedComputeNodes.remove(computeNodeId);
         idToComputeNodeRef = ImmutableMap.copyOf(copiedComputeNodes);
+        BackendLoadStat.removeBackend(computeNodeId);
+        ReportHandler.removeBackend(computeNodeId);
 
         // update cluster
         final Cluster cluster = GlobalStateMgr.getCurrentState().getCluster();
@@ -962,6 +969,8 @@ public class SystemInfoService {
         Map<Long, AtomicLong> copiedReportVerions = Maps.newHashMap(idToReportVersionRef);
         copiedReportVerions.remove(backend.getId());
         idToReportVersionRef = ImmutableMap.copyOf(copiedReportVerions);
+        BackendLoadStat.removeBackend(backend.getId());
+        ReportHandler.removeBackend(backend.getId());
 
         // update cluster
         final Cluster cluster = GlobalStateMgr.getCurrentState().getCluster();
@@ -35,6 +35,7 @@ import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.PartitionInfo;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
+import com.starrocks.catalog.TableLocks;
 import com.starrocks.catalog.Tablet;
 import com.starrocks.catalog.TabletInvertedIndex;
 import com.starrocks.catalog.TabletMeta;
@@ -71,8 +72,13 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -94,17 +100,26 @@ public class DatabaseTransactionMgr {
 
     private long dbId;
 
-    // the lock is used to control the access to transaction states
-    // no other locks should be inside this lock
-    private ReentrantReadWriteLock transactionLock = new ReentrantReadWriteLock(true);
+    // The lock is sharded by transaction id, the state transform of a transaction only takes the shard of its id,
+    // so loads on different tables of a database do not wait for each other. Commits on the same table are
+    // still ordered by the table lock. Operations on the whole database take all the shards, see writeLock().
+    // no other locks should be inside these locks
+    private final ReentrantReadWriteLock[] transactionLocks;
+    private final int lockShardMask;
+
+    // begin of the same label is serialized by these locks, to make sure a label is used by only one transaction
+    private final ReentrantLock[] labelLocks;
 
     // transactionId -> running TransactionState
-    private Map<Long, TransactionState> idToRunningTransactionState = Maps.newHashMap();
+    // the indexes below are concurrent containers, so that a single transaction or label could be looked up
+    // without any lock
+    private Map<Long, TransactionState> idToRunningTransactionState = Maps.newConcurrentMap();
 
     // transactionId -> final status TransactionState
-    private Map<Long, TransactionState> idToFinalStatusTransactionState = Maps.newHashMap();
+    private Map<Long, TransactionState> idToFinalStatusTransactionState = Maps.newConcurrentMap();
 
     // to store transtactionStates with final status
+    // elements are added under a single shard lock, so additions are synchronized on the deque itself
     private ArrayDeque<TransactionState> finalStatusTransactionStateDeque = new ArrayDeque<>();
 
     // store committed transactions' dependency relationships
@@ -116,13 +131,13 @@ public class DatabaseTransactionMgr {
     // this member should be consistent with idToTransactionState,
     // which means if a txn exist in idToRunningTransactionState or idToFinalStatusTransactionState
     // it must exists in dbIdToTxnLabels, and vice versa
-    private Map<String, Set<Long>> labelToTxnIds = Maps.newHashMap();
+    private Map<String, Set<Long>> labelToTxnIds = Maps.newConcurrentMap();
 
     // count the number of running txns of database, except for the routine load txn
-    private int runningTxnNums = 0;
+    private final AtomicInteger runningTxnNums = new AtomicInteger(0);
 
     // count only the number of running routine load txns of database
-    private int runningRoutineLoadTxnNums = 0;
+    private final AtomicInteger runningRoutineLoadTxnNums = new AtomicInteger(0);
 
     private GlobalStateMgr globalStateMgr;
 
@@ -133,26 +148,52 @@ public class DatabaseTransactionMgr {
     // not realtime usedQuota value to make a fast check for database data quota
     private volatile long usedQuotaDataBytes = -1;
 
-    private long maxCommitTs = 0;
+    private final AtomicLong maxCommitTs = new AtomicLong(0);
 
     private final TransactionStateListenerFactory stateListenerFactory = new TransactionStateListenerFactory();
 
     private final TransactionLogApplierFactory txnLogApplierFactory = new TransactionLogApplierFactory();
 
+    // lock all the shards, for operations across transactions
     protected void readLock() {
-        this.transactionLock.readLock().lock();
+        for (ReentrantReadWriteLock lock : transactionLocks) {
+            lock.readLock().lock();
+        }
     }
 
     protected void readUnlock() {
-        this.transactionLock.readLock().unlock();
+        for (int i = transactionLocks.length - 1; i >= 0; i--) {
+            transactionLocks[i].readLock().unlock();
+        }
     }
 
     protected void writeLock() {
-        this.transactionLock.writeLock().lock();
+        for (ReentrantReadWriteLock lock : transactionLocks) {
+            lock.writeLock().lock();
+        }
     }
 
     protected void writeUnlock() {
-        this.transactionLock.writeLock().unlock();
+        for (int i = transactionLocks.length - 1; i >= 0; i--) {
+            transactionLocks[i].writeLock().unlock();
+        }
+    }
+
+    // lock the shard of a single transaction
+    protected void writeLock(long transactionId) {
+        getTransactionLock(transactionId).writeLock().lock();
+    }
+
+    protected void writeUnlock(long transactionId) {
+        getTransactionLock(transactionId).writeLock().unlock();
+    }
+
+    private ReentrantReadWriteLock getTransactionLock(long transactionId) {
+        return transactionLocks[Long.hashCode(transactionId) & lockShardMask];
+    }
+
+    private ReentrantLock getLabelLock(String label) {
+        return labelLocks[label.hashCode() & lockShardMask];
     }
 
     public DatabaseTransactionMgr(long dbId, GlobalStateMgr globalStateMgr, TransactionIdGenerator idGenerator) {
@@ -160,6 +201,14 @@ public class DatabaseTransactionMgr {
         this.globalStateMgr = globalStateMgr;
         this.idGenerator = idGenerator;
         this.editLog = globalStateMgr.getEditLog();
+        int shardNum = Integer.highestOneBit(Math.max(1, Config.txn_lock_shard_num_per_db) * 2 - 1);
+        this.lockShardMask = shardNum - 1;
+        this.transactionLocks = new ReentrantReadWriteLock[shardNum];
+        this.labelLocks = new ReentrantLock[shardNum];
+        for (int i = 0; i < shardNum; i++) {
+            transactionLocks[i] = new ReentrantReadWriteLock(true);
+            labelLocks[i] = new ReentrantLock();
+        }
     }
 
     public long getDbId() {
@@ -167,19 +216,11 @@ public class DatabaseTransactionMgr {
     }
 
     public TransactionState getTransactionState(Long transactionId) {
-        readLock();
-        try {
-            TransactionState transactionState = idToRunningTransactionState.get(transactionId);
-            if (transactionState != null) {
-                return transactionState;
-            } else {
-                return idToFinalStatusTransactionState.get(transactionId);
-            }
-        } finally {
-            readUnlock();
-        }
+        return unprotectedGetTransactionState(transactionId);
     }
 
+    // a transaction is put into idToFinalStatusTransactionState before it is removed from
+    // idToRunningTransactionState, so a lookup without lock never misses it
     private TransactionState unprotectedGetTransactionState(Long transactionId) {
         TransactionState transactionState = idToRunningTransactionState.get(transactionId);
         if (transactionState != null) {
@@ -197,12 +238,12 @@ public class DatabaseTransactionMgr {
 
     @VisibleForTesting
     protected int getRunningTxnNums() {
-        return runningTxnNums;
+        return runningTxnNums.get();
     }
 
     @VisibleForTesting
     protected int getRunningRoutineLoadTxnNums() {
-        return runningRoutineLoadTxnNums;
+        return runningRoutineLoadTxnNums.get();
     }
 
     @VisibleForTesting
@@ -265,10 +306,11 @@ public class DatabaseTransactionMgr {
                                  TransactionState.LoadJobSourceType sourceType, long listenerId, long timeoutSecond)
             throws DuplicatedRequestException, LabelAlreadyUsedException, BeginTransactionException, AnalysisException {
         checkDatabaseDataQuota();
-        writeLock();
+        Preconditions.checkNotNull(label);
+        ReentrantLock labelLock = getLabelLock(label);
+        labelLock.lock();
         try {
             Preconditions.checkNotNull(coordinator);
-            Preconditions.checkNotNull(label);
             FeNameFormat.checkLabel(label);
 
             /*
@@ -283,8 +325,8 @@ public class DatabaseTransactionMgr {
                 List<TransactionState> notAbortedTxns = Lists.newArrayList();
                 for (long txnId : existingTxnIds) {
                     TransactionState txn = unprotectedGetTransactionState(txnId);
-                    Preconditions.checkNotNull(txn);
-                    if (txn.getTransactionStatus() != TransactionStatus.ABORTED) {
+                    // the txn may be removed by removeExpiredTxns() after we get its id
+                    if (txn != null && txn.getTransactionStatus() != TransactionStatus.ABORTED) {
                         notAbortedTxns.add(txn);
                     }
                 }
@@ -302,16 +344,28 @@ public class DatabaseTransactionMgr {
                 }
             }
 
-            checkRunningTxnExceedLimit(sourceType);
-
-            long tid = idGenerator.getNextTransactionId();
-            LOG.info("begin transaction: txn_id: {} with label {} from coordinator {}, listner id: {}",
-                    tid, label, coordinator, listenerId);
-            TransactionState transactionState =
-                    new TransactionState(dbId, tableIdList, tid, label, requestId, sourceType,
-                            coordinator, listenerId, timeoutSecond * 1000);
-            transactionState.setPrepareTime(System.currentTimeMillis());
-            unprotectUpsertTransactionState(transactionState, false);
+            boolean reserved = reserveRunningTxn(sourceType);
+            long tid;
+            try {
+                tid = idGenerator.getNextTransactionId();
+                LOG.info("begin transaction: txn_id: {} with label {} from coordinator {}, listner id: {}",
+                        tid, label, coordinator, listenerId);
+                TransactionState transactionState =
+                        new TransactionState(dbId, tableIdList, tid, label, requestId, sourceType,
+                                coordinator, listenerId, timeoutSecond * 1000);
+                transactionState.setPrepareTime(System.currentTimeMillis());
+                writeLock(tid);
+                try {
+                    unprotectUpsertTransactionState(transactionState, false);
+                } finally {
+                    writeUnlock(tid);
+                }
+            } finally {
+                // the upsert has counted the txn itself, or it failed
+                if (reserved) {
+                    runningTxnNums.decrementAndGet();
+                }
+            }
 
             if (MetricRepo.isInit) {
                 MetricRepo.COUNTER_TXN_BEGIN.increase(1L);
@@ -326,7 +380,7 @@ public class DatabaseTransactionMgr {
             }
             throw e;
         } finally {
-            writeUnlock();
+            labelLock.unlock();
         }
     }
 
@@ -373,13 +427,7 @@ public class DatabaseTransactionMgr {
             throw new MetaNotFoundException("could not find db [" + dbId + "]");
         }
 
-        TransactionState transactionState;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = unprotectedGetTransactionState(transactionId);
         if (transactionState == null) {
             throw new TransactionCommitFailedException("transaction not found");
         }
@@ -393,6 +441,8 @@ public class DatabaseTransactionMgr {
         }
         if (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
             LOG.debug("transaction is already committed: {}", transactionId);
+            // the commit of a concurrent caller is not done until its log is written
+            waitPendingLog(transactionState);
             return waiter;
         }
         // For compatible reason, the default behavior of empty load is still returning "all partitions have no load data" and abort transaction.
@@ -451,12 +501,15 @@ public class DatabaseTransactionMgr {
 
         Span unprotectedCommitSpan = TraceManager.startSpan("unprotectedCommitTransaction", txnSpan);
 
-        writeLock();
+        writeLock(transactionId);
         try {
             unprotectedCommitTransaction(transactionState, stateListeners);
             txnOperated = true;
         } finally {
-            writeUnlock();
+            writeUnlock(transactionId);
+            // other transactions of this db could go on while the commit log is being written,
+            // but the commit is not done until the log is written
+            waitPendingLog(transactionState);
             int numPartitions = 0;
             for (Map.Entry<Long, TableCommitInfo> entry : transactionState.getIdToTableCommitInfos().entrySet()) {
                 numPartitions += entry.getValue().getIdToPartitionCommitInfo().size();
@@ -496,13 +549,7 @@ public class DatabaseTransactionMgr {
             throw new MetaNotFoundException("could not find db [" + dbId + "]");
         }
 
-        TransactionState transactionState;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = unprotectedGetTransactionState(transactionId);
         if (transactionState == null) {
             throw new TransactionCommitFailedException("transaction not found");
         }
@@ -573,11 +620,11 @@ public class DatabaseTransactionMgr {
 
         Span unprotectedCommitSpan = TraceManager.startSpan("unprotectedPreparedTransaction", txnSpan);
 
-        writeLock();
+        writeLock(transactionId);
         try {
             unprotectedPrepareTransaction(transactionState, stateListeners);
         } finally {
-            writeUnlock();
+            writeUnlock(transactionId);
             int numPartitions = 0;
             for (Map.Entry<Long, TableCommitInfo> entry : transactionState.getIdToTableCommitInfos().entrySet()) {
                 numPartitions += entry.getValue().getIdToPartitionCommitInfo().size();
@@ -598,13 +645,7 @@ public class DatabaseTransactionMgr {
             throw new MetaNotFoundException("could not find db [" + dbId + "]");
         }
 
-        TransactionState transactionState;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = unprotectedGetTransactionState(transactionId);
         if (transactionState == null) {
             throw new TransactionCommitFailedException("transaction not found");
         }
@@ -618,6 +659,8 @@ public class DatabaseTransactionMgr {
         }
         if (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
             LOG.debug("transaction is already committed: {}", transactionId);
+            // the commit of a concurrent caller is not done until its log is written
+            waitPendingLog(transactionState);
             return waiter;
         }
 
@@ -649,12 +692,12 @@ public class DatabaseTransactionMgr {
 
         Span unprotectedCommitSpan = TraceManager.startSpan("unprotectedCommitPreparedTransaction", txnSpan);
 
-        writeLock();
+        writeLock(transactionId);
         try {
             unprotectedCommitPreparedTransaction(transactionState, db);
             txnOperated = true;
         } finally {
-            writeUnlock();
+            writeUnlock(transactionId);
             int numPartitions = 0;
             for (Map.Entry<Long, TableCommitInfo> entry : transactionState.getIdToTableCommitInfos().entrySet()) {
                 numPartitions += entry.getValue().getIdToPartitionCommitInfo().size();
@@ -693,61 +736,52 @@ public class DatabaseTransactionMgr {
     }
 
     public TransactionStatus getLabelState(String label) {
-        readLock();
-        try {
-            Set<Long> existingTxnIds = unprotectedGetTxnIdsByLabel(label);
-            if (existingTxnIds == null || existingTxnIds.isEmpty()) {
-                return TransactionStatus.UNKNOWN;
-            }
-            // find the latest txn (which id is largest)
-            long maxTxnId = existingTxnIds.stream().max(Comparator.comparingLong(Long::valueOf)).get();
-            return unprotectedGetTransactionState(maxTxnId).getTransactionStatus();
-        } finally {
-            readUnlock();
+        Set<Long> existingTxnIds = unprotectedGetTxnIdsByLabel(label);
+        if (existingTxnIds == null) {
+            return TransactionStatus.UNKNOWN;
+        }
+        // find the latest txn (which id is largest)
+        Optional<Long> maxTxnId = existingTxnIds.stream().max(Comparator.comparingLong(Long::valueOf));
+        if (!maxTxnId.isPresent()) {
+            return TransactionStatus.UNKNOWN;
+        }
+        TransactionState transactionState = unprotectedGetTransactionState(maxTxnId.get());
+        // removed by removeExpiredTxns() concurrently
+        if (transactionState == null) {
+            return TransactionStatus.UNKNOWN;
         }
+        // don't report COMMITTED before the commit log is written
+        waitPendingLog(transactionState);
+        return transactionState.getTransactionStatus();
     }
 
     public Long getLabelTxnID(String label) {
-        readLock();
-        try {
-            Set<Long> existingTxnIds = unprotectedGetTxnIdsByLabel(label);
-            if (existingTxnIds == null || existingTxnIds.isEmpty()) {
-                return (long) -1;
-            }
-            // find the latest txn (which id is largest)
-            Optional<Long> v = existingTxnIds.stream().max(Comparator.comparingLong(Long::valueOf));
-            if (v.isPresent()) {
-                return v.get();
-            } else {
-                return (long) -1;
-            }
-        } finally {
-            readUnlock();
+        Set<Long> existingTxnIds = unprotectedGetTxnIdsByLabel(label);
+        if (existingTxnIds == null) {
+            return (long) -1;
+        }
+        // find the latest txn (which id is largest)
+        Optional<Long> v = existingTxnIds.stream().max(Comparator.comparingLong(Long::valueOf));
+        if (v.isPresent()) {
+            return v.get();
+        } else {
+            return (long) -1;
         }
     }
 
     public List<TransactionState> getCommittedTxnList() {
-        readLock();
-        try {
-            // only send task to committed transaction
-            return idToRunningTransactionState.values().stream()
-                    .filter(transactionState -> (transactionState.getTransactionStatus() ==
-                            TransactionStatus.COMMITTED))
-                    .sorted(Comparator.comparing(TransactionState::getCommitTime))
-                    .collect(Collectors.toList());
-        } finally {
-            readUnlock();
-        }
+        // only send task to committed transaction
+        return idToRunningTransactionState.values().stream()
+                .filter(transactionState -> (transactionState.getTransactionStatus() ==
+                        TransactionStatus.COMMITTED))
+                .sorted(Comparator.comparing(TransactionState::getCommitTime))
+                .collect(Collectors.toList());
     }
 
     public List<TransactionState> getReadyToPublishTxnList() {
-        readLock();
-        try {
-            List<Long> txnIds = transactionGraph.getTxnsWithoutDependency();
-            return txnIds.stream().map(id -> idToRunningTransactionState.get(id)).collect(Collectors.toList());
-        } finally {
-            readUnlock();
-        }
+        List<Long> txnIds = transactionGraph.getTxnsWithoutDependency();
+        return txnIds.stream().map(id -> idToRunningTransactionState.get(id)).filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     // check whether transaction can be finished or not
@@ -841,13 +875,7 @@ public class DatabaseTransactionMgr {
     }
 
     public void finishTransaction(long transactionId, Set<Long> errorReplicaIds) throws UserException {
-        TransactionState transactionState = null;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = unprotectedGetTransactionState(transactionId);
         // add all commit errors and publish errors to a single set
         if (errorReplicaIds == null) {
             errorReplicaIds = Sets.newHashSet();
@@ -859,7 +887,7 @@ public class DatabaseTransactionMgr {
 
         Database db = globalStateMgr.getDb(transactionState.getDbId());
         if (db == null) {
-            writeLock();
+            writeLock(transactionState.getTransactionId());
             try {
                 transactionState.setTransactionStatus(TransactionStatus.ABORTED);
                 transactionState.setReason("db is dropped");
@@ -867,131 +895,21 @@ public class DatabaseTransactionMgr {
                 unprotectUpsertTransactionState(transactionState, false);
                 return;
             } finally {
-                writeUnlock();
+                writeUnlock(transactionState.getTransactionId());
             }
         }
         Span finishSpan = TraceManager.startSpan("finishTransaction", transactionState.getTxnSpan());
-        db.writeLock();
+        List<Table> lockedTables = lockTablesForFinish(db, transactionState);
+        if (lockedTables == null) {
+            finishSpan.end();
+            return;
+        }
         try {
-            boolean hasError = false;
-            for (TableCommitInfo tableCommitInfo : transactionState.getIdToTableCommitInfos().values()) {
-                long tableId = tableCommitInfo.getTableId();
-                OlapTable table = (OlapTable) db.getTable(tableId);
-                // table maybe dropped between commit and publish, ignore this error
-                if (table == null) {
-                    transactionState.removeTable(tableId);
-                    LOG.warn("table {} is dropped, skip version check and remove it from transaction state {}",
-                            tableId,
-                            transactionState);
-                    continue;
-                }
-                PartitionInfo partitionInfo = table.getPartitionInfo();
-                for (PartitionCommitInfo partitionCommitInfo : tableCommitInfo.getIdToPartitionCommitInfo().values()) {
-                    long partitionId = partitionCommitInfo.getPartitionId();
-                    Partition partition = table.getPartition(partitionId);
-                    // partition maybe dropped between commit and publish version, ignore this error
-                    if (partition == null) {
-                        tableCommitInfo.removePartition(partitionId);
-                        LOG.warn("partition {} is dropped, skip version check and remove it from transaction state {}",
-                                partitionId,
-                                transactionState);
-                        continue;
-                    }
-                    if (partition.getVisibleVersion() != partitionCommitInfo.getVersion() - 1) {
-                        // prevent excessive logging
-                        if (transactionState.getLastErrTimeMs() + 3000 < System.nanoTime() / 1000000) {
-                            LOG.debug("transactionId {} partition commitInfo version {} is not equal with " +
-                                            "partition visible version {} plus one, need wait",
-                                    transactionId,
-                                    partitionCommitInfo.getVersion(),
-                                    partition.getVisibleVersion());
-                        }
-                        String errMsg =
-                                String.format("wait for publishing partition %d version %d. self version: %d. table %d",
-                                        partitionId, partition.getVisibleVersion() + 1,
-                                        partitionCommitInfo.getVersion(), tableId);
-                        transactionState.setErrorMsg(errMsg);
-                        return;
-                    }
-
-                    if (table.isLakeTable()) {
-                        continue;
-                    }
-
-                    int quorumReplicaNum = partitionInfo.getQuorumNum(partitionId);
-
-                    List<MaterializedIndex> allIndices =
-                            transactionState.getPartitionLoadedTblIndexes(tableId, partition);
-                    for (MaterializedIndex index : allIndices) {
-                        for (Tablet tablet : index.getTablets()) {
-                            int healthReplicaNum = 0;
-                            for (Replica replica : ((LocalTablet) tablet).getImmutableReplicas()) {
-                                if (!errorReplicaIds.contains(replica.getId())
-                                        && replica.getLastFailedVersion() < 0) {
-                                    // this means the replica is a healthy replica,
-                                    // it is healthy in the past and does not have error in current load
-                                    if (replica.checkVersionCatchUp(partition.getVisibleVersion(), true)) {
-                                        // during rollup, the rollup replica's last failed version < 0,
-                                        // it may be treated as a normal replica.
-
-                                        // Here we still update the replica's info even if we failed to publish
-                                        // this txn, for the following case:
-                                        // replica A,B,C is successfully committed, but only A is successfully
-                                        // published,
-                                        // B and C is crashed, now we need a Clone task to repair this tablet.
-                                        // So, here we update A's version info, so that clone task will clone
-                                        // the latest version of data.
-
-                                        replica.updateRowCount(partitionCommitInfo.getVersion(),
-                                                replica.getDataSize(), replica.getRowCount());
-                                        ++healthReplicaNum;
-                                    } else {
-                                        // this means the replica has error in the past, but we did not observe it
-                                        // during upgrade, one job maybe in quorum finished state, for example, A,B,C 3 replica
-                                        // A,B 's version is 10, C's version is 10 but C' 10 is abnormal should be rollback
-                                        // then we will detect this and set C's last failed version to 10 and last success version to 11
-                                        // this logic has to be replayed in checkpoint thread
-                                        replica.updateVersionInfo(replica.getVersion(),
-                                                partition.getVisibleVersion(),
-                                                partitionCommitInfo.getVersion());
-                                        LOG.warn("transaction state {} has error, the replica [{}] not appeared " +
-                                                        "in error replica list and its version not equal to partition " +
-                                                        "commit version or commit version - 1 if its not a upgrate " +
-                                                        "stage, its a fatal error. ",
-                                                transactionState, replica);
-                                    }
-                                } else if (replica.getVersion() >= partitionCommitInfo.getVersion()) {
-                                    // the replica's version is larger than or equal to current transaction partition's version
-                                    // the replica is normal, then remove it from error replica ids
-                                    errorReplicaIds.remove(replica.getId());
-                                    ++healthReplicaNum;
-                                }
-                            }
-
-                            if (healthReplicaNum < quorumReplicaNum) {
-                                // prevent excessive logging
-                                if (transactionState.getLastErrTimeMs() + 3000 < System.nanoTime() / 1000000) {
-                                    LOG.info("publish version failed for transaction {} on tablet {}, with only {} " +
-                                                    "replicas less than quorum {}", transactionState, tablet, healthReplicaNum,
-                                            quorumReplicaNum);
-                                }
-                                String errMsg = String.format(
-                                        "publish on tablet %d failed. succeed replica num %d less than quorum %d."
-                                                + " table: %d, partition: %d, publish version: %d",
-                                        tablet.getId(), healthReplicaNum, quorumReplicaNum, tableId, partitionId,
-                                        partition.getVisibleVersion() + 1);
-                                transactionState.setErrorMsg(errMsg);
-                                hasError = true;
-                            }
-                        }
-                    }
-                }
-            }
-            if (hasError) {
+            if (!checkReplicasPublished(db, transactionState, errorReplicaIds)) {
                 return;
             }
             boolean txnOperated = false;
-            writeLock();
+            writeLock(transactionId);
             try {
                 transactionState.setErrorReplicas(errorReplicaIds);
                 transactionState.setFinishTime(System.currentTimeMillis());
@@ -1006,7 +924,7 @@ public class DatabaseTransactionMgr {
                 // So I add a log here for observation.
                 LOG.debug("after set transaction {} to visible", transactionState);
             } finally {
-                writeUnlock();
+                writeUnlock(transactionId);
                 transactionState.afterStateTransform(TransactionStatus.VISIBLE, txnOperated);
             }
             Span updateCatalogSpan = TraceManager.startSpan("updateCatalogAfterVisible", finishSpan);
@@ -1016,12 +934,211 @@ public class DatabaseTransactionMgr {
                 updateCatalogSpan.end();
             }
         } finally {
-            db.writeUnlock();
+            TableLocks.unlockTablesWrite(db, lockedTables);
             finishSpan.end();
         }
         LOG.info("finish transaction {} successfully", transactionState);
     }
 
+    /**
+     * Finish several committed transactions of this database at once. The write locks of all their tables are
+     * taken once and the transactions are checked in the given order, so a transaction can follow the one
+     * before it on the same partition. All finishable transactions are persisted by one journal write.
+     * A transaction which can not be finished yet is skipped, as finishTransaction() would do.
+     */
+    public void finishTransactionBatch(List<TransactionState> transactionStates,
+                                       Map<Long, Set<Long>> txnIdToErrorReplicaIds) throws UserException {
+        Database db = globalStateMgr.getDb(dbId);
+        if (db == null) {
+            // abort them one by one
+            for (TransactionState transactionState : transactionStates) {
+                long transactionId = transactionState.getTransactionId();
+                finishTransaction(transactionId, txnIdToErrorReplicaIds.get(transactionId));
+            }
+            return;
+        }
+        Set<Long> tableIds = Sets.newHashSet();
+        for (TransactionState transactionState : transactionStates) {
+            tableIds.addAll(transactionState.getIdToTableCommitInfos().keySet());
+        }
+        List<Table> lockedTables = TableLocks.tryLockTablesWrite(db, tableIds, Long.MAX_VALUE);
+        if (lockedTables == null) {
+            LOG.warn("failed to lock db {} to finish {} transactions", db.getFullName(), transactionStates.size());
+            return;
+        }
+        List<TransactionState> visibleTxns = Lists.newArrayList();
+        try {
+            for (TransactionState transactionState : transactionStates) {
+                Set<Long> errorReplicaIds = txnIdToErrorReplicaIds.computeIfAbsent(
+                        transactionState.getTransactionId(), k -> Sets.newHashSet());
+                if (transactionState.getErrorReplicas() != null) {
+                    errorReplicaIds.addAll(transactionState.getErrorReplicas());
+                }
+                if (!checkReplicasPublished(db, transactionState, errorReplicaIds)) {
+                    continue;
+                }
+                transactionState.setErrorReplicas(errorReplicaIds);
+                // update the catalog before the journal is written, so that the next transaction on the same
+                // partition can see the new visible version. Nobody can see it before we release the table locks,
+                // and a failure of the journal write will make the leader exit.
+                updateCatalogAfterVisible(transactionState, db);
+                visibleTxns.add(transactionState);
+            }
+            if (visibleTxns.isEmpty()) {
+                return;
+            }
+            boolean txnOperated = false;
+            writeLock();
+            try {
+                long finishTime = System.currentTimeMillis();
+                for (TransactionState transactionState : visibleTxns) {
+                    transactionState.setFinishTime(finishTime);
+                    transactionState.clearErrorMsg();
+                    transactionState.setTransactionStatus(TransactionStatus.VISIBLE);
+                }
+                editLog.logInsertTransactionStateBatch(visibleTxns);
+                for (TransactionState transactionState : visibleTxns) {
+                    // already persisted above
+                    unprotectUpsertTransactionState(transactionState, true);
+                    transactionState.notifyVisible();
+                }
+                txnOperated = true;
+            } finally {
+                writeUnlock();
+                for (TransactionState transactionState : visibleTxns) {
+                    transactionState.afterStateTransform(TransactionStatus.VISIBLE, txnOperated);
+                }
+            }
+        } finally {
+            TableLocks.unlockTablesWrite(db, lockedTables);
+        }
+        LOG.info("finish {} transactions of db {} in batch, last txn id: {}", visibleTxns.size(), dbId,
+                visibleTxns.get(visibleTxns.size() - 1).getTransactionId());
+    }
+
+    /**
+     * Check that every partition of the transaction is at the version right before it, and that enough
+     * replicas of every loaded tablet have published it. Returns false if the transaction can not be
+     * finished yet, the reason is left in its error msg. Caller should hold the write locks of the tables.
+     */
+    private boolean checkReplicasPublished(Database db, TransactionState transactionState, Set<Long> errorReplicaIds) {
+        boolean hasError = false;
+        for (TableCommitInfo tableCommitInfo : transactionState.getIdToTableCommitInfos().values()) {
+            long tableId = tableCommitInfo.getTableId();
+            OlapTable table = (OlapTable) db.getTable(tableId);
+            // table maybe dropped between commit and publish, ignore this error
+            if (table == null) {
+                transactionState.removeTable(tableId);
+                LOG.warn("table {} is dropped, skip version check and remove it from transaction state {}",
+                        tableId,
+                        transactionState);
+                continue;
+            }
+            PartitionInfo partitionInfo = table.getPartitionInfo();
+            for (PartitionCommitInfo partitionCommitInfo : tableCommitInfo.getIdToPartitionCommitInfo().values()) {
+                long partitionId = partitionCommitInfo.getPartitionId();
+                Partition partition = table.getPartition(partitionId);
+                // partition maybe dropped between commit and publish version, ignore this error
+                if (partition == null) {
+                    tableCommitInfo.removePartition(partitionId);
+                    LOG.warn("partition {} is dropped, skip version check and remove it from transaction state {}",
+                            partitionId,
+                            transactionState);
+                    continue;
+                }
+                if (partition.getVisibleVersion() != partitionCommitInfo.getVersion() - 1) {
+                    // prevent excessive logging
+                    if (transactionState.getLastErrTimeMs() + 3000 < System.nanoTime() / 1000000) {
+                        LOG.debug("transactionId {} partition commitInfo version {} is not equal with " +
+                                        "partition visible version {} plus one, need wait",
+                                transactionState.getTransactionId(),
+                                partitionCommitInfo.getVersion(),
+                                partition.getVisibleVersion());
+                    }
+                    String errMsg =
+                            String.format("wait for publishing partition %d version %d. self version: %d. table %d",
+                                    partitionId, partition.getVisibleVersion() + 1,
+                                    partitionCommitInfo.getVersion(), tableId);
+                    transactionState.setErrorMsg(errMsg);
+                    return false;
+                }
+
+                if (table.isLakeTable()) {
+                    continue;
+                }
+
+                int quorumReplicaNum = partitionInfo.getQuorumNum(partitionId);
+
+                List<MaterializedIndex> allIndices =
+                        transactionState.getPartitionLoadedTblIndexes(tableId, partition);
+                for (MaterializedIndex index : allIndices) {
+                    for (Tablet tablet : index.getTablets()) {
+                        int healthReplicaNum = 0;
+                        for (Replica replica : ((LocalTablet) tablet).getImmutableReplicas()) {
+                            if (!errorReplicaIds.contains(replica.getId())
+                                    && replica.getLastFailedVersion() < 0) {
+                                // this means the replica is a healthy replica,
+                                // it is healthy in the past and does not have error in current load
+                                if (replica.checkVersionCatchUp(partition.getVisibleVersion(), true)) {
+                                    // during rollup, the rollup replica's last failed version < 0,
+                                    // it may be treated as a normal replica.
+
+                                    // Here we still update the replica's info even if we failed to publish
+                                    // this txn, for the following case:
+                                    // replica A,B,C is successfully committed, but only A is successfully
+                                    // published,
+                                    // B and C is crashed, now we need a Clone task to repair this tablet.
+                                    // So, here we update A's version info, so that clone task will clone
+                                    // the latest version of data.
+
+                                    replica.updateRowCount(partitionCommitInfo.getVersion(),
+                                            replica.getDataSize(), replica.getRowCount());
+                                    ++healthReplicaNum;
+                                } else {
+                                    // this means the replica has error in the past, but we did not observe it
+                                    // during upgrade, one job maybe in quorum finished state, for example, A,B,C 3 replica
+                                    // A,B 's version is 10, C's version is 10 but C' 10 is abnormal should be rollback
+                                    // then we will detect this and set C's last failed version to 10 and last success version to 11
+                                    // this logic has to be replayed in checkpoint thread
+                                    replica.updateVersionInfo(replica.getVersion(),
+                                            partition.getVisibleVersion(),
+                                            partitionCommitInfo.getVersion());
+                                    LOG.warn("transaction state {} has error, the replica [{}] not appeared " +
+                                                    "in error replica list and its version not equal to partition " +
+                                                    "commit version or commit version - 1 if its not a upgrate " +
+                                                    "stage, its a fatal error. ",
+                                            transactionState, replica);
+                                }
+                            } else if (replica.getVersion() >= partitionCommitInfo.getVersion()) {
+                                // the replica's version is larger than or equal to current transaction partition's version
+                                // the replica is normal, then remove it from error replica ids
+                                errorReplicaIds.remove(replica.getId());
+                                ++healthReplicaNum;
+                            }
+                        }
+
+                        if (healthReplicaNum < quorumReplicaNum) {
+                            // prevent excessive logging
+                            if (transactionState.getLastErrTimeMs() + 3000 < System.nanoTime() / 1000000) {
+                                LOG.info("publish version failed for transaction {} on tablet {}, with only {} " +
+                                                "replicas less than quorum {}", transactionState, tablet, healthReplicaNum,
+                                        quorumReplicaNum);
+                            }
+                            String errMsg = String.format(
+                                    "publish on tablet %d failed. succeed replica num %d less than quorum %d."
+                                            + " table: %d, partition: %d, publish version: %d",
+                                    tablet.getId(), healthReplicaNum, quorumReplicaNum, tableId, partitionId,
+                                    partition.getVisibleVersion() + 1);
+                            transactionState.setErrorMsg(errMsg);
+                            hasError = true;
+                        }
+                    }
+                }
+            }
+        }
+        return !hasError;
+    }
+
     protected void unprotectedCommitTransaction(TransactionState transactionState,
                                                 List<TransactionStateListener> stateListeners) {
         // transaction state is modified during check if the transaction could committed
@@ -1029,7 +1146,7 @@ public class DatabaseTransactionMgr {
             return;
         }
         // commit timestamps needs to be strictly monotonically increasing
-        long commitTs = Math.max(System.currentTimeMillis(), maxCommitTs + 1);
+        long commitTs = maxCommitTs.updateAndGet(ts -> Math.max(System.currentTimeMillis(), ts + 1));
         transactionState.setCommitTime(commitTs);
         // update transaction state version
         transactionState.setTransactionStatus(TransactionStatus.COMMITTED);
@@ -1075,7 +1192,7 @@ public class DatabaseTransactionMgr {
             return;
         }
         // commit timestamps needs to be strictly monotonically increasing
-        long commitTs = Math.max(System.currentTimeMillis(), maxCommitTs + 1);
+        long commitTs = maxCommitTs.updateAndGet(ts -> Math.max(System.currentTimeMillis(), ts + 1));
         transactionState.setCommitTime(commitTs);
         // update transaction state version
         transactionState.setTransactionStatus(TransactionStatus.COMMITTED);
@@ -1117,6 +1234,14 @@ public class DatabaseTransactionMgr {
 
     }
 
+    private void waitPendingLog(TransactionState transactionState) {
+        Future<Boolean> future = transactionState.getPendingLogFuture();
+        if (future != null) {
+            editLog.waitLogEdit(future);
+            transactionState.clearPendingLogFuture(future);
+        }
+    }
+
     // for add/update/delete TransactionState
     protected void unprotectUpsertTransactionState(TransactionState transactionState, boolean isReplay) {
         // if this is a replay operation, we should not log it
@@ -1128,73 +1253,75 @@ public class DatabaseTransactionMgr {
                 // user only need to retry this txn.
                 // The FRONTEND type txn is committed and running asynchronously, so we have to persist it.
                 long start = System.currentTimeMillis();
-                editLog.logInsertTransactionState(transactionState);
+                if (Config.enable_async_txn_commit_log
+                        && transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
+                    // the caller waits for it after releasing the lock, see commitTransaction()
+                    transactionState.setPendingLogFuture(editLog.logInsertTransactionStateAsync(transactionState));
+                } else {
+                    editLog.logInsertTransactionState(transactionState);
+                }
                 LOG.debug("insert txn state for txn {}, current state: {}, cost: {}ms",
                         transactionState.getTransactionId(), transactionState.getTransactionStatus(),
                         System.currentTimeMillis() - start);
             }
         }
         // it's OK if getCommitTime() returns -1
-        maxCommitTs = Math.max(maxCommitTs, transactionState.getCommitTime());
+        maxCommitTs.accumulateAndGet(transactionState.getCommitTime(), Math::max);
         if (!transactionState.getTransactionStatus().isFinalStatus()) {
             if (idToRunningTransactionState.put(transactionState.getTransactionId(), transactionState) == null) {
                 if (transactionState.getSourceType() == TransactionState.LoadJobSourceType.ROUTINE_LOAD_TASK) {
-                    runningRoutineLoadTxnNums++;
+                    runningRoutineLoadTxnNums.incrementAndGet();
                 } else {
-                    runningTxnNums++;
+                    runningTxnNums.incrementAndGet();
                 }
             }
             if (Config.enable_new_publish_mechanism && transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
                 transactionGraph.add(transactionState.getTransactionId(), transactionState.getTableIdList());
             }
         } else {
+            // put it into the final status map first, see unprotectedGetTransactionState()
+            idToFinalStatusTransactionState.put(transactionState.getTransactionId(), transactionState);
             if (idToRunningTransactionState.remove(transactionState.getTransactionId()) != null) {
                 if (transactionState.getSourceType() == TransactionState.LoadJobSourceType.ROUTINE_LOAD_TASK) {
-                    runningRoutineLoadTxnNums--;
+                    runningRoutineLoadTxnNums.decrementAndGet();
                 } else {
-                    runningTxnNums--;
+                    runningTxnNums.decrementAndGet();
                 }
             }
             transactionGraph.remove(transactionState.getTransactionId());
-            idToFinalStatusTransactionState.put(transactionState.getTransactionId(), transactionState);
-            finalStatusTransactionStateDeque.add(transactionState);
+            synchronized (finalStatusTransactionStateDeque) {
+                finalStatusTransactionStateDeque.add(transactionState);
+            }
         }
         updateTxnLabels(transactionState);
     }
 
     private void updateTxnLabels(TransactionState transactionState) {
-        Set<Long> txnIds = labelToTxnIds.computeIfAbsent(transactionState.getLabel(), k -> Sets.newHashSet());
+        Set<Long> txnIds = labelToTxnIds.computeIfAbsent(transactionState.getLabel(),
+                k -> Sets.newConcurrentHashSet());
         txnIds.add(transactionState.getTransactionId());
     }
 
     public void abortTransaction(String label, String reason) throws UserException {
         Preconditions.checkNotNull(label);
-        long transactionId = -1;
-        readLock();
-        try {
-            Set<Long> existingTxns = unprotectedGetTxnIdsByLabel(label);
-            if (existingTxns == null || existingTxns.isEmpty()) {
-                throw new TransactionNotFoundException("transaction not found, label=" + label);
-            }
-            // find PREPARE txn. For one load label, there should be only one PREPARE txn.
-            TransactionState prepareTxn = null;
-            for (Long txnId : existingTxns) {
-                TransactionState txn = unprotectedGetTransactionState(txnId);
-                if (txn.getTransactionStatus() == TransactionStatus.PREPARE) {
-                    prepareTxn = txn;
-                    break;
-                }
-            }
-
-            if (prepareTxn == null) {
-                throw new TransactionNotFoundException("running transaction not found, label=" + label);
+        Set<Long> existingTxns = unprotectedGetTxnIdsByLabel(label);
+        if (existingTxns == null || existingTxns.isEmpty()) {
+            throw new TransactionNotFoundException("transaction not found, label=" + label);
+        }
+        // find PREPARE txn. For one load label, there should be only one PREPARE txn.
+        TransactionState prepareTxn = null;
+        for (Long txnId : existingTxns) {
+            TransactionState txn = unprotectedGetTransactionState(txnId);
+            if (txn != null && txn.getTransactionStatus() == TransactionStatus.PREPARE) {
+                prepareTxn = txn;
+                break;
             }
+        }
 
-            transactionId = prepareTxn.getTransactionId();
-        } finally {
-            readUnlock();
+        if (prepareTxn == null) {
+            throw new TransactionNotFoundException("running transaction not found, label=" + label);
         }
-        abortTransaction(transactionId, reason, null);
+        abortTransaction(prepareTxn.getTransactionId(), reason, null);
     }
 
     public void abortTransaction(long transactionId, String reason, TxnCommitAttachment txnCommitAttachment)
@@ -1210,13 +1337,7 @@ public class DatabaseTransactionMgr {
                     transactionId);
             return;
         }
-        TransactionState transactionState = null;
-        readLock();
-        try {
-            transactionState = idToRunningTransactionState.get(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = idToRunningTransactionState.get(transactionId);
         if (transactionState == null) {
             throw new TransactionNotFoundException("transaction not found", transactionId);
         }
@@ -1229,11 +1350,11 @@ public class DatabaseTransactionMgr {
         // before state transform
         TxnStateChangeCallback callback = transactionState.beforeStateTransform(TransactionStatus.ABORTED);
         boolean txnOperated = false;
-        writeLock();
+        writeLock(transactionId);
         try {
             txnOperated = unprotectAbortTransaction(transactionId, abortPrepared, reason);
         } finally {
-            writeUnlock();
+            writeUnlock(transactionId);
             transactionState.afterStateTransform(TransactionStatus.ABORTED, txnOperated, callback, reason);
         }
 
@@ -1361,12 +1482,12 @@ public class DatabaseTransactionMgr {
     }
 
     private void clearTransactionState(TransactionState transactionState) {
-        idToFinalStatusTransactionState.remove(transactionState.getTransactionId());
         Set<Long> txnIds = unprotectedGetTxnIdsByLabel(transactionState.getLabel());
         txnIds.remove(transactionState.getTransactionId());
         if (txnIds.isEmpty()) {
             labelToTxnIds.remove(transactionState.getLabel());
         }
+        idToFinalStatusTransactionState.remove(transactionState.getTransactionId());
     }
 
     public int getTransactionNum() {
@@ -1431,7 +1552,14 @@ public class DatabaseTransactionMgr {
         return infos;
     }
 
-    protected void checkRunningTxnExceedLimit(TransactionState.LoadJobSourceType sourceType)
+    /**
+     * Reserve a slot of max_running_txn_num_per_db in runningTxnNums for a txn about to begin, so that concurrent
+     * begins on different labels can not exceed the limit. The caller releases the reservation once the txn is
+     * upserted, which counts the txn itself.
+     *
+     * @return whether a slot is reserved
+     */
+    private boolean reserveRunningTxn(TransactionState.LoadJobSourceType sourceType)
             throws BeginTransactionException {
         switch (sourceType) {
             case ROUTINE_LOAD_TASK:
@@ -1439,13 +1567,18 @@ public class DatabaseTransactionMgr {
                 // 1. the number of running routine load tasks is limited by Config.max_routine_load_task_num_per_be
                 // 2. if we add routine load txn to runningTxnNums, runningTxnNums will always be occupied by routine load,
                 //    and other txn may not be able to submitted.
-                break;
+                return false;
             default:
-                if (runningTxnNums >= Config.max_running_txn_num_per_db) {
-                    throw new BeginTransactionException("current running txns on db " + dbId + " is "
-                            + runningTxnNums + ", larger than limit " + Config.max_running_txn_num_per_db);
+                while (true) {
+                    int runningNum = runningTxnNums.get();
+                    if (runningNum >= Config.max_running_txn_num_per_db) {
+                        throw new BeginTransactionException("current running txns on db " + dbId + " is "
+                                + runningNum + ", larger than limit " + Config.max_running_txn_num_per_db);
+                    }
+                    if (runningTxnNums.compareAndSet(runningNum, runningNum + 1)) {
+                        return true;
+                    }
                 }
-                break;
         }
     }
 
@@ -1460,6 +1593,17 @@ public class DatabaseTransactionMgr {
         GlobalStateMgr.getCurrentAnalyzeMgr().updateLoadRows(transactionState);
     }
 
+    // write lock the tables to publish, the txn will be finished in the next round if failed to lock
+    private List<Table> lockTablesForFinish(Database db, TransactionState transactionState) {
+        List<Table> lockedTables = TableLocks.tryLockTablesWrite(db,
+                transactionState.getIdToTableCommitInfos().keySet(), Long.MAX_VALUE);
+        if (lockedTables == null) {
+            LOG.warn("failed to lock db {} to finish transaction {}", db.getFullName(),
+                    transactionState.getTransactionId());
+        }
+        return lockedTables;
+    }
+
     private boolean updateCatalogAfterVisible(TransactionState transactionState, Database db) {
         for (TableCommitInfo tableCommitInfo : transactionState.getIdToTableCommitInfos().values()) {
             Table table = db.getTable(tableCommitInfo.getTableId());
@@ -1570,7 +1714,7 @@ public class DatabaseTransactionMgr {
         readLock();
         try {
             infos.add(Lists.newArrayList("running", String.valueOf(
-                    runningTxnNums + runningRoutineLoadTxnNums)));
+                    runningTxnNums.get() + runningRoutineLoadTxnNums.get())));
             long finishedNum = getFinishedTxnNums();
             infos.add(Lists.newArrayList("finished", String.valueOf(finishedNum)));
         } finally {
@@ -1596,7 +1740,7 @@ public class DatabaseTransactionMgr {
     public void finishTransactionNew(TransactionState transactionState, Set<Long> publishErrorReplicas) throws UserException {
         Database db = globalStateMgr.getDb(transactionState.getDbId());
         if (db == null) {
-            writeLock();
+            writeLock(transactionState.getTransactionId());
             try {
                 transactionState.setTransactionStatus(TransactionStatus.ABORTED);
                 transactionState.setReason("db is dropped");
@@ -1604,15 +1748,19 @@ public class DatabaseTransactionMgr {
                 unprotectUpsertTransactionState(transactionState, false);
                 return;
             } finally {
-                writeUnlock();
+                writeUnlock(transactionState.getTransactionId());
             }
         }
         Span finishSpan = TraceManager.startSpan("finishTransaction", transactionState.getTxnSpan());
-        db.writeLock();
+        List<Table> lockedTables = lockTablesForFinish(db, transactionState);
+        if (lockedTables == null) {
+            finishSpan.end();
+            return;
+        }
         finishSpan.addEvent("db_lock");
         try {
             boolean txnOperated = false;
-            writeLock();
+            writeLock(transactionState.getTransactionId());
             finishSpan.addEvent("txnmgr_lock");
             try {
                 transactionState.setErrorReplicas(publishErrorReplicas);
@@ -1624,7 +1772,7 @@ public class DatabaseTransactionMgr {
                 transactionState.notifyVisible();
                 txnOperated = true;
             } finally {
-                writeUnlock();
+                writeUnlock(transactionState.getTransactionId());
                 transactionState.afterStateTransform(TransactionStatus.VISIBLE, txnOperated);
             }
             Span updateCatalogSpan = TraceManager.startSpan("updateCatalogAfterVisible", finishSpan);
@@ -1634,7 +1782,7 @@ public class DatabaseTransactionMgr {
                 updateCatalogSpan.end();
             }
         } finally {
-            db.writeUnlock();
+            TableLocks.unlockTablesWrite(db, lockedTables);
             finishSpan.end();
         }
         LOG.info("finish transaction {} successfully", transactionState);
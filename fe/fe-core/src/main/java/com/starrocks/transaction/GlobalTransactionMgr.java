@@ -24,6 +24,8 @@ package com.starrocks.transaction;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.TableLocks;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.DuplicatedRequestException;
@@ -367,14 +369,11 @@ public class GlobalTransactionMgr implements Writable {
         VisibleStateWaiter waiter;
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        if (!db.tryWriteLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
-            throw new UserException("get database write lock timeout, database="
-                    + db.getFullName() + ", timeoutMillis=" + timeoutMillis);
-        }
+        List<Table> lockedTables = lockTransactionTables(db, transactionId, timeoutMillis);
         try {
             waiter = getDatabaseTransactionMgr(db.getId()).commitPreparedTransaction(transactionId);
         } finally {
-            db.writeUnlock();
+            TableLocks.unlockTablesWrite(db, lockedTables);
         }
 
         stopWatch.stop();
@@ -387,6 +386,19 @@ public class GlobalTransactionMgr implements Writable {
         waiter.await(publishTimeoutMillis, TimeUnit.MILLISECONDS);
     }
 
+    // write lock the tables of the transaction, or the whole database if the tables are unknown
+    private List<Table> lockTransactionTables(Database db, long transactionId, long timeoutMillis)
+            throws UserException {
+        TransactionState transactionState = getDatabaseTransactionMgr(db.getId()).getTransactionState(transactionId);
+        List<Table> lockedTables = TableLocks.tryLockTablesWrite(db,
+                transactionState == null ? null : transactionState.getTableIdList(), timeoutMillis);
+        if (lockedTables == null) {
+            throw new UserException("get database write lock timeout, database="
+                    + db.getFullName() + ", timeoutMillis=" + timeoutMillis);
+        }
+        return lockedTables;
+    }
+
     public boolean commitAndPublishTransaction(Database db, long transactionId,
                                                List<TabletCommitInfo> tabletCommitInfos, long timeoutMillis)
             throws UserException {
@@ -399,15 +411,12 @@ public class GlobalTransactionMgr implements Writable {
             throws UserException {
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        if (!db.tryWriteLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
-            throw new UserException("get database write lock timeout, database="
-                    + db.getOriginName() + ", timeoutMillis=" + timeoutMillis);
-        }
+        List<Table> lockedTables = lockTransactionTables(db, transactionId, timeoutMillis);
         VisibleStateWaiter waiter;
         try {
             waiter = commitTransaction(db.getId(), transactionId, tabletCommitInfos, txnCommitAttachment);
         } finally {
-            db.writeUnlock();
+            TableLocks.unlockTablesWrite(db, lockedTables);
         }
         stopWatch.stop();
         long publishTimeoutMillis = timeoutMillis - stopWatch.getTime();
@@ -451,6 +460,10 @@ public class GlobalTransactionMgr implements Writable {
                 transactionStateList.addAll(dbTransactionMgr.getCommittedTxnList());
             }
         }
+        // the commit log may be written asynchronously, don't publish it to backends before it's persisted,
+        // otherwise the version may be reused by another transaction after the leader changes
+        transactionStateList.removeIf(
+                transactionState -> transactionState != null && !transactionState.isStatePersisted());
         return transactionStateList;
     }
 
@@ -484,6 +497,16 @@ public class GlobalTransactionMgr implements Writable {
         dbTransactionMgr.finishTransaction(transactionId, errorReplicaIds);
     }
 
+    /**
+     * finish several transactions of a db with one lock acquisition and one journal write,
+     * see DatabaseTransactionMgr.finishTransactionBatch()
+     */
+    public void finishTransactionBatch(long dbId, List<TransactionState> transactionStates,
+                                       Map<Long, Set<Long>> txnIdToErrorReplicaIds) throws UserException {
+        DatabaseTransactionMgr dbTransactionMgr = getDatabaseTransactionMgr(dbId);
+        dbTransactionMgr.finishTransactionBatch(transactionStates, txnIdToErrorReplicaIds);
+    }
+
     public void finishTransactionNew(TransactionState txnState, Set<Long> publishErrorReplicas) throws UserException {
         DatabaseTransactionMgr dbTransactionMgr = getDatabaseTransactionMgr(txnState.getDbId());
         dbTransactionMgr.finishTransactionNew(txnState, publishErrorReplicas);
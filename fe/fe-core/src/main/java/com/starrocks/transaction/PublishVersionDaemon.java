@@ -22,6 +22,7 @@
 package com.starrocks.transaction;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.MaterializedIndex;
@@ -38,6 +39,8 @@ import com.starrocks.common.UserException;
 import com.starrocks.common.util.LeaderDaemon;
 import com.starrocks.lake.LakeTable;
 import com.starrocks.lake.Utils;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.metric.TableMetricsRegistry;
 import com.starrocks.rpc.RpcException;
 import com.starrocks.scheduler.Constants;
 import com.starrocks.server.GlobalStateMgr;
@@ -134,6 +137,9 @@ public class PublishVersionDaemon extends LeaderDaemon {
         }
 
         // try to finish the transaction, if failed just retry in next loop
+        // dbId -> transactions which could be finished, in the order of readyTransactionStates
+        Map<Long, List<TransactionState>> dbIdToFinishableTxns = Maps.newLinkedHashMap();
+        Map<Long, Set<Long>> txnIdToErrorReplicaIds = Maps.newHashMap();
         for (TransactionState transactionState : readyTransactionStates) {
             Map<Long, PublishVersionTask> transTasks = transactionState.getPublishVersionTasks();
             Set<Long> publishErrorReplicaIds = Sets.newHashSet();
@@ -162,25 +168,56 @@ public class PublishVersionDaemon extends LeaderDaemon {
                         publishErrorReplicaIds, unfinishedBackends);
             }
 
-            if (shouldFinishTxn) {
+            if (!shouldFinishTxn) {
+                continue;
+            }
+            if (Config.enable_batch_publish_version) {
+                dbIdToFinishableTxns.computeIfAbsent(transactionState.getDbId(), k -> Lists.newArrayList())
+                        .add(transactionState);
+                txnIdToErrorReplicaIds.put(transactionState.getTransactionId(), publishErrorReplicaIds);
+            } else {
                 globalTransactionMgr.finishTransaction(transactionState.getDbId(), transactionState.getTransactionId(),
                         publishErrorReplicaIds);
-                if (transactionState.getTransactionStatus() != TransactionStatus.VISIBLE) {
-                    transactionState.updateSendTaskTime();
-                    LOG.debug("publish version for transaction {} failed, has {} error replicas during publish",
-                            transactionState, publishErrorReplicaIds.size());
-                } else {
-                    for (PublishVersionTask task : transactionState.getPublishVersionTasks().values()) {
-                        AgentTaskQueue.removeTask(task.getBackendId(), TTaskType.PUBLISH_VERSION, task.getSignature());
-                    }
-                    // clear publish version tasks to reduce memory usage when state changed to visible.
-                    transactionState.clearPublishVersionTasks();
-
-                    // Refresh materialized view when base table update transaction has been visible if necessary
-                    refreshMvIfNecessary(transactionState);
-                }
+                afterFinishTransaction(transactionState, publishErrorReplicaIds);
             }
         } // end for readyTransactionStates
+
+        for (Map.Entry<Long, List<TransactionState>> entry : dbIdToFinishableTxns.entrySet()) {
+            globalTransactionMgr.finishTransactionBatch(entry.getKey(), entry.getValue(), txnIdToErrorReplicaIds);
+            for (TransactionState transactionState : entry.getValue()) {
+                afterFinishTransaction(transactionState,
+                        txnIdToErrorReplicaIds.get(transactionState.getTransactionId()));
+            }
+        }
+    }
+
+    private void afterFinishTransaction(TransactionState transactionState, Set<Long> publishErrorReplicaIds) {
+        if (transactionState.getTransactionStatus() != TransactionStatus.VISIBLE) {
+            transactionState.updateSendTaskTime();
+            LOG.debug("publish version for transaction {} failed, has {} error replicas during publish",
+                    transactionState, publishErrorReplicaIds.size());
+        } else {
+            for (PublishVersionTask task : transactionState.getPublishVersionTasks().values()) {
+                AgentTaskQueue.removeTask(task.getBackendId(), TTaskType.PUBLISH_VERSION, task.getSignature());
+            }
+            // clear publish version tasks to reduce memory usage when state changed to visible.
+            transactionState.clearPublishVersionTasks();
+
+            updatePublishLatencyMetrics(transactionState);
+
+            // Refresh materialized view when base table update transaction has been visible if necessary
+            refreshMvIfNecessary(transactionState);
+        }
+    }
+
+    private void updatePublishLatencyMetrics(TransactionState transactionState) {
+        if (!MetricRepo.isInit || transactionState.getCommitTime() <= 0) {
+            return;
+        }
+        long latencyMs = transactionState.getFinishTime() - transactionState.getCommitTime();
+        for (long tableId : transactionState.getIdToTableCommitInfos().keySet()) {
+            TableMetricsRegistry.getInstance().getMetricsEntity(tableId).histoPublishLatency.update(latencyMs);
+        }
     }
 
     private void publishVersionNew(GlobalTransactionMgr globalTransactionMgr, List<TransactionState> txns) {
@@ -203,6 +240,7 @@ public class PublishVersionDaemon extends LeaderDaemon {
                     }
                     // clear publish version tasks to reduce memory usage when state changed to visible.
                     transactionState.clearPublishVersionTasks();
+                    updatePublishLatencyMetrics(transactionState);
                 }
             } catch (UserException e) {
                 LOG.error("errors while publish version to all backends", e);
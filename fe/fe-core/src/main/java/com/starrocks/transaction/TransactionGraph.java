@@ -15,8 +15,8 @@ import java.util.stream.Collectors;
 
 /**
  * store transactions' dependency relationships
- * this class is used in DatabaseTransactionMgr and all methods are protected by mgr's lock
- * so this class does not require additional synchronization
+ * this class is used in DatabaseTransactionMgr, transactions of different lock shards of the mgr
+ * may update it at the same time, so all methods are synchronized
  */
 public class TransactionGraph {
     private static final Logger LOG = LogManager.getLogger(TransactionGraph.class);
@@ -75,11 +75,11 @@ public class TransactionGraph {
     public TransactionGraph() {
     }
 
-    public int size() {
+    public synchronized int size() {
         return nodes.size();
     }
 
-    public void add(long txnId, List<Long> writeTableIds) {
+    public synchronized void add(long txnId, List<Long> writeTableIds) {
         if (nodes.containsKey(txnId)) {
             LOG.warn("add an already exist txn:{}", txnId);
             return;
@@ -99,7 +99,7 @@ public class TransactionGraph {
         }
     }
 
-    public void remove(long txnId) {
+    public synchronized void remove(long txnId) {
         Node node = nodes.get(txnId);
         if (node == null) {
             return;
@@ -124,7 +124,7 @@ public class TransactionGraph {
         }
     }
 
-    public List<Long> getTxnsWithoutDependency() {
+    public synchronized List<Long> getTxnsWithoutDependency() {
         return nodesWithoutIns.stream().map(n -> n.txnId).collect(Collectors.toList());
     }
 }
@@ -57,6 +57,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import javax.validation.constraints.NotNull;
 
@@ -223,6 +224,8 @@ public class TransactionState implements Writable {
     private boolean hasSendTask;
     private long publishVersionTime = -1;
     private long publishVersionFinishTime = -1;
+    // the journal of the latest state which is written asynchronously, null if it's written synchronously
+    private volatile Future<Boolean> pendingLogFuture = null;
 
     private long callbackId = -1;
     private long timeoutMs = Config.stream_load_default_timeout_second * 1000;
@@ -412,6 +415,36 @@ public class TransactionState implements Writable {
         }
     }
 
+    public synchronized void setPendingLogFuture(Future<Boolean> pendingLogFuture) {
+        this.pendingLogFuture = pendingLogFuture;
+    }
+
+    public Future<Boolean> getPendingLogFuture() {
+        return pendingLogFuture;
+    }
+
+    // drop the future once it's done, unless a newer state is being written
+    public synchronized void clearPendingLogFuture(Future<Boolean> future) {
+        if (pendingLogFuture == future) {
+            pendingLogFuture = null;
+        }
+    }
+
+    /**
+     * Whether the journal of the latest state has been written, the state must not be sent to backends before it.
+     */
+    public boolean isStatePersisted() {
+        Future<Boolean> future = pendingLogFuture;
+        if (future == null) {
+            return true;
+        }
+        if (future.isDone()) {
+            clearPendingLogFuture(future);
+            return true;
+        }
+        return false;
+    }
+
     public void notifyVisible() {
         // To avoid the method not having to be called repeatedly or in advance, 
         // the following trigger conditions have been added
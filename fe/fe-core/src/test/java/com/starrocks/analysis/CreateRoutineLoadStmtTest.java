@@ -189,6 +189,38 @@ public class CreateRoutineLoadStmtTest {
 
     }
 
+    @Test
+    public void testAnalyzeTargetTables() throws Exception {
+        ConnectContext ctx = starRocksAssert.getCtx();
+        String createSQL = "CREATE ROUTINE LOAD db0.routine_load_0 ON t1 " +
+                "COLUMNS TERMINATED BY \",\", COLUMNS(k1, tbl, v1, k2 = k1 + 1) " +
+                "PROPERTIES(\"target_tables\" = \"t2, t1,t3,t2\", \"table_route_column\" = \"tbl\") " +
+                "FROM KAFKA(\"kafka_broker_list\" = \"xxx.xxx.xxx.xxx:xxx\",\"kafka_topic\" = \"topic_0\");";
+        CreateRoutineLoadStmt stmt = (CreateRoutineLoadStmt) UtFrameUtils.parseAndAnalyzeStmt(createSQL, ctx);
+        Assert.assertEquals(Lists.newArrayList("t2", "t3"), stmt.getTargetTables());
+        Assert.assertEquals("tbl", stmt.getTableRouteColumn());
+        Assert.assertEquals(1, CreateRoutineLoadStmt.getCsvRouteColumnIndex(
+                stmt.getRoutineLoadDesc().getColumnsInfo().getColumns(), "TBL"));
+
+        // the route column must be a column of the csv data
+        String noRouteColumnSQL = "CREATE ROUTINE LOAD db0.routine_load_0 ON t1 COLUMNS(k1, v1) " +
+                "PROPERTIES(\"target_tables\" = \"t2\", \"table_route_column\" = \"tbl\") " +
+                "FROM KAFKA(\"kafka_broker_list\" = \"xxx.xxx.xxx.xxx:xxx\",\"kafka_topic\" = \"topic_0\");";
+        Assert.assertThrows(AnalysisException.class, () -> UtFrameUtils.parseAndAnalyzeStmt(noRouteColumnSQL, ctx));
+
+        String noRoutePropertySQL = "CREATE ROUTINE LOAD db0.routine_load_0 ON t1 " +
+                "PROPERTIES(\"format\" = \"json\", \"target_tables\" = \"t2\") " +
+                "FROM KAFKA(\"kafka_broker_list\" = \"xxx.xxx.xxx.xxx:xxx\",\"kafka_topic\" = \"topic_0\");";
+        Assert.assertThrows(AnalysisException.class, () -> UtFrameUtils.parseAndAnalyzeStmt(noRoutePropertySQL, ctx));
+
+        // json rows are routed by a top level key
+        String jsonPathsSQL = "CREATE ROUTINE LOAD db0.routine_load_0 ON t1 " +
+                "PROPERTIES(\"format\" = \"json\", \"jsonpaths\" = \"[\\\"$.k1\\\"]\", " +
+                "\"target_tables\" = \"t2\", \"table_route_column\" = \"tbl\") " +
+                "FROM KAFKA(\"kafka_broker_list\" = \"xxx.xxx.xxx.xxx:xxx\",\"kafka_topic\" = \"topic_0\");";
+        Assert.assertThrows(AnalysisException.class, () -> UtFrameUtils.parseAndAnalyzeStmt(jsonPathsSQL, ctx));
+    }
+
     @Test
     public void testKafkaOffset(@Injectable Analyzer analyzer) throws UserException {
         new MockUp<StatementBase>() {
@@ -33,6 +33,7 @@ import mockit.Mock;
 import mockit.MockUp;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class FakeEditLog extends MockUp<EditLog> {
@@ -48,6 +49,13 @@ public class FakeEditLog extends MockUp<EditLog> {
         allTransactionState.put(transactionState.getTransactionId(), transactionState);
     }
 
+    @Mock
+    public void logInsertTransactionStateBatch(List<TransactionState> transactionStates) {
+        for (TransactionState transactionState : transactionStates) {
+            allTransactionState.put(transactionState.getTransactionId(), transactionState);
+        }
+    }
+
     @Mock
     public void logDeleteTransactionState(TransactionState transactionState) {
         allTransactionState.remove(transactionState.getTransactionId());
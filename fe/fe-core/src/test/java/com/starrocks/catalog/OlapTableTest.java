@@ -25,10 +25,12 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.IndexDef;
 import com.starrocks.catalog.Table.TableType;
+import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.io.FastByteArrayOutputStream;
 import com.starrocks.common.util.UnitTestUtil;
 import com.starrocks.server.GlobalStateMgr;
+import mockit.Deencapsulation;
 import mockit.Mock;
 import mockit.MockUp;
 import org.junit.Assert;
@@ -90,4 +92,48 @@ public class OlapTableTest {
             Assert.assertEquals(Sets.newHashSet(), tbl.getRelatedMaterializedViews());
         }
     }
+
+    @Test
+    public void testPinPartitionSnapshot() {
+        Database db = UnitTestUtil.createDb(1, 2, 3, 4, 5, 6, 7);
+        OlapTable tbl = (OlapTable) db.getTable(2);
+        Assert.assertTrue(PartitionSnapshot.pin());
+        try {
+            Assert.assertFalse(PartitionSnapshot.pin());
+            Assert.assertEquals(1, tbl.getPartitions().size());
+            tbl.addPartition(new Partition(100L, "p100", new MaterializedIndex(), null));
+            // the partitions read by the planning thread are pinned
+            Assert.assertEquals(1, tbl.getPartitions().size());
+            Assert.assertNull(tbl.getPartition(100L));
+            Assert.assertNull(tbl.getPartition("p100"));
+            Assert.assertEquals(2, tbl.getPartitionSnapshot().getPartitions().size());
+        } finally {
+            PartitionSnapshot.unpin();
+        }
+        Assert.assertEquals(2, tbl.getPartitions().size());
+        Assert.assertNotNull(tbl.getPartition("P100"));
+        Assert.assertEquals(Sets.newHashSet("p100", tbl.getPartition(3L).getName()), tbl.getPartitionNames());
+    }
+
+    @Test
+    public void testPublishPartitionSnapshot() {
+        Database db = UnitTestUtil.createDb(1, 2, 3, 4, 5, 6, 7);
+        OlapTable tbl = (OlapTable) db.getTable(2);
+        boolean oldOptimisticPlanning = Config.enable_optimistic_planning;
+        try {
+            // the partitions are not copied on changes if the snapshot is never read by the planner
+            Config.enable_optimistic_planning = false;
+            tbl.addPartition(new Partition(100L, "p100", new MaterializedIndex(), null));
+            Assert.assertNull(Deencapsulation.getField(tbl, "partitionSnapshot"));
+            Assert.assertEquals(2, tbl.getPartitionSnapshot().getPartitions().size());
+
+            Config.enable_optimistic_planning = true;
+            tbl.addPartition(new Partition(101L, "p101", new MaterializedIndex(), null));
+            PartitionSnapshot snapshot = Deencapsulation.getField(tbl, "partitionSnapshot");
+            Assert.assertSame(snapshot, tbl.getPartitionSnapshot());
+            Assert.assertEquals(3, snapshot.getPartitions().size());
+        } finally {
+            Config.enable_optimistic_planning = oldOptimisticPlanning;
+        }
+    }
 }
@@ -0,0 +1,202 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.IntentionLock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TableLocksTest {
+    private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+    private Database db;
+    private Table table1;
+    private Table table2;
+
+    @Before
+    public void setUp() {
+        Config.enable_table_level_lock = true;
+        db = new Database(1, "db");
+        table1 = new Table(11, "t1", Table.TableType.OLAP, Lists.newArrayList());
+        table2 = new Table(12, "t2", Table.TableType.OLAP, Lists.newArrayList());
+        db.createTable(table1);
+        db.createTable(table2);
+    }
+
+    @After
+    public void tearDown() {
+        Config.enable_table_level_lock = false;
+        otherThread.shutdownNow();
+    }
+
+    private boolean inOtherThread(Callable<Boolean> task) throws Exception {
+        return otherThread.submit(task).get();
+    }
+
+    @Test
+    public void testIntentionLockModes() throws Exception {
+        IntentionLock lock = new IntentionLock();
+        lock.lock(IntentionLock.Mode.SHARED);
+        Assert.assertTrue(inOtherThread(() -> {
+            boolean locked = lock.tryLock(IntentionLock.Mode.SHARED, 0, TimeUnit.MILLISECONDS);
+            lock.unlock(IntentionLock.Mode.SHARED);
+            return locked;
+        }));
+        Assert.assertFalse(inOtherThread(
+                () -> lock.tryLock(IntentionLock.Mode.INTENTION_EXCLUSIVE, 10, TimeUnit.MILLISECONDS)));
+        // the only SHARED holder could take INTENTION_EXCLUSIVE
+        Assert.assertTrue(lock.tryLock(IntentionLock.Mode.INTENTION_EXCLUSIVE, 0, TimeUnit.MILLISECONDS));
+        lock.unlock(IntentionLock.Mode.INTENTION_EXCLUSIVE);
+        // but not while the other threads hold SHARED
+        CountDownLatch sharedLocked = new CountDownLatch(1);
+        CountDownLatch sharedRelease = new CountDownLatch(1);
+        Future<?> otherShared = otherThread.submit(() -> {
+            lock.lock(IntentionLock.Mode.SHARED);
+            sharedLocked.countDown();
+            sharedRelease.await();
+            lock.unlock(IntentionLock.Mode.SHARED);
+            return null;
+        });
+        sharedLocked.await();
+        Assert.assertFalse(lock.tryLock(IntentionLock.Mode.INTENTION_EXCLUSIVE, 10, TimeUnit.MILLISECONDS));
+        sharedRelease.countDown();
+        otherShared.get();
+        Assert.assertTrue(lock.tryLock(IntentionLock.Mode.INTENTION_EXCLUSIVE, 1000, TimeUnit.MILLISECONDS));
+        // the INTENTION_EXCLUSIVE holder could take SHARED again
+        lock.lock(IntentionLock.Mode.SHARED);
+        lock.unlock(IntentionLock.Mode.SHARED);
+        lock.unlock(IntentionLock.Mode.INTENTION_EXCLUSIVE);
+        lock.unlock(IntentionLock.Mode.SHARED);
+        Assert.assertFalse(lock.isHeldByCurrentThread(IntentionLock.Mode.SHARED));
+
+        Assert.assertTrue(inOtherThread(() -> {
+            boolean locked = lock.tryLock(IntentionLock.Mode.INTENTION_EXCLUSIVE, 0, TimeUnit.MILLISECONDS);
+            lock.unlock(IntentionLock.Mode.INTENTION_EXCLUSIVE);
+            return locked;
+        }));
+        Assert.assertEquals(0, lock.getHoldCount(IntentionLock.Mode.INTENTION_EXCLUSIVE));
+    }
+
+    @Test
+    public void testLockTablesWrite() throws Exception {
+        List<Table> locked = TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table1.getId()), 1000);
+        Assert.assertNotNull(locked);
+        try {
+            // writers of other tables and db intention writers go on
+            Assert.assertTrue(inOtherThread(() -> {
+                List<Table> tables = TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table2.getId()), 100);
+                if (tables == null) {
+                    return false;
+                }
+                TableLocks.unlockTablesWrite(db, tables);
+                return true;
+            }));
+            Assert.assertFalse(inOtherThread(() ->
+                    TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table1.getId()), 10) != null));
+            // the legacy db lock is excluded
+            Assert.assertFalse(inOtherThread(() -> db.tryReadLock(10, TimeUnit.MILLISECONDS)));
+            Assert.assertFalse(inOtherThread(() -> db.tryWriteLock(10, TimeUnit.MILLISECONDS)));
+            // reentrant for the legacy code under the table lock
+            db.readLock();
+            db.readUnlock();
+        } finally {
+            TableLocks.unlockTablesWrite(db, locked);
+        }
+        Assert.assertTrue(inOtherThread(() -> {
+            boolean isLocked = db.tryReadLock(10, TimeUnit.MILLISECONDS);
+            db.readUnlock();
+            return isLocked;
+        }));
+    }
+
+    @Test
+    public void testSwitchToTablesRead() throws Exception {
+        db.readLock();
+        Assert.assertFalse(inOtherThread(() ->
+                TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table2.getId()), 10) != null));
+
+        List<Database> dbs = Lists.newArrayList(db);
+        List<Table> locked = TableLocks.switchToTablesRead(dbs, Lists.newArrayList(table1, table1));
+        Assert.assertEquals(1, locked.size());
+        try {
+            Assert.assertTrue(inOtherThread(() -> {
+                List<Table> tables = TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table2.getId()), 100);
+                if (tables == null) {
+                    return false;
+                }
+                TableLocks.unlockTablesWrite(db, tables);
+                return true;
+            }));
+            Assert.assertFalse(inOtherThread(() ->
+                    TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table1.getId()), 10) != null));
+            Assert.assertFalse(inOtherThread(() -> db.tryWriteLock(10, TimeUnit.MILLISECONDS)));
+        } finally {
+            TableLocks.unlockTablesRead(dbs, locked);
+        }
+        Assert.assertTrue(inOtherThread(() -> {
+            boolean isLocked = db.tryWriteLock(10, TimeUnit.MILLISECONDS);
+            db.writeUnlock();
+            return isLocked;
+        }));
+    }
+
+    @Test
+    public void testReadLockMaterializedViews() throws Exception {
+        // the query on table1 may be rewritten with its materialized view table2
+        table1.addRelatedMaterializedView(table2.getId());
+        List<Database> dbs = Lists.newArrayList(db);
+        db.readLock();
+        List<Table> locked = TableLocks.switchToTablesRead(dbs, Lists.newArrayList(table1));
+        try {
+            Assert.assertEquals(2, locked.size());
+            Assert.assertFalse(inOtherThread(() ->
+                    TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table2.getId()), 10) != null));
+        } finally {
+            TableLocks.unlockTablesRead(dbs, locked);
+            table1.removeRelatedMaterializedView(table2.getId());
+        }
+    }
+
+    @Test
+    public void testWriteVersion() throws Exception {
+        long dbVersion = db.getWriteVersion();
+        db.writeLock();
+        db.writeLock();
+        Assert.assertEquals(dbVersion + 1, db.getWriteVersion());
+        db.writeUnlock();
+        db.writeUnlock();
+        Assert.assertEquals(dbVersion + 2, db.getWriteVersion());
+        Assert.assertTrue(db.tryReadLock(0, TimeUnit.MILLISECONDS));
+        db.readUnlock();
+        Assert.assertEquals(dbVersion + 2, db.getWriteVersion());
+
+        long tableVersion = table1.getWriteVersion();
+        List<Table> locked = TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table1.getId()), 1000);
+        Assert.assertEquals(tableVersion + 1, table1.getWriteVersion());
+        TableLocks.unlockTablesWrite(db, locked);
+        Assert.assertEquals(tableVersion + 2, table1.getWriteVersion());
+        Assert.assertEquals(dbVersion + 2, db.getWriteVersion());
+    }
+
+    @Test
+    public void testFallbackToDbLock() {
+        Config.enable_table_level_lock = false;
+        List<Table> locked = TableLocks.tryLockTablesWrite(db, Lists.newArrayList(table1.getId()), 1000);
+        Assert.assertNotNull(locked);
+        Assert.assertTrue(locked.isEmpty());
+        Assert.assertTrue(db.isWriteLockHeldByCurrentThread());
+        TableLocks.unlockTablesWrite(db, locked);
+        Assert.assertFalse(db.isWriteLockHeldByCurrentThread());
+    }
+}
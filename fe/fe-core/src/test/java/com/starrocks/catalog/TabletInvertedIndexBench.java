@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.starrocks.thrift.TStorageMedium;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build the tablet inverted index with 3 replicas per tablet, visit the replicas of a backend,
+ * and print the heap retained by the index, to observe the memory footprint per replica.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class TabletInvertedIndexBench {
+    private static final int REPLICA_NUM = 3;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TabletInvertedIndexBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"1000000", "5000000"})
+    public int tabletNum;
+
+    @Param({"10"})
+    public int backendNum;
+
+    private TabletMeta tabletMeta;
+    private Replica[] replicas;
+    private TabletInvertedIndex index;
+
+    @Setup
+    public void setup() {
+        tabletMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+        // the replicas are part of the catalog, so they are created ahead and not counted in
+        replicas = new Replica[tabletNum * REPLICA_NUM];
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i] = new Replica(i, i % backendNum, 5, Replica.ReplicaState.NORMAL);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Setup(Level.Iteration)
+    public void dropIndex() {
+        index = null;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printFootprint() {
+        long withIndex = usedHeap();
+        index = null;
+        long withoutIndex = usedHeap();
+        System.out.printf("%n%d tablets, index retains %d MB, %.1f bytes per replica%n", tabletNum,
+                (withIndex - withoutIndex) >> 20, (double) (withIndex - withoutIndex) / replicas.length);
+    }
+
+    @Benchmark
+    public long buildAndVisit() {
+        index = new TabletInvertedIndex();
+        for (int tabletId = 0; tabletId < tabletNum; tabletId++) {
+            index.addTablet(tabletId, tabletMeta);
+            for (int i = 0; i < REPLICA_NUM; i++) {
+                Replica replica = replicas[tabletId * REPLICA_NUM + i];
+                index.addReplica(tabletId, replica);
+            }
+        }
+        List<Long> tabletIds = index.getTabletIdsByBackendId(0);
+        return tabletIds.size() + index.getReplicasOnBackendByTabletIds(tabletIds, 0).size();
+    }
+}
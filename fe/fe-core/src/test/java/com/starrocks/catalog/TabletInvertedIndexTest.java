@@ -0,0 +1,61 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.starrocks.thrift.TStorageMedium;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class TabletInvertedIndexTest {
+
+    @Test
+    public void testReplicas() {
+        TabletInvertedIndex index = new TabletInvertedIndex();
+        TabletMeta hddMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.HDD);
+        TabletMeta ssdMeta = new TabletMeta(1, 2, 3, 4, 5, TStorageMedium.SSD);
+        // enough tablets to spread over all the stripes
+        for (long tabletId = 1; tabletId <= 1000; tabletId++) {
+            index.addTablet(tabletId, tabletId % 2 == 0 ? ssdMeta : hddMeta);
+            for (long backendId = 1; backendId <= 3; backendId++) {
+                index.addReplica(tabletId, new Replica(tabletId * 10 + backendId, backendId, 5,
+                        Replica.ReplicaState.NORMAL));
+            }
+        }
+
+        Assert.assertEquals(1000, index.getTabletNumByBackendId(1));
+        Assert.assertEquals(500, index.getTabletIdsByBackendIdAndStorageMedium(2, TStorageMedium.SSD).size());
+        Map<TStorageMedium, Long> mediumNum = index.getReplicaNumByBeIdAndStorageMedium(3);
+        Assert.assertEquals(500L, (long) mediumNum.get(TStorageMedium.HDD));
+        Assert.assertEquals(500L, (long) mediumNum.get(TStorageMedium.SSD));
+        Assert.assertEquals(Long.valueOf(7), index.getTabletIdByReplica(72));
+        Assert.assertEquals(3, index.getReplicasByTabletId(7).size());
+
+        // replace the replica on backend 1
+        index.addReplica(7, new Replica(100000, 1, 5, Replica.ReplicaState.NORMAL));
+        Assert.assertEquals(100000, index.getReplica(7, 1).getId());
+        Assert.assertNull(index.getTabletIdByReplica(71));
+        Assert.assertEquals(3, index.getReplicasByTabletId(7).size());
+
+        index.deleteReplica(7, 2);
+        Assert.assertNull(index.getReplica(7, 2));
+        Assert.assertNull(index.getTabletIdByReplica(72));
+        Assert.assertEquals(999, index.getTabletNumByBackendId(2));
+        List<Replica> replicas = index.getReplicasOnBackendByTabletIds(Lists.newArrayList(7L, 8L), 2);
+        Assert.assertNull(replicas.get(0));
+        Assert.assertEquals(82, replicas.get(1).getId());
+
+        index.deleteTablet(8);
+        Assert.assertNull(index.getTabletMeta(8));
+        Assert.assertTrue(index.getReplicasByTabletId(8).isEmpty());
+        Assert.assertEquals(998, index.getTabletIdsByBackendId(2).size());
+        Assert.assertSame(TabletInvertedIndex.NOT_EXIST_TABLET_META,
+                index.getTabletMetaList(Lists.newArrayList(7L, 8L)).get(1));
+
+        index.clear();
+        Assert.assertEquals(0, index.getTabletNumByBackendId(1));
+    }
+}
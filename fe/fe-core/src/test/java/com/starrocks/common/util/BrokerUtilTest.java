@@ -27,8 +27,10 @@ import com.starrocks.analysis.BrokerDesc;
 import com.starrocks.catalog.BrokerMgr;
 import com.starrocks.catalog.FsBroker;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.GenericPool;
 import com.starrocks.common.UserException;
+import com.starrocks.fs.HdfsUtil;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.thrift.TBrokerCloseReaderRequest;
 import com.starrocks.thrift.TBrokerCloseWriterRequest;
@@ -60,6 +62,8 @@ import org.junit.Test;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -325,4 +329,54 @@ public class BrokerUtilTest {
             Assert.fail(e.getMessage());
         }
     }
+
+    @Test
+    public void testParseFiles() throws UserException {
+        AtomicInteger listTimes = new AtomicInteger();
+        new MockUp<HdfsUtil>() {
+            @Mock
+            public void parseFile(String path, BrokerDesc brokerDesc, List<TBrokerFileStatus> fileStatuses)
+                    throws UserException {
+                listTimes.incrementAndGet();
+                if (path.endsWith("not_exist")) {
+                    throw new UserException("file not found: " + path);
+                }
+                fileStatuses.add(new TBrokerFileStatus(path + "/file1", false, 10, true));
+                fileStatuses.add(new TBrokerFileStatus(path + "/file2", false, 20, true));
+            }
+        };
+
+        int ttlSecond = Config.broker_load_list_file_cache_ttl_second;
+        Config.broker_load_list_file_cache_ttl_second = 10;
+        try {
+            Map<String, String> properties = Maps.newHashMap();
+            properties.put("username", "user1");
+            BrokerDesc brokerDesc = new BrokerDesc(properties);
+            List<String> paths = Lists.newArrayList("hdfs://host/parse_files/dir1", "hdfs://host/parse_files/dir2",
+                    "hdfs://host/parse_files/dir3");
+            List<List<TBrokerFileStatus>> fileStatuses = BrokerUtil.parseFiles(paths, brokerDesc);
+            Assert.assertEquals(3, fileStatuses.size());
+            for (int i = 0; i < paths.size(); i++) {
+                Assert.assertEquals(2, fileStatuses.get(i).size());
+                Assert.assertEquals(paths.get(i) + "/file1", fileStatuses.get(i).get(0).getPath());
+            }
+            Assert.assertEquals(3, listTimes.get());
+
+            // listed paths are cached, unless the properties are different
+            fileStatuses = BrokerUtil.parseFiles(paths, brokerDesc);
+            Assert.assertEquals(paths.get(2) + "/file2", fileStatuses.get(2).get(1).getPath());
+            Assert.assertEquals(3, listTimes.get());
+            BrokerUtil.parseFiles(paths.subList(0, 1), new BrokerDesc(Maps.newHashMap()));
+            Assert.assertEquals(4, listTimes.get());
+
+            Config.broker_load_list_file_cache_ttl_second = 0;
+            BrokerUtil.parseFiles(paths, brokerDesc);
+            Assert.assertEquals(7, listTimes.get());
+
+            List<String> failedPaths = Lists.newArrayList(paths.get(0), "hdfs://host/parse_files/not_exist");
+            Assert.assertThrows(UserException.class, () -> BrokerUtil.parseFiles(failedPaths, brokerDesc));
+        } finally {
+            Config.broker_load_list_file_cache_ttl_second = ttlSecond;
+        }
+    }
 }
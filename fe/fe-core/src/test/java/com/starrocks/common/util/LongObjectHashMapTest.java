@@ -0,0 +1,54 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testRandomOps() {
+        Random random = new Random(0);
+        Map<Long, String> expected = Maps.newHashMap();
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        LongLongHashMap longMap = new LongLongHashMap(-1);
+        for (int i = 0; i < 200000; i++) {
+            // a small key range to make many collisions and removals
+            long key = random.nextInt(5000) - 2500;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+                longMap.remove(key);
+            } else {
+                String value = String.valueOf(i);
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                longMap.put(key, i);
+            }
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected.size(), longMap.size());
+        }
+        for (long key = -2500; key < 2500; key++) {
+            Assert.assertEquals(expected.get(key), map.get(key));
+            String value = expected.get(key);
+            Assert.assertEquals(value == null ? -1 : Long.parseLong(value), longMap.get(key));
+        }
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        Assert.assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+        Map<Long, String> visited = Maps.newHashMap();
+        map.forEach(visited::put);
+        Assert.assertEquals(expected, visited);
+
+        map.clear();
+        longMap.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(keys[0]));
+        Assert.assertFalse(longMap.containsKey(keys[0]));
+    }
+}
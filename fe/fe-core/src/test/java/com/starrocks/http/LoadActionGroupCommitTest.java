@@ -0,0 +1,42 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+package com.starrocks.http;
+
+import com.starrocks.http.rest.LoadAction;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class LoadActionGroupCommitTest extends StarRocksHttpTestCase {
+
+    @Override
+    public void doSetUp() {
+        for (Backend backend : GlobalStateMgr.getCurrentSystemInfo().getBackends()) {
+            backend.setAlive(true);
+        }
+    }
+
+    @Test
+    public void testChooseGroupCommitBackend() {
+        List<Long> backendIds = LoadAction.chooseGroupCommitBackendIds(DB_NAME, TABLE_NAME);
+        Assert.assertEquals(1, backendIds.size());
+        // loads of the same table always go to the same backend
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(backendIds, LoadAction.chooseGroupCommitBackendIds(DB_NAME, TABLE_NAME));
+        }
+
+        // move to another backend once the chosen one is down
+        long chosenId = backendIds.get(0);
+        GlobalStateMgr.getCurrentSystemInfo().getBackend(chosenId).setAlive(false);
+        List<Long> newBackendIds = LoadAction.chooseGroupCommitBackendIds(DB_NAME, TABLE_NAME);
+        Assert.assertEquals(1, newBackendIds.size());
+        Assert.assertNotEquals(chosenId, (long) newBackendIds.get(0));
+
+        for (Backend backend : GlobalStateMgr.getCurrentSystemInfo().getBackends()) {
+            backend.setAlive(false);
+        }
+        Assert.assertTrue(LoadAction.chooseGroupCommitBackendIds(DB_NAME, TABLE_NAME).isEmpty());
+    }
+}
@@ -8,6 +8,11 @@ import com.starrocks.common.FeConstants;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.thrift.TBackend;
+import com.starrocks.thrift.TMasterResult;
+import com.starrocks.thrift.TReportRequest;
+import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TTablet;
 import com.starrocks.thrift.TTabletInfo;
 import com.starrocks.utframe.StarRocksAssert;
@@ -63,4 +68,36 @@ public class ReportHandlerTest {
         ReportHandler handler = new ReportHandler();
         handler.testHandleSetTabletEnablePersistentIndex(backendId, backendTablets);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIncrementalTabletReport() throws Exception {
+        Backend be = GlobalStateMgr.getCurrentSystemInfo().getBackend(10001L);
+        TBackend tBackend = new TBackend(be.getHost(), be.getBePort(), be.getHttpPort());
+        ReportHandler handler = new ReportHandler();
+        ReportHandler.removeBackend(be.getId());
+
+        // no full report before, the incremental one is rejected
+        TReportRequest incremental = new TReportRequest(tBackend);
+        incremental.setReport_version(2);
+        incremental.setTablets(new HashMap<>());
+        incremental.setIncremental_tablet_report(true);
+        incremental.setBase_report_version(1);
+        incremental.setRemoved_tablet_ids(Lists.newArrayList(100L));
+        Assert.assertTrue(handler.handleReport(incremental).isNeed_full_tablet_report());
+
+        TReportRequest full = new TReportRequest(tBackend);
+        full.setReport_version(1);
+        full.setTablets(new HashMap<>());
+        TMasterResult result = handler.handleReport(full);
+        Assert.assertEquals(TStatusCode.OK, result.getStatus().getStatus_code());
+        Assert.assertTrue(result.isSupport_incremental_tablet_report());
+        Assert.assertFalse(handler.handleReport(incremental).isNeed_full_tablet_report());
+        // the base is not the last accepted report
+        Assert.assertTrue(handler.handleReport(incremental).isNeed_full_tablet_report());
+
+        // the states of a dropped backend are removed
+        Assert.assertEquals(TStatusCode.OK, handler.handleReport(full).getStatus().getStatus_code());
+        ReportHandler.removeBackend(be.getId());
+        Assert.assertTrue(handler.handleReport(incremental).isNeed_full_tablet_report());
+    }
+}
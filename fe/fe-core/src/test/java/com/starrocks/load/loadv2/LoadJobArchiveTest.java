@@ -0,0 +1,128 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.AuthorizationInfo;
+import com.starrocks.common.Config;
+import com.starrocks.load.EtlJobType;
+import com.starrocks.load.Load;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class LoadJobArchiveTest {
+    private final int origLabelKeepMaxSecond = Config.label_keep_max_second;
+
+    @After
+    public void tearDown() {
+        Config.label_keep_max_second = origLabelKeepMaxSecond;
+    }
+
+    private static ArchivedLoadJob newJob(long id, long dbId, String label, JobState state, long finishTimestamp) {
+        List<String> showInfo = Lists.newArrayList();
+        for (int i = 0; i < 15; i++) {
+            showInfo.add("column" + i);
+        }
+        return new ArchivedLoadJob(id, dbId, label, state, EtlJobType.BROKER, finishTimestamp,
+                new AuthorizationInfo("db", Sets.newHashSet("tbl")), Sets.newHashSet("tbl"),
+                state == JobState.CANCELLED ? "cancelled" : "", showInfo);
+    }
+
+    private static List<Long> getJobIds(List<ArchivedLoadJob> jobs) {
+        return jobs.stream().map(ArchivedLoadJob::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testGetJobs() {
+        LoadJobArchive archive = new LoadJobArchive(2);
+        archive.add(newJob(1, 1, "label1", JobState.FINISHED, 1000));
+        archive.add(newJob(2, 2, "label1", JobState.FINISHED, 2000));
+        archive.add(newJob(3, 1, "label2", JobState.CANCELLED, 3000));
+        archive.add(newJob(4, 1, "label2", JobState.FINISHED, 4000));
+        archive.add(newJob(5, 1, "label3", JobState.CANCELLED, 5000));
+        Assert.assertEquals(5, archive.size());
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L, 4L, 5L), getJobIds(archive.getJobs()));
+
+        Set<JobState> allStates = EnumSet.allOf(JobState.class);
+        Assert.assertEquals(Lists.newArrayList(1L, 3L, 4L, 5L), getJobIds(archive.getJobs(1, null, false, allStates)));
+        Assert.assertEquals(Lists.newArrayList(3L, 4L), getJobIds(archive.getJobs(1, "label2", true, allStates)));
+        Assert.assertEquals(Lists.newArrayList(1L, 3L, 4L, 5L),
+                getJobIds(archive.getJobs(1, "label", false, allStates)));
+        Assert.assertEquals(Lists.newArrayList(3L, 5L),
+                getJobIds(archive.getJobs(1, null, false, Sets.newHashSet(JobState.CANCELLED))));
+        Assert.assertTrue(archive.getJobs(3, null, false, allStates).isEmpty());
+
+        Assert.assertEquals(4L, archive.getLatestJob(1, "label2").getId());
+        Assert.assertEquals(2L, archive.getLatestJob(2, "label1").getId());
+        Assert.assertNull(archive.getLatestJob(2, "label2"));
+
+        Assert.assertTrue(archive.isLabelUsed(1, "label1"));
+        Assert.assertTrue(archive.isLabelUsed(1, "label2"));
+        // the label of a cancelled job can be used again
+        Assert.assertFalse(archive.isLabelUsed(1, "label3"));
+        Assert.assertFalse(archive.isLabelUsed(2, "label2"));
+
+        Assert.assertEquals(3, archive.getJobNum(JobState.FINISHED, EtlJobType.BROKER));
+        Assert.assertEquals(2, archive.getJobNum(JobState.CANCELLED, EtlJobType.BROKER));
+        Assert.assertEquals(0, archive.getJobNum(JobState.FINISHED, EtlJobType.INSERT));
+        Assert.assertEquals(2, archive.getJobNum(JobState.FINISHED, 1));
+
+        // the jobs are the same after being deflated
+        ArchivedLoadJob job = archive.getLatestJob(1, "label2");
+        List<Comparable> showInfo = job.getShowInfo();
+        Assert.assertEquals(4L, showInfo.get(0));
+        Assert.assertEquals(EtlJobType.BROKER, showInfo.get(4));
+        Assert.assertEquals("column14", showInfo.get(14));
+        Assert.assertEquals(4000, job.getFinishTimestamp());
+    }
+
+    @Test
+    public void testRemove() {
+        long currentTimeMs = System.currentTimeMillis();
+        LoadJobArchive archive = new LoadJobArchive(2);
+        for (int i = 0; i < 5; i++) {
+            archive.add(newJob(i, 1, "label" + i, JobState.FINISHED, currentTimeMs - (10 - i) * 1000L));
+        }
+
+        Config.label_keep_max_second = 7;
+        Assert.assertEquals(3, archive.removeExpired(currentTimeMs));
+        Assert.assertEquals(Lists.newArrayList(3L, 4L), getJobIds(archive.getJobs()));
+        Assert.assertFalse(archive.isLabelUsed(1, "label2"));
+        Assert.assertTrue(archive.isLabelUsed(1, "label3"));
+        Assert.assertEquals(2, archive.getJobNum(JobState.FINISHED, EtlJobType.BROKER));
+
+        archive.add(newJob(5, 1, "label5", JobState.FINISHED, currentTimeMs));
+        Assert.assertEquals(2, archive.removeOldest(2));
+        Assert.assertEquals(Lists.newArrayList(5L), getJobIds(archive.getJobs()));
+        Assert.assertEquals(1, archive.removeOldest(2));
+        Assert.assertEquals(0, archive.size());
+        Assert.assertEquals(0, archive.getJobNum(JobState.FINISHED, EtlJobType.BROKER));
+        Assert.assertEquals(0, archive.removeExpired(currentTimeMs));
+    }
+
+    @Test
+    public void testGetJobInfo() throws Exception {
+        ArchivedLoadJob job = newJob(1, 1, "label1", JobState.CANCELLED, 1000);
+        Load.JobInfo jobInfo = new Load.JobInfo("db", "label1");
+        new MockUp<ArchivedLoadJob>() {
+            @Mock
+            public boolean checkAuth() {
+                return true;
+            }
+        };
+        job.getJobInfo(jobInfo);
+        Assert.assertEquals(JobState.CANCELLED, jobInfo.state);
+        Assert.assertEquals("cancelled", jobInfo.failMsg);
+        Assert.assertEquals("column13", jobInfo.trackingUrl);
+        Assert.assertEquals(Sets.newHashSet("tbl"), jobInfo.tblNames);
+    }
+}
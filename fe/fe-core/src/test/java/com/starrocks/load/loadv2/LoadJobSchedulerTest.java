@@ -0,0 +1,164 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2;
+
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.catalog.ResourceGroupMgr;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.load.FailMsg;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.BeginTransactionException;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class LoadJobSchedulerTest {
+
+    @After
+    public void tearDown() {
+        Config.max_running_bulk_load_jobs = 0;
+        Config.desired_max_waiting_jobs_per_user = 0;
+    }
+
+    private static BrokerLoadJob newJob(long id, LoadPriority priority, String user, String resourceGroup) {
+        BrokerLoadJob job = new BrokerLoadJob();
+        Deencapsulation.setField(job, "id", id);
+        Deencapsulation.setField(job, "priority", priority);
+        Deencapsulation.setField(job, "user", user);
+        if (resourceGroup != null) {
+            Map<String, String> sessionVariables = Deencapsulation.getField(job, "sessionVariables");
+            sessionVariables.put(SessionVariable.RESOURCE_GROUP, resourceGroup);
+        }
+        return job;
+    }
+
+    private static long pollJobId(LoadJobScheduler scheduler, Map<String, Integer> runningJobNums) {
+        LoadJob job = scheduler.pollJob(runningJobNums);
+        return job == null ? -1 : job.getId();
+    }
+
+    @Test
+    public void testPriorityAndUserTurn() {
+        LoadJobScheduler scheduler = new LoadJobScheduler();
+        scheduler.submitJob(newJob(1, LoadPriority.LOW, "u1", null));
+        scheduler.submitJob(newJob(2, LoadPriority.NORMAL, "u1", null));
+        scheduler.submitJob(newJob(3, LoadPriority.NORMAL, "u1", null));
+        scheduler.submitJob(newJob(4, LoadPriority.NORMAL, "u1", null));
+        scheduler.submitJob(newJob(5, LoadPriority.NORMAL, "u2", null));
+        scheduler.submitJob(newJob(6, LoadPriority.HIGHEST, "u2", null));
+        Assert.assertEquals(6, scheduler.getWaitingJobNum());
+
+        Config.desired_max_waiting_jobs_per_user = 4;
+        Assert.assertTrue(scheduler.isUserQueueFull("u1"));
+        Assert.assertFalse(scheduler.isUserQueueFull("u2"));
+
+        // the users of the same priority take turns
+        Map<String, Integer> runningJobNums = Maps.newHashMap();
+        long[] expectedJobIds = {6, 2, 5, 3, 4, 1, -1};
+        for (long expectedJobId : expectedJobIds) {
+            Assert.assertEquals(expectedJobId, pollJobId(scheduler, runningJobNums));
+        }
+        Assert.assertEquals(0, scheduler.getWaitingJobNum());
+        Assert.assertFalse(scheduler.isUserQueueFull("u1"));
+
+        // cancelled jobs are removed
+        BrokerLoadJob cancelledJob = newJob(7, LoadPriority.HIGH, "u1", null);
+        Deencapsulation.setField(cancelledJob, "state", JobState.CANCELLED);
+        scheduler.submitJob(cancelledJob);
+        Assert.assertEquals(-1, pollJobId(scheduler, runningJobNums));
+        Assert.assertEquals(0, scheduler.getWaitingJobNum());
+    }
+
+    @Test
+    public void testRunningJobLimit(@Mocked GlobalStateMgr globalStateMgr,
+                                    @Mocked ResourceGroupMgr resourceGroupMgr) {
+        ResourceGroup resourceGroup = new ResourceGroup();
+        resourceGroup.setConcurrencyLimit(1);
+        new Expectations() {
+            {
+                globalStateMgr.getResourceGroupMgr();
+                minTimes = 0;
+                result = resourceGroupMgr;
+
+                resourceGroupMgr.getResourceGroup("rg1");
+                minTimes = 0;
+                result = resourceGroup;
+            }
+        };
+
+        LoadJobScheduler scheduler = new LoadJobScheduler();
+        scheduler.submitJob(newJob(1, LoadPriority.HIGH, "u1", "rg1"));
+        scheduler.submitJob(newJob(2, LoadPriority.NORMAL, "u1", null));
+
+        // the resource group of the high priority job is full
+        Map<String, Integer> runningJobNums = Maps.newHashMap();
+        runningJobNums.put("rg1", 1);
+        Assert.assertEquals(2, pollJobId(scheduler, runningJobNums));
+        Assert.assertEquals(-1, pollJobId(scheduler, runningJobNums));
+
+        runningJobNums.put("rg1", 0);
+        Config.max_running_bulk_load_jobs = 1;
+        runningJobNums.put("", 1);
+        Assert.assertEquals(-1, pollJobId(scheduler, runningJobNums));
+        runningJobNums.put("", 0);
+        Assert.assertEquals(1, pollJobId(scheduler, runningJobNums));
+    }
+
+    @Test
+    public void testSubmitTimeRemoved(@Mocked GlobalStateMgr globalStateMgr,
+                                      @Mocked LoadManager loadManager) throws Exception {
+        new Expectations() {
+            {
+                globalStateMgr.getLoadManager();
+                minTimes = 0;
+                result = loadManager;
+
+                loadManager.getRunningBulkLoadJobNums();
+                minTimes = 0;
+                result = Maps.newHashMap();
+            }
+        };
+
+        // the job is cancelled when it's scheduled
+        BrokerLoadJob failedJob = new BrokerLoadJob() {
+            @Override
+            public void execute() throws AnalysisException {
+                throw new AnalysisException("invalid job");
+            }
+
+            @Override
+            public void cancelJobWithoutCheck(FailMsg failMsg, boolean abortTxn, boolean needLog) {
+            }
+        };
+        Deencapsulation.setField(failedJob, "id", 1L);
+        LoadJobScheduler scheduler = new LoadJobScheduler();
+        scheduler.submitJob(failedJob);
+        Map<Long, Long> jobIdToSubmitTimeMs = Deencapsulation.getField(scheduler, "jobIdToSubmitTimeMs");
+        Assert.assertEquals(1, jobIdToSubmitTimeMs.size());
+        Deencapsulation.invoke(scheduler, "process");
+        Assert.assertTrue(jobIdToSubmitTimeMs.isEmpty());
+        Assert.assertEquals(0, scheduler.getWaitingJobNum());
+
+        // the job is scheduled again later, it keeps its first submit time
+        BrokerLoadJob retriedJob = new BrokerLoadJob() {
+            @Override
+            public void execute() throws BeginTransactionException {
+                throw new BeginTransactionException("too many running txns");
+            }
+        };
+        Deencapsulation.setField(retriedJob, "id", 2L);
+        scheduler.submitJob(retriedJob);
+        long submitTimeMs = jobIdToSubmitTimeMs.get(2L);
+        Deencapsulation.invoke(scheduler, "process");
+        Assert.assertEquals(1, scheduler.getWaitingJobNum());
+        Assert.assertEquals(submitTimeMs, (long) jobIdToSubmitTimeMs.get(2L));
+    }
+}
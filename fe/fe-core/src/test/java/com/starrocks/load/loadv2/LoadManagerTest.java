@@ -26,6 +26,7 @@ import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeMetaVersion;
 import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.load.EtlJobType;
 import com.starrocks.meta.MetaContext;
 import com.starrocks.server.GlobalStateMgr;
 import mockit.Expectations;
@@ -41,6 +42,7 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -174,11 +176,78 @@ public class LoadManagerTest {
         Assert.assertEquals(0, newLoadJobs.size());
     }
 
+    @Test
+    public void testArchiveFinishedLoadJobs(@Mocked GlobalStateMgr globalStateMgr,
+                                            @Injectable Database database,
+                                            @Injectable Table table) throws Exception {
+        new Expectations() {
+            {
+                globalStateMgr.getDb(anyLong);
+                minTimes = 0;
+                result = database;
+                database.getTable(anyLong);
+                minTimes = 0;
+                result = table;
+                table.getName();
+                minTimes = 0;
+                result = "tablename";
+                GlobalStateMgr.getCurrentStateJournalVersion();
+                minTimes = 0;
+                result = FeMetaVersion.VERSION_CURRENT;
+            }
+        };
+
+        Config.label_keep_max_second = 10;
+        loadManager = new LoadManager(new LoadJobScheduler());
+        LoadJob job1 = new InsertLoadJob("job1", 1L, 1L, System.currentTimeMillis(), "", "");
+        Deencapsulation.invoke(loadManager, "addLoadJob", job1);
+
+        // disabled by default
+        loadManager.archiveFinishedLoadJobs();
+        Map<Long, LoadJob> idToLoadJob = Deencapsulation.getField(loadManager, fieldName);
+        Assert.assertEquals(1, idToLoadJob.size());
+
+        boolean enableLoadJobArchive = Config.enable_load_job_archive;
+        Config.enable_load_job_archive = true;
+        try {
+            loadManager.archiveFinishedLoadJobs();
+        } finally {
+            Config.enable_load_job_archive = enableLoadJobArchive;
+        }
+        Assert.assertTrue(idToLoadJob.isEmpty());
+        Assert.assertEquals(1, loadManager.getLoadJobNum(JobState.FINISHED, EtlJobType.INSERT));
+        Assert.assertEquals(1, loadManager.getLoadJobNum(JobState.FINISHED, 1L));
+        LoadJobArchive loadJobArchive = Deencapsulation.getField(loadManager, "loadJobArchive");
+        Assert.assertTrue(loadJobArchive.isLabelUsed(1L, "job1"));
+
+        // the archived jobs are saved in the image
+        File file = serializeToFile(loadManager);
+        LoadManager newLoadManager = deserializeFromFile(file);
+        Assert.assertEquals(1, newLoadManager.getLoadJobNum(JobState.FINISHED, EtlJobType.INSERT));
+
+        // followers replay the archived jobs
+        LoadManager followerLoadManager = new LoadManager(new LoadJobScheduler());
+        LoadJob followerJob1 = new InsertLoadJob("job1", 1L, 1L, System.currentTimeMillis(), "", "");
+        Deencapsulation.setField(followerJob1, "id", job1.getId());
+        Deencapsulation.invoke(followerLoadManager, "addLoadJob", followerJob1);
+        followerLoadManager.replayArchiveLoadJobs(new ArchiveLoadJobsInfo(Collections.singletonList(job1.getId())));
+        Map<Long, LoadJob> followerIdToLoadJob = Deencapsulation.getField(followerLoadManager, fieldName);
+        Assert.assertTrue(followerIdToLoadJob.isEmpty());
+        Assert.assertEquals(1, followerLoadManager.getLoadJobNum(JobState.FINISHED, EtlJobType.INSERT));
+
+        // the archived jobs are removed as the other jobs
+        Config.label_keep_max_second = 1;
+        Thread.sleep(2000);
+        newLoadManager.removeOldLoadJob();
+        Assert.assertEquals(0, newLoadManager.getLoadJobNum(JobState.FINISHED, EtlJobType.INSERT));
+    }
+
     private File serializeToFile(LoadManager loadManager) throws Exception {
         File file = new File("./loadManagerTest");
         file.createNewFile();
         DataOutputStream dos = new DataOutputStream(new FileOutputStream(file));
         loadManager.write(dos);
+        loadManager.saveLoadJobArchive(dos, 0);
         dos.flush();
         dos.close();
         return file;
@@ -188,6 +257,7 @@ public class LoadManagerTest {
         DataInputStream dis = new DataInputStream(new FileInputStream(file));
         LoadManager loadManager = new LoadManager(new LoadJobScheduler());
         loadManager.readFields(dis);
+        loadManager.loadLoadJobArchive(dis, 0);
         return loadManager;
     }
 
@@ -32,6 +32,7 @@ import com.starrocks.analysis.ParseNode;
 import com.starrocks.analysis.PartitionNames;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.Config;
 import com.starrocks.common.LoadException;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.Pair;
@@ -137,6 +138,76 @@ public class KafkaRoutineLoadJobTest {
         Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
     }
 
+    @Test
+    public void testLagScheduling(@Mocked GlobalStateMgr globalStateMgr,
+                                  @Mocked SystemInfoService systemInfoService) throws MetaNotFoundException {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentSystemInfo();
+                minTimes = 0;
+                result = systemInfoService;
+                systemInfoService.getAliveBackendNumber();
+                result = 4;
+                minTimes = 0;
+            }
+        };
+
+        KafkaRoutineLoadJob routineLoadJob = new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", 1L,
+                1L, "127.0.0.1:9020", "topic1");
+        Deencapsulation.setField(routineLoadJob, "currentKafkaPartitions", Lists.newArrayList(1, 2, 3, 4));
+        boolean enableLagScheduling = Config.enable_routine_load_lag_scheduling;
+        Config.enable_routine_load_lag_scheduling = true;
+        try {
+            // no lag or throughput is measured yet
+            Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Assert.assertEquals(Config.max_routine_load_batch_size,
+                    routineLoadJob.getTaskMaxBatchSize(Lists.newArrayList(1, 2)));
+
+            // one task loads 1000 rows per second, 100 bytes per row
+            Deencapsulation.setField(routineLoadJob, "committedTaskNum", 10L);
+            Deencapsulation.setField(routineLoadJob, "totalRows", 10000L);
+            Deencapsulation.setField(routineLoadJob, "receivedBytes", 1000000L);
+            Deencapsulation.setField(routineLoadJob, "totalTaskExcutionTimeMs", 10000L);
+            long rowsPerTask = 1000 * Config.routine_load_task_consume_second;
+
+            // begin offsets which are not consumed yet are ignored
+            routineLoadJob.updatePartitionLag(ImmutableMap.of(1, 100L, 2, 100L, 3, 100L, 4, 100L),
+                    ImmutableMap.of(1, 90L, 2, 100L, 3, -1L, 4, -2L));
+            Assert.assertEquals(2, routineLoadJob.getPartitionIdToLag().size());
+            Assert.assertEquals(10L, routineLoadJob.getTotalLag());
+            Assert.assertEquals(1, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Assert.assertEquals(Config.min_routine_load_batch_size,
+                    routineLoadJob.getTaskMaxBatchSize(Lists.newArrayList(1, 2)));
+
+            routineLoadJob.updatePartitionLag(ImmutableMap.of(1, 3 * rowsPerTask, 2, 2 * rowsPerTask),
+                    ImmutableMap.of(1, 0L, 2, 0L));
+            Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            routineLoadJob.updatePartitionLag(ImmutableMap.of(1, rowsPerTask, 2, rowsPerTask / 2),
+                    ImmutableMap.of(1, 0L, 2, 0L));
+            Assert.assertEquals(2, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            routineLoadJob.updatePartitionLag(ImmutableMap.of(1, 1000000L), ImmutableMap.of(1, 0L));
+            Assert.assertEquals(100000000L, routineLoadJob.getTaskMaxBatchSize(Lists.newArrayList(1)));
+            // the lag of partition 3 is unknown
+            Assert.assertEquals(Config.max_routine_load_batch_size,
+                    routineLoadJob.getTaskMaxBatchSize(Lists.newArrayList(1, 3)));
+
+            // the tasks committed so far took no measurable time
+            routineLoadJob.updatePartitionLag(ImmutableMap.of(1, rowsPerTask / 2, 2, rowsPerTask / 2),
+                    ImmutableMap.of(1, 0L, 2, 0L));
+            Assert.assertEquals(1, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Deencapsulation.setField(routineLoadJob, "totalTaskExcutionTimeMs", 0L);
+            Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Deencapsulation.setField(routineLoadJob, "totalTaskExcutionTimeMs", 10000L);
+
+            Config.enable_routine_load_lag_scheduling = false;
+            Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Assert.assertEquals(Config.max_routine_load_batch_size,
+                    routineLoadJob.getTaskMaxBatchSize(Lists.newArrayList(1)));
+        } finally {
+            Config.enable_routine_load_lag_scheduling = enableLagScheduling;
+        }
+    }
+
     @Test
     public void testDivideRoutineLoadJob(@Injectable RoutineLoadManager routineLoadManager,
                                          @Mocked RoutineLoadDesc routineLoadDesc)
@@ -348,6 +348,42 @@ public class RoutineLoadManagerTest {
         Assert.assertEquals(2 * Config.max_routine_load_task_num_per_be, routineLoadManager.getClusterIdleSlotNum());
     }
 
+    @Test
+    public void testTakeBeTaskSlotByReceivedBytes() throws Exception {
+        List<Long> beIds = Lists.newArrayList(1L, 2L);
+
+        new Expectations() {
+            {
+                systemInfoService.getBackendIds(true);
+                minTimes = 0;
+                result = beIds;
+            }
+        };
+
+        new MockUp<GlobalStateMgr>() {
+            public SystemInfoService getCurrentSystemInfo() {
+                return systemInfoService;
+            }
+        };
+
+        RoutineLoadManager routineLoadManager = new RoutineLoadManager();
+        routineLoadManager.updateBeTaskSlot();
+        routineLoadManager.updateBeReceivedBytes(1L, 1000L);
+
+        // both have the same idle slots, be 2 received less data
+        Assert.assertEquals(2L, routineLoadManager.takeBeTaskSlot());
+        // be 1 has more idle slots
+        Assert.assertEquals(1L, routineLoadManager.takeBeTaskSlot());
+
+        // the received bytes decay, be 2 still received less data
+        routineLoadManager.updateBeReceivedBytes(2L, 600L);
+        routineLoadManager.updateBeTaskSlot();
+        Assert.assertEquals(2L, routineLoadManager.takeBeTaskSlot());
+        routineLoadManager.releaseBeTaskSlot(2L);
+        routineLoadManager.updateBeReceivedBytes(2L, 300L);
+        Assert.assertEquals(1L, routineLoadManager.takeBeTaskSlot());
+    }
+
     @Test
     public void testGetJobByName(@Injectable RoutineLoadJob routineLoadJob1,
                                  @Injectable RoutineLoadJob routineLoadJob2,
@@ -2,7 +2,10 @@
 
 package com.starrocks.persist;
 
+import com.starrocks.common.Pair;
+import com.starrocks.common.io.DataOutputBuffer;
 import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
 import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.ha.FrontendNodeType;
 import com.starrocks.journal.JournalEntity;
@@ -17,6 +20,8 @@ import org.apache.logging.log4j.Logger;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -25,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 public class EditLogTest {
     public static final Logger LOG = LogManager.getLogger(EditLogTest.class);
@@ -122,6 +128,41 @@ public class EditLogTest {
         t2.join();
     }
 
+    @Test
+    public void testLogEditAsync() throws Exception {
+        BlockingQueue<JournalTask> journalQueue = new ArrayBlockingQueue<>(10);
+        EditLog editLog = new EditLog(journalQueue);
+
+        Future<Boolean> future = editLog.logEditAsync(OperationType.OP_SAVE_NEXTID, new Text("1"));
+        Assert.assertFalse(future.isDone());
+        List<Pair<Short, Writable>> edits = new ArrayList<>();
+        edits.add(new Pair<>(OperationType.OP_SAVE_NEXTID, new Text("2")));
+        edits.add(new Pair<>(OperationType.OP_SAVE_TRANSACTION_ID, new Text("3")));
+        Future<Boolean> batchFuture = editLog.logEditsAsync(edits);
+
+        // submitted in order, the related logs are in one task
+        Assert.assertEquals(2, journalQueue.size());
+        JournalTask task = journalQueue.take();
+        Assert.assertSame(future, task);
+        Assert.assertEquals(1, task.getJournalCount());
+        JournalTask batchTask = journalQueue.take();
+        Assert.assertSame(batchFuture, batchTask);
+        Assert.assertEquals(2, batchTask.getJournalCount());
+
+        DataOutputBuffer buffer = batchTask.getBuffers().get(1);
+        JournalEntity entity = new JournalEntity();
+        entity.readFields(new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength())));
+        Assert.assertEquals(OperationType.OP_SAVE_TRANSACTION_ID, entity.getOpCode());
+        Assert.assertEquals("3", entity.getData().toString());
+
+        task.markSucceed();
+        batchTask.markSucceed();
+        editLog.waitLogEdit(future);
+        editLog.waitLogEdit(batchFuture);
+        Assert.assertTrue(future.isDone());
+        Assert.assertTrue(batchFuture.isDone());
+    }
+
     private GlobalStateMgr mockGlobalStateMgr() throws Exception {
         GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
 
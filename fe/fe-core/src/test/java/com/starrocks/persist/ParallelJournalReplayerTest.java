@@ -0,0 +1,105 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ParallelJournalReplayerTest {
+    private final int batchSize = Config.journal_replay_parallel_batch_size;
+
+    @After
+    public void tearDown() {
+        Config.journal_replay_parallel_batch_size = batchSize;
+    }
+
+    private static JournalEntity createEntity(short opCode, Writable data) {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(opCode);
+        entity.setData(data);
+        return entity;
+    }
+
+    private static JournalEntity createTxnEntity(long dbId, long txnId) {
+        TransactionState state = new TransactionState(dbId, Lists.newArrayList(), txnId, "label" + txnId,
+                null, TransactionState.LoadJobSourceType.BACKEND_STREAMING, null, -1, 1000);
+        return createEntity(OperationType.OP_UPSERT_TRANSACTION_STATE, state);
+    }
+
+    @Test
+    public void testPartitionKey() {
+        Assert.assertEquals(10, ParallelJournalReplayer.getPartitionKey(createTxnEntity(10, 1)));
+        Assert.assertEquals(20, ParallelJournalReplayer.getPartitionKey(createEntity(OperationType.OP_DELETE_REPLICA,
+                ReplicaPersistInfo.createForDelete(20, 1, 2, 3, 4, 5))));
+        Assert.assertEquals(ParallelJournalReplayer.GLOBAL_PARTITION, ParallelJournalReplayer.getPartitionKey(
+                createEntity(OperationType.OP_SAVE_NEXTID, new Text("1"))));
+    }
+
+    @Test
+    public void testBarrierAndBatch() {
+        Config.journal_replay_parallel_batch_size = 2;
+        ParallelJournalReplayer replayer = new ParallelJournalReplayer();
+        Assert.assertTrue(replayer.isEmpty());
+        Assert.assertFalse(replayer.add(createEntity(OperationType.OP_SAVE_NEXTID, new Text("1"))));
+        Assert.assertTrue(replayer.isEmpty());
+        Assert.assertTrue(replayer.add(createTxnEntity(10, 1)));
+        Assert.assertFalse(replayer.isFull());
+        Assert.assertTrue(replayer.add(createTxnEntity(11, 2)));
+        Assert.assertTrue(replayer.isFull());
+    }
+
+    @Test
+    public void testReplayKeepOrderOfDatabase() throws Exception {
+        Map<Long, List<Long>> replayedTxns = new ConcurrentHashMap<>();
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal) {
+                TransactionState state = (TransactionState) journal.getData();
+                if (state.getTransactionId() == 7) {
+                    throw new IllegalStateException("bad journal");
+                }
+                replayedTxns.computeIfAbsent(state.getDbId(), k -> Lists.newArrayList()).add(state.getTransactionId());
+            }
+        };
+
+        ParallelJournalReplayer replayer = new ParallelJournalReplayer();
+        for (long txnId = 0; txnId < 30; txnId++) {
+            Assert.assertTrue(replayer.add(createTxnEntity(txnId % 3, txnId)));
+        }
+        Throwable[] errors = replayer.replay(null);
+        Assert.assertTrue(replayer.isEmpty());
+        Assert.assertEquals(30, errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            if (i == 7) {
+                Assert.assertNotNull(errors[i]);
+            } else {
+                Assert.assertNull(errors[i]);
+            }
+        }
+
+        Assert.assertEquals(3, replayedTxns.size());
+        for (Map.Entry<Long, List<Long>> entry : replayedTxns.entrySet()) {
+            long last = -1;
+            for (long txnId : entry.getValue()) {
+                Assert.assertEquals(entry.getKey().longValue(), txnId % 3);
+                Assert.assertTrue(txnId > last);
+                last = txnId;
+            }
+        }
+        Assert.assertEquals(9, replayedTxns.get(1L).size());
+    }
+}
@@ -18,10 +18,14 @@
 package com.starrocks.persist;
 
 import com.starrocks.common.FeConstants;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.IOUtils;
+import com.starrocks.journal.JournalEntity;
 import com.starrocks.meta.MetaContext;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -68,4 +72,46 @@ public class ReplicaPersistInfoTest {
         Assert.assertEquals(0, info.getDataSize());
         Assert.assertEquals(8, info.getRowCount());
     }
+
+    @Test
+    public void testCompactSerialization() throws Exception {
+        ReplicaPersistInfo info = ReplicaPersistInfo.createForAdd(10001, 10002, 10003, 10004, 10005, 10006,
+                10007, 123456, 12, 1024000, 300000, -1, 123456);
+        DataOutputBuffer legacy = new DataOutputBuffer();
+        info.write(legacy);
+        DataOutputBuffer compact = new DataOutputBuffer();
+        info.compact().write(compact);
+        Assert.assertTrue(compact.getLength() * 3 < legacy.getLength());
+
+        ReplicaPersistInfo readInfo = ReplicaPersistInfo.readCompact(
+                new DataInputStream(new ByteArrayInputStream(compact.getData(), 0, compact.getLength())));
+        Assert.assertEquals(info, readInfo);
+        Assert.assertEquals(info.getOpType(), readInfo.getOpType());
+        Assert.assertEquals(info.getSchemaHash(), readInfo.getSchemaHash());
+
+        // read by journal entity
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_UPDATE_REPLICA_V2);
+        entity.setData(info.compact());
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        entity.write(buffer);
+        JournalEntity readEntity = new JournalEntity();
+        readEntity.readFields(new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength())));
+        Assert.assertEquals(info, readEntity.getData());
+    }
+
+    @Test
+    public void testVLong() throws Exception {
+        long[] values = {0, 1, -1, 63, -64, 64, 127, 128, 10001, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        for (long value : values) {
+            IOUtils.writeVLong(buffer, value);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength()));
+        for (long value : values) {
+            Assert.assertEquals(value, IOUtils.readVLong(in));
+        }
+        Assert.assertEquals(0, in.available());
+    }
 }
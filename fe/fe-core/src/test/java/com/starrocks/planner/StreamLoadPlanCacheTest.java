@@ -0,0 +1,143 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.planner;
+
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.thrift.TBrokerRangeDesc;
+import com.starrocks.thrift.TExecPlanFragmentParams;
+import com.starrocks.thrift.TFileFormatType;
+import com.starrocks.thrift.TFileType;
+import com.starrocks.thrift.TOlapTableSink;
+import com.starrocks.thrift.TStreamLoadPutRequest;
+import com.starrocks.thrift.TUniqueId;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StreamLoadPlanCacheTest {
+    private static ConnectContext connectContext;
+    private static StarRocksAssert starRocksAssert;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        connectContext = UtFrameUtils.createDefaultCtx();
+        starRocksAssert = new StarRocksAssert(connectContext);
+        starRocksAssert.withDatabase("test").useDatabase("test")
+                .withTable("CREATE TABLE test.t0 (k1 int, v1 int) DUPLICATE KEY(k1) " +
+                        "DISTRIBUTED BY HASH(k1) BUCKETS 3 PROPERTIES (\"replication_num\" = \"1\")")
+                .withTable("CREATE TABLE test.t1 (k1 int, v1 varchar(20)) DUPLICATE KEY(k1) " +
+                        "DISTRIBUTED BY HASH(k1) BUCKETS 3 PROPERTIES (\"replication_num\" = \"1\")");
+    }
+
+    @Before
+    public void setUp() {
+        Config.enable_stream_load_plan_cache = true;
+        StreamLoadPlanCache.getInstance().clear();
+    }
+
+    @After
+    public void tearDown() {
+        Config.enable_stream_load_plan_cache = false;
+    }
+
+    private static TStreamLoadPutRequest newRequest(long txnId, TUniqueId loadId, String columns) {
+        return newRequest("t0", txnId, loadId, columns);
+    }
+
+    private static TStreamLoadPutRequest newRequest(String table, long txnId, TUniqueId loadId, String columns) {
+        TStreamLoadPutRequest request = new TStreamLoadPutRequest();
+        request.setUser("root");
+        request.setPasswd("");
+        request.setDb("test");
+        request.setTbl(table);
+        request.setTxnId(txnId);
+        request.setLoadId(loadId);
+        request.setFileType(TFileType.FILE_STREAM);
+        request.setFormatType(TFileFormatType.FORMAT_CSV_PLAIN);
+        request.setColumns(columns);
+        return request;
+    }
+
+    private static void assertLoadIds(TExecPlanFragmentParams params, TUniqueId loadId, long txnId) {
+        Assert.assertEquals(loadId, params.getParams().getQuery_id());
+        for (TBrokerRangeDesc rangeDesc : params.getParams().getPer_node_scan_ranges().values().iterator().next()
+                .get(0).getScan_range().getBroker_scan_range().getRanges()) {
+            Assert.assertEquals(loadId, rangeDesc.getLoad_id());
+        }
+        TOlapTableSink sink = params.getFragment().getOutput_sink().getOlap_table_sink();
+        Assert.assertEquals(loadId, sink.getLoad_id());
+        Assert.assertEquals(txnId, sink.getTxn_id());
+    }
+
+    @Test
+    public void testReusePlan() throws Exception {
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        OlapTable table = (OlapTable) db.getTable("t0");
+        StreamLoadPlanCache cache = StreamLoadPlanCache.getInstance();
+
+        TUniqueId loadId1 = new TUniqueId(1, 1);
+        TExecPlanFragmentParams params1 = cache.plan(db, table, newRequest(100, loadId1, "k1, v1"));
+        Assert.assertEquals(1, cache.size());
+        assertLoadIds(params1, loadId1, 100);
+
+        // same options, the cached plan is filled in with the new load
+        TUniqueId loadId2 = new TUniqueId(2, 2);
+        TExecPlanFragmentParams params2 = cache.plan(db, table, newRequest(101, loadId2, "k1, v1"));
+        Assert.assertEquals(1, cache.size());
+        assertLoadIds(params2, loadId2, 101);
+        assertLoadIds(params1, loadId1, 100);
+        Assert.assertEquals(params1.getDesc_tbl(), params2.getDesc_tbl());
+        Assert.assertEquals(params1.getFragment().getPlan(), params2.getFragment().getPlan());
+        Assert.assertEquals(params1.getFragment().getOutput_sink().getOlap_table_sink().getLocation(),
+                params2.getFragment().getOutput_sink().getOlap_table_sink().getLocation());
+
+        // different column mapping is planned again
+        cache.plan(db, table, newRequest(102, new TUniqueId(3, 3), "v1, k1"));
+        Assert.assertEquals(2, cache.size());
+
+        // a table recreated with a new schema doesn't reuse the plans of the old one
+        starRocksAssert.dropTable("t0");
+        starRocksAssert.withTable("CREATE TABLE test.t0 (k1 int, v1 int, v2 int) DUPLICATE KEY(k1) " +
+                "DISTRIBUTED BY HASH(k1) BUCKETS 3 PROPERTIES (\"replication_num\" = \"1\")");
+        table = (OlapTable) db.getTable("t0");
+        cache.plan(db, table, newRequest(103, new TUniqueId(4, 4), "k1, v1"));
+        Assert.assertEquals(3, cache.size());
+
+        Config.enable_stream_load_plan_cache = false;
+        cache.plan(db, table, newRequest(104, new TUniqueId(5, 5), "k1, v1"));
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testGlobalDictBuiltAfterCached() throws Exception {
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        OlapTable table = (OlapTable) db.getTable("t1");
+        StreamLoadPlanCache cache = StreamLoadPlanCache.getInstance();
+
+        TExecPlanFragmentParams params = cache.plan(db, table, newRequest("t1", 100, new TUniqueId(1, 1), "k1, v1"));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertFalse(params.getFragment().isSetLoad_global_dicts() &&
+                !params.getFragment().getLoad_global_dicts().isEmpty());
+
+        boolean useMockDictManager = FeConstants.USE_MOCK_DICT_MANAGER;
+        FeConstants.USE_MOCK_DICT_MANAGER = true;
+        try {
+            // the global dict of v1 is built, the cached plan without it is not reused
+            params = cache.plan(db, table, newRequest("t1", 101, new TUniqueId(2, 2), "k1, v1"));
+            Assert.assertEquals(0, cache.size());
+            Assert.assertFalse(params.getFragment().getLoad_global_dicts().isEmpty());
+        } finally {
+            FeConstants.USE_MOCK_DICT_MANAGER = useMockDictManager;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FeExecuteCostTest {
+    @Test
+    public void testAccumulate() {
+        FeExecuteCost cost = new FeExecuteCost();
+        cost.add(FeExecuteCost.Phase.PARSE, 100, 1024);
+        cost.add(FeExecuteCost.Phase.PARSE, 50, 1024);
+        cost.add(FeExecuteCost.Phase.DEPLOY, 1000, 4096);
+        // negative deltas are ignored
+        cost.add(FeExecuteCost.Phase.FETCH, -1, -1);
+
+        Assert.assertEquals(150, cost.getCpuCostNs(FeExecuteCost.Phase.PARSE));
+        Assert.assertEquals(2048, cost.getAllocatedBytes(FeExecuteCost.Phase.PARSE));
+        Assert.assertEquals(0, cost.getCpuCostNs(FeExecuteCost.Phase.OPTIMIZE));
+        Assert.assertEquals(1150, cost.getTotalCpuCostNs());
+        Assert.assertEquals(6144, cost.getTotalAllocatedBytes());
+        Assert.assertTrue(cost.toPrettyString().startsWith("Parse: "));
+        Assert.assertTrue(cost.toPrettyString().contains("Deploy: "));
+        Assert.assertFalse(cost.toPrettyString().contains("Optimize"));
+
+        cost.reset();
+        Assert.assertEquals(0, cost.getTotalCpuCostNs());
+        Assert.assertEquals("", cost.toPrettyString());
+    }
+
+    @Test
+    public void testSample() {
+        ConnectContext ctx = new ConnectContext(null);
+        ctx.setThreadLocalInfo();
+        try {
+            long checksum = 0;
+            try (FeExecuteCost.ScopedSampler ignored = FeExecuteCost.sample(FeExecuteCost.Phase.OPTIMIZE)) {
+                // allocate and burn some cpu, the exact amounts depend on the JIT and the scheduler
+                long startNs = System.nanoTime();
+                for (int i = 0; i < 16; i++) {
+                    byte[] bytes = new byte[1024 * 1024];
+                    bytes[i] = (byte) i;
+                    checksum += bytes[i];
+                }
+                while (System.nanoTime() - startNs < 50_000_000L) {
+                    checksum += Long.numberOfTrailingZeros(System.nanoTime());
+                }
+            }
+            Assert.assertTrue(checksum >= 0);
+
+            FeExecuteCost cost = ctx.getFeExecuteCost();
+            if (FeExecuteCost.isCpuTimeSupported()) {
+                Assert.assertTrue(cost.getCpuCostNs(FeExecuteCost.Phase.OPTIMIZE) > 0);
+            }
+            if (FeExecuteCost.isAllocatedBytesSupported()) {
+                Assert.assertTrue(cost.getAllocatedBytes(FeExecuteCost.Phase.OPTIMIZE) > 0);
+            }
+            // the cost is attributed to the sampled phase only
+            Assert.assertEquals(cost.getCpuCostNs(FeExecuteCost.Phase.OPTIMIZE), cost.getTotalCpuCostNs());
+            Assert.assertEquals(cost.getAllocatedBytes(FeExecuteCost.Phase.OPTIMIZE), cost.getTotalAllocatedBytes());
+            Assert.assertEquals(0, cost.getCpuCostNs(FeExecuteCost.Phase.FETCH));
+        } finally {
+            ConnectContext.remove();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.thrift.TUniqueId;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HedgedFetcherTest {
+    private long oldMinDelayMs;
+    private double oldPercentile;
+
+    @Before
+    public void setUp() {
+        oldMinDelayMs = Config.hedged_fetch_min_delay_ms;
+        oldPercentile = Config.hedged_fetch_delay_percentile;
+    }
+
+    @After
+    public void tearDown() {
+        Config.hedged_fetch_min_delay_ms = oldMinDelayMs;
+        Config.hedged_fetch_delay_percentile = oldPercentile;
+    }
+
+    @Test
+    public void testHedgeDelay() {
+        Config.hedged_fetch_min_delay_ms = 10;
+        Config.hedged_fetch_delay_percentile = 0.9;
+        for (int i = 1; i <= 100; i++) {
+            HedgedFetcher.recordFirstBatchLatency(i * 10L);
+        }
+        long delayMs = HedgedFetcher.getHedgeDelayMs();
+        Assert.assertTrue(String.valueOf(delayMs), delayMs >= 800 && delayMs <= 1000);
+
+        // never hedge earlier than the min delay
+        Config.hedged_fetch_min_delay_ms = 5000;
+        Assert.assertEquals(5000, HedgedFetcher.getHedgeDelayMs());
+    }
+
+    @Test
+    public void testBackupWins(@Mocked Coordinator primary, @Mocked Coordinator backup) throws Exception {
+        Config.hedged_fetch_min_delay_ms = 10;
+        Config.hedged_fetch_delay_percentile = 0;
+        RowBatch primaryBatch = new RowBatch();
+        RowBatch backupBatch = new RowBatch();
+        TUniqueId primaryId = new TUniqueId(1, 1);
+        new Expectations() {
+            {
+                primary.getQueryId();
+                result = primaryId;
+                minTimes = 0;
+
+                primary.getNext();
+                result = new Delegate<RowBatch>() {
+                    RowBatch getNext() throws InterruptedException {
+                        // the primary execution is stalled
+                        Thread.sleep(2000);
+                        return primaryBatch;
+                    }
+                };
+
+                backup.setBypassQueryQueue(true);
+                times = 1;
+
+                backup.exec();
+                times = 1;
+
+                backup.getNext();
+                result = backupBatch;
+
+                primary.cancel();
+                times = 1;
+
+                backup.cancel();
+                times = 0;
+            }
+        };
+
+        ConnectContext context = new ConnectContext(null);
+        context.setExecutionId(primaryId);
+        AtomicReference<TUniqueId> backupId = new AtomicReference<>();
+        HedgedFetcher.Result result = HedgedFetcher.fetchFirstBatch(context, primary, id -> {
+            backupId.set(id);
+            return backup;
+        }, "select 1");
+
+        Assert.assertSame(backup, result.getCoordinator());
+        Assert.assertSame(backupBatch, result.getBatch());
+        Assert.assertEquals(backupId.get(), context.getExecutionId());
+        Assert.assertSame(backup, QeProcessorImpl.INSTANCE.getCoordinator(backupId.get()));
+        QeProcessorImpl.INSTANCE.unregisterQuery(backupId.get());
+    }
+
+    @Test
+    public void testBothFail(@Mocked Coordinator primary, @Mocked Coordinator backup) throws Exception {
+        Config.hedged_fetch_min_delay_ms = 10;
+        Config.hedged_fetch_delay_percentile = 0;
+        TUniqueId primaryId = new TUniqueId(2, 2);
+        new Expectations() {
+            {
+                primary.getQueryId();
+                result = primaryId;
+                minTimes = 0;
+
+                primary.getNext();
+                result = new Delegate<RowBatch>() {
+                    RowBatch getNext() throws Exception {
+                        Thread.sleep(500);
+                        throw new UserException("primary failed");
+                    }
+                };
+
+                backup.getNext();
+                result = new UserException("backup failed");
+
+                // the backup execution is always cleaned up, the primary one is left to the caller
+                backup.cancel();
+                times = 1;
+
+                primary.cancel();
+                times = 0;
+            }
+        };
+
+        ConnectContext context = new ConnectContext(null);
+        context.setExecutionId(primaryId);
+        AtomicReference<TUniqueId> backupId = new AtomicReference<>();
+        try {
+            HedgedFetcher.fetchFirstBatch(context, primary, id -> {
+                backupId.set(id);
+                return backup;
+            }, "select 1");
+            Assert.fail("the query should fail");
+        } catch (UserException e) {
+            // expected
+        }
+        Assert.assertNotNull(backupId.get());
+        Assert.assertNull(QeProcessorImpl.INSTANCE.getCoordinator(backupId.get()));
+        Assert.assertEquals(primaryId, context.getExecutionId());
+    }
+
+    @Test
+    public void testNotHedged(@Mocked Coordinator primary) throws Exception {
+        Config.hedged_fetch_min_delay_ms = 10;
+        Config.hedged_fetch_delay_percentile = 0;
+        RowBatch primaryBatch = new RowBatch();
+        new Expectations() {
+            {
+                primary.getNext();
+                result = new Delegate<RowBatch>() {
+                    RowBatch getNext() throws InterruptedException {
+                        Thread.sleep(200);
+                        return primaryBatch;
+                    }
+                };
+            }
+        };
+
+        // the query can't be planned for the backup execution, wait for the primary one
+        ConnectContext context = new ConnectContext(null);
+        HedgedFetcher.Result result = HedgedFetcher.fetchFirstBatch(context, primary, id -> null, "select 1");
+        Assert.assertSame(primary, result.getCoordinator());
+        Assert.assertSame(primaryBatch, result.getBatch());
+    }
+}
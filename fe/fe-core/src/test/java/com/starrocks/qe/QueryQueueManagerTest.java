@@ -0,0 +1,139 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.metric.Metric;
+import com.starrocks.metric.MetricLabel;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.thrift.TUniqueId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class QueryQueueManagerTest {
+    private int oldPendingTimeout;
+
+    @Before
+    public void setUp() {
+        oldPendingTimeout = Config.query_queue_pending_timeout_second;
+    }
+
+    @After
+    public void tearDown() {
+        Config.query_queue_pending_timeout_second = oldPendingTimeout;
+    }
+
+    private ResourceGroup createGroup(String name, int concurrencyLimit) {
+        ResourceGroup group = new ResourceGroup();
+        group.setName(name);
+        group.setConcurrencyLimit(concurrencyLimit);
+        return group;
+    }
+
+    private List<String> findRow(String name) {
+        for (List<String> row : QueryQueueManager.getInstance().getQueueInfos()) {
+            if (row.get(0).equals(name)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        Config.query_queue_pending_timeout_second = 1;
+        ResourceGroup group = createGroup("rg_queue_timeout", 1);
+        ConnectContext ctx = new ConnectContext(null);
+        QueryQueueManager manager = QueryQueueManager.getInstance();
+
+        TUniqueId first = new TUniqueId(1, 1);
+        manager.waitForSlots(ctx, first, group);
+        Assert.assertEquals("1", findRow("rg_queue_timeout").get(2));
+
+        try {
+            manager.waitForSlots(ctx, new TUniqueId(1, 2), group);
+            Assert.fail("should timeout");
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("timeout"));
+        }
+        Assert.assertEquals("0", findRow("rg_queue_timeout").get(3));
+        Assert.assertEquals("1", findRow("rg_queue_timeout").get(7));
+
+        manager.releaseSlots(first);
+        // release twice is harmless
+        manager.releaseSlots(first);
+        Assert.assertEquals("0", findRow("rg_queue_timeout").get(2));
+    }
+
+    @Test
+    public void testWaitAndAdmit() throws Exception {
+        ResourceGroup group = createGroup("rg_queue_admit", 1);
+        QueryQueueManager manager = QueryQueueManager.getInstance();
+
+        TUniqueId first = new TUniqueId(2, 1);
+        manager.waitForSlots(new ConnectContext(null), first, group);
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicLong waitMs = new AtomicLong(-1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        TUniqueId second = new TUniqueId(2, 2);
+        Thread thread = new Thread(() -> {
+            started.countDown();
+            try {
+                waitMs.set(manager.waitForSlots(new ConnectContext(null), second, group));
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        thread.start();
+        started.await();
+        Thread.sleep(200);
+        Assert.assertEquals(-1, waitMs.get());
+
+        manager.releaseSlots(first);
+        thread.join();
+        // Assert.fail in the waiting thread would not fail the test, check its error here
+        Assert.assertNull(error.get());
+        Assert.assertTrue(waitMs.get() >= 0);
+        Assert.assertEquals("1", findRow("rg_queue_admit").get(2));
+        manager.releaseSlots(second);
+    }
+
+    private boolean hasGauge(String groupName) {
+        for (Metric<?> metric : MetricRepo.getMetricsByName("query_queue_running")) {
+            for (MetricLabel label : metric.getLabels()) {
+                if (label.getValue().equals(groupName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testRemoveQueue() throws Exception {
+        ResourceGroup group = createGroup("rg_queue_remove", 1);
+        QueryQueueManager manager = QueryQueueManager.getInstance();
+
+        TUniqueId query = new TUniqueId(3, 1);
+        manager.waitForSlots(new ConnectContext(null), query, group);
+        Assert.assertNotNull(findRow("rg_queue_remove"));
+        Assert.assertTrue(hasGauge("rg_queue_remove"));
+
+        manager.removeQueue("rg_queue_remove");
+        Assert.assertNull(findRow("rg_queue_remove"));
+        Assert.assertFalse(hasGauge("rg_queue_remove"));
+        // the running query of the dropped group still gives back its slots
+        manager.releaseSlots(query);
+        manager.removeQueue("rg_queue_remove");
+    }
+}
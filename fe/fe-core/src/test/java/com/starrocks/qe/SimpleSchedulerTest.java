@@ -22,18 +22,21 @@
 package com.starrocks.qe;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.common.Config;
 import com.starrocks.common.Reference;
 import com.starrocks.persist.EditLog;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
+import com.starrocks.system.BackendLoadStat;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TScanRangeLocation;
 import mockit.Expectations;
 import mockit.Mocked;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -201,4 +204,44 @@ public class SimpleSchedulerTest {
         address = SimpleScheduler.getBackendHost(immutableThreeBackends, ref);
         Assert.assertNull(address);
     }
+
+    @Test
+    public void testSelectReplicaByLoad() {
+        BackendLoadStat.reset();
+        TScanRangeLocation fast = new TScanRangeLocation(new TNetworkAddress("fast", 9060));
+        fast.setBackend_id(200);
+        TScanRangeLocation slow = new TScanRangeLocation(new TNetworkAddress("slow", 9060));
+        slow.setBackend_id(201);
+        List<TScanRangeLocation> locations = Lists.newArrayList(fast, slow);
+
+        BackendLoadStat.onRequestStart(200);
+        BackendLoadStat.onRequestFinish(200, 10);
+        BackendLoadStat.onRequestStart(201);
+        BackendLoadStat.onRequestFinish(201, 1000);
+        // a stalled request on the slow backend makes it even worse
+        BackendLoadStat.onRequestStart(201);
+        Assert.assertEquals(1, BackendLoadStat.getInflight(201));
+        Assert.assertEquals(2000, BackendLoadStat.getScore(201), 0.001);
+
+        Map<TNetworkAddress, Long> assignedPerHost = Maps.newHashMap();
+        Assert.assertSame(fast, SimpleScheduler.selectReplicaByLoad(locations, assignedPerHost));
+        // the fast backend still wins until about score(slow) / score(fast) ranges are assigned to it
+        assignedPerHost.put(fast.server, 100L);
+        Assert.assertSame(fast, SimpleScheduler.selectReplicaByLoad(locations, assignedPerHost));
+        assignedPerHost.put(fast.server, 300L);
+        Assert.assertSame(slow, SimpleScheduler.selectReplicaByLoad(locations, assignedPerHost));
+
+        BackendLoadStat.onRequestFinish(201, 1000);
+        Assert.assertEquals(1000, BackendLoadStat.getEwmaLatencyMs(201), 0.001);
+
+        // an aborted scan leaves the latency unchanged
+        BackendLoadStat.onRequestStart(201);
+        BackendLoadStat.onRequestAbort(201);
+        Assert.assertEquals(0, BackendLoadStat.getInflight(201));
+        Assert.assertEquals(1000, BackendLoadStat.getEwmaLatencyMs(201), 0.001);
+
+        BackendLoadStat.removeBackend(201);
+        Assert.assertEquals(-1, BackendLoadStat.getEwmaLatencyMs(201), 0.001);
+        BackendLoadStat.reset();
+    }
 }
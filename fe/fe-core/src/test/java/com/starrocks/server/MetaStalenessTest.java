@@ -0,0 +1,37 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.server;
+
+import com.starrocks.analysis.RedirectStatus;
+import com.starrocks.ha.FrontendNodeType;
+import mockit.Deencapsulation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetaStalenessTest {
+
+    @Test
+    public void testMetaStaleness() {
+        GlobalStateMgr globalStateMgr = Deencapsulation.newInstance(GlobalStateMgr.class);
+        Deencapsulation.setField(globalStateMgr, "feType", FrontendNodeType.FOLLOWER);
+        // no heartbeat from leader yet
+        Assert.assertEquals(Long.MAX_VALUE, globalStateMgr.getMetaStalenessMs());
+
+        globalStateMgr.setLeaderJournalId(10);
+        Deencapsulation.setField(globalStateMgr, "replayedJournalId", new AtomicLong(9));
+        Assert.assertEquals(Long.MAX_VALUE, globalStateMgr.getMetaStalenessMs());
+
+        Deencapsulation.setField(globalStateMgr, "replayedJournalId", new AtomicLong(10));
+        long staleness = globalStateMgr.getMetaStalenessMs();
+        Assert.assertTrue(staleness >= 0 && staleness < 60000);
+
+        Deencapsulation.setField(globalStateMgr, "feType", FrontendNodeType.LEADER);
+        Assert.assertEquals(0, globalStateMgr.getMetaStalenessMs());
+
+        Assert.assertTrue(RedirectStatus.FORWARD_NO_SYNC_OR_FOLLOWER_READ.isForwardToLeader());
+        Assert.assertTrue(RedirectStatus.FORWARD_NO_SYNC_OR_FOLLOWER_READ.isFollowerReadable());
+        Assert.assertFalse(RedirectStatus.FORWARD_NO_SYNC.isFollowerReadable());
+    }
+}
@@ -0,0 +1,121 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.server;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.io.Text;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save and load an image of several large sections, like databases, transactions and load jobs,
+ * and print the load time of each section.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class SectionedImageBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SectionedImageBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"1", "4", "8"})
+    public int parallelism;
+
+    @Param({"200000"})
+    public int recordsPerSection;
+
+    private File tempDir;
+    private File imageFile;
+    private SectionedImage lastImage;
+
+    @Setup
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory(Paths.get("."), "SectionedImageBench").toFile();
+        imageFile = new File(tempDir, "image.1");
+        createImage().save(imageFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printSectionCost() {
+        if (lastImage != null) {
+            System.out.println("parallelism " + parallelism + ", load ms of sections: " + lastImage.getSectionCostMs());
+        }
+    }
+
+    @Benchmark
+    public void loadImage() throws IOException {
+        lastImage = createImage();
+        lastImage.load(imageFile);
+    }
+
+    private SectionedImage createImage() {
+        SectionedImage image = new SectionedImage(parallelism);
+        List<SectionedImage.Writer> dbWriters = Lists.newArrayList();
+        for (int i = 0; i < parallelism; i++) {
+            dbWriters.add(dos -> writeRecords(dos, recordsPerSection * 4 / parallelism));
+        }
+        image.addGroup("Databases", 1, dbWriters, SectionedImageBench::readRecords);
+        image.add("Transactions", 1, "txn", dos -> writeRecords(dos, recordsPerSection),
+                SectionedImageBench::readRecords);
+        image.add("LoadJobs", 1, "load", dos -> writeRecords(dos, recordsPerSection),
+                SectionedImageBench::readRecords);
+        image.add("Others", 1, "main", dos -> writeRecords(dos, recordsPerSection / 10),
+                SectionedImageBench::readRecords);
+        return image;
+    }
+
+    private static void writeRecords(DataOutputStream dos, int count) throws IOException {
+        dos.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            dos.writeLong(i);
+            Text.writeString(dos, "{\"id\":" + i + ",\"name\":\"record_" + i + "\",\"state\":\"NORMAL\"}");
+        }
+    }
+
+    private static void readRecords(DataInputStream dis) throws IOException {
+        int count = dis.readInt();
+        List<String> records = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            dis.readLong();
+            records.add(Text.readString(dis));
+        }
+    }
+}
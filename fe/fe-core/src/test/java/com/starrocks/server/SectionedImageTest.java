@@ -0,0 +1,119 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.server;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.io.Text;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+public class SectionedImageTest {
+    private File tempDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory(Paths.get("."), "SectionedImageTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    private SectionedImage createImage(List<String> loaded, List<String> values) {
+        SectionedImage image = new SectionedImage(4);
+        image.add("first", 0, "main", dos -> Text.writeString(dos, "first"),
+                dis -> loaded.add(Text.readString(dis)));
+        List<SectionedImage.Writer> writers = Lists.newArrayList();
+        for (String value : values) {
+            writers.add(dos -> Text.writeString(dos, value));
+        }
+        image.addGroup("part", 1, writers, dis -> loaded.add(Text.readString(dis)));
+        image.add("second", 1, "other", dos -> Text.writeString(dos, "second"),
+                dis -> loaded.add(Text.readString(dis)));
+        image.afterPhase(1, () -> loaded.add("after"));
+        image.add("last", 2, "main", dos -> Text.writeString(dos, "last"),
+                dis -> loaded.add(Text.readString(dis)));
+        return image;
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File file = new File(tempDir, "image.100");
+        List<String> values = Lists.newArrayList("a", "b", "c", "d", "e");
+        createImage(Collections.synchronizedList(Lists.newArrayList()), values).save(file);
+        Assert.assertTrue(SectionedImage.isSectionedImage(file));
+        // no tmp file is left
+        Assert.assertEquals(1, tempDir.listFiles().length);
+
+        List<String> loaded = Collections.synchronizedList(Lists.newArrayList());
+        // the parts are loaded by the group reader, whatever the parts are when loading
+        SectionedImage image = createImage(loaded, Lists.newArrayList());
+        image.load(file);
+        Assert.assertEquals(9, loaded.size());
+        Assert.assertEquals("first", loaded.get(0));
+        Assert.assertEquals("after", loaded.get(7));
+        Assert.assertEquals("last", loaded.get(8));
+        Assert.assertTrue(loaded.subList(1, 7).containsAll(values));
+        Assert.assertTrue(loaded.subList(1, 7).contains("second"));
+        Assert.assertEquals(8, image.getSectionCostMs().size());
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        File plainFile = new File(tempDir, "image.200");
+        File compressedFile = new File(tempDir, "image.201");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("compressible content ");
+        }
+        List<String> values = Lists.newArrayList(sb.toString(), sb.toString());
+        createImage(Lists.newArrayList(), values).save(plainFile);
+        createImage(Lists.newArrayList(), values).setCompressed(true).save(compressedFile);
+        Assert.assertTrue(compressedFile.length() * 10 < plainFile.length());
+
+        List<String> loaded = Collections.synchronizedList(Lists.newArrayList());
+        createImage(loaded, Lists.newArrayList()).load(compressedFile);
+        Assert.assertEquals(6, loaded.size());
+        Assert.assertTrue(loaded.contains(sb.toString()));
+    }
+
+    @Test
+    public void testChecksumMismatch() throws IOException {
+        File file = new File(tempDir, "image.101");
+        createImage(Lists.newArrayList(), Lists.newArrayList("a")).save(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // corrupt the content of first section, keep the length of string
+            raf.seek(Integer.BYTES);
+            raf.write('F');
+        }
+        try {
+            createImage(Lists.newArrayList(), Lists.newArrayList()).load(file);
+            Assert.fail("should fail");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("checksum of image section first"));
+        }
+    }
+
+    @Test
+    public void testLegacyImage() throws IOException {
+        File file = new File(tempDir, "image.102");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeInt(-1);
+            raf.writeLong(1024);
+            raf.writeLong(12345);
+        }
+        Assert.assertFalse(SectionedImage.isSectionedImage(file));
+    }
+}
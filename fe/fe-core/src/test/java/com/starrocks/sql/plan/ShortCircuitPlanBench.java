@@ -0,0 +1,88 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse, analyze, optimize and build the fragments of a primary key point lookup on a mocked cluster,
+ * with and without the short circuit, to show the FE planning time of a point lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ShortCircuitPlanBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ShortCircuitPlanBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"false", "true"})
+    public boolean shortCircuit;
+
+    private ConnectContext connectContext;
+    private long key = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        Config.tablet_sched_max_scheduling_tablets = -1;
+        FeConstants.default_scheduler_interval_millisecond = 1;
+        UtFrameUtils.createMinStarRocksCluster();
+        connectContext = UtFrameUtils.createDefaultCtx();
+        StarRocksAssert starRocksAssert = new StarRocksAssert(connectContext);
+        starRocksAssert.withDatabase("test").useDatabase("test");
+        starRocksAssert.withTable("CREATE TABLE `tpk_bench` (\n" +
+                "  `k1` bigint NOT NULL,\n" +
+                "  `k2` varchar(20) NOT NULL,\n" +
+                "  `v1` int NULL,\n" +
+                "  `v2` varchar(20) NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "PRIMARY KEY(`k1`, `k2`)\n" +
+                "DISTRIBUTED BY HASH(`k1`) BUCKETS 16\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+        OlapTable table = (OlapTable) GlobalStateMgr.getCurrentState().getDb("test").getTable("tpk_bench");
+        for (Partition partition : table.getPartitions()) {
+            partition.updateVisibleVersion(2);
+        }
+        connectContext.getSessionVariable().setEnableShortCircuit(shortCircuit);
+    }
+
+    @Benchmark
+    public Object planPointLookup() throws Exception {
+        key++;
+        return UtFrameUtils.getPlanAndFragment(connectContext,
+                "select v1, v2 from tpk_bench where k1 = " + key + " and k2 = 'a'").second;
+    }
+}
@@ -0,0 +1,140 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.GroupExpression;
+import com.starrocks.sql.optimizer.Memo;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.ShortCircuitPlanner;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShortCircuitTest extends PlanTestBase {
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        starRocksAssert.withTable("CREATE TABLE `tpk_point` (\n" +
+                "  `k1` bigint NOT NULL,\n" +
+                "  `k2` varchar(20) NOT NULL,\n" +
+                "  `v1` int NULL,\n" +
+                "  `v2` varchar(20) NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "PRIMARY KEY(`k1`, `k2`)\n" +
+                "DISTRIBUTED BY HASH(`k1`) BUCKETS 3\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        OlapTable table = (OlapTable) db.getTable("tpk_point");
+        for (Partition partition : table.getPartitions()) {
+            partition.updateVisibleVersion(2);
+        }
+        connectContext.getSessionVariable().setEnableShortCircuit(true);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        connectContext.getSessionVariable().setEnableShortCircuit(false);
+        PlanTestBase.afterClass();
+    }
+
+    // count the plans optimized by the memo, the short circuit never initializes it
+    private static AtomicInteger mockMemoInit() {
+        AtomicInteger memoInitCount = new AtomicInteger(0);
+        new MockUp<Memo>() {
+            @Mock
+            public GroupExpression init(Invocation invocation, OptExpression originExpression) {
+                memoInitCount.incrementAndGet();
+                return invocation.proceed(originExpression);
+            }
+        };
+        return memoInitCount;
+    }
+
+    @Test
+    public void testMemoBypassed() throws Exception {
+        AtomicInteger memoInitCount = mockMemoInit();
+        getFragmentPlan("select v1, v2 from tpk_point where k1 = 1 and k2 = 'a'");
+        Assert.assertEquals(0, memoInitCount.get());
+
+        // not all key columns, optimized by the memo
+        getFragmentPlan("select v1 from tpk_point where k1 = 1");
+        Assert.assertEquals(1, memoInitCount.get());
+
+        // the same point lookup with the short circuit disabled
+        connectContext.getSessionVariable().setEnableShortCircuit(false);
+        try {
+            getFragmentPlan("select v1, v2 from tpk_point where k1 = 1 and k2 = 'a'");
+            Assert.assertEquals(2, memoInitCount.get());
+        } finally {
+            connectContext.getSessionVariable().setEnableShortCircuit(true);
+        }
+    }
+
+    @Test
+    public void testPointLookup() throws Exception {
+        String sql = "select v1, v2 from tpk_point where k1 = 1 and k2 = 'a'";
+        String plan = getFragmentPlan(sql);
+        assertContains(plan, "tabletRatio=1/3");
+        assertContains(plan, "PREDICATES: 1: k1 = 1, 2: k2 = 'a'");
+        assertNotContains(plan, "EXCHANGE");
+
+        sql = "select * from tpk_point where 'a' = k2 and k1 = 1";
+        plan = getFragmentPlan(sql);
+        assertContains(plan, "tabletRatio=1/3");
+        assertNotContains(plan, "EXCHANGE");
+    }
+
+    @Test
+    public void testFallbackToFullRewrite() throws Exception {
+        String sql = "select v1, v2 from tpk_point where k1 = 1 and k2 = 'a'";
+        connectContext.getSessionVariable().setEnableShortCircuit(false);
+        String expected;
+        try {
+            expected = getFragmentPlan(sql);
+        } finally {
+            connectContext.getSessionVariable().setEnableShortCircuit(true);
+        }
+
+        // a candidate not pruned to one tablet is planned the same as without the short circuit
+        new MockUp<ShortCircuitPlanner>() {
+            @Mock
+            public boolean canShortCircuit(OptExpression root) {
+                return false;
+            }
+        };
+        AtomicInteger memoInitCount = mockMemoInit();
+        Assert.assertEquals(expected, getFragmentPlan(sql));
+        Assert.assertEquals(1, memoInitCount.get());
+    }
+
+    @Test
+    public void testNotPointLookup() throws Exception {
+        // not all key columns
+        String sql = "select v1 from tpk_point where k1 = 1";
+        String plan = getFragmentPlan(sql);
+        assertContains(plan, "PREDICATES: 1: k1 = 1");
+
+        // range predicate
+        sql = "select v1 from tpk_point where k1 > 1 and k2 = 'a'";
+        plan = getFragmentPlan(sql);
+        assertContains(plan, "tabletRatio=3/3");
+
+        // aggregation
+        sql = "select count(*) from tpk_point where k1 = 1 and k2 = 'a'";
+        plan = getFragmentPlan(sql);
+        assertContains(plan, "count(*)");
+    }
+}
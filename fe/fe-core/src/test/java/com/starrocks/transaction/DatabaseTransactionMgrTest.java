@@ -29,6 +29,7 @@ import com.starrocks.catalog.GlobalStateMgrTestUtil;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeMetaVersion;
+import com.starrocks.common.LabelAlreadyUsedException;
 import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.TimeUtils;
@@ -42,6 +43,7 @@ import org.junit.rules.ExpectedException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -281,4 +283,80 @@ public class DatabaseTransactionMgrTest {
         assertEquals(3, masterDbTransMgr.getTransactionNum());
         assertNull(masterDbTransMgr.unprotectedGetTxnIdsByLabel(GlobalStateMgrTestUtil.testTxnLable1));
     }
+
+    @Test
+    public void testConcurrentBeginWithSameLabel() throws Exception {
+        DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(GlobalStateMgrTestUtil.testDbId1);
+        TransactionState.TxnCoordinator beTransactionSource =
+                new TransactionState.TxnCoordinator(TransactionState.TxnSourceType.BE, "be1");
+        AtomicInteger succeedNum = new AtomicInteger(0);
+        AtomicInteger labelUsedNum = new AtomicInteger(0);
+        List<Thread> loaders = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            loaders.add(new Thread(() -> {
+                try {
+                    masterDbTransMgr.beginTransaction(Lists.newArrayList(GlobalStateMgrTestUtil.testTableId1),
+                            "concurrent_label", null, beTransactionSource,
+                            TransactionState.LoadJobSourceType.BACKEND_STREAMING, -1,
+                            Config.stream_load_default_timeout_second);
+                    succeedNum.incrementAndGet();
+                } catch (LabelAlreadyUsedException e) {
+                    labelUsedNum.incrementAndGet();
+                } catch (Exception e) {
+                    // fail below
+                }
+            }));
+        }
+        for (Thread loader : loaders) {
+            loader.start();
+        }
+        for (Thread loader : loaders) {
+            loader.join();
+        }
+        assertEquals(1, succeedNum.get());
+        assertEquals(9, labelUsedNum.get());
+        assertEquals(TransactionStatus.PREPARE, masterDbTransMgr.getLabelState("concurrent_label"));
+        assertEquals(3, masterDbTransMgr.getRunningTxnNums());
+    }
+
+    @Test
+    public void testConcurrentBeginWithRunningTxnLimit() throws Exception {
+        DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(GlobalStateMgrTestUtil.testDbId1);
+        TransactionState.TxnCoordinator beTransactionSource =
+                new TransactionState.TxnCoordinator(TransactionState.TxnSourceType.BE, "be1");
+        int oldLimit = Config.max_running_txn_num_per_db;
+        Config.max_running_txn_num_per_db = masterDbTransMgr.getRunningTxnNums() + 5;
+        try {
+            AtomicInteger succeedNum = new AtomicInteger(0);
+            AtomicInteger rejectedNum = new AtomicInteger(0);
+            List<Thread> loaders = Lists.newArrayList();
+            for (int i = 0; i < 20; i++) {
+                String label = "limited_label_" + i;
+                loaders.add(new Thread(() -> {
+                    try {
+                        masterDbTransMgr.beginTransaction(Lists.newArrayList(GlobalStateMgrTestUtil.testTableId1),
+                                label, null, beTransactionSource,
+                                TransactionState.LoadJobSourceType.BACKEND_STREAMING, -1,
+                                Config.stream_load_default_timeout_second);
+                        succeedNum.incrementAndGet();
+                    } catch (BeginTransactionException e) {
+                        rejectedNum.incrementAndGet();
+                    } catch (Exception e) {
+                        // fail below
+                    }
+                }));
+            }
+            for (Thread loader : loaders) {
+                loader.start();
+            }
+            for (Thread loader : loaders) {
+                loader.join();
+            }
+            assertEquals(5, succeedNum.get());
+            assertEquals(15, rejectedNum.get());
+            assertEquals(Config.max_running_txn_num_per_db, masterDbTransMgr.getRunningTxnNums());
+        } finally {
+            Config.max_running_txn_num_per_db = oldLimit;
+        }
+    }
 }
@@ -509,6 +509,52 @@ public class GlobalTransactionMgrTest {
         assertTrue(GlobalStateMgrTestUtil.compareState(masterGlobalStateMgr, slaveGlobalStateMgr));
     }
 
+    @Test
+    public void testFinishTransactionBatch() throws UserException {
+        List<Long> transactionIds = Lists.newArrayList();
+        List<String> labels = Lists.newArrayList(GlobalStateMgrTestUtil.testTxnLable1, GlobalStateMgrTestUtil.testTxnLable2);
+        for (String label : labels) {
+            long transactionId = masterTransMgr
+                    .beginTransaction(GlobalStateMgrTestUtil.testDbId1,
+                            Lists.newArrayList(GlobalStateMgrTestUtil.testTableId1), label, transactionSource,
+                            LoadJobSourceType.FRONTEND, Config.stream_load_default_timeout_second);
+            List<TabletCommitInfo> transTablets = Lists.newArrayList(
+                    new TabletCommitInfo(GlobalStateMgrTestUtil.testTabletId1, GlobalStateMgrTestUtil.testBackendId1),
+                    new TabletCommitInfo(GlobalStateMgrTestUtil.testTabletId1, GlobalStateMgrTestUtil.testBackendId2),
+                    new TabletCommitInfo(GlobalStateMgrTestUtil.testTabletId1, GlobalStateMgrTestUtil.testBackendId3));
+            masterTransMgr.commitTransaction(GlobalStateMgrTestUtil.testDbId1, transactionId, transTablets);
+            transactionIds.add(transactionId);
+        }
+        List<TransactionState> transactionStates = Lists.newArrayList();
+        for (long transactionId : transactionIds) {
+            TransactionState transactionState = fakeEditLog.getTransaction(transactionId);
+            assertEquals(TransactionStatus.COMMITTED, transactionState.getTransactionStatus());
+            transactionStates.add(transactionState);
+        }
+
+        // the second transaction has to wait for the first one on the same partition
+        masterTransMgr.finishTransactionBatch(GlobalStateMgrTestUtil.testDbId1, transactionStates, Maps.newHashMap());
+        for (TransactionState transactionState : transactionStates) {
+            assertEquals(TransactionStatus.VISIBLE, transactionState.getTransactionStatus());
+        }
+        Partition testPartition =
+                masterGlobalStateMgr.getDb(GlobalStateMgrTestUtil.testDbId1).getTable(GlobalStateMgrTestUtil.testTableId1)
+                        .getPartition(GlobalStateMgrTestUtil.testPartition1);
+        assertEquals(GlobalStateMgrTestUtil.testStartVersion + 2, testPartition.getVisibleVersion());
+        LocalTablet tablet = (LocalTablet) testPartition.getIndex(GlobalStateMgrTestUtil.testIndexId1)
+                .getTablet(GlobalStateMgrTestUtil.testTabletId1);
+        for (Replica replica : tablet.getImmutableReplicas()) {
+            assertEquals(GlobalStateMgrTestUtil.testStartVersion + 2, replica.getVersion());
+        }
+
+        // slave replay the states one by one and get the same globalStateMgr
+        FakeGlobalStateMgr.setGlobalStateMgr(slaveGlobalStateMgr);
+        for (TransactionState transactionState : transactionStates) {
+            slaveTransMgr.replayUpsertTransactionState(transactionState);
+        }
+        assertTrue(GlobalStateMgrTestUtil.compareState(masterGlobalStateMgr, slaveGlobalStateMgr));
+    }
+
     @Test
     public void testFinishTransactionWithOneFailed() throws UserException {
         TransactionState transactionState = null;
@@ -0,0 +1,113 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.transaction;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Database;
+import com.starrocks.common.Config;
+import com.starrocks.journal.JournalTask;
+import com.starrocks.persist.EditLog;
+import com.starrocks.server.GlobalStateMgr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Begin and commit transactions of one database from concurrent loaders, and report commits per second
+ * for each loader concurrency. The journal is consumed by a thread which acks every task at once,
+ * so the result shows the cost of the transaction manager itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransactionCommitBench {
+    private static final long DB_ID = 10001L;
+
+    public static void main(String[] args) throws RunnerException {
+        for (int loaderNum : new int[] {1, 8, 16, 32, 50}) {
+            Options opt = new OptionsBuilder()
+                    .include(TransactionCommitBench.class.getSimpleName())
+                    .threads(loaderNum)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+
+    @Param({"1", "16"})
+    public int lockShardNum;
+
+    private final AtomicLong labelId = new AtomicLong(0);
+    private final TransactionState.TxnCoordinator coordinator =
+            new TransactionState.TxnCoordinator(TransactionState.TxnSourceType.BE, "127.0.0.1");
+    private GlobalStateMgr globalStateMgr;
+    private TransactionIdGenerator idGenerator;
+    private Thread journalConsumer;
+    private DatabaseTransactionMgr txnMgr;
+
+    @Setup
+    public void setup() {
+        Config.empty_load_as_error = false;
+        BlockingQueue<JournalTask> journalQueue = new ArrayBlockingQueue<>(Config.metadata_journal_queue_size);
+        EditLog editLog = new EditLog(journalQueue);
+        journalConsumer = new Thread(() -> {
+            try {
+                while (true) {
+                    journalQueue.take().markSucceed();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "journal-consumer");
+        journalConsumer.setDaemon(true);
+        journalConsumer.start();
+
+        globalStateMgr = GlobalStateMgr.getCurrentState();
+        globalStateMgr.setEditLog(editLog);
+        globalStateMgr.getLocalMetastore().unprotectCreateDb(new Database(DB_ID, "bench_db"));
+        idGenerator = new TransactionIdGenerator();
+        idGenerator.setEditLog(editLog);
+    }
+
+    @TearDown
+    public void tearDown() {
+        journalConsumer.interrupt();
+    }
+
+    // committed transactions are kept in memory, so start every iteration with an empty manager
+    @Setup(Level.Iteration)
+    public void createTxnMgr() {
+        Config.txn_lock_shard_num_per_db = lockShardNum;
+        txnMgr = new DatabaseTransactionMgr(DB_ID, globalStateMgr, idGenerator);
+    }
+
+    @Benchmark
+    public VisibleStateWaiter beginAndCommit() throws Exception {
+        // routine load transactions are not limited by max_running_txn_num_per_db
+        long txnId = txnMgr.beginTransaction(Lists.newArrayList(), "label_" + labelId.incrementAndGet(), null,
+                coordinator, TransactionState.LoadJobSourceType.ROUTINE_LOAD_TASK, -1,
+                Config.stream_load_default_timeout_second);
+        return txnMgr.commitTransaction(txnId, Lists.newArrayList(), null);
+    }
+}
@@ -99,8 +99,10 @@ import java.nio.channels.FileLock;
 import java.nio.file.Files;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -667,6 +669,8 @@ public class UtFrameUtils {
         // follower journal queue
         private static BlockingQueue<JournalTask> followerJournalQueue =
                 new ArrayBlockingQueue<>(Config.metadata_journal_queue_size);
+        // the journals taken from follower queue but not replayed yet
+        private static final Deque<DataOutputBuffer> pendingFollowerBuffers = new ArrayDeque<>();
         // constantly move master journal to follower and mark succeed
         private static Thread fakeJournalWriter = null;
 
@@ -699,11 +703,16 @@ public class UtFrameUtils {
         public static synchronized void resetFollowerJournalQueue() throws InterruptedException {
             assert (followerJournalQueue != null);
             followerJournalQueue.clear();
+            pendingFollowerBuffers.clear();
         }
 
         public static synchronized Writable replayNextJournal() throws InterruptedException, IOException {
             assert (followerJournalQueue != null);
-            DataOutputBuffer buffer = followerJournalQueue.take().getBuffer();
+            if (pendingFollowerBuffers.isEmpty()) {
+                // a task may contain several journals
+                pendingFollowerBuffers.addAll(followerJournalQueue.take().getBuffers());
+            }
+            DataOutputBuffer buffer = pendingFollowerBuffers.poll();
             DataInputStream dis = new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength()));
             JournalEntity je = new JournalEntity();
             je.readFields(dis);
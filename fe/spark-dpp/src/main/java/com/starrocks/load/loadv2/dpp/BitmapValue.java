@@ -22,8 +22,6 @@ import org.roaringbitmap.Util;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 
 /**
  * starrocks's own java version bitmap
@@ -50,15 +48,20 @@ public class BitmapValue {
     private long singleValue;
     private Roaring64Map bitmap;
 
-    // for single value serialize and deserialize
-    private ByteBuffer buffer;
-
     public BitmapValue() {
         bitmapType = EMPTY;
+    }
 
-        buffer = ByteBuffer.allocate(8);
-        // be deserializes by little endian
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    // deep copy, the copy doesn't share the bitmap with this one
+    public BitmapValue copy() {
+        BitmapValue copy = new BitmapValue();
+        copy.bitmapType = bitmapType;
+        copy.singleValue = singleValue;
+        if (bitmap != null) {
+            copy.bitmap = new Roaring64Map();
+            copy.bitmap.or(bitmap);
+        }
+        return copy;
     }
 
     public void add(int value) {
@@ -120,17 +123,14 @@ public class BitmapValue {
                 output.writeByte(EMPTY);
                 break;
             case SINGLE_VALUE:
-                buffer.clear();
-                // is 32-bit enough
+                // is 32-bit enough, be deserializes the value by little endian
                 if (isLongValue32bitEnough(singleValue)) {
                     output.writeByte(SINGLE32);
-                    buffer.putInt((int) singleValue);
+                    output.writeInt(Integer.reverseBytes((int) singleValue));
                 } else {
                     output.writeByte(SINGLE64);
-                    buffer.putLong(singleValue);
+                    output.writeLong(Long.reverseBytes(singleValue));
                 }
-                buffer.flip();
-                output.write(buffer.array(), 0, buffer.limit());
                 break;
             case BITMAP_VALUE:
                 bitmap.serialize(output);
@@ -140,27 +140,16 @@ public class BitmapValue {
 
     public void deserialize(DataInput input) throws IOException {
         clear();
-        byte[] bytes;
         int bitmapType = input.readByte();
         switch (bitmapType) {
             case EMPTY:
                 break;
             case SINGLE32:
-                bytes = new byte[4];
-                input.readFully(bytes);
-                buffer.clear();
-                buffer.put(bytes);
-                buffer.flip();
-                singleValue = Util.toUnsignedLong(buffer.getInt());
+                singleValue = Util.toUnsignedLong(Integer.reverseBytes(input.readInt()));
                 this.bitmapType = SINGLE_VALUE;
                 break;
             case SINGLE64:
-                bytes = new byte[8];
-                input.readFully(bytes);
-                buffer.clear();
-                buffer.put(bytes);
-                buffer.flip();
-                singleValue = buffer.getLong();
+                singleValue = Long.reverseBytes(input.readLong());
                 this.bitmapType = SINGLE_VALUE;
                 break;
             case BITMAP32:
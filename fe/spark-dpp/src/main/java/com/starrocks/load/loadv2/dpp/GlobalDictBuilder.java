@@ -21,17 +21,19 @@ import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.sql.AnalysisException;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalog.Column;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -53,9 +55,9 @@ import java.util.stream.Collectors;
  * usage example
  * step1,create a intermediate hive table
  * GlobalDictBuilder.createHiveIntermediateTable()
- * step2, get distinct column's value
+ * step2, get distinct column's value, all distinct columns are extracted by one scan
  * GlobalDictBuilder.extractDistinctColumn()
- * step3, build global dict
+ * step3, build global dict, only the new distinct values are appended to the dict
  * GlobalDictBuilder.buildGlobalDict()
  * step4, encode intermediate hive table with global dict
  * GlobalDictBuilder.encodeStarRocksIntermediateHiveTable()
@@ -95,15 +97,9 @@ public class GlobalDictBuilder {
     // key=starrocks column name,value=column type
     private Map<String, String> starrocksColumnNameTypeMap = new HashMap<>();
 
-    // column in this list means need split distinct value and then encode respectively
-    // to avoid the performance bottleneck to transfer origin value to dict value
-    private List<String> veryHighCardinalityColumn;
-    // determine the split num of new distinct value,better can be divisible by 1
-    private int veryHighCardinalityColumnSplitNum;
-
     private ExecutorService pool;
 
-    private StructType distinctValueSchema;
+    private StructType dictValueSchema;
 
     public GlobalDictBuilder(MultiValueMap dictColumn,
                              List<String> intermediateTableColumnList,
@@ -115,8 +111,6 @@ public class GlobalDictBuilder {
                              String globalDictTableName,
                              String starrocksIntermediateHiveTable,
                              int buildConcurrency,
-                             List<String> veryHighCardinalityColumn,
-                             int veryHighCardinalityColumnSplitNum,
                              SparkSession spark) {
         this.dictColumn = dictColumn;
         this.intermediateTableColumnList = intermediateTableColumnList;
@@ -128,8 +122,6 @@ public class GlobalDictBuilder {
         this.starrocksIntermediateHiveTable = starrocksIntermediateHiveTable;
         this.spark = spark;
         this.pool = Executors.newFixedThreadPool(buildConcurrency < 0 ? 1 : buildConcurrency);
-        this.veryHighCardinalityColumn = veryHighCardinalityColumn;
-        this.veryHighCardinalityColumnSplitNum = veryHighCardinalityColumnSplitNum;
 
         spark.sql("use " + starrocksHiveDB);
     }
@@ -181,16 +173,15 @@ public class GlobalDictBuilder {
         spark.sql(getCreateDistinctKeyTableSql());
 
         // extract distinct column
-        List<GlobalDictBuildWorker> workerList = new ArrayList<>();
         // For the column in dictColumns's valueSet, their value is a subset of column in keyset,
         // so we don't need to extract distinct value of column in valueSet
-        for (Object column : dictColumn.keySet()) {
-            workerList.add(() -> {
-                spark.sql(getInsertDistinctKeyTableSql(column.toString(), starrocksIntermediateHiveTable));
-            });
+        if (dictColumn.isEmpty()) {
+            return;
         }
-
-        submitWorker(workerList);
+        // the partitions of all dict columns are written by one insert with dynamic partitions
+        spark.sql("set hive.exec.dynamic.partition=true");
+        spark.sql("set hive.exec.dynamic.partition.mode=nonstrict");
+        spark.sql(getInsertDistinctKeyTableSql(starrocksIntermediateHiveTable));
     }
 
     public void buildGlobalDict() throws ExecutionException, InterruptedException {
@@ -223,15 +214,7 @@ public class GlobalDictBuilder {
                             distinctColumnNameTmp));
                 }
 
-                if (veryHighCardinalityColumn.contains(distinctColumnNameTmp) &&
-                        veryHighCardinalityColumnSplitNum > 1) {
-                    // split distinct key first and then encode with count
-                    buildGlobalDictBySplit(maxDictValue, distinctColumnNameTmp);
-                } else {
-                    // build global dict directly
-                    spark.sql(getBuildGlobalDictSql(maxDictValue, distinctColumnNameTmp));
-                }
-
+                appendNewDictValue(maxDictValue, distinctColumnNameTmp);
             });
         }
         submitWorker(globalDictBuildWorkers);
@@ -282,13 +265,17 @@ public class GlobalDictBuilder {
                 "(dict_key string) partitioned by (dict_column string) stored as sequencefile ";
     }
 
-    private String getInsertDistinctKeyTableSql(String distinctColumnName, String sourceHiveTable) {
+    // stack() turns a row of the source table into a (dict_column, dict_key) row per dict column,
+    // so that the distinct values of all dict columns are extracted by one scan instead of one scan per column
+    private String getInsertDistinctKeyTableSql(String sourceHiveTable) {
         StringBuilder sql = new StringBuilder();
-        sql.append("insert overwrite table ").append(distinctKeyTableName)
-                .append(" partition(dict_column='").append(distinctColumnName).append("')")
-                .append(" select ").append(distinctColumnName)
-                .append(" from ").append(sourceHiveTable)
-                .append(" group by ").append(distinctColumnName);
+        sql.append("insert overwrite table ").append(distinctKeyTableName).append(" partition(dict_column)")
+                .append(" select dict_key, dict_column from (select stack(").append(dictColumn.keySet().size());
+        for (Object column : dictColumn.keySet()) {
+            sql.append(", '").append(column).append("', ").append(column);
+        }
+        sql.append(") as (dict_column, dict_key) from ").append(sourceHiveTable).append(") t")
+                .append(" group by dict_column, dict_key");
         return sql.toString();
     }
 
@@ -302,81 +289,47 @@ public class GlobalDictBuilder {
                 " where dict_column='" + distinctColumnName + "'";
     }
 
-    private void buildGlobalDictBySplit(long maxGlobalDictValue, String distinctColumnName) {
-        // 1. get distinct value
-        Dataset<Row> newDistinctValue = spark.sql(getNewDistinctValue(distinctColumnName));
-
-        // 2. split the newDistinctValue to avoid window functions' single node bottleneck
-        Dataset<Row>[] splitedDistinctValue = newDistinctValue.randomSplit(getRandomSplitWeights());
-        long currentMaxDictValue = maxGlobalDictValue;
-        Map<String, Long> distinctKeyMap = new HashMap<>();
-
-        for (int i = 0; i < splitedDistinctValue.length; i++) {
-            long currentDatasetStartDictValue = currentMaxDictValue;
-            long splitDistinctValueCount = splitedDistinctValue[i].count();
-            currentMaxDictValue += splitDistinctValueCount;
-            String tmpDictTableName =
-                    String.format("%s_%s_tmp_dict_%s", i, currentDatasetStartDictValue, distinctColumnName);
-            distinctKeyMap.put(tmpDictTableName, currentDatasetStartDictValue);
-            Dataset<Row> distinctValueFrame =
-                    spark.createDataFrame(splitedDistinctValue[i].toJavaRDD(), getDistinctValueSchema());
-            distinctValueFrame.createOrReplaceTempView(tmpDictTableName);
+    // The distinct values which are not in the dict yet are numbered from maxGlobalDictValue + 1 and appended to the
+    // partition of the dict column, the existing dict values are neither read back nor rewritten.
+    // zipWithIndex numbers the values partition by partition instead of in one task like row_number() over().
+    private void appendNewDictValue(long maxGlobalDictValue, String distinctColumnName) {
+        // persisted since zipWithIndex computes the values once to count every partition
+        Dataset<Row> newDistinctValue = spark.sql(getNewDistinctValue(distinctColumnName))
+                .persist(StorageLevel.MEMORY_AND_DISK());
+        try {
+            JavaRDD<Row> newDictValue = newDistinctValue.toJavaRDD().zipWithIndex()
+                    .map(keyAndIndex -> RowFactory.create(keyAndIndex._1().getString(0),
+                            keyAndIndex._2() + maxGlobalDictValue + 1));
+            String tmpDictTableName = "tmp_dict_" + distinctColumnName;
+            spark.createDataFrame(newDictValue, getDictValueSchema()).createOrReplaceTempView(tmpDictTableName);
+            spark.sql(getAppendGlobalDictSql(tmpDictTableName, distinctColumnName));
+        } finally {
+            newDistinctValue.unpersist();
         }
-
-        spark.sql(getSplitBuildGlobalDictSql(distinctKeyMap, distinctColumnName));
-
     }
 
-    private String getSplitBuildGlobalDictSql(Map<String, Long> distinctKeyMap, String distinctColumnName) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("insert overwrite table ").append(globalDictTableName).append(" partition(dict_column='")
-                .append(distinctColumnName).append("') ")
-                .append(" select dict_key,dict_value from ").append(globalDictTableName).append(" where dict_column='")
-                .append(distinctColumnName).append("' ");
-        for (Map.Entry<String, Long> entry : distinctKeyMap.entrySet()) {
-            sql.append(" union all select dict_key, (row_number() over(order by dict_key)) ")
-                    .append(String.format(" +(%s) as dict_value from %s", entry.getValue(), entry.getKey()));
-        }
-        return sql.toString();
+    private String getAppendGlobalDictSql(String tmpDictTableName, String distinctColumnName) {
+        return "insert into table " + globalDictTableName + " partition(dict_column='" + distinctColumnName + "') "
+                + " select dict_key, dict_value from " + tmpDictTableName;
     }
 
-    private StructType getDistinctValueSchema() {
-        if (distinctValueSchema == null) {
+    private StructType getDictValueSchema() {
+        if (dictValueSchema == null) {
             List<StructField> fieldList = new ArrayList<>();
             fieldList.add(DataTypes.createStructField("dict_key", DataTypes.StringType, false));
-            distinctValueSchema = DataTypes.createStructType(fieldList);
+            fieldList.add(DataTypes.createStructField("dict_value", DataTypes.LongType, false));
+            dictValueSchema = DataTypes.createStructType(fieldList);
         }
-        return distinctValueSchema;
-    }
-
-    private double[] getRandomSplitWeights() {
-        double[] weights = new double[veryHighCardinalityColumnSplitNum];
-        double weight = 1 / Double.parseDouble(String.valueOf(veryHighCardinalityColumnSplitNum));
-        Arrays.fill(weights, weight);
-        return weights;
-    }
-
-    private String getBuildGlobalDictSql(long maxGlobalDictValue, String distinctColumnName) {
-        return "insert overwrite table " + globalDictTableName + " partition(dict_column='" + distinctColumnName + "') "
-                + " select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' "
-                + " union all select t1.dict_key as dict_key,(row_number() over(order by t1.dict_key)) + (" +
-                maxGlobalDictValue + ") as dict_value from "
-                + "(select dict_key from " + distinctKeyTableName + " where dict_column='" + distinctColumnName +
-                "' and dict_key is not null)t1 left join "
-                + " (select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' )t2 " +
-                "on t1.dict_key = t2.dict_key where t2.dict_value is null";
+        return dictValueSchema;
     }
 
     private String getNewDistinctValue(String distinctColumnName) {
         return "select t1.dict_key from " +
                 " (select dict_key from " + distinctKeyTableName + " where dict_column='" + distinctColumnName +
-                "' and dict_key is not null)t1 left join " +
-                " (select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
+                "' and dict_key is not null)t1 left anti join " +
+                " (select dict_key from " + globalDictTableName + " where dict_column='" +
                 distinctColumnName + "' )t2 " +
-                "on t1.dict_key = t2.dict_key where t2.dict_value is null";
-
+                "on t1.dict_key = t2.dict_key";
     }
 
     private String getEncodeStarRocksIntermediateHiveTableSql(String dictColumn, List<String> childColumn) {
@@ -181,7 +181,7 @@ public final class SparkDpp implements java.io.Serializable {
                         .mapToPair(new EncodeRollupAggregateTableFunction(
                                 getColumnIndexInParentRollup(curNode.keyColumnNames, curNode.valueColumnNames,
                                         curNode.parent.keyColumnNames,
-                                        curNode.parent.valueColumnNames)))
+                                        curNode.parent.valueColumnNames), sparkRDDAggregators))
                         .reduceByKey(new AggregateReduceFunction(sparkRDDAggregators), aggregateConcurrency);
                 return result;
             }
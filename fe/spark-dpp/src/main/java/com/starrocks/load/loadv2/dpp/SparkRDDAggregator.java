@@ -47,8 +47,14 @@ public abstract class SparkRDDAggregator<T> implements Serializable {
         return (T) value;
     }
 
+    // v1 and v2 are owned by the reduce, a mutable value may be merged in place and returned
     abstract T update(T v1, T v2);
 
+    // copy a value which is shared with a persisted parent rollup before it is merged in place
+    T copy(T value) {
+        return value;
+    }
+
     Object finalize(Object value) {
         return value;
     }
@@ -177,9 +183,17 @@ class EncodeRollupAggregateTableFunction
         implements PairFunction<Tuple2<List<Object>, Object[]>, List<Object>, Object[]> {
 
     Pair<Integer[], Integer[]> columnIndexInParentRollup;
+    private SparkRDDAggregator[] valueAggregators;
 
     public EncodeRollupAggregateTableFunction(Pair<Integer[], Integer[]> columnIndexInParentRollup) {
+        this(columnIndexInParentRollup, null);
+    }
+
+    // valueAggregators copy the values of the parent rollup, null if the values are not aggregated
+    public EncodeRollupAggregateTableFunction(Pair<Integer[], Integer[]> columnIndexInParentRollup,
+                                              SparkRDDAggregator[] valueAggregators) {
         this.columnIndexInParentRollup = columnIndexInParentRollup;
+        this.valueAggregators = valueAggregators;
     }
 
     @Override
@@ -209,6 +223,9 @@ class EncodeRollupAggregateTableFunction
             } else {
                 values[i] = parentRollupKeyValuePair._2()[valueColumnIndexMap[i] - parentRollupKeysSize];
             }
+            if (valueAggregators != null) {
+                values[i] = valueAggregators[i].copy(values[i]);
+            }
         }
         return new Tuple2<>(keys, values);
     }
@@ -222,13 +239,13 @@ class AggregateReduceFunction implements Function2<Object[], Object[], Object[]>
         this.valueAggregators = sparkDppAggregators;
     }
 
+    // the values of a key are merged into v1, which is owned by the reduce
     @Override
     public Object[] call(Object[] v1, Object[] v2) throws Exception {
-        Object[] result = new Object[valueAggregators.length];
         for (int i = 0; i < v1.length; i++) {
-            result[i] = valueAggregators[i].update(v1[i], v2[i]);
+            v1[i] = valueAggregators[i].update(v1[i], v2[i]);
         }
-        return result;
+        return v1;
     }
 }
 
@@ -267,14 +284,24 @@ class BitmapUnionAggregator extends SparkRDDAggregator<BitmapValue> {
 
     @Override
     BitmapValue update(BitmapValue v1, BitmapValue v2) {
-        BitmapValue newBitmapValue = new BitmapValue();
-        if (v1 != null) {
-            newBitmapValue.or(v1);
+        if (v1 == null) {
+            return v2 == null ? new BitmapValue() : v2;
         }
-        if (v2 != null) {
-            newBitmapValue.or(v2);
+        if (v2 == null) {
+            return v1;
+        }
+        // merge the smaller one into the other in place
+        if (v1.getBitmapType() != BitmapValue.BITMAP_VALUE && v2.getBitmapType() == BitmapValue.BITMAP_VALUE) {
+            v2.or(v1);
+            return v2;
         }
-        return newBitmapValue;
+        v1.or(v2);
+        return v1;
+    }
+
+    @Override
+    BitmapValue copy(BitmapValue value) {
+        return value == null ? null : value.copy();
     }
 
     @Override
@@ -311,14 +338,23 @@ class HllUnionAggregator extends SparkRDDAggregator<Hll> {
 
     @Override
     Hll update(Hll v1, Hll v2) {
-        Hll newHll = new Hll();
-        if (v1 != null) {
-            newHll.merge(v1);
+        if (v1 == null) {
+            return v2 == null ? new Hll() : v2;
         }
         if (v2 != null) {
-            newHll.merge(v2);
+            v1.merge(v2);
+        }
+        return v1;
+    }
+
+    @Override
+    Hll copy(Hll value) {
+        if (value == null) {
+            return null;
         }
-        return newHll;
+        Hll copy = new Hll();
+        copy.merge(value);
+        return copy;
     }
 
     @Override
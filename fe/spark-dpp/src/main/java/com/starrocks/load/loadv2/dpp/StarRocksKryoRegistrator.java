@@ -18,16 +18,73 @@
 package com.starrocks.load.loadv2.dpp;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import org.apache.spark.serializer.KryoRegistrator;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 /**
  * register etl classes with Kryo when using Kryo serialization.
+ * BitmapValue and Hll are shuffled in the same compact format as they are written to be,
+ * instead of by the reflective field serializer of Kryo.
  */
 public class StarRocksKryoRegistrator implements KryoRegistrator {
 
     @Override
     public void registerClasses(Kryo kryo) {
         kryo.register(Roaring64Map.class);
-        kryo.register(BitmapValue.class);
+        kryo.register(BitmapValue.class, new BitmapValueSerializer());
+        kryo.register(Hll.class, new HllSerializer());
+    }
+
+    static class BitmapValueSerializer extends Serializer<BitmapValue> {
+        @Override
+        public void write(Kryo kryo, Output output, BitmapValue bitmapValue) {
+            try {
+                bitmapValue.serialize(new DataOutputStream(output));
+            } catch (IOException e) {
+                throw new KryoException(e);
+            }
+        }
+
+        @Override
+        public BitmapValue read(Kryo kryo, Input input, Class<BitmapValue> type) {
+            BitmapValue bitmapValue = new BitmapValue();
+            try {
+                bitmapValue.deserialize(new DataInputStream(input));
+            } catch (IOException e) {
+                throw new KryoException(e);
+            }
+            return bitmapValue;
+        }
+    }
+
+    static class HllSerializer extends Serializer<Hll> {
+        @Override
+        public void write(Kryo kryo, Output output, Hll hll) {
+            try {
+                hll.serialize(new DataOutputStream(output));
+            } catch (IOException e) {
+                throw new KryoException(e);
+            }
+        }
+
+        @Override
+        public Hll read(Kryo kryo, Input input, Class<Hll> type) {
+            Hll hll = new Hll();
+            try {
+                if (!hll.deserialize(new DataInputStream(input))) {
+                    throw new KryoException("invalid hll");
+                }
+            } catch (IOException e) {
+                throw new KryoException(e);
+            }
+            return hll;
+        }
     }
 }
@@ -167,8 +167,6 @@ public class SparkEtlJob {
         // others
         List<String> mapSideJoinColumns = Lists.newArrayList();
         int buildConcurrency = 1;
-        List<String> veryHighCardinalityColumn = Lists.newArrayList();
-        int veryHighCardinalityColumnSplitNum = 1;
 
         LOG.info("global dict builder args, dictColumnMap: " + dictColumnMap
                 + ", intermediateTableColumnList: " + intermediateTableColumnList
@@ -182,7 +180,7 @@ public class SparkEtlJob {
                     dictColumnMap, intermediateTableColumnList, mapSideJoinColumns, sourceHiveDBTableName,
                     sourceHiveFilter, starrocksHiveDB, distinctKeyTableName, globalDictTableName,
                     starrocksIntermediateHiveTable,
-                    buildConcurrency, veryHighCardinalityColumn, veryHighCardinalityColumnSplitNum, spark);
+                    buildConcurrency, spark);
             globalDictBuilder.checkGlobalDictTableName(dorisGlobalDictTableName);
             globalDictBuilder.createHiveIntermediateTable();
             globalDictBuilder.extractDistinctColumn();
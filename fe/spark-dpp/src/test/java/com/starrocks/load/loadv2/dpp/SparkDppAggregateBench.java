@@ -0,0 +1,103 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.google.common.collect.Lists;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate bitmap and hll columns of a base index by a local spark, the same way as SparkDpp does,
+ * to measure the shuffle of the values by kryo and the merge of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class SparkDppAggregateBench {
+
+    private static final int PARTITIONS = 4;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SparkDppAggregateBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"1000000"})
+    public int rows;
+
+    // few keys make large bitmaps, many keys make many single values
+    @Param({"1000", "100000"})
+    public int keys;
+
+    private JavaSparkContext sparkContext;
+    private JavaPairRDD<List<Object>, Object[]> sourceRDD;
+    private SparkRDDAggregator[] aggregators;
+
+    @Setup
+    public void setup() {
+        SparkConf conf = new SparkConf()
+                .setMaster("local[" + PARTITIONS + "]")
+                .setAppName("SparkDppAggregateBench")
+                .set("spark.ui.enabled", "false")
+                .set("spark.serializer", "org.apache.spark.serializer.KryoSerializer")
+                .set("spark.kryo.registrator", StarRocksKryoRegistrator.class.getName());
+        sparkContext = new JavaSparkContext(conf);
+        aggregators = new SparkRDDAggregator[] {new BitmapUnionAggregator(), new HllUnionAggregator()};
+
+        // locals, so that the functions don't capture the benchmark
+        int numKeys = keys;
+        int rowsPerPartition = rows / PARTITIONS;
+        List<Integer> partitions = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions.add(i);
+        }
+        sourceRDD = sparkContext.parallelize(partitions, PARTITIONS).flatMapToPair(partition -> {
+            List<Tuple2<List<Object>, Object[]>> partitionRows = new ArrayList<>(rowsPerPartition);
+            for (int i = 0; i < rowsPerPartition; i++) {
+                long value = (long) partition * rowsPerPartition + i;
+                List<Object> keyColumns = Lists.newArrayList("1_0", value % numKeys);
+                partitionRows.add(new Tuple2<>(keyColumns, new Object[] {value, value}));
+            }
+            return partitionRows.iterator();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sparkContext.stop();
+    }
+
+    @Benchmark
+    public long aggregate() {
+        return sourceRDD.mapToPair(new EncodeBaseAggregateTableFunction(aggregators))
+                .reduceByKey(new AggregateReduceFunction(aggregators), PARTITIONS)
+                .count();
+    }
+}
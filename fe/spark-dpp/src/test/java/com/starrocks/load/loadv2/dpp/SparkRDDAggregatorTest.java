@@ -2,8 +2,13 @@
 
 package com.starrocks.load.loadv2.dpp;
 
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
+import scala.Tuple2;
+
+import java.util.List;
 
 public class SparkRDDAggregatorTest {
 
@@ -33,4 +38,49 @@ public class SparkRDDAggregatorTest {
         Hll value = aggregator.init(null);
         Assert.assertEquals(Hll.HLL_DATA_EMPTY, value.getType());
     }
+
+    @Test
+    public void testAggregateReduceInPlace() throws Exception {
+        BitmapUnionAggregator bitmapAggregator = new BitmapUnionAggregator();
+        HllUnionAggregator hllAggregator = new HllUnionAggregator();
+        AggregateReduceFunction reduceFunction =
+                new AggregateReduceFunction(new SparkRDDAggregator[] {bitmapAggregator, hllAggregator});
+
+        Object[] v1 = new Object[] {bitmapAggregator.init(1), hllAggregator.init(1)};
+        Object[] v2 = new Object[] {bitmapAggregator.init(2), hllAggregator.init(2)};
+        Object[] result = reduceFunction.call(v1, v2);
+        Assert.assertSame(v1, result);
+        Assert.assertEquals("{1,2}", result[0].toString());
+        Assert.assertEquals(2, ((Hll) result[1]).estimateCardinality());
+
+        // the single value is merged into the bitmap
+        BitmapValue bitmap = bitmapAggregator.init(3);
+        bitmap.add(4);
+        result = reduceFunction.call(new Object[] {bitmapAggregator.init(5), null},
+                new Object[] {bitmap, hllAggregator.init(null)});
+        Assert.assertSame(bitmap, result[0]);
+        Assert.assertEquals("{3,4,5}", result[0].toString());
+        Assert.assertEquals(0, ((Hll) result[1]).estimateCardinality());
+    }
+
+    @Test
+    public void testEncodeRollupCopiesParentValue() throws Exception {
+        BitmapUnionAggregator aggregator = new BitmapUnionAggregator();
+        BitmapValue parentValue = aggregator.init(1);
+        parentValue.add(2);
+        List<Object> parentKeys = Lists.newArrayList("1_1", 10);
+        Tuple2<List<Object>, Object[]> parentRow = new Tuple2<>(parentKeys, new Object[] {parentValue});
+
+        EncodeRollupAggregateTableFunction function = new EncodeRollupAggregateTableFunction(
+                Pair.of(new Integer[] {0}, new Integer[] {1}), new SparkRDDAggregator[] {aggregator});
+        Tuple2<List<Object>, Object[]> childRow = function.call(parentRow);
+        Assert.assertEquals(parentKeys, childRow._1());
+        Assert.assertNotSame(parentValue, childRow._2()[0]);
+
+        // merging into the child value in place doesn't change the value of the parent rollup
+        Object[] merged = new AggregateReduceFunction(new SparkRDDAggregator[] {aggregator})
+                .call(childRow._2(), new Object[] {aggregator.init(3)});
+        Assert.assertEquals("{1,2,3}", merged[0].toString());
+        Assert.assertEquals("{1,2}", parentValue.toString());
+    }
 }
@@ -0,0 +1,66 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StarRocksKryoRegistratorTest {
+
+    private Kryo kryo;
+
+    @Before
+    public void setUp() {
+        kryo = new Kryo();
+        new StarRocksKryoRegistrator().registerClasses(kryo);
+    }
+
+    private <T> T roundTrip(T value, Class<T> type) {
+        Output output = new Output(64, -1);
+        kryo.writeObject(output, value);
+        // the value is followed by another one in a shuffle block
+        kryo.writeObject(output, value);
+        Input input = new Input(output.toBytes());
+        kryo.readObject(input, type);
+        T result = kryo.readObject(input, type);
+        Assert.assertTrue(input.eof());
+        return result;
+    }
+
+    @Test
+    public void testBitmapValue() {
+        BitmapValue bitmapValue = new BitmapValue();
+        Assert.assertEquals(bitmapValue, roundTrip(bitmapValue, BitmapValue.class));
+
+        bitmapValue.add(1);
+        Assert.assertEquals(bitmapValue, roundTrip(bitmapValue, BitmapValue.class));
+
+        BitmapValue single64 = new BitmapValue();
+        single64.add(Long.MAX_VALUE);
+        Assert.assertEquals(single64, roundTrip(single64, BitmapValue.class));
+
+        bitmapValue.add(Long.MAX_VALUE);
+        for (int i = 0; i < 10000; i++) {
+            bitmapValue.add(i * 3);
+        }
+        Assert.assertEquals(bitmapValue, roundTrip(bitmapValue, BitmapValue.class));
+    }
+
+    @Test
+    public void testHll() {
+        Hll hll = new Hll();
+        Assert.assertEquals(0, roundTrip(hll, Hll.class).estimateCardinality());
+
+        hll.updateWithHash(1);
+        Assert.assertEquals(1, roundTrip(hll, Hll.class).estimateCardinality());
+
+        for (int i = 0; i < 10000; i++) {
+            hll.updateWithHash(i);
+        }
+        Assert.assertEquals(hll.estimateCardinality(), roundTrip(hll, Hll.class).estimateCardinality());
+    }
+}
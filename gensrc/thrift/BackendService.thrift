@@ -66,6 +66,19 @@ struct TRoutineLoadTask {
     12: optional TKafkaLoadInfo kafka_load_info
     13: optional InternalService.TExecPlanFragmentParams params
     14: optional PlanNodes.TFileFormatType format
+    // for the job which loads a topic into multiple tables, the plan of each table.
+    // every row is routed to the table named by its route column, and all tables are committed in the txn.
+    15: optional list<TRoutineLoadTablePlan> table_plans
+    // the index of the route column in a csv row
+    16: optional i32 route_column_index
+    17: optional string route_column_separator
+    // the key of the route column in a json row
+    18: optional string route_json_key
+}
+
+struct TRoutineLoadTablePlan {
+    1: optional string tbl
+    2: optional InternalService.TExecPlanFragmentParams params
 }
 
 struct TKafkaMetaProxyRequest {
@@ -103,12 +103,22 @@ struct TReportRequest {
     8: optional i64 tablet_max_compaction_score
     // active workgroup on this backend
     9: optional list<WorkGroup.TWorkGroup> active_workgroups
+    // incremental tablet report: tablets only contains the tablets changed since the tablet report
+    // of base_report_version, and the tablets dropped since then are in removed_tablet_ids
+    10: optional bool incremental_tablet_report
+    11: optional i64 base_report_version
+    12: optional list<Types.TTabletId> removed_tablet_ids
 }
 
 struct TMasterResult {
     // required in V1
     1: required Status.TStatus status
     2: optional list<WorkGroup.TWorkGroupOp> workgroup_ops
+    // the incremental tablet report is rejected or a full reconciliation is due,
+    // the backend should report all the tablets next time
+    3: optional bool need_full_tablet_report
+    // the FE accepts incremental tablet reports, backends never report incrementally to a FE without it
+    4: optional bool support_incremental_tablet_report
 }
 
 // Deprecated